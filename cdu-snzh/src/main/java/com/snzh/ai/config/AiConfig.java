@@ -4,15 +4,12 @@ import com.snzh.ai.domain.properties.AiProperties;
 import com.snzh.ai.tools.AiToolService;
 import dev.langchain4j.agent.tool.ToolSpecification;
 import dev.langchain4j.agent.tool.ToolSpecifications;
-import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.chat.ChatLanguageModel;
 import dev.langchain4j.model.chat.StreamingChatLanguageModel;
 import dev.langchain4j.model.dashscope.QwenChatModel;
 import dev.langchain4j.model.dashscope.QwenStreamingChatModel;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.model.embedding.onnx.allminilml6v2.AllMiniLmL6V2EmbeddingModel;
-import dev.langchain4j.store.embedding.EmbeddingStore;
-import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
@@ -72,15 +69,6 @@ public class AiConfig {
         return new AllMiniLmL6V2EmbeddingModel();
     }
 
-    /**
-     * 配置向量存储（内存版本）
-     */
-    @Bean
-    public EmbeddingStore<TextSegment> embeddingStore() {
-        log.info("初始化向量存储（内存版本）");
-        return new InMemoryEmbeddingStore<>();
-    }
-
     /**
      * 配置AI工具规范列表（用于支持Function Calling）
      */
@@ -0,0 +1,87 @@
+package com.snzh.ai.config;
+
+import com.snzh.ai.domain.properties.AiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author haibara
+ * @description 流式对话专用线程池，线程数即同时进行的流式对话上限，队列满时拒绝而不是无限创建线程。
+ * 线程池的活跃数、排队数、完成数通过 executor.* 指标（name=ai-stream）查看，
+ * 拒绝次数、排队等待与对话耗时通过 snzh.ai.stream.* 指标查看
+ * @since 2025/10/5
+ */
+@Slf4j
+@Component
+public class AiStreamExecutor {
+
+    private static final String EXECUTOR_NAME = "ai-stream";
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+    private final Timer queueWait;
+    private final Timer duration;
+
+    public AiStreamExecutor(AiProperties aiProperties, MeterRegistry meterRegistry) {
+        AiProperties.StreamConfig config = aiProperties.getStream();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(config.getThreads(), config.getThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, EXECUTOR_NAME + "-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+        this.rejected = Counter.builder("snzh.ai.stream.rejected").description("流式对话被拒绝次数")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("snzh.ai.stream.queue.wait").description("流式对话排队等待时间")
+                .register(meterRegistry);
+        this.duration = Timer.builder("snzh.ai.stream.duration").description("流式对话占用线程的时间")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 提交流式对话任务
+     *
+     * @param task 对话任务，结束前一直占用线程
+     * @return 线程与队列均已满被拒绝时返回false
+     */
+    public boolean submit(Runnable task) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                queueWait.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                duration.record(task);
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("流式对话线程池已满，拒绝请求，活跃: {}，排队: {}", executor.getActiveCount(), executor.getQueue().size());
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.snzh.ai.config;
+
+import com.snzh.ai.domain.properties.AiProperties;
+import com.snzh.threadlocal.UserContext;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * @author haibara
+ * @description 工具调用线程池，模型在同一轮返回的多个工具调用并发执行，每个调用单独超时，
+ * 一轮的耗时接近最慢的那个工具。超时的调用会被取消并中断执行线程（队列已满在调用线程执行时也一样）。
+ * 每个调用的耗时只记录一次到 snzh.ai.tool.latency（tool、result 标签）
+ * @since 2025/10/5
+ */
+@Slf4j
+@Component
+public class AiToolExecutor {
+
+    private static final String EXECUTOR_NAME = "ai-tool";
+    private static final String LATENCY = "snzh.ai.tool.latency";
+    private static final String UNKNOWN_TOOL = "unknown";
+
+    private final AiProperties.ToolConfig config;
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 到期取消超时的工具调用
+     */
+    private final ScheduledExecutorService timer;
+
+    /**
+     * 已注册的工具名，模型返回的未知工具名统一记为 unknown，避免指标标签无限增长
+     */
+    private final Set<String> toolNames;
+
+    public AiToolExecutor(AiProperties aiProperties, MeterRegistry meterRegistry,
+                          List<ToolSpecification> toolSpecifications) {
+        this.config = aiProperties.getTool();
+        this.meterRegistry = meterRegistry;
+        this.toolNames = toolSpecifications.stream().map(ToolSpecification::name).collect(Collectors.toSet());
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(config.getThreads(), config.getThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, EXECUTOR_NAME + "-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                AiToolExecutor::runOnCaller);
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, EXECUTOR_NAME + "-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 执行同一轮的所有工具调用
+     * 有副作用的工具在当前线程按顺序执行，其余的并发执行并单独超时
+     *
+     * @param calls 工具调用，按模型返回的顺序
+     * @return 工具结果，与传入顺序一致；超时或异常的调用返回说明文字
+     */
+    public List<String> invokeAll(List<ToolCall> calls) {
+        // 工具（如创建订单）从上下文读取用户ID，带到工具线程中
+        String userId = UserContext.get("userId");
+
+        List<PendingCall> pending = new ArrayList<>(calls.size());
+        for (ToolCall call : calls) {
+            pending.add(isSequential(call) ? null : dispatch(call, userId));
+        }
+
+        List<String> results = new ArrayList<>(calls.size());
+        for (int i = 0; i < calls.size(); i++) {
+            PendingCall call = pending.get(i);
+            results.add(call == null ? invokeSequential(calls.get(i)) : call.await());
+        }
+        return results;
+    }
+
+    private boolean isSequential(ToolCall call) {
+        return config.getSequentialTools().contains(call.name());
+    }
+
+    /**
+     * 提交到线程池并在超时后取消（中断执行线程），队列已满时在调用线程执行，同样按时中断
+     */
+    private PendingCall dispatch(ToolCall call, String userId) {
+        long timeoutMillis = config.timeoutMillis(call.name());
+        Thread caller = Thread.currentThread();
+        AtomicBoolean settled = new AtomicBoolean();
+        FutureTask<String> task = new FutureTask<>(() -> {
+            // 队列已满时由调用线程执行，此时不能清除调用线程自己的上下文
+            boolean pooled = Thread.currentThread() != caller;
+            if (pooled && userId != null) {
+                UserContext.set("userId", userId);
+            }
+            try {
+                return invoke(call, settled);
+            } finally {
+                if (pooled) {
+                    UserContext.clear();
+                }
+            }
+        });
+        ScheduledFuture<?> timeout = timer.schedule(() -> {
+            if (settled.compareAndSet(false, true)) {
+                log.warn("工具调用超时：{}，超时时间：{}ms", call.name(), timeoutMillis);
+                latency(call, "timeout").record(timeoutMillis, TimeUnit.MILLISECONDS);
+                task.cancel(true);
+            }
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+        executor.execute(task);
+        return new PendingCall(call, task, timeout);
+    }
+
+    private String invokeSequential(ToolCall call) {
+        return invoke(call, new AtomicBoolean());
+    }
+
+    /**
+     * 在当前线程执行并计时，已超时的调用不再记录耗时，保证每个调用只记录一次
+     * 返回null是正常结果，只有抛出异常才记为 error
+     */
+    private String invoke(ToolCall call, AtomicBoolean settled) {
+        long start = System.nanoTime();
+        String result = "error";
+        try {
+            String value = call.invoker().get();
+            result = "success";
+            return value;
+        } finally {
+            if (settled.compareAndSet(false, true)) {
+                latency(call, result).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private Timer latency(ToolCall call, String result) {
+        return Timer.builder(LATENCY)
+                .description("AI工具调用耗时")
+                .tag("tool", toolNames.contains(call.name()) ? call.name() : UNKNOWN_TOOL)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    /**
+     * 队列已满时在调用线程执行；超时取消会中断调用线程，执行结束后清除该中断标记
+     */
+    private static void runOnCaller(Runnable runnable, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("工具调用线程池已关闭");
+        }
+        runnable.run();
+        if (runnable instanceof FutureTask<?> task && task.isCancelled()) {
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * 已提交的工具调用
+     */
+    private record PendingCall(ToolCall call, FutureTask<String> task, ScheduledFuture<?> timeout) {
+
+        private String await() {
+            try {
+                return task.get();
+            } catch (CancellationException e) {
+                return String.format("工具调用超时（%s），请稍后重试", call.name());
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.error("工具调用执行异常 - 工具：{}", call.name(), cause);
+                return String.format("工具调用失败（%s）：%s", call.name(), cause.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                task.cancel(true);
+                return String.format("工具调用失败（%s）：%s", call.name(), "调用线程被中断");
+            } finally {
+                timeout.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * 一个待执行的工具调用
+     *
+     * @param name    工具名
+     * @param invoker 执行工具并返回结果文字
+     */
+    public record ToolCall(String name, Supplier<String> invoker) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.snzh.ai.controller;
 
 import com.snzh.ai.domain.dto.AiChatRequestDTO;
+import com.snzh.ai.domain.properties.AiProperties;
 import com.snzh.ai.domain.vo.AiChatResponseVO;
 import com.snzh.ai.domain.vo.AiSessionVO;
 import com.snzh.ai.service.IAiChatService;
@@ -28,6 +29,7 @@ import java.util.List;
 public class AiChatController {
 
     private final IAiChatService aiChatService;
+    private final AiProperties aiProperties;
 
     /**
      * AI对话接口（同步阻塞版）
@@ -48,8 +50,8 @@ public class AiChatController {
     public SseEmitter chatStream(@Valid @RequestBody AiChatRequestDTO request) {
         log.info("收到AI流式对话请求：userId={}, message={}", request.getUserId(), request.getMessage());
         
-        // 创建SseEmitter，超时时间5分钟
-        SseEmitter emitter = new SseEmitter(5 * 60 * 1000L);
+        // 创建SseEmitter，超时时间与流式对话线程的等待时间一致
+        SseEmitter emitter = new SseEmitter(aiProperties.getStream().getTimeoutSeconds() * 1000L);
         
         // 设置超时和完成回调
         emitter.onTimeout(() -> {
@@ -65,7 +67,7 @@ public class AiChatController {
             log.error("流式对话错误：userId={}", request.getUserId(), e);
         });
         
-        // 异步处理对话
+        // 提交到流式对话线程池后立即返回，不占用请求线程
         aiChatService.chatStream(request, emitter);
         
         return emitter;
@@ -4,6 +4,11 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * @author haibara
  * @description AI配置属性
@@ -24,6 +29,26 @@ public class AiProperties {
      */
     private ChatConfig chat = new ChatConfig();
 
+    /**
+     * 流式对话线程池配置
+     */
+    private StreamConfig stream = new StreamConfig();
+
+    /**
+     * 工具调用配置
+     */
+    private ToolConfig tool = new ToolConfig();
+
+    /**
+     * 会话记忆配置
+     */
+    private MemoryConfig memory = new MemoryConfig();
+
+    /**
+     * 知识库向量索引配置
+     */
+    private KnowledgeConfig knowledge = new KnowledgeConfig();
+
     @Data
     public static class LlmConfig {
         /**
@@ -65,5 +90,121 @@ public class AiProperties {
          */
         private Boolean enableStreaming = false;
     }
-}
 
+    @Data
+    public static class StreamConfig {
+        /**
+         * 同时进行的流式对话数量上限（线程数）。
+         * 每个对话从工具调用到流式输出结束都占用一个线程
+         */
+        private Integer threads = 32;
+
+        /**
+         * 等待队列长度，队列已满时直接拒绝并提示用户稍后再试
+         */
+        private Integer queueCapacity = 64;
+
+        /**
+         * 单次流式对话超时时间（秒）
+         */
+        private Integer timeoutSeconds = 300;
+    }
+
+    @Data
+    public static class ToolConfig {
+        /**
+         * 并发执行工具调用的线程数
+         */
+        private Integer threads = 16;
+
+        /**
+         * 等待队列长度，队列已满时由调用线程执行
+         */
+        private Integer queueCapacity = 256;
+
+        /**
+         * 默认的单个工具超时时间（毫秒）
+         */
+        private Long timeoutMillis = 10_000L;
+
+        /**
+         * 按工具名单独配置的超时时间（毫秒）
+         */
+        private Map<String, Long> timeouts = new HashMap<>();
+
+        /**
+         * 有副作用的工具，在调用线程中按顺序执行且不设超时，避免超时后模型重试导致重复执行
+         */
+        private Set<String> sequentialTools = new HashSet<>(Set.of("createOrder"));
+
+        /**
+         * 是否缓存标注了 @CacheableTool 的工具结果
+         */
+        private Boolean cacheEnabled = true;
+
+        /**
+         * 按工具名覆盖的缓存时间（秒），未配置时使用注解上的时间
+         */
+        private Map<String, Long> cacheTtlSeconds = new HashMap<>();
+
+        public long timeoutMillis(String toolName) {
+            return timeouts.getOrDefault(toolName, timeoutMillis);
+        }
+    }
+
+    @Data
+    public static class MemoryConfig {
+        /**
+         * 每次请求携带的会话历史（摘要加最近消息）的token预算，超出时从最早的消息开始丢弃
+         */
+        private Integer historyTokenBudget = 2000;
+
+        /**
+         * Redis中未摘要的历史超过该token数（或条数达到 chat.max-history）时，在回复后异步生成摘要
+         */
+        private Integer summaryTriggerTokens = 3000;
+
+        /**
+         * 生成摘要时保留原文的最近消息条数
+         */
+        private Integer keepRecentMessages = 6;
+
+        /**
+         * 摘要的最大字数
+         */
+        private Integer summaryMaxLength = 300;
+
+        /**
+         * 生成摘要的线程数
+         */
+        private Integer summaryThreads = 2;
+
+        /**
+         * 等待生成摘要的队列长度，队列已满时跳过本次摘要，由下一次回复再触发
+         */
+        private Integer summaryQueueCapacity = 100;
+
+        /**
+         * 会话摘要锁的过期时间（秒），应大于一次摘要调用的耗时，节点宕机后到期自动释放
+         */
+        private Integer summaryLockSeconds = 120;
+    }
+
+    @Data
+    public static class KnowledgeConfig {
+        /**
+         * 向量索引文件路径，启动时直接加载，文档变更后整体原子替换
+         */
+        private String indexFile = "data/ai/knowledge-index.json";
+
+        /**
+         * 文档分段长度（字符）
+         */
+        private Integer segmentSize = 500;
+
+        /**
+         * 相邻分段的重叠长度（字符）
+         */
+        private Integer segmentOverlap = 50;
+    }
+}
@@ -0,0 +1,330 @@
+package com.snzh.ai.knowledge;
+
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.SecureUtil;
+import com.alibaba.fastjson2.JSON;
+import com.snzh.ai.domain.entity.AiKnowledgeDoc;
+import com.snzh.ai.domain.properties.AiProperties;
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.document.DocumentSplitter;
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.document.splitter.DocumentSplitters;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author haibara
+ * @description 知识库向量索引：向量存储与每篇文档的内容摘要、分段摘要一起保存到本地文件，启动时直接加载。
+ * 文档名称与内容摘要不变时跳过；变化时按分段摘要比对，只向量化新增的分段并移除不再存在的分段。
+ * 索引文件记录分段参数与嵌入模型，与当前配置不一致时整体重建。
+ * 每次变更后整体写入临时文件再原子替换，进程中断不会留下半个索引
+ * @since 2025/10/5
+ */
+@Slf4j
+@Component
+public class KnowledgeVectorIndex {
+
+    private static final int SNAPSHOT_VERSION = 2;
+
+    private final EmbeddingModel embeddingModel;
+    private final AiProperties.KnowledgeConfig config;
+    private final DocumentSplitter splitter;
+    private final Path indexFile;
+    private final String embeddingModelName;
+
+    private volatile InMemoryEmbeddingStore<TextSegment> store = new InMemoryEmbeddingStore<>();
+
+    /**
+     * 文档ID -> 已索引的内容
+     */
+    private Map<Long, DocEntry> docs = new HashMap<>();
+
+    public KnowledgeVectorIndex(EmbeddingModel embeddingModel, AiProperties aiProperties) {
+        this.embeddingModel = embeddingModel;
+        this.config = aiProperties.getKnowledge();
+        this.splitter = DocumentSplitters.recursive(config.getSegmentSize(), config.getSegmentOverlap());
+        this.indexFile = Path.of(config.getIndexFile());
+        this.embeddingModelName = embeddingModel.getClass().getName();
+    }
+
+    /**
+     * 从索引文件加载，文件不存在或无法解析时从空索引开始
+     */
+    public synchronized void load() {
+        if (!Files.exists(indexFile)) {
+            log.info("向量索引文件不存在，从空索引开始：{}", indexFile.toAbsolutePath());
+            return;
+        }
+        try {
+            Snapshot snapshot = JSON.parseObject(Files.readString(indexFile, StandardCharsets.UTF_8), Snapshot.class);
+            if (snapshot == null || snapshot.getVersion() == null || snapshot.getVersion() != SNAPSHOT_VERSION
+                    || snapshot.getStore() == null) {
+                log.warn("向量索引文件版本不匹配，从空索引开始：{}", indexFile.toAbsolutePath());
+                return;
+            }
+            if (!config.getSegmentSize().equals(snapshot.getSegmentSize())
+                    || !config.getSegmentOverlap().equals(snapshot.getSegmentOverlap())
+                    || !embeddingModelName.equals(snapshot.getEmbeddingModel())) {
+                log.warn("向量索引文件的分段参数或嵌入模型与当前配置不一致，重建索引：分段{}/{}，模型{}",
+                        snapshot.getSegmentSize(), snapshot.getSegmentOverlap(), snapshot.getEmbeddingModel());
+                return;
+            }
+            this.store = InMemoryEmbeddingStore.fromJson(snapshot.getStore());
+            this.docs = snapshot.getDocs() == null ? new HashMap<>() : new HashMap<>(snapshot.getDocs());
+            log.info("已加载向量索引：{}篇文档，{}个分段", docs.size(), segmentCount());
+        } catch (Exception e) {
+            log.error("向量索引文件加载失败，从空索引开始：{}", indexFile.toAbsolutePath(), e);
+            this.store = new InMemoryEmbeddingStore<>();
+            this.docs = new HashMap<>();
+        }
+    }
+
+    /**
+     * 与数据库中启用的文档对齐：新增或内容变化的文档增量向量化，不再启用的文档移出索引
+     *
+     * @param enabledDocs 启用的文档
+     * @return 重新向量化的分段数
+     */
+    public synchronized int sync(List<AiKnowledgeDoc> enabledDocs) {
+        int embedded = 0;
+        boolean changed = false;
+        Set<Long> enabledIds = new HashSet<>();
+        for (AiKnowledgeDoc doc : enabledDocs) {
+            enabledIds.add(doc.getId());
+            try {
+                int count = index(doc);
+                if (count >= 0) {
+                    embedded += count;
+                    changed = true;
+                }
+            } catch (Exception e) {
+                log.error("文档 [{}] 向量化失败", doc.getDocName(), e);
+            }
+        }
+        List<Long> stale = docs.keySet().stream().filter(id -> !enabledIds.contains(id)).toList();
+        changed |= removeEntries(stale);
+        if (changed) {
+            persist();
+        }
+        return embedded;
+    }
+
+    /**
+     * 新增或更新单篇文档
+     *
+     * @param doc 文档
+     * @return 重新向量化的分段数，内容未变化时返回-1
+     */
+    public synchronized int upsert(AiKnowledgeDoc doc) {
+        int embedded = index(doc);
+        if (embedded >= 0) {
+            persist();
+        }
+        return embedded;
+    }
+
+    /**
+     * 将文档移出索引
+     *
+     * @param docIds 文档ID
+     */
+    public synchronized void remove(Collection<Long> docIds) {
+        if (removeEntries(docIds)) {
+            persist();
+        }
+    }
+
+    /**
+     * 清空索引
+     */
+    public synchronized void clear() {
+        store.removeAll();
+        docs.clear();
+        persist();
+    }
+
+    /**
+     * 检索相似分段
+     */
+    public List<EmbeddingMatch<TextSegment>> findRelevant(Embedding queryEmbedding, int maxResults, double minScore) {
+        return store.findRelevant(queryEmbedding, maxResults, minScore);
+    }
+
+    /**
+     * 按分段摘要比对，只向量化新增的分段。文档名称写在分段元数据中，也计入摘要，改名后重新向量化
+     *
+     * @return 新增的分段数，名称与内容未变化时返回-1
+     */
+    private int index(AiKnowledgeDoc doc) {
+        String docName = StrUtil.nullToEmpty(doc.getDocName());
+        String content = StrUtil.nullToEmpty(doc.getContent());
+        String contentHash = SecureUtil.md5(docName + "\n" + content);
+        DocEntry entry = docs.get(doc.getId());
+        if (entry != null && contentHash.equals(entry.getContentHash())) {
+            return -1;
+        }
+        Map<String, String> previous = entry == null ? Map.of() : entry.getSegments();
+
+        Metadata metadata = Metadata.from("docId", String.valueOf(doc.getId()));
+        metadata.put("docName", docName);
+        // 分段摘要 -> 分段，同一文档内重复的分段只保留一个
+        Map<String, TextSegment> segments = new LinkedHashMap<>();
+        if (StrUtil.isNotBlank(content)) {
+            for (TextSegment segment : splitter.split(Document.from(content, metadata))) {
+                segments.putIfAbsent(SecureUtil.md5(docName + "\n" + segment.text()), segment);
+            }
+        }
+
+        Map<String, String> kept = new LinkedHashMap<>();
+        List<String> addedHashes = new ArrayList<>();
+        List<TextSegment> added = new ArrayList<>();
+        segments.forEach((hash, segment) -> {
+            String embeddingId = previous.get(hash);
+            if (embeddingId != null) {
+                kept.put(hash, embeddingId);
+            } else {
+                addedHashes.add(hash);
+                added.add(segment);
+            }
+        });
+
+        if (!added.isEmpty()) {
+            List<Embedding> embeddings = embeddingModel.embedAll(added).content();
+            List<String> ids = store.addAll(embeddings, added);
+            for (int i = 0; i < ids.size(); i++) {
+                kept.put(addedHashes.get(i), ids.get(i));
+            }
+        }
+        List<String> removedIds = previous.entrySet().stream()
+                .filter(e -> !segments.containsKey(e.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+        if (!removedIds.isEmpty()) {
+            store.removeAll(removedIds);
+        }
+
+        docs.put(doc.getId(), new DocEntry(contentHash, kept));
+        log.info("文档 [{}] 已更新向量索引，共{}个分段，新增{}个，移除{}个",
+                doc.getDocName(), kept.size(), added.size(), removedIds.size());
+        return added.size();
+    }
+
+    /**
+     * 移除文档记录及其分段
+     *
+     * @return 是否有文档被移除，没有分段的空文档也算，需要持久化
+     */
+    private boolean removeEntries(Collection<Long> docIds) {
+        boolean removed = false;
+        List<String> embeddingIds = new ArrayList<>();
+        for (Long docId : docIds) {
+            DocEntry entry = docs.remove(docId);
+            if (entry != null) {
+                removed = true;
+                embeddingIds.addAll(entry.getSegments().values());
+            }
+        }
+        if (!removed) {
+            return false;
+        }
+        if (!embeddingIds.isEmpty()) {
+            store.removeAll(embeddingIds);
+        }
+        log.info("已将文档 {} 移出向量索引，移除{}个分段", docIds, embeddingIds.size());
+        return true;
+    }
+
+    /**
+     * 写入临时文件后原子替换索引文件，写入失败只影响下次启动的加载速度
+     */
+    private void persist() {
+        Snapshot snapshot = new Snapshot(SNAPSHOT_VERSION, config.getSegmentSize(), config.getSegmentOverlap(),
+                embeddingModelName, docs, store.serializeToJson());
+        try {
+            Path dir = indexFile.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path temp = Files.createTempFile(dir, indexFile.getFileName().toString(), ".tmp");
+            try {
+                Files.writeString(temp, JSON.toJSONString(snapshot), StandardCharsets.UTF_8);
+                try {
+                    Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            log.error("向量索引文件写入失败：{}", indexFile.toAbsolutePath(), e);
+        }
+    }
+
+    private int segmentCount() {
+        return docs.values().stream().mapToInt(entry -> entry.getSegments().size()).sum();
+    }
+
+    /**
+     * 单篇文档的索引内容
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DocEntry {
+        /**
+         * 文档名称与内容的摘要
+         */
+        private String contentHash;
+
+        /**
+         * 分段摘要 -> 向量ID
+         */
+        private Map<String, String> segments = new LinkedHashMap<>();
+    }
+
+    /**
+     * 索引文件内容
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Snapshot {
+        private Integer version;
+
+        /**
+         * 生成索引时的分段长度、重叠长度与嵌入模型，与当前配置不一致时重建
+         */
+        private Integer segmentSize;
+        private Integer segmentOverlap;
+        private String embeddingModel;
+
+        private Map<Long, DocEntry> docs;
+
+        /**
+         * InMemoryEmbeddingStore 序列化后的JSON
+         */
+        private String store;
+    }
+}
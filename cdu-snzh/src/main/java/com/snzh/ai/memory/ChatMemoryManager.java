@@ -0,0 +1,433 @@
+package com.snzh.ai.memory;
+
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.fastjson2.JSON;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.snzh.ai.domain.entity.AiChatMessage;
+import com.snzh.ai.domain.properties.AiProperties;
+import com.snzh.ai.mapper.AiChatMessageMapper;
+import com.snzh.enums.RedisKeyManage;
+import com.snzh.enums.StatusEnum;
+import com.snzh.redis.RedisCache;
+import com.snzh.redis.RedisKeyBuild;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author haibara
+ * @description 会话记忆管理：Redis中保存最近的消息原文和较早对话的滚动摘要。
+ * 构建请求时摘要并入系统提示词，最近消息按token预算从最新往前保留；
+ * 回复完成后在独立线程池中检查未摘要的历史，超过阈值时调用模型把较早的消息合并进摘要，
+ * 多节点间通过Redis锁保证同一会话同时只生成一次摘要。
+ * 每次请求的提示词token数（裁剪前后）记录到 snzh.ai.prompt.tokens（stage 标签）
+ * @since 2025/10/5
+ */
+@Slf4j
+@Component
+public class ChatMemoryManager {
+
+    private static final String EXECUTOR_NAME = "ai-memory-summary";
+    private static final String ROLE_USER = "USER";
+    private static final String ROLE_AI = "AI";
+
+    private static final DefaultRedisScript<Long> UNLOCK_SCRIPT = buildScript("lua/cache_load_unlock.lua");
+    private static final DefaultRedisScript<Long> FOLD_SCRIPT = buildScript("lua/ai_chat_summary_fold.lua");
+
+    /** 写入摘要时列表头部发生变化的最大重试次数 */
+    private static final int FOLD_ATTEMPTS = 3;
+    /** 摘要锁已不属于当前节点 */
+    private static final long FOLD_LOCK_LOST = -1L;
+    /** 列表头部已变化 */
+    private static final long FOLD_HEAD_CHANGED = -2L;
+
+    private static final String SUMMARY_SECTION = """
+
+
+            # 之前的对话摘要
+            以下是与该用户较早对话的摘要，回答时结合摘要中的信息，不要向用户提及摘要本身：
+            """;
+
+    private static final String SUMMARY_INSTRUCTION = """
+            你是对话摘要助手。请把【已有摘要】和【新增对话】合并为一段不超过%d字的中文摘要。
+            保留：用户的出行需求、游玩日期、同行人（老人、小孩等）、偏好、已确认的门票与订单信息、尚未解决的问题。
+            不要编造内容，不要包含寒暄，只输出摘要本身。""";
+
+    private final ChatLanguageModel chatModel;
+    private final RedisCache redisCache;
+    private final AiChatMessageMapper messageMapper;
+    private final AiProperties.ChatConfig chatConfig;
+    private final AiProperties.MemoryConfig config;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 已提交摘要任务的会话，本节点同一会话同时只排队一个摘要任务
+     */
+    private final Set<String> summarizing = ConcurrentHashMap.newKeySet();
+
+    private final DistributionSummary promptTokensBefore;
+    private final DistributionSummary promptTokensAfter;
+    private final Counter summarySuccess;
+    private final Counter summaryFailure;
+
+    public ChatMemoryManager(ChatLanguageModel chatModel, RedisCache redisCache, AiChatMessageMapper messageMapper,
+                             AiProperties aiProperties, MeterRegistry meterRegistry) {
+        this.chatModel = chatModel;
+        this.redisCache = redisCache;
+        this.messageMapper = messageMapper;
+        this.chatConfig = aiProperties.getChat();
+        this.config = aiProperties.getMemory();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(config.getSummaryThreads(), config.getSummaryThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(config.getSummaryQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, EXECUTOR_NAME + "-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+        this.promptTokensBefore = promptTokens(meterRegistry, "before");
+        this.promptTokensAfter = promptTokens(meterRegistry, "after");
+        this.summarySuccess = summaryCounter(meterRegistry, "success");
+        this.summaryFailure = summaryCounter(meterRegistry, "failure");
+    }
+
+    /**
+     * 构建发送给模型的消息列表：系统提示词（含摘要）、预算内的最近消息、本次用户消息
+     *
+     * @param sessionId    会话ID
+     * @param systemPrompt 系统提示词
+     * @param userMessage  本次用户消息
+     * @return 可继续追加工具调用消息的列表
+     */
+    public List<ChatMessage> buildMessages(String sessionId, String systemPrompt, String userMessage) {
+        History loaded = loadHistory(sessionId);
+        List<ChatMessage> history = loaded.messages();
+        // 从数据库加载的是未经摘要的原文，其中已包含摘要覆盖的对话，不再附带摘要
+        String summary = loaded.fromDatabase() ? null : loadSummary(sessionId);
+
+        int summaryTokens = TokenEstimator.estimate(summary);
+        List<ChatMessage> recent = trimToBudget(history, Math.max(0, config.getHistoryTokenBudget() - summaryTokens));
+
+        List<ChatMessage> messages = new ArrayList<>(recent.size() + 2);
+        messages.add(new SystemMessage(summary == null ? systemPrompt : systemPrompt + SUMMARY_SECTION + summary));
+        messages.addAll(recent);
+        messages.add(new UserMessage(userMessage));
+
+        int baseTokens = TokenEstimator.estimate(new SystemMessage(systemPrompt))
+                + TokenEstimator.estimate(new UserMessage(userMessage));
+        int before = baseTokens + TokenEstimator.estimate(history);
+        int after = TokenEstimator.estimate(messages);
+        promptTokensBefore.record(before);
+        promptTokensAfter.record(after);
+        if (recent.size() < history.size()) {
+            log.debug("会话历史超出token预算，sessionId: {}，保留消息 {}/{}，提示词token {} -> {}",
+                    sessionId, recent.size(), history.size(), before, after);
+        }
+        return messages;
+    }
+
+    /**
+     * 记录一轮对话到Redis，并在后台检查是否需要生成摘要
+     */
+    public void append(String sessionId, String userMessage, String aiReply) {
+        RedisKeyBuild cacheKey = RedisKeyBuild.createKey(RedisKeyManage.AI_CHAT_MEMORY, sessionId);
+        redisCache.rightPushForList(cacheKey, toEntity(sessionId, ROLE_USER, userMessage));
+        redisCache.rightPushForList(cacheKey, toEntity(sessionId, ROLE_AI, aiReply));
+
+        // 限制长度，摘要未及时生成时丢弃最早的消息
+        Long size = redisCache.lenForList(cacheKey);
+        if (size > chatConfig.getMaxHistory()) {
+            redisCache.trimForList(cacheKey, size - chatConfig.getMaxHistory(), -1);
+        }
+
+        // 设置过期时间，摘要与消息同时过期
+        redisCache.expire(cacheKey, chatConfig.getSessionTimeout(), TimeUnit.DAYS);
+        redisCache.expire(RedisKeyBuild.createKey(RedisKeyManage.AI_CHAT_SUMMARY, sessionId),
+                chatConfig.getSessionTimeout(), TimeUnit.DAYS);
+
+        submitSummary(sessionId);
+    }
+
+    /**
+     * 清除会话的消息缓存与摘要
+     */
+    public void clear(String sessionId) {
+        redisCache.del(List.of(
+                RedisKeyBuild.createKey(RedisKeyManage.AI_CHAT_MEMORY, sessionId),
+                RedisKeyBuild.createKey(RedisKeyManage.AI_CHAT_SUMMARY, sessionId)));
+    }
+
+    /**
+     * 从最新的消息往前保留，总token数不超过预算；保留部分以用户消息开头
+     *
+     * @param history 会话历史，按时间正序
+     * @param budget  token预算
+     * @return 保留的最近消息，按时间正序
+     */
+    public static List<ChatMessage> trimToBudget(List<ChatMessage> history, int budget) {
+        int start = history.size();
+        int tokens = 0;
+        while (start > 0) {
+            int messageTokens = TokenEstimator.estimate(history.get(start - 1));
+            if (tokens + messageTokens > budget) {
+                break;
+            }
+            tokens += messageTokens;
+            start--;
+        }
+        while (start < history.size() && !(history.get(start) instanceof UserMessage)) {
+            start++;
+        }
+        return start == 0 ? history : history.subList(start, history.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void submitSummary(String sessionId) {
+        if (!summarizing.add(sessionId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    summarize(sessionId);
+                } catch (Exception e) {
+                    summaryFailure.increment();
+                    log.error("生成会话摘要失败，sessionId: {}", sessionId, e);
+                } finally {
+                    summarizing.remove(sessionId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            summarizing.remove(sessionId);
+            log.warn("会话摘要线程池已满，跳过本次摘要，sessionId: {}", sessionId);
+        }
+    }
+
+    /**
+     * 加锁后生成摘要，其他节点正在生成同一会话的摘要时跳过，由下一次回复再触发
+     */
+    private void summarize(String sessionId) {
+        RedisKeyBuild lockKey = RedisKeyBuild.createKey(RedisKeyManage.AI_CHAT_SUMMARY_LOCK, sessionId);
+        String token = UUID.randomUUID().toString();
+        if (!redisCache.setIfAbsent(lockKey, token, config.getSummaryLockSeconds(), TimeUnit.SECONDS)) {
+            log.debug("会话摘要正在其他节点生成，跳过本次摘要，sessionId: {}", sessionId);
+            return;
+        }
+        try {
+            summarizeLocked(sessionId, lockKey, token);
+        } finally {
+            redisCache.execute(UNLOCK_SCRIPT, List.of(lockKey), token);
+        }
+    }
+
+    /**
+     * 未摘要的历史条数达到上限或token数超过阈值时，把最近消息以外的部分合并进摘要
+     */
+    private void summarizeLocked(String sessionId, RedisKeyBuild lockKey, String token) {
+        RedisKeyBuild cacheKey = RedisKeyBuild.createKey(RedisKeyManage.AI_CHAT_MEMORY, sessionId);
+        // 保留原始JSON，写回时按原文比对列表头部
+        List<String> raw = redisCache.rangeForList(cacheKey, 0, -1, String.class);
+        if (raw == null || raw.size() <= config.getKeepRecentMessages()) {
+            return;
+        }
+        List<AiChatMessage> cached = raw.stream()
+                .map(json -> JSON.parseObject(json, AiChatMessage.class))
+                .toList();
+        int tokens = 0;
+        for (AiChatMessage message : cached) {
+            tokens += TokenEstimator.estimate(message.getContent());
+        }
+        if (cached.size() < chatConfig.getMaxHistory() && tokens <= config.getSummaryTriggerTokens()) {
+            return;
+        }
+
+        // 保留的最近消息以用户消息开头
+        int foldCount = cached.size() - config.getKeepRecentMessages();
+        while (foldCount < cached.size() && !ROLE_USER.equals(cached.get(foldCount).getRole())) {
+            foldCount++;
+        }
+        List<AiChatMessage> folded = cached.subList(0, foldCount);
+        List<String> foldedRaw = raw.subList(0, foldCount);
+
+        RedisKeyBuild summaryKey = RedisKeyBuild.createKey(RedisKeyManage.AI_CHAT_SUMMARY, sessionId);
+        String previous = redisCache.get(summaryKey, String.class);
+        String summary = generateSummary(previous, folded);
+        if (StrUtil.isBlank(summary)) {
+            summaryFailure.increment();
+            log.warn("模型未返回会话摘要，sessionId: {}", sessionId);
+            return;
+        }
+
+        // 期间消息可能被长度限制从头部裁剪，只移出仍留在列表头部的已摘要消息；
+        // 比对头部、写入摘要与裁剪在同一个脚本中执行，并确认仍持有摘要锁
+        long sessionTimeoutSeconds = TimeUnit.DAYS.toSeconds(chatConfig.getSessionTimeout());
+        for (int attempt = 0; attempt < FOLD_ATTEMPTS; attempt++) {
+            List<String> head = redisCache.rangeForList(cacheKey, 0, foldCount - 1L, String.class);
+            int remaining = foldedPrefixLength(head, foldedRaw);
+            Object[] args = new Object[remaining + 3];
+            args[0] = token;
+            args[1] = summary.trim();
+            args[2] = sessionTimeoutSeconds;
+            for (int i = 0; i < remaining; i++) {
+                args[i + 3] = head.get(i);
+            }
+            Long result = redisCache.execute(FOLD_SCRIPT, List.of(lockKey, cacheKey, summaryKey), args);
+            if (result == null || result == FOLD_LOCK_LOST) {
+                summaryFailure.increment();
+                log.warn("会话摘要锁已过期，放弃本次摘要，sessionId: {}", sessionId);
+                return;
+            }
+            if (result != FOLD_HEAD_CHANGED) {
+                summarySuccess.increment();
+                log.info("会话摘要已更新，sessionId: {}，合并消息 {} 条，移出原文 {} 条，摘要长度 {}",
+                        sessionId, foldCount, result, summary.length());
+                return;
+            }
+        }
+        summaryFailure.increment();
+        log.warn("会话消息列表持续变化，放弃本次摘要，sessionId: {}", sessionId);
+    }
+
+    /**
+     * 计算当前列表头部仍保留的已摘要消息条数。
+     * 列表只在尾部追加、在头部裁剪，所以头部若仍有已摘要消息，一定是已摘要消息的某个后缀；
+     * 从最长的后缀开始比对，第一个与头部一致的后缀长度即为需要移除的条数
+     *
+     * @param current 当前列表头部的消息，按时间正序
+     * @param folded  已合并进摘要的消息，按时间正序
+     * @return 需要从列表头部移除的条数，头部已没有已摘要消息时返回0
+     */
+    public static <T> int foldedPrefixLength(List<T> current, List<T> folded) {
+        if (current == null || folded == null) {
+            return 0;
+        }
+        for (int skipped = 0; skipped < folded.size(); skipped++) {
+            int length = folded.size() - skipped;
+            if (length <= current.size()
+                    && current.subList(0, length).equals(folded.subList(skipped, folded.size()))) {
+                return length;
+            }
+        }
+        return 0;
+    }
+
+    private String generateSummary(String previous, List<AiChatMessage> folded) {
+        StringBuilder content = new StringBuilder("【已有摘要】\n")
+                .append(StrUtil.isBlank(previous) ? "无" : previous)
+                .append("\n\n【新增对话】\n");
+        for (AiChatMessage message : folded) {
+            content.append(ROLE_USER.equals(message.getRole()) ? "用户：" : "客服：")
+                    .append(message.getContent()).append('\n');
+        }
+        List<ChatMessage> messages = List.of(
+                new SystemMessage(String.format(SUMMARY_INSTRUCTION, config.getSummaryMaxLength())),
+                new UserMessage(content.toString()));
+        return chatModel.generate(messages).content().text();
+    }
+
+    /**
+     * 加载会话历史（从Redis或数据库）
+     */
+    private History loadHistory(String sessionId) {
+        RedisKeyBuild cacheKey = RedisKeyBuild.createKey(RedisKeyManage.AI_CHAT_MEMORY, sessionId);
+        // 使用 rangeForList 读取 Redis List 类型数据（与 rightPushForList 对应）
+        List<AiChatMessage> messages = redisCache.rangeForList(cacheKey, 0, -1, AiChatMessage.class);
+
+        boolean fromDatabase = messages == null || messages.isEmpty();
+        if (fromDatabase) {
+            // 从数据库加载最近的消息（只查询正常状态的消息）
+            LambdaQueryWrapper<AiChatMessage> wrapper = new LambdaQueryWrapper<>();
+            wrapper.eq(AiChatMessage::getSessionId, sessionId)
+                    .eq(AiChatMessage::getStatus, StatusEnum.RUN.getCode())
+                    .orderByDesc(AiChatMessage::getCreateTime)
+                    .last("LIMIT " + chatConfig.getMaxHistory());
+            messages = new ArrayList<>(messageMapper.selectList(wrapper));
+            Collections.reverse(messages);
+        }
+
+        // 转换为ChatMessage
+        List<ChatMessage> history = new ArrayList<>(messages.size());
+        for (AiChatMessage message : messages) {
+            history.add(ROLE_USER.equals(message.getRole())
+                    ? new UserMessage(message.getContent())
+                    : new AiMessage(message.getContent()));
+        }
+        return new History(history, fromDatabase);
+    }
+
+    private String loadSummary(String sessionId) {
+        String summary = redisCache.get(RedisKeyBuild.createKey(RedisKeyManage.AI_CHAT_SUMMARY, sessionId), String.class);
+        return StrUtil.isBlank(summary) ? null : summary;
+    }
+
+    private static AiChatMessage toEntity(String sessionId, String role, String content) {
+        return AiChatMessage.builder()
+                .sessionId(sessionId)
+                .role(role)
+                .content(content)
+                .status(StatusEnum.RUN.getCode())
+                .build();
+    }
+
+    private static DefaultRedisScript<Long> buildScript(String path) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
+        script.setResultType(Long.class);
+        return script;
+    }
+
+    private static DistributionSummary promptTokens(MeterRegistry meterRegistry, String stage) {
+        return DistributionSummary.builder("snzh.ai.prompt.tokens")
+                .description("每次请求的提示词token数（估算），before为完整历史，after为按预算裁剪并摘要后")
+                .baseUnit("tokens")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private static Counter summaryCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("snzh.ai.memory.summary")
+                .description("会话摘要生成次数")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 会话历史
+     *
+     * @param messages     按时间正序的消息
+     * @param fromDatabase 是否因Redis中没有缓存而从数据库加载
+     */
+    private record History(List<ChatMessage> messages, boolean fromDatabase) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.snzh.ai.memory;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+
+import java.util.List;
+
+/**
+ * @author haibara
+ * @description 本地估算消息的token数，用于裁剪会话历史与统计提示词大小。
+ * 通义千问官方分词需要远程调用，这里按经验比例估算：中日韩字符与全角标点约1个token，
+ * 其余字符约4个一个token，每条消息另加固定开销，误差对预算控制足够
+ * @since 2025/10/5
+ */
+public final class TokenEstimator {
+
+    /**
+     * 每条消息的角色、分隔符等固定开销
+     */
+    private static final int MESSAGE_OVERHEAD = 4;
+
+    private static final int ASCII_CHARS_PER_TOKEN = 4;
+
+    private TokenEstimator() {
+    }
+
+    /**
+     * 估算一段文字的token数
+     */
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int wideChars = 0;
+        int otherChars = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (isWide(text.charAt(i))) {
+                wideChars++;
+            } else {
+                otherChars++;
+            }
+        }
+        return wideChars + (otherChars + ASCII_CHARS_PER_TOKEN - 1) / ASCII_CHARS_PER_TOKEN;
+    }
+
+    /**
+     * 估算单条消息的token数，包括工具调用的名称与参数
+     */
+    public static int estimate(ChatMessage message) {
+        int tokens = MESSAGE_OVERHEAD;
+        if (message instanceof SystemMessage systemMessage) {
+            tokens += estimate(systemMessage.text());
+        } else if (message instanceof UserMessage userMessage) {
+            tokens += userMessage.hasSingleText() ? estimate(userMessage.singleText()) : 0;
+        } else if (message instanceof AiMessage aiMessage) {
+            tokens += estimate(aiMessage.text());
+            if (aiMessage.hasToolExecutionRequests()) {
+                for (ToolExecutionRequest request : aiMessage.toolExecutionRequests()) {
+                    tokens += estimate(request.name()) + estimate(request.arguments());
+                }
+            }
+        } else if (message instanceof ToolExecutionResultMessage resultMessage) {
+            tokens += estimate(resultMessage.text());
+        }
+        return tokens;
+    }
+
+    /**
+     * 估算消息列表的token数
+     */
+    public static int estimate(List<? extends ChatMessage> messages) {
+        int tokens = 0;
+        for (ChatMessage message : messages) {
+            tokens += estimate(message);
+        }
+        return tokens;
+    }
+
+    private static boolean isWide(char c) {
+        Character.UnicodeBlock block = Character.UnicodeBlock.of(c);
+        return block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS
+                || block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS_EXTENSION_A
+                || block == Character.UnicodeBlock.CJK_SYMBOLS_AND_PUNCTUATION
+                || block == Character.UnicodeBlock.HALFWIDTH_AND_FULLWIDTH_FORMS
+                || block == Character.UnicodeBlock.HIRAGANA
+                || block == Character.UnicodeBlock.KATAKANA
+                || block == Character.UnicodeBlock.HANGUL_SYLLABLES
+                || Character.isSurrogate(c);
+    }
+}
@@ -24,6 +24,7 @@ public interface IAiChatService {
 
     /**
      * 处理用户对话（流式响应）
+     * 提交到流式对话线程池后立即返回，线程池已满时通过 emitter 返回错误事件
      *
      * @param request 对话请求
      * @param emitter SSE发送器
@@ -2,6 +2,7 @@ package com.snzh.ai.service;
 
 import com.snzh.ai.domain.entity.AiKnowledgeDoc;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -12,7 +13,7 @@ import java.util.List;
 public interface IKnowledgeBaseService {
 
     /**
-     * 加载所有知识库文档并向量化
+     * 加载所有启用的知识库文档，与向量索引对齐（只向量化新增或内容变化的文档）
      */
     void loadAndIndexDocuments();
 
@@ -26,15 +27,21 @@ public interface IKnowledgeBaseService {
     List<String> searchRelevantKnowledge(String query, int maxResults);
 
     /**
-     * 添加知识库文档
+     * 同步单篇文档的向量索引：启用的文档只重新向量化变化的分段，未启用的文档移出索引
      *
      * @param doc 文档
-     * @return 是否成功
      */
-    Boolean addDocument(AiKnowledgeDoc doc);
+    void indexDocument(AiKnowledgeDoc doc);
 
     /**
-     * 重建索引
+     * 将文档移出向量索引
+     *
+     * @param docIds 文档ID
+     */
+    void removeDocuments(Collection<Long> docIds);
+
+    /**
+     * 清空并重建索引，所有启用的文档重新向量化
      */
     void rebuildIndex();
 }
@@ -5,21 +5,22 @@ import cn.hutool.core.util.StrUtil;
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.JSONObject;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.snzh.ai.config.AiStreamExecutor;
+import com.snzh.ai.config.AiToolExecutor;
 import com.snzh.ai.domain.dto.AiChatRequestDTO;
 import com.snzh.ai.domain.entity.AiChatMessage;
 import com.snzh.ai.domain.entity.AiChatSession;
 import com.snzh.ai.domain.properties.AiProperties;
 import com.snzh.ai.domain.vo.AiChatResponseVO;
 import com.snzh.ai.domain.vo.AiSessionVO;
+import com.snzh.ai.memory.ChatMemoryManager;
 import com.snzh.ai.mapper.AiChatMessageMapper;
 import com.snzh.ai.mapper.AiChatSessionMapper;
 import com.snzh.ai.service.IAiChatService;
 import com.snzh.ai.service.IKnowledgeBaseService;
 import com.snzh.ai.tools.AiToolService;
-import com.snzh.enums.RedisKeyManage;
+import com.snzh.ai.tools.ToolResultCache;
 import com.snzh.enums.StatusEnum;
-import com.snzh.redis.RedisCache;
-import com.snzh.redis.RedisKeyBuild;
 import com.snzh.threadlocal.UserContext;
 import dev.langchain4j.agent.tool.ToolExecutionRequest;
 import dev.langchain4j.agent.tool.ToolSpecification;
@@ -38,7 +39,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 /**
@@ -56,10 +60,13 @@ public class AiChatServiceImpl implements IAiChatService {
     private final IKnowledgeBaseService knowledgeBaseService;
     private final AiChatSessionMapper sessionMapper;
     private final AiChatMessageMapper messageMapper;
-    private final RedisCache redisCache;
     private final AiProperties aiProperties;
     private final List<ToolSpecification> toolSpecifications;
     private final AiToolService aiToolService;
+    private final AiStreamExecutor aiStreamExecutor;
+    private final AiToolExecutor aiToolExecutor;
+    private final ToolResultCache toolResultCache;
+    private final ChatMemoryManager chatMemoryManager;
 
     /**
      * 解析工具参数
@@ -346,10 +353,39 @@ public class AiChatServiceImpl implements IAiChatService {
             
         } catch (Exception e) {
             log.error("工具调用执行异常 - 工具：{}，参数：{}", toolName, arguments, e);
-            return String.format("工具调用失败（%s）：%s", toolName, e.getMessage());
+            return ToolResultCache.uncached(String.format("工具调用失败（%s）：%s", toolName, e.getMessage()));
         }
     }
 
+    /**
+     * 执行模型在同一轮返回的所有工具调用
+     * 相互独立的工具并发执行并单独超时，结果按请求顺序返回；声明了缓存的工具先读缓存
+     *
+     * @param toolRequests 工具调用请求
+     * @return 工具执行结果消息，与请求顺序一致
+     */
+    private List<ToolExecutionResultMessage> executeToolCalls(List<ToolExecutionRequest> toolRequests) {
+        List<AiToolExecutor.ToolCall> calls = new ArrayList<>(toolRequests.size());
+        for (ToolExecutionRequest toolRequest : toolRequests) {
+            log.info("AI请求调用工具：{}，参数JSON：{}", toolRequest.name(), toolRequest.arguments());
+            // 使用FastJson解析参数
+            Map<String, Object> arguments = parseToolArguments(toolRequest.arguments());
+            calls.add(new AiToolExecutor.ToolCall(toolRequest.name(), () -> toolResultCache.getOrInvoke(
+                    toolRequest.name(), arguments, () -> executeToolCall(toolRequest.name(), arguments))));
+        }
+
+        List<String> toolResults = aiToolExecutor.invokeAll(calls);
+
+        List<ToolExecutionResultMessage> resultMessages = new ArrayList<>(toolRequests.size());
+        for (int i = 0; i < toolRequests.size(); i++) {
+            ToolExecutionRequest toolRequest = toolRequests.get(i);
+            String toolResult = toolResults.get(i);
+            log.info("工具 {} 执行完成，结果长度：{}", toolRequest.name(), toolResult.length());
+            resultMessages.add(new ToolExecutionResultMessage(toolRequest.id(), toolRequest.name(), toolResult));
+        }
+        return resultMessages;
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public AiChatResponseVO chat(AiChatRequestDTO request) {
@@ -373,21 +409,15 @@ public class AiChatServiceImpl implements IAiChatService {
                 sessionId, request.getUserId(), request.getMessage());
 
         try {
-            // 1. 加载会话历史
-            List<ChatMessage> history = loadChatHistory(sessionId);
-
-            // 2. 检索相关知识
+            // 1. 检索相关知识
             List<String> relevantKnowledge = knowledgeBaseService
                     .searchRelevantKnowledge(request.getMessage(), 3);
 
-            // 3. 构建系统提示词
+            // 2. 构建系统提示词
             String systemPrompt = buildSystemPrompt(relevantKnowledge);
 
-            // 4. 构建消息列表
-            List<ChatMessage> messages = new ArrayList<>();
-            messages.add(new SystemMessage(systemPrompt));
-            messages.addAll(history);
-            messages.add(new UserMessage(request.getMessage()));
+            // 3~4. 加载会话摘要与预算内的历史，构建消息列表
+            List<ChatMessage> messages = chatMemoryManager.buildMessages(sessionId, systemPrompt, request.getMessage());
 
             // 5. 调用AI模型获取回复，支持工具调用（最多循环5次）
             String aiReply = "";
@@ -409,24 +439,8 @@ public class AiChatServiceImpl implements IAiChatService {
                     // 将AI的工具调用请求添加到消息列表
                     messages.add(aiMessage);
                     
-                    // 执行所有工具调用
-                    for (ToolExecutionRequest toolRequest : aiMessage.toolExecutionRequests()) {
-                        String toolName = toolRequest.name();
-                        String argsJson = toolRequest.arguments();
-                        
-                        log.info("AI请求调用工具：{}，参数JSON：{}", toolName, argsJson);
-                        
-                        // 使用FastJson解析参数
-                        Map<String, Object> arguments = parseToolArguments(argsJson);
-                        
-                        // 执行工具
-                        String toolResult = executeToolCall(toolName, arguments);
-                        
-                        log.info("工具 {} 执行完成，结果长度：{}", toolName, toolResult.length());
-                        
-                        // 将工具执行结果添加到消息列表
-                        messages.add(new ToolExecutionResultMessage(toolRequest.id(), toolName, toolResult));
-                    }
+                    // 并发执行所有工具调用，结果按请求顺序添加到消息列表
+                    messages.addAll(executeToolCalls(aiMessage.toolExecutionRequests()));
                     
                     // 继续循环，让AI根据工具结果生成回复
                 } else {
@@ -449,9 +463,8 @@ public class AiChatServiceImpl implements IAiChatService {
             saveMessage(sessionId, "USER", request.getMessage());
             saveMessage(sessionId, "AI", aiReply);
 
-            // 7. 缓存到Redis
-            cacheMessage(sessionId, "USER", request.getMessage());
-            cacheMessage(sessionId, "AI", aiReply);
+            // 7. 缓存到Redis，较早的对话在后台合并为摘要
+            chatMemoryManager.append(sessionId, request.getMessage(), aiReply);
 
             // 8. 更新会话时间
             updateSessionTime(sessionId);
@@ -491,6 +504,36 @@ public class AiChatServiceImpl implements IAiChatService {
             return;
         }
         
+        boolean accepted = aiStreamExecutor.submit(() -> {
+            // 工具调用（如创建订单）从上下文读取Token中的用户ID，需要带到线程池中
+            if (tokenUserId != null) {
+                UserContext.set("userId", tokenUserId);
+            }
+            try {
+                doChatStream(request, emitter);
+            } catch (Exception e) {
+                log.error("AI流式对话处理失败", e);
+                emitter.completeWithError(e);
+            } finally {
+                UserContext.clear();
+            }
+        });
+        if (!accepted) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("error")
+                        .data("{\"error\":\"当前咨询人数较多，请稍后再试。\"}"));
+                emitter.complete();
+            } catch (Exception e) {
+                log.error("发送错误信息失败", e);
+            }
+        }
+    }
+
+    /**
+     * 在流式对话线程池中执行：工具调用循环与流式输出
+     */
+    private void doChatStream(AiChatRequestDTO request, SseEmitter emitter) {
         String sessionId = request.getSessionId();
         boolean isNewSession = false;
 
@@ -507,21 +550,15 @@ public class AiChatServiceImpl implements IAiChatService {
                 sessionId, request.getUserId(), request.getMessage());
 
         try {
-            // 1. 加载会话历史
-            List<ChatMessage> history = loadChatHistory(sessionId);
-
-            // 2. 检索相关知识
+            // 1. 检索相关知识
             List<String> relevantKnowledge = knowledgeBaseService
                     .searchRelevantKnowledge(request.getMessage(), 3);
 
-            // 3. 构建系统提示词
+            // 2. 构建系统提示词
             String systemPrompt = buildSystemPrompt(relevantKnowledge);
 
-            // 4. 构建消息列表
-            List<ChatMessage> messages = new ArrayList<>();
-            messages.add(new SystemMessage(systemPrompt));
-            messages.addAll(history);
-            messages.add(new UserMessage(request.getMessage()));
+            // 3~4. 加载会话摘要与预算内的历史，构建消息列表
+            List<ChatMessage> messages = chatMemoryManager.buildMessages(sessionId, systemPrompt, request.getMessage());
 
             // 先发送会话信息
             emitter.send(SseEmitter.event()
@@ -548,29 +585,15 @@ public class AiChatServiceImpl implements IAiChatService {
                     // 添加AI的工具调用消息
                     messages.add(checkMessage);
                     
-                    // 执行所有工具调用
+                    // 通知前端正在执行工具
                     for (ToolExecutionRequest toolRequest : checkMessage.toolExecutionRequests()) {
-                        String toolName = toolRequest.name();
-                        String argsJson = toolRequest.arguments();
-                        
-                        log.info("流式对话 - AI请求调用工具：{}，参数JSON：{}", toolName, argsJson);
-                        
-                        // 通知前端正在执行工具
                         emitter.send(SseEmitter.event()
                                 .name("tool")
-                                .data("{\"tool\":\"" + toolName + "\",\"status\":\"executing\"}"));
-                        
-                        // 使用FastJson解析参数
-                        Map<String, Object> arguments = parseToolArguments(argsJson);
-                        
-                        // 执行工具
-                        String toolResult = executeToolCall(toolName, arguments);
-                        
-                        log.info("流式对话 - 工具 {} 执行完成", toolName);
-                        
-                        // 添加工具执行结果
-                        messages.add(new ToolExecutionResultMessage(toolRequest.id(), toolName, toolResult));
+                                .data("{\"tool\":\"" + toolRequest.name() + "\",\"status\":\"executing\"}"));
                     }
+
+                    // 并发执行所有工具调用，结果按请求顺序添加到消息列表
+                    messages.addAll(executeToolCalls(checkMessage.toolExecutionRequests()));
                 } else {
                     // 不需要工具调用，跳出循环，进入流式返回
                     if (i == maxToolIterations - 1 && checkMessage.hasToolExecutionRequests()) {
@@ -583,66 +606,69 @@ public class AiChatServiceImpl implements IAiChatService {
             // 用于收集完整回复
             StringBuilder fullReplyBuilder = new StringBuilder();
 
-            // 6. 调用流式AI模型获取回复（异步处理）
-            new Thread(() -> {
-                streamingChatModel.generate(messages, new dev.langchain4j.model.StreamingResponseHandler<AiMessage>() {
-                    @Override
-                    public void onNext(String token) {
-                        try {
-                            fullReplyBuilder.append(token);
-                            // 发送token给前端
-                            emitter.send(SseEmitter.event()
-                                    .name("token")
-                                    .data(token));
-                        } catch (Exception e) {
-                            log.error("发送token失败", e);
-                            emitter.completeWithError(e);
-                        }
+            // 6. 调用流式AI模型获取回复，等待输出结束后再释放线程，线程数即并发流式对话上限
+            CompletableFuture<Void> streamDone = new CompletableFuture<>();
+            streamingChatModel.generate(messages, new dev.langchain4j.model.StreamingResponseHandler<AiMessage>() {
+                @Override
+                public void onNext(String token) {
+                    try {
+                        fullReplyBuilder.append(token);
+                        // 发送token给前端
+                        emitter.send(SseEmitter.event()
+                                .name("token")
+                                .data(token));
+                    } catch (Exception e) {
+                        log.error("发送token失败", e);
+                        emitter.completeWithError(e);
                     }
+                }
+
+                @Override
+                public void onComplete(Response<AiMessage> response) {
+                    try {
+                        String fullReply = fullReplyBuilder.toString();
+                        log.info("AI流式回复完成，sessionId: {}, 回复长度: {}", finalSessionId, fullReply.length());
+
+                        // 6. 保存消息记录
+                        saveMessage(finalSessionId, "USER", request.getMessage());
+                        saveMessage(finalSessionId, "AI", fullReply);
+
+                        // 7. 缓存到Redis，较早的对话在后台合并为摘要
+                        chatMemoryManager.append(finalSessionId, request.getMessage(), fullReply);
+
+                        // 8. 更新会话时间
+                        updateSessionTime(finalSessionId);
 
-                    @Override
-                    public void onComplete(Response<AiMessage> response) {
-                        try {
-                            String fullReply = fullReplyBuilder.toString();
-                            log.info("AI流式回复完成，sessionId: {}, 回复长度: {}", finalSessionId, fullReply.length());
-
-                            // 6. 保存消息记录
-                            saveMessage(finalSessionId, "USER", request.getMessage());
-                            saveMessage(finalSessionId, "AI", fullReply);
-
-                            // 7. 缓存到Redis
-                            cacheMessage(finalSessionId, "USER", request.getMessage());
-                            cacheMessage(finalSessionId, "AI", fullReply);
-
-                            // 8. 更新会话时间
-                            updateSessionTime(finalSessionId);
-
-                            // 发送完成事件
-                            emitter.send(SseEmitter.event()
-                                    .name("done")
-                                    .data("{\"success\":true}"));
-
-                            emitter.complete();
-                        } catch (Exception e) {
-                            log.error("流式对话完成处理失败", e);
-                            emitter.completeWithError(e);
-                        }
+                        // 发送完成事件
+                        emitter.send(SseEmitter.event()
+                                .name("done")
+                                .data("{\"success\":true}"));
+
+                        emitter.complete();
+                    } catch (Exception e) {
+                        log.error("流式对话完成处理失败", e);
+                        emitter.completeWithError(e);
+                    } finally {
+                        streamDone.complete(null);
                     }
+                }
 
-                    @Override
-                    public void onError(Throwable error) {
-                        log.error("AI流式对话失败", error);
-                        try {
-                            emitter.send(SseEmitter.event()
-                                    .name("error")
-                                    .data("{\"error\":\"抱歉，我现在遇到了一些问题，请稍后再试或联系人工客服。\"}"));
-                            emitter.completeWithError(error);
-                        } catch (Exception e) {
-                            log.error("发送错误信息失败", e);
-                        }
+                @Override
+                public void onError(Throwable error) {
+                    log.error("AI流式对话失败", error);
+                    try {
+                        emitter.send(SseEmitter.event()
+                                .name("error")
+                                .data("{\"error\":\"抱歉，我现在遇到了一些问题，请稍后再试或联系人工客服。\"}"));
+                        emitter.completeWithError(error);
+                    } catch (Exception e) {
+                        log.error("发送错误信息失败", e);
+                    } finally {
+                        streamDone.complete(null);
                     }
-                });
-            }).start();
+                }
+            });
+            awaitStream(streamDone, finalSessionId);
 
         } catch (Exception e) {
             log.error("AI流式对话处理失败", e);
@@ -657,6 +683,22 @@ public class AiChatServiceImpl implements IAiChatService {
         }
     }
 
+
+    /**
+     * 等待流式输出结束，超时后释放线程，由 SseEmitter 自身的超时结束连接
+     */
+    private void awaitStream(CompletableFuture<Void> streamDone, String sessionId) {
+        try {
+            streamDone.get(aiProperties.getStream().getTimeoutSeconds(), TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("AI流式回复超时，sessionId: {}", sessionId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("AI流式回复异常，sessionId: {}", sessionId, e);
+        }
+    }
+
     @Override
     public List<AiSessionVO> getUserSessions(Long userId) {
         LambdaQueryWrapper<AiChatSession> wrapper = new LambdaQueryWrapper<>();
@@ -695,8 +737,7 @@ public class AiChatServiceImpl implements IAiChatService {
         int result = sessionMapper.updateById(session);
 
         // 清除缓存
-        RedisKeyBuild cacheKey = RedisKeyBuild.createKey(RedisKeyManage.AI_CHAT_MEMORY, sessionId);
-        redisCache.del(cacheKey);
+        chatMemoryManager.clear(sessionId);
 
         return result > 0;
     }
@@ -726,39 +767,6 @@ public class AiChatServiceImpl implements IAiChatService {
         return sessionId;
     }
 
-    /**
-     * 加载会话历史（从Redis或数据库）
-     */
-    private List<ChatMessage> loadChatHistory(String sessionId) {
-        RedisKeyBuild cacheKey = RedisKeyBuild.createKey(RedisKeyManage.AI_CHAT_MEMORY, sessionId);
-        // 使用 rangeForList 读取 Redis List 类型数据（与 rightPushForList 对应）
-        List<AiChatMessage> cachedMessages = redisCache.rangeForList(cacheKey, 0, -1, AiChatMessage.class);
-
-        List<AiChatMessage> messages;
-        if (cachedMessages != null && !cachedMessages.isEmpty()) {
-            messages = cachedMessages;
-        } else {
-            // 从数据库加载（只查询正常状态的消息）
-            LambdaQueryWrapper<AiChatMessage> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(AiChatMessage::getSessionId, sessionId)
-                    .eq(AiChatMessage::getStatus, 1)  // 只查询正常状态的消息
-                    .orderByAsc(AiChatMessage::getCreateTime)
-                    .last("LIMIT " + aiProperties.getChat().getMaxHistory());
-            messages = messageMapper.selectList(wrapper);
-        }
-
-        // 转换为ChatMessage
-        return messages.stream()
-                .map(msg -> {
-                    if ("USER".equals(msg.getRole())) {
-                        return new UserMessage(msg.getContent());
-                    } else {
-                        return new AiMessage(msg.getContent());
-                    }
-                })
-                .collect(Collectors.toList());
-    }
-
     /**
      * 构建系统提示词
      */
@@ -1052,32 +1060,6 @@ public class AiChatServiceImpl implements IAiChatService {
         messageMapper.insert(message);
     }
 
-    /**
-     * 缓存消息到Redis
-     */
-    private void cacheMessage(String sessionId, String role, String content) {
-        RedisKeyBuild cacheKey = RedisKeyBuild.createKey(RedisKeyManage.AI_CHAT_MEMORY, sessionId);
-
-        AiChatMessage message = AiChatMessage.builder()
-                .sessionId(sessionId)
-                .role(role)
-                .content(content)
-                .status(StatusEnum.RUN.getCode())
-                .build();
-
-        // List从右边放入元素
-        redisCache.rightPushForList(cacheKey, message);
-
-        // 限制长度
-        Long size = redisCache.lenForList(cacheKey);
-        if (size > aiProperties.getChat().getMaxHistory()) {
-            redisCache.trimForList(cacheKey, size - aiProperties.getChat().getMaxHistory(), -1);
-        }
-
-        // 设置过期时间
-        redisCache.expire(cacheKey, aiProperties.getChat().getSessionTimeout(), TimeUnit.DAYS);
-    }
-
     /**
      * 更新会话时间
      */
@@ -3,21 +3,20 @@ package com.snzh.ai.service.impl;
 import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.snzh.ai.domain.entity.AiKnowledgeDoc;
+import com.snzh.ai.knowledge.KnowledgeVectorIndex;
 import com.snzh.ai.mapper.AiKnowledgeDocMapper;
 import com.snzh.ai.service.IKnowledgeBaseService;
-import dev.langchain4j.data.document.Document;
-import dev.langchain4j.data.document.DocumentSplitter;
-import dev.langchain4j.data.document.splitter.DocumentSplitters;
+import com.snzh.enums.StatusEnum;
 import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.store.embedding.EmbeddingMatch;
-import dev.langchain4j.store.embedding.EmbeddingStore;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -31,16 +30,17 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class KnowledgeBaseServiceImpl implements IKnowledgeBaseService {
 
-    private final EmbeddingStore<TextSegment> embeddingStore;
+    private final KnowledgeVectorIndex vectorIndex;
     private final EmbeddingModel embeddingModel;
     private final AiKnowledgeDocMapper knowledgeDocMapper;
 
     /**
-     * 应用启动时加载知识库
+     * 应用启动时加载索引文件，只向量化索引文件写入后在数据库中新增或修改的文档
      */
     @PostConstruct
     public void init() {
         log.info("开始初始化知识库...");
+        vectorIndex.load();
         loadAndIndexDocuments();
         log.info("知识库初始化完成");
     }
@@ -49,36 +49,15 @@ public class KnowledgeBaseServiceImpl implements IKnowledgeBaseService {
     public void loadAndIndexDocuments() {
         // 查询所有启用的文档
         LambdaQueryWrapper<AiKnowledgeDoc> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(AiKnowledgeDoc::getStatus, 1);
+        wrapper.eq(AiKnowledgeDoc::getStatus, StatusEnum.RUN.getCode());
         List<AiKnowledgeDoc> docs = knowledgeDocMapper.selectList(wrapper);
 
         if (docs.isEmpty()) {
             log.warn("知识库中没有启用的文档");
-            return;
         }
 
-        log.info("找到{}篇启用的文档，开始向量化...", docs.size());
-
-        // 文档分割器：每段500字符，重叠50字符
-        DocumentSplitter splitter = DocumentSplitters.recursive(500, 50);
-
-        for (AiKnowledgeDoc doc : docs) {
-            try {
-                // 转换为LangChain4j的Document对象
-                Document document = Document.from(doc.getContent());
-
-                // 分割文档
-                List<TextSegment> segments = splitter.split(document);
-
-                // 向量化并存储
-                List<Embedding> embeddings = embeddingModel.embedAll(segments).content();
-                embeddingStore.addAll(embeddings, segments);
-
-                log.info("文档 [{}] 已向量化，共{}个片段", doc.getDocName(), segments.size());
-            } catch (Exception e) {
-                log.error("文档 [{}] 向量化失败", doc.getDocName(), e);
-            }
-        }
+        int embedded = vectorIndex.sync(docs);
+        log.info("{}篇启用的文档已与向量索引对齐，重新向量化{}个片段", docs.size(), embedded);
     }
 
     @Override
@@ -93,7 +72,7 @@ public class KnowledgeBaseServiceImpl implements IKnowledgeBaseService {
 
             // 检索相似片段（相似度阈值0.6）
             List<EmbeddingMatch<TextSegment>> matches =
-                    embeddingStore.findRelevant(queryEmbedding, maxResults, 0.6);
+                    vectorIndex.findRelevant(queryEmbedding, maxResults, 0.6);
 
             // 提取文本内容
             return matches.stream()
@@ -106,33 +85,24 @@ public class KnowledgeBaseServiceImpl implements IKnowledgeBaseService {
     }
 
     @Override
-    public Boolean addDocument(AiKnowledgeDoc doc) {
-        try {
-            // 保存到数据库
-            int result = knowledgeDocMapper.insert(doc);
-
-            // 如果启用状态，立即向量化
-            if (doc.getStatus() == 1) {
-                Document document = Document.from(doc.getContent());
-                DocumentSplitter splitter = DocumentSplitters.recursive(500, 50);
-                List<TextSegment> segments = splitter.split(document);
-                List<Embedding> embeddings = embeddingModel.embedAll(segments).content();
-                embeddingStore.addAll(embeddings, segments);
-            }
-
-            return result > 0;
-        } catch (Exception e) {
-            log.error("添加文档失败", e);
-            return false;
+    public void indexDocument(AiKnowledgeDoc doc) {
+        if (StatusEnum.RUN.getCode().equals(doc.getStatus())) {
+            vectorIndex.upsert(doc);
+        } else {
+            vectorIndex.remove(List.of(doc.getId()));
         }
     }
 
+    @Override
+    public void removeDocuments(Collection<Long> docIds) {
+        vectorIndex.remove(docIds);
+    }
+
     @Override
     public void rebuildIndex() {
         log.info("开始重建索引...");
-        // 清空现有索引（内存版本直接重新加载即可）
+        vectorIndex.clear();
         loadAndIndexDocuments();
         log.info("索引重建完成");
     }
 }
-
@@ -108,7 +108,7 @@ public class KnowledgeDocManageServiceImpl extends ServiceImpl<AiKnowledgeDocMap
         // 如果是启用状态，添加到向量库
         if (doc.getStatus().equals(StatusEnum.RUN.getCode())) {
             try {
-                knowledgeBaseService.addDocument(doc);
+                knowledgeBaseService.indexDocument(doc);
                 log.info("文档已向量化：{}", doc.getDocName());
             } catch (Exception e) {
                 log.error("文档向量化失败：{}", doc.getDocName(), e);
@@ -142,13 +142,12 @@ public class KnowledgeDocManageServiceImpl extends ServiceImpl<AiKnowledgeDocMap
 
         int result = knowledgeDocMapper.updateById(doc);
 
-        // 修改后重建索引（因为内容可能变化）
+        // 修改后更新该文档的索引，只重新向量化内容变化的分段
         if (result > 0) {
             try {
-                knowledgeBaseService.rebuildIndex();
-                log.info("向量索引已重建");
+                knowledgeBaseService.indexDocument(doc);
             } catch (Exception e) {
-                log.error("向量索引重建失败", e);
+                log.error("向量索引更新失败：{}", doc.getDocName(), e);
             }
         }
 
@@ -172,13 +171,12 @@ public class KnowledgeDocManageServiceImpl extends ServiceImpl<AiKnowledgeDocMap
 
         boolean result = updateBatchById(docs);
 
-        // 删除后重建索引
+        // 删除后将文档移出索引
         if (result) {
             try {
-                knowledgeBaseService.rebuildIndex();
-                log.info("向量索引已重建");
+                knowledgeBaseService.removeDocuments(ids);
             } catch (Exception e) {
-                log.error("向量索引重建失败", e);
+                log.error("向量索引更新失败：{}", ids, e);
             }
         }
 
@@ -202,13 +200,12 @@ public class KnowledgeDocManageServiceImpl extends ServiceImpl<AiKnowledgeDocMap
         doc.setStatus(status);
         int result = knowledgeDocMapper.updateById(doc);
 
-        // 状态变更后重建索引
+        // 状态变更后更新该文档的索引（启用则加入，停用则移出）
         if (result > 0) {
             try {
-                knowledgeBaseService.rebuildIndex();
-                log.info("向量索引已重建");
+                knowledgeBaseService.indexDocument(doc);
             } catch (Exception e) {
-                log.error("向量索引重建失败", e);
+                log.error("向量索引更新失败：{}", doc.getDocName(), e);
             }
         }
 
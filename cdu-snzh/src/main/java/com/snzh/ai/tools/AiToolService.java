@@ -2,6 +2,11 @@ package com.snzh.ai.tools;
 
 import com.snzh.ai.domain.route.*;
 import com.snzh.ai.enums.TravelStrategy;
+import com.snzh.annotation.CacheableTool;
+import com.snzh.domain.event.FacilityChangeEvent;
+import com.snzh.domain.event.FacilityTypeChangeEvent;
+import com.snzh.domain.event.ScenicSpotChangeEvent;
+import com.snzh.domain.event.ScenicTicketChangeEvent;
 import com.snzh.domain.dto.OrderCreateDTO;
 import com.snzh.domain.dto.OrderItemDTO;
 import com.snzh.domain.vo.CastVO;
@@ -52,11 +57,12 @@ public class AiToolService {
          "返回内容包括：实时天气状况、当前温度、风向、风力、湿度等信息。" +
          "适用场景：用户询问'现在天气如何'、'今天天气怎么样'、'当前温度多少'等实时天气查询。" +
          "注意：此工具仅返回实时天气，如需查询未来天气预报，请使用queryForecastWeather工具。")
+    @CacheableTool(ttlSeconds = 600)
     public String queryWeather() {
         try {
             LiveWeatherVO weather = weatherService.getLiveWeather();
             if (weather == null) {
-                return "天气信息暂时无法获取";
+                return ToolResultCache.uncached("天气信息暂时无法获取");
             }
 
             return String.format("当前%s天气：%s，温度%s℃，风向%s，风力%s级，湿度%s%%。数据更新时间：%s",
@@ -69,7 +75,7 @@ public class AiToolService {
                     weather.getReporttime());
         } catch (Exception e) {
             log.error("查询天气失败", e);
-            return "天气查询失败，请稍后重试";
+            return ToolResultCache.uncached("天气查询失败，请稍后重试");
         }
     }
 
@@ -82,11 +88,12 @@ public class AiToolService {
          "适用场景：用户询问'明天天气如何'、'后天会下雨吗'、'这周末天气怎么样'、'未来几天天气'、" +
          "'什么时候适合去玩'等未来天气查询，特别适合用户提前规划行程。" +
          "注意：此工具返回未来天气预报，如需查询当前实时天气，请使用queryWeather工具。")
+    @CacheableTool(ttlSeconds = 600)
     public String queryForecastWeather() {
         try {
             ForecastWeatherVO forecast = weatherService.getForecastWeather();
             if (forecast == null || forecast.getCasts() == null || forecast.getCasts().isEmpty()) {
-                return "天气预报信息暂时无法获取";
+                return ToolResultCache.uncached("天气预报信息暂时无法获取");
             }
 
             StringBuilder sb = new StringBuilder();
@@ -111,7 +118,7 @@ public class AiToolService {
             return sb.toString();
         } catch (Exception e) {
             log.error("查询天气预报失败", e);
-            return "天气预报查询失败，请稍后重试";
+            return ToolResultCache.uncached("天气预报查询失败，请稍后重试");
         }
     }
 
@@ -175,6 +182,7 @@ public class AiToolService {
          "\n\n⚠️ 【注意】：" +
          "\n- 如果用户想要路线规划，应该直接使用recommendRoute工具，不要先调用此工具" +
          "\n- 如果用户已经表达了具体需求（如：时间、偏好），直接用recommendRoute更高效")
+    @CacheableTool(ttlSeconds = 86400, invalidatedBy = ScenicSpotChangeEvent.class)
     public String listAllScenics() {
         try {
             List<ScenicSpotVO> scenics = scenicSpotService.getScenicSpotList();
@@ -196,7 +204,7 @@ public class AiToolService {
             return sb.toString();
         } catch (Exception e) {
             log.error("查询景点列表失败", e);
-            return "景点列表查询失败";
+            return ToolResultCache.uncached("景点列表查询失败");
         }
     }
 
@@ -208,6 +216,7 @@ public class AiToolService {
          "返回内容包括：按景点分组的门票信息，包含价格、已售数量等。" +
          "适用场景：用户询问门票价格、想了解各景点票价、购票前查询、或需要价格对比等。" +
          "注意：返回的是实时在售门票，价格可能根据季节或活动有所变化。建议在用户明确购买意向后再次确认价格。")
+    @CacheableTool(ttlSeconds = 300, invalidatedBy = {ScenicSpotChangeEvent.class, ScenicTicketChangeEvent.class})
     public String listAvailableTickets() {
         try {
             // 先获取所有景点，然后查询每个景点的门票
@@ -229,14 +238,15 @@ public class AiToolService {
                         sb.append("\n");
                     }
                 } catch (Exception e) {
-                    // 该景点可能没有门票，继续下一个
+                    // 该景点可能没有门票，继续下一个；结果不完整，不缓存
+                    ToolResultCache.skipCaching();
                 }
             }
 
             return sb.toString();
         } catch (Exception e) {
             log.error("查询门票列表失败", e);
-            return "门票列表查询失败";
+            return ToolResultCache.uncached("门票列表查询失败");
         }
     }
 
@@ -290,6 +300,8 @@ public class AiToolService {
          "9. 如用户选择了特定策略，要说明为何这些景点符合该策略特点" +
          "\n\n适用场景：用户询问如何安排行程、想要路线推荐、不知道怎么玩、时间有限需要精简路线、" +
          "带老人/小孩出游、摄影爱好者、自驾游、有特定游玩策略偏好等各种场景。")
+    @CacheableTool(ttlSeconds = 600,
+            invalidatedBy = {ScenicSpotChangeEvent.class, FacilityChangeEvent.class, FacilityTypeChangeEvent.class})
     public String recommendRoute(
             String duration,
             String visitDate,
@@ -376,6 +388,7 @@ public class AiToolService {
                 }
             } catch (Exception e) {
                 log.warn("获取天气信息失败，使用默认配置", e);
+                ToolResultCache.skipCaching();
             }
             
             // 5. 调用智能推荐服务
@@ -387,7 +400,7 @@ public class AiToolService {
         } catch (Exception e) {
             log.error("路线推荐失败", e);
             // 降级到简单推荐
-            return getSimpleRecommendation(duration);
+            return ToolResultCache.uncached(getSimpleRecommendation(duration));
         }
     }
     
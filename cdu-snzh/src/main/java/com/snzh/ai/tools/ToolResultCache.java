@@ -0,0 +1,256 @@
+package com.snzh.ai.tools;
+
+import cn.hutool.crypto.SecureUtil;
+import com.alibaba.fastjson2.JSON;
+import com.snzh.ai.domain.properties.AiProperties;
+import com.snzh.annotation.CacheableTool;
+import com.snzh.domain.event.DataChangeEvent;
+import com.snzh.enums.RedisKeyManage;
+import com.snzh.redis.RedisCache;
+import com.snzh.redis.RedisKeyBuild;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * @author haibara
+ * @description AI工具结果缓存，缓存哪些工具、缓存多久、被哪些数据变更清除由 @CacheableTool 声明。
+ * key为工具名、结果版本号加规范化参数的摘要，参数顺序、首尾空格和未传的可选参数不影响命中。
+ * 数据变更时递增工具的结果版本号，旧版本的结果不再被读取并随过期时间自然清除，清除成本与缓存条数无关。
+ * 命中与未命中次数记录到 snzh.ai.tool.cache（tool、result 标签）。
+ * 工具集合通过 @Tool 注解反射生成，不能被代理，因此不使用切面，而是在工具调用入口显式读写
+ * @since 2025/10/5
+ */
+@Slf4j
+@Component
+public class ToolResultCache {
+
+    private static final String METRIC = "snzh.ai.tool.cache";
+
+    /**
+     * 工具在当前线程标记本次结果不缓存（降级、异常时的提示文字，或部分数据查询失败的不完整结果）
+     */
+    private static final ThreadLocal<Boolean> UNCACHED = new ThreadLocal<>();
+
+    private final RedisCache redisCache;
+    private final AiProperties.ToolConfig config;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 工具名 -> 缓存声明
+     */
+    private final Map<String, CachedTool> cachedTools;
+
+    public ToolResultCache(RedisCache redisCache, AiProperties aiProperties, MeterRegistry meterRegistry) {
+        this.redisCache = redisCache;
+        this.config = aiProperties.getTool();
+        this.meterRegistry = meterRegistry;
+        this.cachedTools = scan();
+    }
+
+    /**
+     * 读取工具结果缓存，未命中时执行工具并写入缓存
+     *
+     * @param toolName  工具名
+     * @param arguments 工具参数
+     * @param invoker   执行工具并返回结果文字
+     * @return 工具结果
+     */
+    public String getOrInvoke(String toolName, Map<String, Object> arguments, Supplier<String> invoker) {
+        CachedTool tool = cachedTools.get(toolName);
+        if (tool == null || !Boolean.TRUE.equals(config.getCacheEnabled())) {
+            return invokeUncached(invoker);
+        }
+        Long version = readVersion(toolName);
+        if (version == null) {
+            return invokeUncached(invoker);
+        }
+        // 无参工具忽略模型多传的参数
+        RedisKeyBuild key = key(toolName, version, tool.parameterless ? Collections.emptyMap() : arguments);
+        String cached = read(key);
+        if (cached != null) {
+            tool.hits.increment();
+            log.debug("工具结果命中缓存：{}，key：{}", toolName, key.getRealKey());
+            return cached;
+        }
+        tool.misses.increment();
+
+        UNCACHED.remove();
+        String result;
+        boolean uncached;
+        try {
+            result = invoker.get();
+        } finally {
+            uncached = Boolean.TRUE.equals(UNCACHED.get());
+            UNCACHED.remove();
+        }
+        if (result != null && !uncached) {
+            write(key, result, config.getCacheTtlSeconds().getOrDefault(toolName, tool.ttlSeconds));
+        }
+        return result;
+    }
+
+    /**
+     * 标记当前工具调用的结果不缓存，用于降级或失败时返回的提示文字
+     *
+     * @param result 工具结果
+     * @return 原样返回工具结果
+     */
+    public static String uncached(String result) {
+        skipCaching();
+        return result;
+    }
+
+    /**
+     * 标记当前工具调用的结果不缓存，用于部分数据查询失败、仍继续拼接的不完整结果
+     */
+    public static void skipCaching() {
+        UNCACHED.set(Boolean.TRUE);
+    }
+
+    /**
+     * 数据变更提交后清除声明了该事件的工具结果，没有事务时立即清除
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        cachedTools.forEach((toolName, tool) -> {
+            if (tool.isInvalidatedBy(event)) {
+                evict(toolName);
+            }
+        });
+    }
+
+    /**
+     * 递增结果版本号，只需一次INCR，不扫描也不逐个删除已缓存的结果
+     */
+    private void evict(String toolName) {
+        try {
+            Long version = redisCache.incrBy(versionKey(toolName), 1);
+            log.debug("清除工具结果缓存：{}，新版本号：{}", toolName, version);
+        } catch (Exception e) {
+            log.error("清除工具结果缓存失败：{}", toolName, e);
+        }
+    }
+
+    private String invokeUncached(Supplier<String> invoker) {
+        try {
+            return invoker.get();
+        } finally {
+            UNCACHED.remove();
+        }
+    }
+
+    /**
+     * 读取工具结果版本号，从未变更过时为0，读取失败时返回null（直接执行工具，不读写缓存）
+     */
+    private Long readVersion(String toolName) {
+        try {
+            Long version = redisCache.get(versionKey(toolName), Long.class);
+            return version == null ? 0L : version;
+        } catch (Exception e) {
+            log.warn("读取工具结果版本号失败，直接执行工具：{}", toolName, e);
+            return null;
+        }
+    }
+
+    private String read(RedisKeyBuild key) {
+        try {
+            return redisCache.get(key, String.class);
+        } catch (Exception e) {
+            log.warn("读取工具结果缓存失败，直接执行工具，key：{}", key.getRealKey(), e);
+            return null;
+        }
+    }
+
+    private void write(RedisKeyBuild key, String result, long ttlSeconds) {
+        try {
+            redisCache.set(key, result, ttlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("写入工具结果缓存失败，key：{}", key.getRealKey(), e);
+        }
+    }
+
+    /**
+     * 构建缓存key：参数按名称排序，字符串去除首尾空格，空值与空字符串视为未传
+     */
+    private static RedisKeyBuild key(String toolName, long version, Map<String, Object> arguments) {
+        Map<String, Object> normalized = new TreeMap<>();
+        if (arguments != null) {
+            arguments.forEach((name, value) -> {
+                Object normalizedValue = value instanceof String text ? text.trim() : value;
+                if (normalizedValue != null && !"".equals(normalizedValue)) {
+                    normalized.put(name, normalizedValue);
+                }
+            });
+        }
+        return RedisKeyBuild.createKey(RedisKeyManage.AI_TOOL_RESULT, toolName, version,
+                SecureUtil.md5(JSON.toJSONString(normalized)));
+    }
+
+    private static RedisKeyBuild versionKey(String toolName) {
+        return RedisKeyBuild.createKey(RedisKeyManage.AI_TOOL_VERSION, toolName);
+    }
+
+    private Map<String, CachedTool> scan() {
+        Map<String, CachedTool> tools = new HashMap<>();
+        for (Method method : AiToolService.class.getDeclaredMethods()) {
+            CacheableTool annotation = method.getAnnotation(CacheableTool.class);
+            if (annotation == null) {
+                continue;
+            }
+            String toolName = method.getName();
+            tools.put(toolName, new CachedTool(annotation, method.getParameterCount() == 0,
+                    counter(toolName, "hit"), counter(toolName, "miss")));
+            log.info("工具结果缓存：{}，缓存时间：{}秒", toolName,
+                    config.getCacheTtlSeconds().getOrDefault(toolName, annotation.ttlSeconds()));
+        }
+        return Map.copyOf(tools);
+    }
+
+    private Counter counter(String toolName, String result) {
+        return Counter.builder(METRIC)
+                .description("AI工具结果缓存命中情况")
+                .tag("tool", toolName)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 单个工具的缓存声明
+     */
+    private static final class CachedTool {
+
+        private final long ttlSeconds;
+        private final Class<? extends DataChangeEvent>[] invalidatedBy;
+        private final boolean parameterless;
+        private final Counter hits;
+        private final Counter misses;
+
+        private CachedTool(CacheableTool annotation, boolean parameterless, Counter hits, Counter misses) {
+            this.ttlSeconds = annotation.ttlSeconds();
+            this.invalidatedBy = annotation.invalidatedBy();
+            this.parameterless = parameterless;
+            this.hits = hits;
+            this.misses = misses;
+        }
+
+        private boolean isInvalidatedBy(DataChangeEvent event) {
+            for (Class<? extends DataChangeEvent> eventType : invalidatedBy) {
+                if (eventType.isInstance(event)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.snzh.annotation;
+
+import com.snzh.domain.event.DataChangeEvent;
+
+import java.lang.annotation.*;
+
+/**
+ * @author haibara
+ * @description AI工具结果缓存注解，标注在 AiToolService 的工具方法上，
+ * 以工具名和规范化后的参数为key缓存工具返回的文字，由 ToolResultCache 统一读写与清除
+ * @since 2025/10/5
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CacheableTool {
+
+    /**
+     * 缓存时间（秒），可通过 ai.tool.cache-ttl-seconds 按工具名覆盖
+     */
+    long ttlSeconds();
+
+    /**
+     * 会使该工具结果失效的数据变更事件
+     * 默认空数组表示只按过期时间失效
+     */
+    Class<? extends DataChangeEvent>[] invalidatedBy() default {};
+}
@@ -0,0 +1,44 @@
+package com.snzh.config;
+
+import com.snzh.domain.properties.CachePreloadProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author haibara
+ * @description 系统初始化专用线程池
+ * 不注册为Executor类型的Bean，避免影响Spring默认的applicationTaskExecutor
+ * @since 2025/10/2
+ */
+@Getter
+@Component
+public class InitExecutors {
+
+    /**
+     * 缓存预热线程池：线程数固定，限制同时访问数据库的预热查询数量；
+     * 阶段数量固定，无界队列不会堆积
+     */
+    private final ThreadPoolExecutor preloadExecutor;
+
+    public InitExecutors(CachePreloadProperties properties) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.preloadExecutor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cache-preload-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        preloadExecutor.shutdownNow();
+    }
+}
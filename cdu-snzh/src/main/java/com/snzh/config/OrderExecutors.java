@@ -0,0 +1,61 @@
+package com.snzh.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author haibara
+ * @description 订单模块专用线程池
+ * 不注册为Executor类型的Bean，避免影响Spring默认的applicationTaskExecutor
+ * @since 2025/10/2
+ */
+@Slf4j
+@Getter
+@Component
+public class OrderExecutors {
+
+    /**
+     * 管理端批量操作线程池：并发执行各批次的状态流转事务，队列满时由调用线程执行
+     */
+    private final ThreadPoolExecutor batchExecutor = newExecutor("order-batch-", 4, 64,
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+    /**
+     * 订单通知线程池：微信订阅消息发送较慢，不阻塞业务线程；队列满时丢弃并记录日志
+     */
+    private final ThreadPoolExecutor notifyExecutor = newExecutor("order-notify-", 2, 10_000,
+            (runnable, executor) -> log.warn("订单通知队列已满，丢弃一条通知"));
+
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdown();
+        notifyExecutor.shutdown();
+        try {
+            batchExecutor.awaitTermination(30, TimeUnit.SECONDS);
+            notifyExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadPoolExecutor newExecutor(String namePrefix, int threads, int queueCapacity,
+                                                  RejectedExecutionHandler rejectedHandler) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, namePrefix + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                rejectedHandler);
+    }
+}
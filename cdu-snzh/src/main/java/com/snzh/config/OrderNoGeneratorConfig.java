@@ -0,0 +1,31 @@
+package com.snzh.config;
+
+import com.snzh.domain.properties.OrderNoProperties;
+import com.snzh.generator.OrderNoGenerator;
+import com.snzh.generator.RedisSegmentOrderNoGenerator;
+import com.snzh.generator.SnowflakeOrderNoGenerator;
+import com.snzh.redis.RedisCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author haibara
+ * @description 订单号生成器配置，通过 snzh.order-no.mode 切换实现
+ * @since 2025/10/2
+ */
+@Configuration
+public class OrderNoGeneratorConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "snzh.order-no", name = "mode", havingValue = "snowflake", matchIfMissing = true)
+    public OrderNoGenerator snowflakeOrderNoGenerator(OrderNoProperties orderNoProperties) {
+        return new SnowflakeOrderNoGenerator(orderNoProperties.getWorkerId());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "snzh.order-no", name = "mode", havingValue = "redis")
+    public OrderNoGenerator redisSegmentOrderNoGenerator(RedisCache redisCache, OrderNoProperties orderNoProperties) {
+        return new RedisSegmentOrderNoGenerator(redisCache, orderNoProperties.getSegmentStep());
+    }
+}
@@ -0,0 +1,80 @@
+package com.snzh.config;
+
+import com.snzh.domain.properties.LocalCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.snzh.redis.CacheMetrics;
+import com.snzh.redis.RedisCache;
+import com.snzh.redis.RedisCacheImpl;
+import com.snzh.redis.TwoLevelRedisCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * @author haibara
+ * @description RedisCache配置，通过 snzh.cache.local.enabled 切换是否启用本地一级缓存
+ * @since 2025/10/2
+ */
+@Configuration
+public class RedisCacheConfig {
+
+    /**
+     * 是否允许 KEYS 命令，未配置时 prod 环境禁用
+     */
+    private static final String KEYS_COMMAND_ENABLED = "snzh.cache.keys-command-enabled";
+
+    private static final String PROD_PROFILE = "prod";
+
+    /**
+     * 按 RedisKeyManage 命名空间统计的缓存指标
+     */
+    @Bean
+    public CacheMetrics cacheMetrics(MeterRegistry meterRegistry) {
+        return new CacheMetrics(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "snzh.cache.local", name = "enabled", havingValue = "false")
+    public RedisCache redisCache(StringRedisTemplate stringRedisTemplate, CacheMetrics cacheMetrics,
+                                 Environment environment) {
+        RedisCacheImpl redisCache = new RedisCacheImpl(stringRedisTemplate, cacheMetrics);
+        redisCache.setKeysCommandEnabled(keysCommandEnabled(environment));
+        return redisCache;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "snzh.cache.local", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public TwoLevelRedisCache twoLevelRedisCache(StringRedisTemplate stringRedisTemplate,
+                                                 LocalCacheProperties localCacheProperties,
+                                                 CacheMetrics cacheMetrics,
+                                                 Environment environment) {
+        TwoLevelRedisCache redisCache = new TwoLevelRedisCache(stringRedisTemplate, localCacheProperties, cacheMetrics);
+        redisCache.setKeysCommandEnabled(keysCommandEnabled(environment));
+        return redisCache;
+    }
+
+    /**
+     * 订阅缓存失效频道，清除其他节点修改过的本地缓存
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "snzh.cache.local", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelRedisCache twoLevelRedisCache,
+                                                                            LocalCacheProperties localCacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(twoLevelRedisCache, new ChannelTopic(localCacheProperties.getChannel()));
+        return container;
+    }
+
+    private boolean keysCommandEnabled(Environment environment) {
+        boolean prod = environment.acceptsProfiles(Profiles.of(PROD_PROFILE));
+        return environment.getProperty(KEYS_COMMAND_ENABLED, Boolean.class, !prod);
+    }
+}
@@ -34,7 +34,9 @@ public class WebMvcConfig implements WebMvcConfigurer {
                         "/v3/api-docs/**",          // API文档
                         "/doc.html",                // Knife4j文档
                         "/favicon.ico",             // 网站图标
-                        "/error"                    // 错误页面
+                        "/error",                   // 错误页面
+                        "/livez",                   // 存活探针
+                        "/readyz"                   // 就绪探针
                 );
     }
 }
@@ -57,6 +57,24 @@ public class BusinessConst {
         public static final long DEFAULT_BATCH_LIMIT = 1000L;
         /** 异常订单查询限制 */
         public static final long ABNORMAL_ORDER_LIMIT = 100L;
+        /** 批量流转订单状态时每批数量 */
+        public static final int BULK_TRANSITION_BATCH_SIZE = 500;
+        /** 管理端批量操作每个事务处理的订单数 */
+        public static final int BATCH_OPERATION_CHUNK_SIZE = 200;
+        /** 导出订单时每批关联查询明细的订单数 */
+        public static final int EXPORT_CHUNK_SIZE = 500;
+        /** 导出Excel时内存中保留的行数，超出的行写入临时文件 */
+        public static final int EXPORT_ROW_WINDOW = 200;
+        /** 导出Excel单个sheet最大行数（xlsx上限1048576行） */
+        public static final int EXPORT_ROWS_PER_SHEET = 1_000_000;
+    }
+
+    /**
+     * 缓存过期时间（秒）
+     */
+    public static class CacheTtl {
+        /** 订单数据看板 */
+        public static final long DASHBOARD_SECONDS = 30L;
     }
 
     /**
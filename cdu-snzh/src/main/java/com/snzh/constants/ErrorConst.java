@@ -89,6 +89,9 @@ public class ErrorConst {
     /** 数据不存在 */
     public static final String DATA_NOT_FOUND = "数据不存在";
 
+    /** 分页游标无效 */
+    public static final String PAGE_CURSOR_INVALID = "分页游标无效，请从第一页重新查询";
+
     /** 账户不存在 */
     public static final String ACCOUNT_NOT_FOUND = "账户不存在";
 
@@ -176,6 +179,9 @@ public class ErrorConst {
     /** 门票已下架 */
     public static final String TICKET_DISABLED = "门票已下架，无法购买";
 
+    /** 门票库存不足 */
+    public static final String TICKET_STOCK_NOT_ENOUGH = "当日门票已售罄或余票不足";
+
     /** 管理员账号或密码错误 */
     public static final String ADMIN_LOGIN_ERROR = "账号或密码错误";
 
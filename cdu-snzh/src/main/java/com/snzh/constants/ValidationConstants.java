@@ -112,6 +112,8 @@ public class ValidationConstants {
 
     public static final String SCENIC_TICKET_SOLD_COUNT_MUST_BE_POSITIVE = "景点门票售卖数量不能为负数";
 
+    public static final String DAILY_STOCK_MUST_BE_POSITIVE = "每日库存不能为负数";
+
     /** 订单相关校验 */
     public static final String ORDER_TYPE_NOT_NULL = "订单类型不能为空";
 
@@ -8,12 +8,16 @@ import com.snzh.service.IOrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -99,6 +103,17 @@ public class OrderController {
         return ResponseResult.success(orders);
     }
 
+    @RequireAdmin
+    @GetMapping("/admin/export")
+    @Operation(summary = "【管理端】导出订单Excel", description = "按管理端列表的筛选条件导出全部订单，流式写出")
+    public void exportOrders(AdminOrderQueryDTO dto, HttpServletResponse response) throws IOException {
+        String fileName = URLEncoder.encode("订单导出_" + LocalDate.now() + ".xlsx", StandardCharsets.UTF_8)
+                .replace("+", "%20");
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setHeader("Content-Disposition", "attachment; filename*=UTF-8''" + fileName);
+        orderService.exportAdminOrders(dto, response.getOutputStream());
+    }
+
     @RequireAdmin
     @GetMapping("/admin/detail/{orderId}")
     @Operation(summary = "【管理端】查询订单详情", description = "管理端查询订单详情，无权限限制")
@@ -0,0 +1,20 @@
+package com.snzh.domain.base;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author haibara
+ * @description 游标分页位置：上一页最后一条记录的创建时间与ID
+ * @since 2025/10/2
+ */
+@Data
+@AllArgsConstructor
+public class PageCursor {
+
+    private LocalDateTime createTime;
+
+    private Long id;
+}
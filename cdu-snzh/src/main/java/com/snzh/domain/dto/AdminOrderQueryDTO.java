@@ -16,7 +16,7 @@ import java.time.LocalDateTime;
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Schema(description = "管理端订单查询参数")
-public class AdminOrderQueryDTO extends BasePageDto {
+public class AdminOrderQueryDTO extends CursorPageDto {
 
     @Schema(description = "订单号（模糊搜索）")
     private String orderNo;
@@ -0,0 +1,34 @@
+package com.snzh.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.io.Serial;
+
+/**
+ * @author haibara
+ * @description 支持游标分页的分页dto
+ * 游标模式按 (create_time, id) 倒序定位下一页，不执行 COUNT 查询，深分页耗时与页码无关
+ * @since 2025/10/2
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class CursorPageDto extends BasePageDto {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "是否使用游标分页，首页传true且不传cursor")
+    private Boolean cursorMode;
+
+    @Schema(description = "游标，取上一页返回的nextCursor；传入时自动使用游标分页")
+    private String cursor;
+
+    /**
+     * 是否使用游标分页
+     */
+    public boolean useCursor() {
+        return Boolean.TRUE.equals(cursorMode) || (cursor != null && !cursor.isEmpty());
+    }
+}
@@ -17,7 +17,7 @@ import java.util.Date;
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Schema(description = "订单查询请求参数")
-public class OrderQueryDTO extends BasePageDto {
+public class OrderQueryDTO extends CursorPageDto {
 
     @Serial
     private static final long serialVersionUID = 1L;
@@ -46,6 +46,13 @@ public class TicketSaveDTO implements Serializable {
     @Min(value = 0, message = ValidationConstants.SOLD_COUNT_MUST_BE_POSITIVE)
     private Integer soldCount;
 
+    @Schema(description = "每日库存，新增时为空表示不限量，编辑时为空表示不修改")
+    @Min(value = 0, message = ValidationConstants.DAILY_STOCK_MUST_BE_POSITIVE)
+    private Integer dailyStock;
+
+    @Schema(description = "编辑时改为不限量：为true时清空每日库存，忽略dailyStock")
+    private Boolean unlimitedStock;
+
     @Schema(description = "状态:0-禁用,1-正常")
     @Min(value = 0, message = ValidationConstants.INCORRECT_STATUS_VALUE)
     @Max(value = 1, message = ValidationConstants.INCORRECT_STATUS_VALUE)
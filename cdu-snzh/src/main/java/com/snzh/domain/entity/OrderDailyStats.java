@@ -0,0 +1,61 @@
+package com.snzh.domain.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * @author haibara
+ * @description 订单每日统计汇总实体类，同时作为订单条件聚合查询的结果
+ * @since 2025/10/2
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("order_daily_stats")
+@Schema(description = "订单每日统计汇总实体类")
+public class OrderDailyStats implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "统计日期（订单创建日期）")
+    @TableId(type = IdType.INPUT)
+    private LocalDate statDate;
+
+    @Schema(description = "订单总数")
+    private Integer totalCount;
+
+    @Schema(description = "待支付订单数")
+    private Integer pendingCount;
+
+    @Schema(description = "已支付订单数")
+    private Integer paidCount;
+
+    @Schema(description = "已取消订单数")
+    private Integer cancelledCount;
+
+    @Schema(description = "已退款订单数")
+    private Integer refundedCount;
+
+    @Schema(description = "已完成订单数")
+    private Integer completedCount;
+
+    @Schema(description = "销售额（已支付+已完成）")
+    private BigDecimal revenue;
+
+    @Schema(description = "更新时间")
+    private LocalDateTime updateTime;
+}
@@ -46,4 +46,7 @@ public class ScenicTicket  extends BaseTableData implements Serializable {
 
     @Schema(description = "门票售出数量")
     private Integer soldCount;
+
+    @Schema(description = "每日库存，为空表示不限量")
+    private Integer dailyStock;
 }
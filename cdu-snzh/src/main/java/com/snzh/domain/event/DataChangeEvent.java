@@ -0,0 +1,21 @@
+package com.snzh.domain.event;
+
+import com.snzh.redis.RedisKeyBuild;
+
+import java.util.Collection;
+
+/**
+ * @author haibara
+ * @description 领域数据变更事件，业务代码修改数据后发布，
+ * 由 CacheInvalidationListener 在事务提交后统一批量清除受影响的缓存
+ * @since 2025/10/2
+ */
+public interface DataChangeEvent {
+
+    /**
+     * 受本次变更影响、需要清除的缓存key
+     *
+     * @return 缓存key
+     */
+    Collection<RedisKeyBuild> cacheKeys();
+}
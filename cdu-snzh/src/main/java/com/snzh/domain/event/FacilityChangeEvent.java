@@ -0,0 +1,31 @@
+package com.snzh.domain.event;
+
+import com.snzh.enums.RedisKeyManage;
+import com.snzh.redis.RedisKeyBuild;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author haibara
+ * @description 基础设施变更事件，清除设施详情与所属类型的设施列表缓存
+ * @param facilityIds     变更的设施ID，新增设施时为空
+ * @param facilityTypeIds 设施所属的类型ID
+ * @since 2025/10/2
+ */
+public record FacilityChangeEvent(Collection<Long> facilityIds, Collection<Long> facilityTypeIds) implements DataChangeEvent {
+
+    public static FacilityChangeEvent of(Long facilityId, Long facilityTypeId) {
+        return new FacilityChangeEvent(facilityId == null ? List.of() : List.of(facilityId),
+                facilityTypeId == null ? List.of() : List.of(facilityTypeId));
+    }
+
+    @Override
+    public Collection<RedisKeyBuild> cacheKeys() {
+        List<RedisKeyBuild> keys = new ArrayList<>(facilityIds.size() + facilityTypeIds.size());
+        facilityIds.forEach(id -> keys.add(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_DETAILS, id)));
+        facilityTypeIds.forEach(id -> keys.add(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_FOR_TYPE, id)));
+        return keys;
+    }
+}
@@ -0,0 +1,30 @@
+package com.snzh.domain.event;
+
+import com.snzh.enums.RedisKeyManage;
+import com.snzh.redis.RedisKeyBuild;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author haibara
+ * @description 基础设施类型变更事件，清除单个类型与全部类型缓存
+ * @param typeIds 变更的类型ID，新增类型时为空，只清除全部类型缓存
+ * @since 2025/10/2
+ */
+public record FacilityTypeChangeEvent(Collection<Long> typeIds) implements DataChangeEvent {
+
+    public static FacilityTypeChangeEvent of(Long... typeIds) {
+        return new FacilityTypeChangeEvent(Arrays.asList(typeIds));
+    }
+
+    @Override
+    public Collection<RedisKeyBuild> cacheKeys() {
+        List<RedisKeyBuild> keys = new ArrayList<>(typeIds.size() + 1);
+        typeIds.forEach(id -> keys.add(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_TYPE_SINGLE, id)));
+        keys.add(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_TYPE_ALL));
+        return keys;
+    }
+}
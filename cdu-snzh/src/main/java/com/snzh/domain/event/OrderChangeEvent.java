@@ -0,0 +1,25 @@
+package com.snzh.domain.event;
+
+import com.snzh.enums.RedisKeyManage;
+import com.snzh.redis.RedisKeyBuild;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author haibara
+ * @description 订单变更事件（状态流转、修改），清除订单详情缓存
+ * @param orderNos 变更的订单号
+ * @since 2025/10/2
+ */
+public record OrderChangeEvent(Collection<String> orderNos) implements DataChangeEvent {
+
+    public static OrderChangeEvent of(String orderNo) {
+        return new OrderChangeEvent(List.of(orderNo));
+    }
+
+    @Override
+    public Collection<RedisKeyBuild> cacheKeys() {
+        return orderNos.stream().map(orderNo -> RedisKeyBuild.createKey(RedisKeyManage.ORDER_DETAIL, orderNo)).toList();
+    }
+}
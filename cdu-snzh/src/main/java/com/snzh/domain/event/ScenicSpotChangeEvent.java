@@ -0,0 +1,30 @@
+package com.snzh.domain.event;
+
+import com.snzh.enums.RedisKeyManage;
+import com.snzh.redis.RedisKeyBuild;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author haibara
+ * @description 景点/景区变更事件，清除景点详情与景点列表缓存
+ * @param spotIds 变更的景点ID，新增景点时为空，只清除列表
+ * @since 2025/10/2
+ */
+public record ScenicSpotChangeEvent(Collection<Long> spotIds) implements DataChangeEvent {
+
+    public static ScenicSpotChangeEvent of(Long... spotIds) {
+        return new ScenicSpotChangeEvent(Arrays.asList(spotIds));
+    }
+
+    @Override
+    public Collection<RedisKeyBuild> cacheKeys() {
+        List<RedisKeyBuild> keys = new ArrayList<>(spotIds.size() + 1);
+        spotIds.forEach(id -> keys.add(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_DETAIL, id)));
+        keys.add(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_LIST));
+        return keys;
+    }
+}
@@ -0,0 +1,30 @@
+package com.snzh.domain.event;
+
+import com.snzh.enums.RedisKeyManage;
+import com.snzh.redis.RedisKeyBuild;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author haibara
+ * @description 门票变更事件（含销量变化），清除门票详情与所属景点的门票列表缓存
+ * @param ticketIds 变更的门票ID，新增门票时为空
+ * @param spotIds   门票所属的景点ID
+ * @since 2025/10/2
+ */
+public record ScenicTicketChangeEvent(Collection<Long> ticketIds, Collection<Long> spotIds) implements DataChangeEvent {
+
+    public static ScenicTicketChangeEvent of(Long ticketId, Long spotId) {
+        return new ScenicTicketChangeEvent(ticketId == null ? List.of() : List.of(ticketId), List.of(spotId));
+    }
+
+    @Override
+    public Collection<RedisKeyBuild> cacheKeys() {
+        List<RedisKeyBuild> keys = new ArrayList<>(ticketIds.size() + spotIds.size());
+        ticketIds.forEach(id -> keys.add(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_DETAIL, id)));
+        spotIds.forEach(id -> keys.add(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_FOR_SPOT, id)));
+        return keys;
+    }
+}
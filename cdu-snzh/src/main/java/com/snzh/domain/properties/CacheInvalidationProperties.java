@@ -0,0 +1,22 @@
+package com.snzh.domain.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author haibara
+ * @description 数据变更后的缓存清除配置
+ * @since 2025/10/2
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "snzh.cache.invalidation")
+public class CacheInvalidationProperties {
+
+    /**
+     * 延迟双删的延迟时间（毫秒），0为不启用。
+     * 提交后删除与读请求用旧快照回填缓存并发时，延迟后再删一次兜底
+     */
+    private Long doubleDeleteDelayMillis = 0L;
+}
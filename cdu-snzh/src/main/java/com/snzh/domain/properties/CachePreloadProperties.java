@@ -0,0 +1,49 @@
+package com.snzh.domain.properties;
+
+import com.snzh.enums.CachePreloadStage;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * @author haibara
+ * @description 缓存预热配置
+ * @since 2025/10/2
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "snzh.cache.preload")
+public class CachePreloadProperties {
+
+    /**
+     * 并行执行预热阶段的线程数
+     */
+    private Integer threads = 3;
+
+    /**
+     * 单个阶段的最大尝试次数
+     */
+    private Integer maxAttempts = 3;
+
+    /**
+     * 阶段失败后重试的间隔（毫秒）
+     */
+    private Long retryBackoffMillis = 2000L;
+
+    /**
+     * 关键阶段，全部完成后就绪探针才会通过
+     */
+    private Set<CachePreloadStage> criticalStages = EnumSet.of(
+            CachePreloadStage.SCENIC_SPOTS,
+            CachePreloadStage.SCENIC_SPOT_DETAILS,
+            CachePreloadStage.SCENIC_TICKETS);
+
+    /**
+     * 关键阶段重试后仍失败时是否保持未就绪。
+     * 缓存未命中时会回源数据库，默认不因预热失败阻止接收流量
+     */
+    private Boolean blockReadinessOnFailure = false;
+}
@@ -0,0 +1,45 @@
+package com.snzh.domain.properties;
+
+import com.snzh.enums.RedisKeyManage;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * @author haibara
+ * @description 本地一级缓存配置（Redis之前的进程内缓存）
+ * @since 2025/10/2
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "snzh.cache.local")
+public class LocalCacheProperties {
+
+    /**
+     * 是否启用本地一级缓存
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 最大缓存条目数，超出后按最近最少使用淘汰
+     */
+    private Integer maximumSize = 10_000;
+
+    /**
+     * 写入后过期时间（秒），兜底多节点间失效消息丢失的情况
+     */
+    private Long expireSeconds = 60L;
+
+    /**
+     * 失效广播的 pub/sub 频道
+     */
+    private String channel = "snzh:cache:invalidate";
+
+    /**
+     * 启用本地缓存的key，只应包含变化少、读取后不被修改的数据
+     */
+    private Set<RedisKeyManage> namespaces = EnumSet.noneOf(RedisKeyManage.class);
+}
@@ -0,0 +1,31 @@
+package com.snzh.domain.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author haibara
+ * @description 订单号生成配置
+ * @since 2025/10/2
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "snzh.order-no")
+public class OrderNoProperties {
+
+    /**
+     * 生成方式：snowflake=雪花算法（单节点或已为每个节点分配workerId），redis=Redis号段（多节点）
+     */
+    private String mode = "snowflake";
+
+    /**
+     * 雪花算法机器ID（0-1023），多节点时每个节点必须不同
+     */
+    private Long workerId = 1L;
+
+    /**
+     * Redis号段模式每次领取的序号数量
+     */
+    private Long segmentStep = 1000L;
+}
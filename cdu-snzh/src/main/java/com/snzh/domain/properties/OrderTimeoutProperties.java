@@ -0,0 +1,41 @@
+package com.snzh.domain.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author haibara
+ * @description 订单超时延时队列配置
+ * @since 2025/10/2
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "snzh.order-timeout")
+public class OrderTimeoutProperties {
+
+    /**
+     * 是否启用延时队列消费
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 轮询间隔（毫秒）
+     */
+    private Long pollInterval = 1000L;
+
+    /**
+     * 单次领取数量
+     */
+    private Integer batchSize = 100;
+
+    /**
+     * 取消订单的工作线程数
+     */
+    private Integer workerThreads = 4;
+
+    /**
+     * 租约时长（秒），领取后超过该时长未确认则重新投递
+     */
+    private Long leaseSeconds = 60L;
+}
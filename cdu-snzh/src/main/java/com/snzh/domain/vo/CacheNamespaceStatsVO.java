@@ -0,0 +1,74 @@
+package com.snzh.domain.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * @author haibara
+ * @description 单个缓存命名空间（RedisKeyManage）的统计VO，数据自应用启动起累计
+ * @since 2025/10/2
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "缓存命名空间统计")
+public class CacheNamespaceStatsVO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "命名空间，RedisKeyManage枚举名")
+    private String namespace;
+
+    @Schema(description = "key模板")
+    private String keyTemplate;
+
+    @Schema(description = "命中次数（含本地缓存命中）")
+    private Long hits;
+
+    @Schema(description = "本地缓存命中次数")
+    private Long localHits;
+
+    @Schema(description = "未命中次数")
+    private Long misses;
+
+    @Schema(description = "命中率，0-1")
+    private Double hitRate;
+
+    @Schema(description = "回源次数")
+    private Long loads;
+
+    @Schema(description = "回源失败次数")
+    private Long loadFailures;
+
+    @Schema(description = "回源平均耗时（毫秒）")
+    private Double loadAvgMillis;
+
+    @Schema(description = "回源最大耗时（毫秒，近期窗口）")
+    private Double loadMaxMillis;
+
+    @Schema(description = "读取的平均数据大小（字节）")
+    private Double readAvgBytes;
+
+    @Schema(description = "写入的平均数据大小（字节）")
+    private Double writeAvgBytes;
+
+    @Schema(description = "反序列化平均耗时（微秒）")
+    private Double decodeAvgMicros;
+
+    @Schema(description = "序列化平均耗时（微秒）")
+    private Double encodeAvgMicros;
+
+    @Schema(description = "Redis删除次数")
+    private Long evictions;
+
+    @Schema(description = "本地缓存移除次数（失效、容量淘汰与过期）")
+    private Long localEvictions;
+}
@@ -28,4 +28,16 @@ public class PageVo<T> implements Serializable {
     private long totalSize;
 
     private List<T> list;
+
+    /**
+     * 游标分页时下一页的游标，没有下一页时为空
+     */
+    private String nextCursor;
+
+    public PageVo(long pageNum, long pageSize, long totalSize, List<T> list) {
+        this.pageNum = pageNum;
+        this.pageSize = pageSize;
+        this.totalSize = totalSize;
+        this.list = list;
+    }
 }
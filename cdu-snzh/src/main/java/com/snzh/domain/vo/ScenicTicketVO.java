@@ -42,4 +42,7 @@ public class ScenicTicketVO implements Serializable {
 
     @Schema(description = "门票售出数量")
     private Integer soldCount;
+
+    @Schema(description = "每日库存，为空表示不限量")
+    private Integer dailyStock;
 }
@@ -0,0 +1,35 @@
+package com.snzh.enums;
+
+import com.snzh.redis.codec.CacheCodec;
+import com.snzh.redis.codec.CompressingCacheCodec;
+import com.snzh.redis.codec.JsonCacheCodec;
+import com.snzh.redis.codec.JsonbCacheCodec;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * @author haibara
+ * @description 缓存值编码格式，在 RedisKeyManage 中按key配置
+ * @since 2025/10/2
+ */
+@Getter
+@AllArgsConstructor
+public enum CacheCodecType {
+
+    /**
+     * JSON字符串（默认）
+     */
+    JSON(new JsonCacheCodec()),
+
+    /**
+     * fastjson2 JSONB二进制
+     */
+    JSONB(new JsonbCacheCodec()),
+
+    /**
+     * fastjson2 JSONB二进制，超过1KB时Deflate压缩，适合大集合
+     */
+    JSONB_DEFLATE(new CompressingCacheCodec(new JsonbCacheCodec(), 1024));
+
+    private final CacheCodec codec;
+}
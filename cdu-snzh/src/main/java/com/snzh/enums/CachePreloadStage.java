@@ -0,0 +1,40 @@
+package com.snzh.enums;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * @author haibara
+ * @description 缓存预热阶段，按依赖关系组成有向无环图并行执行。
+ * 依赖只能引用声明在前面的阶段，按声明顺序即为一种合法的拓扑序
+ * @since 2025/10/2
+ */
+@Getter
+public enum CachePreloadStage {
+
+    FACILITY_TYPES("基础设施类型"),
+
+    /**
+     * 设施列表按类型分组，在类型之后加载
+     */
+    FACILITIES("基础设施", FACILITY_TYPES),
+
+    SCENIC_SPOTS("景点列表"),
+
+    SCENIC_SPOT_DETAILS("景点详情"),
+
+    /**
+     * 门票列表按景点分组，在景点详情之后加载
+     */
+    SCENIC_TICKETS("景点门票", SCENIC_SPOT_DETAILS);
+
+    private final String desc;
+
+    private final List<CachePreloadStage> dependsOn;
+
+    CachePreloadStage(String desc, CachePreloadStage... dependsOn) {
+        this.desc = desc;
+        this.dependsOn = List.of(dependsOn);
+    }
+}
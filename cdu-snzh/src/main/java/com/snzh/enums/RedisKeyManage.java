@@ -24,17 +24,35 @@ public enum RedisKeyManage {
     ADMIN_LOGIN_FAIL("admin:login:fail:%s","管理员用户名" ,"value为登录失败次数Integer"),
     FACILITY_TYPE_SINGLE("facility:type:%s", "基础设施类型id", "value为FacilityType类型"),
     FACILITY_TYPE_ALL("facility:type:all", "", "value为List<FacilityTypeVO>类型"),
-    FACILITY_FOR_TYPE("facility:%s", "基础设施类型id", "value为List<FacilityVO>类型"),
+    FACILITY_FOR_TYPE("facility:%s", "基础设施类型id", "value为List<FacilityVO>类型", CacheCodecType.JSONB_DEFLATE),
     FACILITY_DETAILS("facility:details:%s", "基础设施id", "value为Facility类型"),
-    SCENIC_TICKET_FOR_SPOT("scenic:ticket:spot:%s", "景点ID", "value为List<ScenicTicketVO>类型"),
+    SCENIC_TICKET_FOR_SPOT("scenic:ticket:spot:%s", "景点ID", "value为List<ScenicTicketVO>类型", CacheCodecType.JSONB),
     SCENIC_TICKET_DETAIL("scenic:ticket:detail:%s", "票ID", "value为ScenicTicketVO类型"),
     SCENIC_SPOT_DETAIL("scenic:spot:detail:%s", "景点id", "value为ScenicSpotVO类型"),
-    SCENIC_SPOT_LIST("scenic:spot:list", "", "value为List<ScenicSpotVO>类型"),
+    SCENIC_SPOT_LIST("scenic:spot:list", "", "value为List<ScenicSpotVO>类型", CacheCodecType.JSONB_DEFLATE),
     ORDER_DETAIL("order:detail:%s", "订单号", "value为OrderVO类型"),
+    CACHE_LOAD_LOCK("cache:load:lock:%s", "被加载的缓存key", "value为回源锁持有者标识，短时过期"),
+    CACHE_WARMUP_WATERMARK("cache:warmup:watermark:%s", "预热阶段", "value为Long类型，该阶段已预热数据的最大update_time毫秒，与全量预热的缓存同时过期"),
+    CACHE_GENERATION("cache:generation", "", "value为Long类型，缓存代数，每次全量预热完成后自增"),
+    ORDER_NO_SEGMENT("order:no:segment", "", "value为Long类型，订单号号段分配计数器"),
+    ORDER_DASHBOARD("order:dashboard", "", "value为OrderDashboardVO类型，短时缓存"),
+    ORDER_DAILY_STATS_WATERMARK("order:daily:stats:watermark", "", "value为Long类型，订单每日汇总上次重算时间毫秒"),
+    ORDER_TIMEOUT_QUEUE("order:timeout:queue", "", "value为ZSet类型，待支付订单号，score为过期时间毫秒"),
+    ORDER_TIMEOUT_PROCESSING("order:timeout:processing", "", "value为ZSet类型，处理中的超时订单号，score为租约到期时间毫秒"),
+
+    // 门票库存相关
+    TICKET_STOCK("ticket:stock:%s:%s", "门票ID,游玩日期", "value为Hash类型，字段capacity/available/reserved/sold"),
+    TICKET_STOCK_DATES("ticket:stock:dates:%s", "门票ID", "value为Set类型，已初始化库存的游玩日期"),
+    TICKET_STOCK_ORDER("ticket:stock:order:%s", "订单号", "value为Hash类型，订单预占的库存key与数量及预占状态"),
+    TICKET_STOCK_PENDING("ticket:stock:pending", "", "value为ZSet类型，未确认的预占订单号，score为预占时间"),
     
     // AI智能客服相关
     AI_CHAT_MEMORY("ai:chat:memory:%s", "会话ID", "value为List<AiChatMessage>类型，存储会话历史"),
-    AI_CHAT_CONTEXT("ai:chat:context:%s", "会话ID", "value为Hash类型，存储会话上下文变量")
+    AI_CHAT_CONTEXT("ai:chat:context:%s", "会话ID", "value为Hash类型，存储会话上下文变量"),
+    AI_CHAT_SUMMARY("ai:chat:summary:%s", "会话ID", "value为String类型，存储较早对话的滚动摘要"),
+    AI_CHAT_SUMMARY_LOCK("ai:chat:summary:lock:%s", "会话ID", "value为摘要锁持有者标识，多节点间同一会话同时只生成一次摘要"),
+    AI_TOOL_RESULT("ai:tool:result:%s:%s:%s", "工具名,结果版本号,参数摘要", "value为String类型，存储工具返回的文字结果"),
+    AI_TOOL_VERSION("ai:tool:version:%s", "工具名", "value为Long类型，工具结果版本号，数据变更时递增使旧结果失效")
     ;
 
 
@@ -54,6 +72,15 @@ public enum RedisKeyManage {
      * */
     private final String valueIntroduce;
 
+    /**
+     * value的编码格式，仅对字符串类型的value生效
+     * */
+    private final CacheCodecType codecType;
+
+    RedisKeyManage(String key, String keyIntroduce, String valueIntroduce) {
+        this(key, keyIntroduce, valueIntroduce, CacheCodecType.JSON);
+    }
+
 
     public static RedisKeyManage getRc(String keyCode) {
         for (RedisKeyManage re : RedisKeyManage.values()) {
@@ -0,0 +1,19 @@
+package com.snzh.generator;
+
+/**
+ * @author haibara
+ * @description 订单号生成器
+ * 实现需保证全局唯一且线程安全，生成的订单号长度不超过 orders.order_no 列宽（32）
+ * @since 2025/10/2
+ */
+public interface OrderNoGenerator {
+
+    /** 订单号前缀 */
+    String ORDER_NO_PREFIX = "SNZH_ORDER";
+
+    /**
+     * 生成下一个订单号
+     * @return 订单号
+     */
+    String nextOrderNo();
+}
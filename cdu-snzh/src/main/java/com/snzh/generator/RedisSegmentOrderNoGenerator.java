@@ -0,0 +1,120 @@
+package com.snzh.generator;
+
+import com.snzh.enums.RedisKeyManage;
+import com.snzh.redis.RedisCache;
+import com.snzh.redis.RedisKeyBuild;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author haibara
+ * @description Redis号段订单号生成器（多节点部署）
+ * 每个节点通过 INCRBY 一次领取 step 个连续序号，号段内在本地无锁分配，用尽后再领取下一段，
+ * Redis 往返次数降为 1/step。订单号为前缀 + yyyyMMdd + 11位补零的全局序号，序号全局不重复，日期仅用于可读性
+ * @since 2025/10/2
+ */
+@Slf4j
+public class RedisSegmentOrderNoGenerator implements OrderNoGenerator {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final long MAX_SEQUENCE = 99_999_999_999L;
+
+    private final RedisCache redisCache;
+
+    private final RedisKeyBuild segmentKey = RedisKeyBuild.createKey(RedisKeyManage.ORDER_NO_SEGMENT);
+
+    private final long step;
+
+    /**
+     * 初始为空号段，首次使用时领取
+     */
+    private volatile Segment segment = new Segment(1, 0);
+
+    /**
+     * 日期前缀缓存，跨天时刷新
+     */
+    private volatile DatePrefix datePrefix = new DatePrefix(LocalDate.MIN, "");
+
+    public RedisSegmentOrderNoGenerator(RedisCache redisCache, long step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("号段步长必须大于0，当前：" + step);
+        }
+        this.redisCache = redisCache;
+        this.step = step;
+    }
+
+    @Override
+    public String nextOrderNo() {
+        long sequence = nextSequence();
+        String digits = Long.toString(sequence % (MAX_SEQUENCE + 1));
+        StringBuilder builder = new StringBuilder(29).append(currentDatePrefix());
+        for (int i = digits.length(); i < 11; i++) {
+            builder.append('0');
+        }
+        return builder.append(digits).toString();
+    }
+
+    /**
+     * 获取下一个全局序号
+     * @return 序号
+     */
+    public long nextSequence() {
+        while (true) {
+            Segment current = segment;
+            long value = current.cursor.getAndIncrement();
+            if (value <= current.max) {
+                return value;
+            }
+            refill(current);
+        }
+    }
+
+    /**
+     * 当前号段用尽时领取新号段，仅一个线程实际访问Redis
+     */
+    private synchronized void refill(Segment exhausted) {
+        if (segment != exhausted) {
+            return;
+        }
+        Long max = redisCache.incrBy(segmentKey, step);
+        if (max == null) {
+            throw new IllegalStateException("领取订单号号段失败");
+        }
+        segment = new Segment(max - step + 1, max);
+        log.debug("领取订单号号段：[{}, {}]", max - step + 1, max);
+    }
+
+    private String currentDatePrefix() {
+        LocalDate today = LocalDate.now();
+        DatePrefix prefix = datePrefix;
+        if (!today.equals(prefix.date)) {
+            prefix = new DatePrefix(today, ORDER_NO_PREFIX + today.format(DATE_FORMATTER));
+            datePrefix = prefix;
+        }
+        return prefix.value;
+    }
+
+    private static final class Segment {
+        private final AtomicLong cursor;
+        private final long max;
+
+        private Segment(long min, long max) {
+            this.cursor = new AtomicLong(min);
+            this.max = max;
+        }
+    }
+
+    private static final class DatePrefix {
+        private final LocalDate date;
+        private final String value;
+
+        private DatePrefix(LocalDate date, String value) {
+            this.date = date;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.snzh.generator;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author haibara
+ * @description 雪花算法订单号生成器（单JVM内无锁、单调递增）
+ * 结构：41位毫秒时间戳(自定义纪元) + 10位机器ID + 12位序列号，订单号为前缀 + 19位补零的十进制ID。
+ * 时间戳与序列号打包在一个 AtomicLong 中通过CAS推进：同一毫秒内序列号用尽或时钟回拨时，
+ * 直接在上一个值上递增（借用后续毫秒），因此不会阻塞等待，也不会产生重复。
+ * 多节点部署时各节点的 workerId 必须不同，否则请使用 {@link RedisSegmentOrderNoGenerator}
+ * @since 2025/10/2
+ */
+public class SnowflakeOrderNoGenerator implements OrderNoGenerator {
+
+    /** 自定义纪元 2025-01-01 00:00:00 */
+    private static final long EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0)
+            .atZone(ZoneId.of("Asia/Shanghai")).toInstant().toEpochMilli();
+
+    private static final int WORKER_ID_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+
+    public static final long MAX_WORKER_ID = (1L << WORKER_ID_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final int TIMESTAMP_SHIFT = WORKER_ID_BITS + SEQUENCE_BITS;
+
+    private final long workerBits;
+
+    /**
+     * 高位为相对纪元的毫秒时间戳，低12位为序列号
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeOrderNoGenerator(long workerId) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("workerId 取值范围为 0-" + MAX_WORKER_ID + "，当前：" + workerId);
+        }
+        this.workerBits = workerId << SEQUENCE_BITS;
+    }
+
+    @Override
+    public String nextOrderNo() {
+        long id = nextId();
+        StringBuilder builder = new StringBuilder(ORDER_NO_PREFIX.length() + 19).append(ORDER_NO_PREFIX);
+        String digits = Long.toString(id);
+        for (int i = digits.length(); i < 19; i++) {
+            builder.append('0');
+        }
+        return builder.append(digits).toString();
+    }
+
+    /**
+     * 生成下一个ID
+     * @return 单调递增的ID
+     */
+    public long nextId() {
+        while (true) {
+            long last = state.get();
+            long now = System.currentTimeMillis() - EPOCH;
+            long next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if (state.compareAndSet(last, next)) {
+                return ((next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT) | workerBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+}
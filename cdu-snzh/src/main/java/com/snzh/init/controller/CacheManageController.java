@@ -2,6 +2,7 @@ package com.snzh.init.controller;
 
 import com.snzh.annotation.RequireAdmin;
 import com.snzh.domain.ResponseResult;
+import com.snzh.domain.vo.CacheNamespaceStatsVO;
 import com.snzh.init.service.IInitService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -9,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -38,6 +40,12 @@ public class CacheManageController {
         }
     }
 
+    @Operation(summary = "获取缓存命名空间统计", description = "按RedisKeyManage查看命中率、回源耗时、数据大小与删除次数")
+    @GetMapping("/stats")
+    public ResponseResult<List<CacheNamespaceStatsVO>> getCacheNamespaceStats() {
+        return ResponseResult.success(initService.getCacheNamespaceStats());
+    }
+
     @Operation(summary = "重新预热所有缓存", description = "执行所有缓存预热任务，适用于系统维护后的缓存重建")
     @PostMapping("/reload-all")
     public ResponseResult<String> reloadAllCache() {
@@ -54,6 +62,22 @@ public class CacheManageController {
         }
     }
 
+    @Operation(summary = "增量预热缓存", description = "只重新加载上次预热之后有变更的数据，没有预热水位的表执行全量预热")
+    @PostMapping("/reload-changed")
+    public ResponseResult<String> reloadChangedCache() {
+        try {
+            log.info("手动触发：增量预热缓存");
+            long startTime = System.currentTimeMillis();
+            initService.executeIncrementalInitTasks();
+            long endTime = System.currentTimeMillis();
+            String message = String.format("增量缓存预热完成，耗时: %dms", endTime - startTime);
+            return ResponseResult.success(message);
+        } catch (Exception e) {
+            log.error("增量预热缓存失败", e);
+            return ResponseResult.failure("缓存预热失败：" + e.getMessage());
+        }
+    }
+
     @Operation(summary = "预热基础设施类型缓存", description = "单独预热基础设施类型相关缓存")
     @PostMapping("/reload-facility-types")
     public ResponseResult<String> reloadFacilityTypes() {
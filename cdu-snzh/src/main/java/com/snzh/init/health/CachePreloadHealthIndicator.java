@@ -0,0 +1,26 @@
+package com.snzh.init.health;
+
+import com.snzh.init.task.CachePreloadTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author haibara
+ * @description 缓存预热就绪检查，加入 readiness 健康组，关键预热阶段完成前不接收流量
+ * @since 2025/10/2
+ */
+@Component
+@RequiredArgsConstructor
+public class CachePreloadHealthIndicator implements HealthIndicator {
+
+    private final CachePreloadTracker cachePreloadTracker;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = cachePreloadTracker.isWarmedUp() ? Health.up() : Health.outOfService();
+        cachePreloadTracker.snapshot().forEach((stage, result) -> builder.withDetail(stage.name(), result));
+        return builder.build();
+    }
+}
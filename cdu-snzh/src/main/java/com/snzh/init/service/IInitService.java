@@ -1,5 +1,8 @@
 package com.snzh.init.service;
 
+import com.snzh.domain.vo.CacheNamespaceStatsVO;
+
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -46,10 +49,17 @@ public interface IInitService {
 
     /**
      * 执行所有初始化任务
-     * 按顺序执行所有预热任务
+     * 按依赖关系并行执行所有预热阶段，全部成功后缓存代数自增
      */
     void executeAllInitTasks();
 
+    /**
+     * 执行增量初始化任务
+     * 按阶段记录已预热数据的最大 update_time，只重新加载之后有变更的行并重建受影响的列表缓存；
+     * 没有水位的阶段执行全量预热
+     */
+    void executeIncrementalInitTasks();
+
     /**
      * 获取缓存状态信息
      * 返回各个缓存的存在状态和过期时间
@@ -57,5 +67,13 @@ public interface IInitService {
      * @return 缓存状态信息Map
      */
     Map<String, Object> getCacheStatus();
+
+    /**
+     * 获取各缓存命名空间的命中、回源、数据大小与删除统计
+     * 数据自应用启动起累计，用于评估过期时间与本地缓存容量
+     *
+     * @return 按 RedisKeyManage 声明顺序的统计列表
+     */
+    List<CacheNamespaceStatsVO> getCacheNamespaceStats();
 }
 
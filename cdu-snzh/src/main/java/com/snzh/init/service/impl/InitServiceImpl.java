@@ -2,32 +2,50 @@ package com.snzh.init.service.impl;
 
 import cn.hutool.core.bean.BeanUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.snzh.config.InitExecutors;
+import com.snzh.domain.base.BaseTableData;
 import com.snzh.domain.entity.Facility;
 import com.snzh.domain.entity.FacilityType;
 import com.snzh.domain.entity.ScenicSpot;
 import com.snzh.domain.entity.ScenicTicket;
+import com.snzh.domain.properties.CachePreloadProperties;
+import com.snzh.domain.vo.CacheNamespaceStatsVO;
 import com.snzh.domain.vo.FacilityTypeVO;
 import com.snzh.domain.vo.FacilityVO;
 import com.snzh.domain.vo.ScenicSpotVO;
 import com.snzh.domain.vo.ScenicTicketVO;
+import com.snzh.enums.CachePreloadStage;
 import com.snzh.enums.RedisKeyManage;
 import com.snzh.enums.SpotTypeEnum;
 import com.snzh.enums.StatusEnum;
 import com.snzh.init.service.IInitService;
+import com.snzh.init.task.CachePreloadTracker;
 import com.snzh.mapper.FacilityMapper;
 import com.snzh.mapper.FacilityTypeMapper;
 import com.snzh.mapper.ScenicSpotMapper;
 import com.snzh.mapper.ScenicTicketMapper;
+import com.snzh.redis.CacheMetrics;
 import com.snzh.redis.RedisCache;
 import com.snzh.redis.RedisKeyBuild;
+import com.snzh.utils.CacheUtil;
 import com.snzh.utils.DateUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author haibara
@@ -39,17 +57,30 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class InitServiceImpl implements IInitService {
 
+    /** 水位回退时间，覆盖预热时尚未提交的事务 */
+    private static final long WATERMARK_SAFETY_MINUTES = 2;
+
     private final RedisCache redisCache;
+    private final CacheMetrics cacheMetrics;
     private final FacilityTypeMapper facilityTypeMapper;
     private final FacilityMapper facilityMapper;
     private final ScenicSpotMapper scenicSpotMapper;
     private final ScenicTicketMapper scenicTicketMapper;
+    private final InitExecutors initExecutors;
+    private final CachePreloadProperties cachePreloadProperties;
+    private final CachePreloadTracker cachePreloadTracker;
+
+    /**
+     * 全量与增量预热互斥，避免同一阶段被并发写入
+     */
+    private final ReentrantLock warmupLock = new ReentrantLock();
 
     @Override
     public void preloadFacilityTypes() {
         log.info("--------开始预热基础设施类型缓存--------");
         try {
             long startTime = System.currentTimeMillis();
+            LocalDateTime watermark = latestUpdateTime(FacilityType.class, facilityTypeMapper, FacilityType::getUpdateTime);
 
             // 查询所有启用的基础设施类型
             LambdaQueryWrapper<FacilityType> wrapper = new LambdaQueryWrapper<>();
@@ -71,15 +102,13 @@ public class InitServiceImpl implements IInitService {
                         TimeUnit.SECONDS
                 );
 
-                // 缓存每个类型的详情
+                // 缓存每个类型的详情（管道一次写入）
+                Map<RedisKeyBuild, FacilityType> typeDetails = new LinkedHashMap<>();
                 for (FacilityType facilityType : facilityTypes) {
-                    redisCache.set(
-                            RedisKeyBuild.createKey(RedisKeyManage.FACILITY_TYPE_SINGLE, facilityType.getId()),
-                            facilityType,
-                            DateUtils.DAY_SECONDS,
-                            TimeUnit.SECONDS
-                    );
+                    typeDetails.put(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_TYPE_SINGLE, facilityType.getId()), facilityType);
                 }
+                redisCache.multiSetWithTtl(typeDetails, DateUtils.DAY_SECONDS, TimeUnit.SECONDS);
+                saveWatermark(CachePreloadStage.FACILITY_TYPES, watermark);
 
                 long endTime = System.currentTimeMillis();
                 log.info("--------基础设施类型缓存预热完成，类型列表: 1个，单个类型: {}个，耗时: {}ms--------",
@@ -89,6 +118,7 @@ public class InitServiceImpl implements IInitService {
             }
         } catch (Exception e) {
             log.error("--------基础设施类型缓存预热失败--------", e);
+            throw e;
         }
     }
 
@@ -97,6 +127,7 @@ public class InitServiceImpl implements IInitService {
         log.info("--------开始预热基础设施缓存--------");
         try {
             long startTime = System.currentTimeMillis();
+            LocalDateTime watermark = latestUpdateTime(Facility.class, facilityMapper, Facility::getUpdateTime);
 
             // 查询所有启用的基础设施
             LambdaQueryWrapper<Facility> wrapper = new LambdaQueryWrapper<>();
@@ -112,32 +143,23 @@ public class InitServiceImpl implements IInitService {
                 Map<Long, List<Facility>> groupedByType = facilities.stream()
                         .collect(Collectors.groupingBy(Facility::getFacilityTypeId));
 
-                // 缓存每个类型下的设施列表
+                // 缓存每个类型下的设施列表与每个设施的详情（管道一次写入）
+                Map<RedisKeyBuild, Object> cacheEntries = new LinkedHashMap<>();
                 for (Map.Entry<Long, List<Facility>> entry : groupedByType.entrySet()) {
                     Long typeId = entry.getKey();
                     List<FacilityVO> facilityVOList = entry.getValue().stream()
                             .map(facility -> BeanUtil.copyProperties(facility, FacilityVO.class))
                             .toList();
 
-                    redisCache.set(
-                            RedisKeyBuild.createKey(RedisKeyManage.FACILITY_FOR_TYPE, typeId),
-                            facilityVOList,
-                            DateUtils.DAY_SECONDS,
-                            TimeUnit.SECONDS
-                    );
+                    cacheEntries.put(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_FOR_TYPE, typeId), facilityVOList);
                     typeGroupCached++;
                 }
-
-                // 缓存每个设施的详情
                 for (Facility facility : facilities) {
-                    redisCache.set(
-                            RedisKeyBuild.createKey(RedisKeyManage.FACILITY_DETAILS, facility.getId()),
-                            facility,
-                            DateUtils.DAY_SECONDS,
-                            TimeUnit.SECONDS
-                    );
+                    cacheEntries.put(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_DETAILS, facility.getId()), facility);
                     detailsCached++;
                 }
+                redisCache.multiSetWithTtl(cacheEntries, DateUtils.DAY_SECONDS, TimeUnit.SECONDS);
+                saveWatermark(CachePreloadStage.FACILITIES, watermark);
 
                 long endTime = System.currentTimeMillis();
                 log.info("--------基础设施缓存预热完成，类型分组: {}个，设施详情: {}个，耗时: {}ms--------",
@@ -147,6 +169,7 @@ public class InitServiceImpl implements IInitService {
             }
         } catch (Exception e) {
             log.error("--------基础设施缓存预热失败--------", e);
+            throw e;
         }
     }
 
@@ -155,6 +178,7 @@ public class InitServiceImpl implements IInitService {
         log.info("--------开始预热景点列表缓存--------");
         try {
             long startTime = System.currentTimeMillis();
+            LocalDateTime watermark = latestUpdateTime(ScenicSpot.class, scenicSpotMapper, ScenicSpot::getUpdateTime);
 
             // 查询所有启用的景点
             LambdaQueryWrapper<ScenicSpot> wrapper = new LambdaQueryWrapper<>();
@@ -177,6 +201,7 @@ public class InitServiceImpl implements IInitService {
                         DateUtils.DAY_SECONDS,
                         TimeUnit.SECONDS
                 );
+                saveWatermark(CachePreloadStage.SCENIC_SPOTS, watermark);
 
                 long endTime = System.currentTimeMillis();
                 log.info("--------景点列表缓存预热完成，缓存数量: {}，耗时: {}ms--------",
@@ -186,6 +211,7 @@ public class InitServiceImpl implements IInitService {
             }
         } catch (Exception e) {
             log.error("--------景点列表缓存预热失败--------", e);
+            throw e;
         }
     }
 
@@ -194,6 +220,7 @@ public class InitServiceImpl implements IInitService {
         log.info("--------开始预热景点详情缓存--------");
         try {
             long startTime = System.currentTimeMillis();
+            LocalDateTime watermark = latestUpdateTime(ScenicSpot.class, scenicSpotMapper, ScenicSpot::getUpdateTime);
 
             // 查询所有启用的景点
             LambdaQueryWrapper<ScenicSpot> wrapper = new LambdaQueryWrapper<>();
@@ -202,17 +229,15 @@ public class InitServiceImpl implements IInitService {
 
             if (scenicSpots != null && !scenicSpots.isEmpty()) {
                 int cachedCount = 0;
-                // 缓存每个景点的详情
+                // 缓存每个景点的详情（管道一次写入）
+                Map<RedisKeyBuild, ScenicSpotVO> spotDetails = new LinkedHashMap<>();
                 for (ScenicSpot scenicSpot : scenicSpots) {
                     ScenicSpotVO scenicSpotVO = BeanUtil.copyProperties(scenicSpot, ScenicSpotVO.class);
-                    redisCache.set(
-                            RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_DETAIL, scenicSpot.getId()),
-                            scenicSpotVO,
-                            DateUtils.DAY_SECONDS,
-                            TimeUnit.SECONDS
-                    );
+                    spotDetails.put(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_DETAIL, scenicSpot.getId()), scenicSpotVO);
                     cachedCount++;
                 }
+                redisCache.multiSetWithTtl(spotDetails, DateUtils.DAY_SECONDS, TimeUnit.SECONDS);
+                saveWatermark(CachePreloadStage.SCENIC_SPOT_DETAILS, watermark);
 
                 long endTime = System.currentTimeMillis();
                 log.info("--------景点详情缓存预热完成，缓存数量: {}，耗时: {}ms--------",
@@ -222,6 +247,7 @@ public class InitServiceImpl implements IInitService {
             }
         } catch (Exception e) {
             log.error("--------景点详情缓存预热失败--------", e);
+            throw e;
         }
     }
 
@@ -231,6 +257,7 @@ public class InitServiceImpl implements IInitService {
         log.info("--------开始预热景点门票缓存--------");
         try {
             long startTime = System.currentTimeMillis();
+            LocalDateTime watermark = latestUpdateTime(ScenicTicket.class, scenicTicketMapper, ScenicTicket::getUpdateTime);
 
             // 查询所有启用的景点门票
             LambdaQueryWrapper<ScenicTicket> wrapper = new LambdaQueryWrapper<>();
@@ -246,33 +273,24 @@ public class InitServiceImpl implements IInitService {
                 Map<Long, List<ScenicTicket>> groupedBySpot = scenicTickets.stream()
                         .collect(Collectors.groupingBy(ScenicTicket::getScenicSpotId));
 
-                // 缓存每个景点的门票列表
+                // 缓存每个景点的门票列表与每个门票的详情（管道一次写入）
+                Map<RedisKeyBuild, Object> cacheEntries = new LinkedHashMap<>();
                 for (Map.Entry<Long, List<ScenicTicket>> entry : groupedBySpot.entrySet()) {
                     Long spotId = entry.getKey();
                     List<ScenicTicketVO> ticketVOList = entry.getValue().stream()
                             .map(ticket -> BeanUtil.copyProperties(ticket, ScenicTicketVO.class))
                             .toList();
 
-                    redisCache.set(
-                            RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_FOR_SPOT, spotId),
-                            ticketVOList,
-                            DateUtils.DAY_SECONDS,
-                            TimeUnit.SECONDS
-                    );
+                    cacheEntries.put(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_FOR_SPOT, spotId), ticketVOList);
                     spotTicketsCached++;
                 }
-
-                // 缓存每个门票的详情
                 for (ScenicTicket ticket : scenicTickets) {
                     ScenicTicketVO ticketVO = BeanUtil.copyProperties(ticket, ScenicTicketVO.class);
-                    redisCache.set(
-                            RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_DETAIL, ticket.getId()),
-                            ticketVO,
-                            DateUtils.DAY_SECONDS,
-                            TimeUnit.SECONDS
-                    );
+                    cacheEntries.put(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_DETAIL, ticket.getId()), ticketVO);
                     ticketDetailsCached++;
                 }
+                redisCache.multiSetWithTtl(cacheEntries, DateUtils.DAY_SECONDS, TimeUnit.SECONDS);
+                saveWatermark(CachePreloadStage.SCENIC_TICKETS, watermark);
 
                 long endTime = System.currentTimeMillis();
                 log.info("--------景点门票缓存预热完成，景点门票列表: {}个，门票详情: {}个，耗时: {}ms--------",
@@ -282,6 +300,7 @@ public class InitServiceImpl implements IInitService {
             }
         } catch (Exception e) {
             log.error("--------景点门票缓存预热失败--------", e);
+            throw e;
         }
     }
 
@@ -291,26 +310,343 @@ public class InitServiceImpl implements IInitService {
         log.info("--------开始执行系统初始化任务--------");
         long totalStartTime = System.currentTimeMillis();
 
+        warmupLock.lock();
         try {
-            // 1. 预热基础设施类型
-            preloadFacilityTypes();
+            if (runStages(false)) {
+                // 缓存代数自增，读取方可据此判断发生过全量重建
+                Long generation = redisCache.incrBy(RedisKeyBuild.createKey(RedisKeyManage.CACHE_GENERATION), 1);
+                log.info("--------系统初始化任务执行完成，缓存代数: {}，总耗时: {}ms--------",
+                        generation, System.currentTimeMillis() - totalStartTime);
+            } else {
+                log.error("--------系统初始化任务部分阶段失败，缓存代数不变，总耗时: {}ms--------",
+                        System.currentTimeMillis() - totalStartTime);
+            }
+        } finally {
+            warmupLock.unlock();
+        }
+    }
 
-            // 2. 预热基础设施
-            preloadFacilities();
+    @Override
+    public void executeIncrementalInitTasks() {
+        log.info("--------开始执行增量缓存预热--------");
+        long totalStartTime = System.currentTimeMillis();
 
-            // 3. 预热景点列表
-            preloadScenicSpots();
+        warmupLock.lock();
+        try {
+            boolean success = runStages(true);
+            log.info("--------增量缓存预热{}，总耗时: {}ms--------",
+                    success ? "完成" : "部分阶段失败", System.currentTimeMillis() - totalStartTime);
+        } finally {
+            warmupLock.unlock();
+        }
+    }
 
-            // 4. 预热景点详情
-            preloadScenicSpotDetails();
+    /**
+     * 按依赖关系并行执行各预热阶段，阶段在依赖全部结束（无论成败）后开始
+     *
+     * @param incremental 是否增量预热
+     * @return 是否所有阶段都成功
+     */
+    private boolean runStages(boolean incremental) {
+        Map<CachePreloadStage, CompletableFuture<Boolean>> futures = new EnumMap<>(CachePreloadStage.class);
+        for (CachePreloadStage stage : CachePreloadStage.values()) {
+            CompletableFuture<?>[] dependencies = stage.getDependsOn().stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+            futures.put(stage, CompletableFuture.allOf(dependencies)
+                    .thenApplyAsync(ignored -> runStage(stage, incremental), initExecutors.getPreloadExecutor()));
+        }
+        boolean success = true;
+        for (CompletableFuture<Boolean> future : futures.values()) {
+            success &= future.join();
+        }
+        return success;
+    }
 
-            // 5. 预热景点门票
-            preloadScenicTickets();
+    /**
+     * 执行单个预热阶段，失败后按配置的间隔重试，结果记录到 {@link CachePreloadTracker}
+     *
+     * @return 是否成功
+     */
+    private boolean runStage(CachePreloadStage stage, boolean incremental) {
+        long startTime = System.currentTimeMillis();
+        int maxAttempts = Math.max(1, cachePreloadProperties.getMaxAttempts());
+        Exception lastError = null;
+        int attempt = 0;
+        while (attempt < maxAttempts) {
+            attempt++;
+            cachePreloadTracker.running(stage, attempt);
+            try {
+                if (incremental) {
+                    refreshStage(stage);
+                } else {
+                    preloadStage(stage);
+                }
+                long millis = System.currentTimeMillis() - startTime;
+                cachePreloadTracker.finished(stage, attempt, millis, null);
+                log.info("--------预热阶段[{}]完成，尝试: {}次，耗时: {}ms--------", stage.getDesc(), attempt, millis);
+                return true;
+            } catch (Exception e) {
+                lastError = e;
+                log.warn("--------预热阶段[{}]第{}次执行失败: {}--------", stage.getDesc(), attempt, e.getMessage());
+            }
+            if (attempt < maxAttempts && !backoff()) {
+                break;
+            }
+        }
+        long millis = System.currentTimeMillis() - startTime;
+        cachePreloadTracker.finished(stage, attempt, millis, lastError);
+        log.error("--------预热阶段[{}]失败，尝试: {}次，耗时: {}ms--------", stage.getDesc(), attempt, millis, lastError);
+        return false;
+    }
 
-            long totalEndTime = System.currentTimeMillis();
-            log.info("--------系统初始化任务执行完成，总耗时: {}ms--------", totalEndTime - totalStartTime);
-        } catch (Exception e) {
-            log.error("--------系统初始化任务执行失败--------", e);
+    /**
+     * 等待重试间隔
+     *
+     * @return 被中断时返回false
+     */
+    private boolean backoff() {
+        try {
+            Thread.sleep(cachePreloadProperties.getRetryBackoffMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void preloadStage(CachePreloadStage stage) {
+        switch (stage) {
+            case FACILITY_TYPES -> preloadFacilityTypes();
+            case FACILITIES -> preloadFacilities();
+            case SCENIC_SPOTS -> preloadScenicSpots();
+            case SCENIC_SPOT_DETAILS -> preloadScenicSpotDetails();
+            case SCENIC_TICKETS -> preloadScenicTickets();
+        }
+    }
+
+    private void refreshStage(CachePreloadStage stage) {
+        switch (stage) {
+            case FACILITY_TYPES -> refreshChanged(stage, FacilityType.class, facilityTypeMapper,
+                    FacilityType::getUpdateTime, this::collectFacilityTypes);
+            case FACILITIES -> refreshChanged(stage, Facility.class, facilityMapper,
+                    Facility::getUpdateTime, this::collectFacilities);
+            case SCENIC_SPOTS -> refreshChanged(stage, ScenicSpot.class, scenicSpotMapper,
+                    ScenicSpot::getUpdateTime, this::collectScenicSpotList);
+            case SCENIC_SPOT_DETAILS -> refreshChanged(stage, ScenicSpot.class, scenicSpotMapper,
+                    ScenicSpot::getUpdateTime, this::collectScenicSpotDetails);
+            case SCENIC_TICKETS -> refreshChanged(stage, ScenicTicket.class, scenicTicketMapper,
+                    ScenicTicket::getUpdateTime, this::collectScenicTickets);
+        }
+    }
+
+    /**
+     * 只重新加载水位之后有变更的行；没有水位（从未全量预热或已随缓存过期）时执行该阶段的全量预热
+     *
+     * @param stage     预热阶段，各阶段的水位独立记录
+     * @param collector 根据变更行收集需要写入与删除的缓存
+     */
+    private <T extends BaseTableData> void refreshChanged(CachePreloadStage stage, Class<T> entityClass, BaseMapper<T> mapper,
+                                                          SFunction<T, LocalDateTime> updateTime,
+                                                          BiConsumer<List<T>, CacheWrites> collector) {
+        long startTime = System.currentTimeMillis();
+        Long watermark = redisCache.get(watermarkKey(stage), Long.class);
+        if (watermark == null) {
+            log.info("--------{}没有预热水位，执行全量预热--------", stage.getDesc());
+            preloadStage(stage);
+            return;
+        }
+
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(watermark), ZoneId.systemDefault())
+                .minusMinutes(WATERMARK_SAFETY_MINUTES);
+        List<T> changed = mapper.selectList(Wrappers.lambdaQuery(entityClass).gt(updateTime, since));
+        if (changed.isEmpty()) {
+            log.info("--------{}无变更，跳过，耗时: {}ms--------", stage.getDesc(), System.currentTimeMillis() - startTime);
+            return;
+        }
+
+        CacheWrites writes = new CacheWrites();
+        collector.accept(changed, writes);
+        writeInBatches(writes);
+        changed.stream()
+                .map(BaseTableData::getUpdateTime)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .ifPresent(latest -> advanceWatermark(stage, latest));
+
+        log.info("--------{}增量预热完成，变更: {}行，写入: {}个key，删除: {}个key，耗时: {}ms--------",
+                stage.getDesc(), changed.size(), writes.sets.size(), writes.dels.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private void collectFacilityTypes(List<FacilityType> changed, CacheWrites writes) {
+        for (FacilityType facilityType : changed) {
+            writes.setIfRunning(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_TYPE_SINGLE, facilityType.getId()),
+                    facilityType, facilityType.getStatus());
+        }
+        List<FacilityTypeVO> facilityTypeVOList = facilityTypeMapper.selectList(
+                        Wrappers.lambdaQuery(FacilityType.class)
+                                .eq(FacilityType::getStatus, StatusEnum.RUN.getCode())
+                                .orderByAsc(FacilityType::getId))
+                .stream()
+                .map(facilityType -> BeanUtil.copyProperties(facilityType, FacilityTypeVO.class))
+                .toList();
+        writes.setOrDel(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_TYPE_ALL), facilityTypeVOList);
+    }
+
+    private void collectFacilities(List<Facility> changed, CacheWrites writes) {
+        Set<Long> typeIds = new LinkedHashSet<>();
+        for (Facility facility : changed) {
+            writes.setIfRunning(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_DETAILS, facility.getId()),
+                    facility, facility.getStatus());
+            typeIds.add(facility.getFacilityTypeId());
+        }
+        // 受影响类型的设施列表整组重建
+        Map<Long, List<Facility>> groupedByType = facilityMapper.selectList(
+                        Wrappers.lambdaQuery(Facility.class)
+                                .eq(Facility::getStatus, StatusEnum.RUN.getCode())
+                                .in(Facility::getFacilityTypeId, typeIds))
+                .stream()
+                .collect(Collectors.groupingBy(Facility::getFacilityTypeId));
+        for (Long typeId : typeIds) {
+            List<FacilityVO> facilityVOList = groupedByType.getOrDefault(typeId, List.of()).stream()
+                    .map(facility -> BeanUtil.copyProperties(facility, FacilityVO.class))
+                    .toList();
+            writes.setOrDel(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_FOR_TYPE, typeId), facilityVOList);
+        }
+    }
+
+    /**
+     * 任一景点变更都整体重建景点列表
+     */
+    private void collectScenicSpotList(List<ScenicSpot> changed, CacheWrites writes) {
+        List<ScenicSpotVO> scenicSpotVOList = scenicSpotMapper.selectList(
+                        Wrappers.lambdaQuery(ScenicSpot.class)
+                                .eq(ScenicSpot::getStatus, StatusEnum.RUN.getCode())
+                                .eq(ScenicSpot::getSpotType, SpotTypeEnum.SCENIC_SPOT.getCode())
+                                .eq(ScenicSpot::getParentId, 1)
+                                .orderByAsc(ScenicSpot::getDisplayOrder))
+                .stream()
+                .map(scenicSpot -> BeanUtil.copyProperties(scenicSpot, ScenicSpotVO.class))
+                .toList();
+        writes.setOrDel(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_LIST), scenicSpotVOList);
+    }
+
+    private void collectScenicSpotDetails(List<ScenicSpot> changed, CacheWrites writes) {
+        for (ScenicSpot scenicSpot : changed) {
+            writes.setIfRunning(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_DETAIL, scenicSpot.getId()),
+                    BeanUtil.copyProperties(scenicSpot, ScenicSpotVO.class), scenicSpot.getStatus());
+        }
+    }
+
+    private void collectScenicTickets(List<ScenicTicket> changed, CacheWrites writes) {
+        Set<Long> spotIds = new LinkedHashSet<>();
+        for (ScenicTicket ticket : changed) {
+            writes.setIfRunning(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_DETAIL, ticket.getId()),
+                    BeanUtil.copyProperties(ticket, ScenicTicketVO.class), ticket.getStatus());
+            spotIds.add(ticket.getScenicSpotId());
+        }
+        // 受影响景点的门票列表整组重建
+        Map<Long, List<ScenicTicket>> groupedBySpot = scenicTicketMapper.selectList(
+                        Wrappers.lambdaQuery(ScenicTicket.class)
+                                .eq(ScenicTicket::getStatus, StatusEnum.RUN.getCode())
+                                .in(ScenicTicket::getScenicSpotId, spotIds))
+                .stream()
+                .collect(Collectors.groupingBy(ScenicTicket::getScenicSpotId));
+        for (Long spotId : spotIds) {
+            List<ScenicTicketVO> ticketVOList = groupedBySpot.getOrDefault(spotId, List.of()).stream()
+                    .map(ticket -> BeanUtil.copyProperties(ticket, ScenicTicketVO.class))
+                    .toList();
+            writes.setOrDel(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_FOR_SPOT, spotId), ticketVOList);
+        }
+    }
+
+    /**
+     * 按批通过管道写入与删除，每批一次往返
+     */
+    private void writeInBatches(CacheWrites writes) {
+        List<Map.Entry<RedisKeyBuild, Object>> entries = new ArrayList<>(writes.sets.entrySet());
+        int batchSize = CacheUtil.DEFAULT_PIPELINE_BATCH_SIZE;
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Map.Entry<RedisKeyBuild, Object>> batch = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            redisCache.pipelined(pipeline -> batch.forEach(entry ->
+                    pipeline.set(entry.getKey(), entry.getValue(), DateUtils.DAY_SECONDS, TimeUnit.SECONDS)));
+        }
+        for (int from = 0; from < writes.dels.size(); from += batchSize) {
+            List<RedisKeyBuild> batch = writes.dels.subList(from, Math.min(from + batchSize, writes.dels.size()));
+            redisCache.pipelined(pipeline -> batch.forEach(pipeline::del));
+        }
+    }
+
+    /**
+     * 查询表中最大的 update_time，在查询数据之前记录，预热期间的变更会在下次增量预热时重新加载
+     */
+    private <T extends BaseTableData> LocalDateTime latestUpdateTime(Class<T> entityClass, BaseMapper<T> mapper,
+                                                                     SFunction<T, LocalDateTime> updateTime) {
+        T latest = mapper.selectOne(Wrappers.lambdaQuery(entityClass)
+                .select(updateTime)
+                .isNotNull(updateTime)
+                .orderByDesc(updateTime)
+                .last("LIMIT 1"));
+        return latest == null ? null : latest.getUpdateTime();
+    }
+
+    /**
+     * 全量预热后记录水位，与预热的缓存同时过期，过期后下次增量预热自动退回全量
+     */
+    private void saveWatermark(CachePreloadStage stage, LocalDateTime watermark) {
+        if (watermark == null) {
+            return;
+        }
+        redisCache.set(watermarkKey(stage), toEpochMilli(watermark), DateUtils.DAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 增量预热后推进水位，保留全量预热时设置的剩余过期时间
+     */
+    private void advanceWatermark(CachePreloadStage stage, LocalDateTime watermark) {
+        RedisKeyBuild key = watermarkKey(stage);
+        Long ttl = redisCache.getExpire(key, TimeUnit.SECONDS);
+        if (ttl != null && ttl > 0) {
+            redisCache.set(key, toEpochMilli(watermark), ttl, TimeUnit.SECONDS);
+        }
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static RedisKeyBuild watermarkKey(CachePreloadStage stage) {
+        return RedisKeyBuild.createKey(RedisKeyManage.CACHE_WARMUP_WATERMARK, stage.name());
+    }
+
+    /**
+     * 一次增量预热需要写入与删除的缓存
+     */
+    private static final class CacheWrites {
+
+        private final Map<RedisKeyBuild, Object> sets = new LinkedHashMap<>();
+        private final List<RedisKeyBuild> dels = new ArrayList<>();
+
+        /**
+         * 启用的数据写入缓存，禁用的删除缓存
+         */
+        private void setIfRunning(RedisKeyBuild key, Object value, Integer status) {
+            if (StatusEnum.RUN.getCode().equals(status)) {
+                sets.put(key, value);
+            } else {
+                dels.add(key);
+            }
+        }
+
+        /**
+         * 列表非空时写入，为空时删除
+         */
+        private void setOrDel(RedisKeyBuild key, List<?> values) {
+            if (values.isEmpty()) {
+                dels.add(key);
+            } else {
+                sets.put(key, values);
+            }
         }
     }
 
@@ -326,29 +662,22 @@ public class InitServiceImpl implements IInitService {
             addCacheStatus(status, "scenicSpotList", RedisKeyManage.SCENIC_SPOT_LIST);
 
             // 统计基础设施详情缓存数量
-            Set<String> facilityKeys = redisCache.keys("facility:details:*");
-            status.put("facilityDetailsCount", facilityKeys != null ? facilityKeys.size() : 0);
+            long facilityKeys = countKeys("facility:details:*");
+            status.put("facilityDetailsCount", facilityKeys);
 
             // 统计景点详情缓存数量
-            Set<String> spotKeys = redisCache.keys("scenic:spot:detail:*");
-            status.put("scenicSpotDetailsCount", spotKeys != null ? spotKeys.size() : 0);
+            long spotKeys = countKeys("scenic:spot:detail:*");
+            status.put("scenicSpotDetailsCount", spotKeys);
 
             // 统计门票缓存数量
-            Set<String> ticketKeys = redisCache.keys("scenic:ticket:*");
-            status.put("scenicTicketsCount", ticketKeys != null ? ticketKeys.size() : 0);
+            long ticketKeys = countKeys("scenic:ticket:*");
+            status.put("scenicTicketsCount", ticketKeys);
+
+            status.put("preloadStages", cachePreloadTracker.snapshot());
+            status.put("cacheGeneration", redisCache.get(RedisKeyBuild.createKey(RedisKeyManage.CACHE_GENERATION), Long.class));
 
             // 添加总体状态
-            long totalCacheKeys = 0;
-            if (facilityKeys != null) {
-                totalCacheKeys += facilityKeys.size();
-            }
-            if (spotKeys != null) {
-                totalCacheKeys += spotKeys.size();
-            }
-            if (ticketKeys != null) {
-                totalCacheKeys += ticketKeys.size();
-            }
-            status.put("totalCacheKeys", totalCacheKeys);
+            status.put("totalCacheKeys", facilityKeys + spotKeys + ticketKeys);
 
         } catch (Exception e) {
             log.error("--------获取缓存状态失败--------", e);
@@ -358,6 +687,20 @@ public class InitServiceImpl implements IInitService {
         return status;
     }
 
+    @Override
+    public List<CacheNamespaceStatsVO> getCacheNamespaceStats() {
+        return cacheMetrics.snapshot();
+    }
+
+    /**
+     * 通过 SCAN 统计匹配的key数量，避免 KEYS 阻塞redis
+     */
+    private long countKeys(String pattern) {
+        try (Stream<String> keys = redisCache.scan(pattern, CacheUtil.DEFAULT_SCAN_BATCH_SIZE)) {
+            return keys.distinct().count();
+        }
+    }
+
     /**
      * 添加单个缓存的状态信息
      */
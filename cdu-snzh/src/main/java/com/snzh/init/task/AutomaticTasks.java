@@ -11,6 +11,7 @@ import org.springframework.stereotype.Component;
 /**
  * @author haibara
  * @description 应用启动时自动执行的初始化任务
+ * 预热在独立线程中执行，不阻塞启动；关键阶段完成前由 CachePreloadHealthIndicator 保持未就绪
  * @since 2025/10/9
  */
 @Slf4j
@@ -22,24 +23,29 @@ public class AutomaticTasks implements ApplicationRunner {
     private final IInitService initService;
 
     @Override
-    public void run(ApplicationArguments args) throws Exception {
+    public void run(ApplicationArguments args) {
+        Thread thread = new Thread(this::preload, "cache-preload-startup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void preload() {
         log.info("================================================================================");
         log.info("                     系统启动初始化任务开始执行                                 ");
         log.info("================================================================================");
 
         try {
-            // 执行所有初始化任务
-            initService.executeAllInitTasks();
+            // 执行初始化任务，缓存仍有效的阶段只加载变更的数据
+            long startTime = System.currentTimeMillis();
+            initService.executeIncrementalInitTasks();
 
             log.info("================================================================================");
-            log.info("                     系统启动初始化任务执行成功                                 ");
+            log.info("              系统启动初始化任务执行结束，耗时: {}ms                           ", System.currentTimeMillis() - startTime);
             log.info("================================================================================");
         } catch (Exception e) {
             log.error("================================================================================");
             log.error("                     系统启动初始化任务执行失败                                 ");
             log.error("================================================================================", e);
-            // 不抛出异常，避免影响系统启动
         }
     }
 }
-
@@ -0,0 +1,83 @@
+package com.snzh.init.task;
+
+import com.snzh.domain.properties.CachePreloadProperties;
+import com.snzh.enums.CachePreloadStage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * @author haibara
+ * @description 记录各预热阶段最近一次的执行结果，供就绪探针与缓存状态接口读取。
+ * 关键阶段首次全部完成后即视为预热完成，之后定时刷新失败不再影响就绪状态
+ * @since 2025/10/2
+ */
+@Component
+@RequiredArgsConstructor
+public class CachePreloadTracker {
+
+    private final CachePreloadProperties cachePreloadProperties;
+
+    private final Map<CachePreloadStage, StageResult> results =
+            Collections.synchronizedMap(new EnumMap<>(CachePreloadStage.class));
+
+    private volatile boolean warmedUp;
+
+    public void running(CachePreloadStage stage, int attempt) {
+        results.put(stage, new StageResult(StageStatus.RUNNING, attempt, null, null));
+    }
+
+    public void finished(CachePreloadStage stage, int attempts, long millis, Exception error) {
+        results.put(stage, error == null
+                ? new StageResult(StageStatus.SUCCESS, attempts, millis, null)
+                : new StageResult(StageStatus.FAILED, attempts, millis, error.getMessage()));
+        if (!warmedUp && criticalStagesDone()) {
+            warmedUp = true;
+        }
+    }
+
+    /**
+     * 关键阶段是否都已完成
+     */
+    public boolean isWarmedUp() {
+        return warmedUp;
+    }
+
+    /**
+     * 各阶段最近一次的执行结果，未执行过的阶段不包含在内
+     */
+    public Map<CachePreloadStage, StageResult> snapshot() {
+        synchronized (results) {
+            return new EnumMap<>(results);
+        }
+    }
+
+    private boolean criticalStagesDone() {
+        for (CachePreloadStage stage : cachePreloadProperties.getCriticalStages()) {
+            StageResult result = results.get(stage);
+            if (result == null || result.status() == StageStatus.RUNNING) {
+                return false;
+            }
+            if (result.status() == StageStatus.FAILED && cachePreloadProperties.getBlockReadinessOnFailure()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public enum StageStatus {
+        RUNNING, SUCCESS, FAILED
+    }
+
+    /**
+     * @param status   执行状态
+     * @param attempts 已尝试次数
+     * @param millis   耗时（毫秒），含重试，执行中为null
+     * @param error    最后一次失败的原因
+     */
+    public record StageResult(StageStatus status, int attempts, Long millis, String error) {
+    }
+}
@@ -44,63 +44,22 @@ public class CacheRefreshTask {
     }
 
     /**
-     * 每8小时刷新一次基础设施相关缓存
-     * 基础设施数据变更相对频繁，需要更频繁的刷新
+     * 每5分钟增量刷新一次缓存
+     * 只重新加载上次预热之后有变更的数据；物理删除与跨分组移动由每日全量刷新兜底
      */
-    @Scheduled(cron = "0 0 */8 * * ?")
-    public void refreshFacilityCacheEveryEightHours() {
-        log.info("--------定时任务：开始刷新基础设施缓存（每2小时）--------");
-        
-        try {
-            long startTime = System.currentTimeMillis();
-            initService.preloadFacilityTypes();
-            initService.preloadFacilities();
-            long endTime = System.currentTimeMillis();
-            
-            log.info("--------定时任务：基础设施缓存刷新成功，耗时: {}ms--------", endTime - startTime);
-        } catch (Exception e) {
-            log.error("--------定时任务：基础设施缓存刷新失败--------", e);
-        }
-    }
+    @Scheduled(cron = "0 */5 * * * ?")
+    public void refreshChangedCacheEveryFiveMinutes() {
+        log.info("--------定时任务：开始增量刷新缓存--------");
 
-    /**
-     * 每8小时刷新一次景点相关缓存
-     * 景点数据相对稳定，8小时刷新一次即可
-     */
-    @Scheduled(cron = "0 0 */8 * * ?")
-    public void refreshScenicSpotCacheEveryEightHours() {
-        log.info("--------定时任务：开始刷新景点缓存（每4小时）--------");
-        
         try {
             long startTime = System.currentTimeMillis();
-            initService.preloadScenicSpots();
-            initService.preloadScenicSpotDetails();
+            initService.executeIncrementalInitTasks();
             long endTime = System.currentTimeMillis();
-            
-            log.info("--------定时任务：景点缓存刷新成功，耗时: {}ms--------", endTime - startTime);
-        } catch (Exception e) {
-            log.error("--------定时任务：景点缓存刷新失败--------", e);
-        }
-    }
 
-    /**
-     * 每6小时刷新一次景点门票缓存
-     * 门票数据较为稳定，6小时刷新一次
-     */
-    @Scheduled(cron = "0 0 */6 * * ?")
-    public void refreshTicketCacheEverySixHours() {
-        log.info("--------定时任务：开始刷新景点门票缓存（每6小时）--------");
-        
-        try {
-            long startTime = System.currentTimeMillis();
-            initService.preloadScenicTickets();
-            long endTime = System.currentTimeMillis();
-            
-            log.info("--------定时任务：景点门票缓存刷新成功，耗时: {}ms--------", endTime - startTime);
+            log.info("--------定时任务：增量刷新缓存成功，耗时: {}ms--------", endTime - startTime);
         } catch (Exception e) {
-            log.error("--------定时任务：景点门票缓存刷新失败--------", e);
+            log.error("--------定时任务：增量刷新缓存失败--------", e);
         }
     }
 
 }
-
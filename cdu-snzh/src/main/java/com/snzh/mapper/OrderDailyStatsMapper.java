@@ -0,0 +1,32 @@
+package com.snzh.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.snzh.domain.entity.OrderDailyStats;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * @author haibara
+ * @description 订单每日统计汇总Mapper接口
+ * @since 2025/10/2
+ */
+public interface OrderDailyStatsMapper extends BaseMapper<OrderDailyStats> {
+
+    /**
+     * 按订单创建日期重算汇总数据（INSERT ... SELECT ... ON DUPLICATE KEY UPDATE）
+     * @param start 创建时间下限（包含），为空表示不限
+     * @param end 创建时间上限（不包含）
+     * @return 影响行数
+     */
+    int rebuildRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 汇总日期区间内的统计数据
+     * @param startDate 开始日期（包含）
+     * @param endDate 结束日期（不包含）
+     * @return 汇总结果，各字段为区间合计
+     */
+    OrderDailyStats sumRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
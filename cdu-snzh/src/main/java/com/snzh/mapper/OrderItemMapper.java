@@ -2,6 +2,12 @@ package com.snzh.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.snzh.domain.entity.OrderItem;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 /**
  * @author haibara
@@ -10,5 +16,16 @@ import com.snzh.domain.entity.OrderItem;
  */
 public interface OrderItemMapper extends BaseMapper<OrderItem> {
 
+    /**
+     * 按订单统计某门票在指定游玩日期的购买数量（只统计待支付、已支付、已完成的订单）
+     * @param ticketId 门票ID
+     * @param visitDate 游玩日期
+     * @return List<Map<orderNo, statusCode, quantity>>
+     */
+    @Select("SELECT o.order_no AS orderNo, o.order_status AS statusCode, SUM(oi.quantity) AS quantity FROM order_item oi " +
+            "INNER JOIN orders o ON oi.order_id = o.id " +
+            "WHERE oi.item_type = 1 AND oi.item_id = #{ticketId} AND o.visit_date = #{visitDate} " +
+            "AND o.order_status IN (0, 1, 4) " +
+            "GROUP BY o.order_no, o.order_status")
+    List<Map<String, Object>> sumTicketQuantityByOrder(@Param("ticketId") Long ticketId, @Param("visitDate") LocalDate visitDate);
 }
-
@@ -1,10 +1,17 @@
 package com.snzh.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.snzh.domain.entity.Order;
+import com.snzh.domain.entity.OrderDailyStats;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -36,5 +43,91 @@ public interface OrderMapper extends BaseMapper<Order> {
      */
     @Select("SELECT order_type as typeCode, COUNT(*) as count FROM orders GROUP BY order_type")
     List<Map<String, Object>> countByType();
+
+    /**
+     * 流式读取订单，需在独立的SqlSession中消费，读取期间该连接不能执行其它查询
+     * @param wrapper 查询条件
+     * @return 订单游标
+     */
+    Cursor<Order> selectExportCursor(@Param(Constants.WRAPPER) Wrapper<Order> wrapper);
+
+    /**
+     * 条件聚合统计创建时间区间内各状态订单数及销售额
+     * @param start 创建时间下限（包含）
+     * @param end 创建时间上限（不包含）
+     * @return 统计结果（statDate为空）
+     */
+    OrderDailyStats aggregateByCreateTime(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 按创建日期、订单状态分组统计订单数与金额
+     * @param start 创建时间下限（包含）
+     * @param end 创建时间上限（不包含）
+     * @return List<Map<statDate, statusCode, count, amount>>
+     */
+    List<Map<String, Object>> countAndSumByDayAndStatus(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 查询指定时间后有变更的订单所属的创建日期
+     * @param since 更新时间下限（包含）
+     * @param before 创建时间上限（不包含）
+     * @return 创建日期列表
+     */
+    List<LocalDate> selectChangedCreateDates(@Param("since") LocalDateTime since, @Param("before") LocalDateTime before);
+
+    /**
+     * 按ID游标分页查询并锁定已过期的待支付订单（需在事务中调用）
+     * @param expireBefore 过期时间上限
+     * @param lastId 上一批最后一个订单ID
+     * @param limit 每批数量
+     * @return 订单列表（仅包含id、订单号、订单类型、订单状态）
+     */
+    List<Order> selectExpiredPendingForUpdate(@Param("expireBefore") LocalDateTime expireBefore,
+                                              @Param("lastId") Long lastId,
+                                              @Param("limit") int limit);
+
+    /**
+     * 按ID游标分页查询并锁定游玩日期已过的已支付订单（需在事务中调用）
+     * @param visitBefore 游玩日期上限（包含）
+     * @param lastId 上一批最后一个订单ID
+     * @param limit 每批数量
+     * @return 订单列表（仅包含id、订单号、订单类型、订单状态）
+     */
+    List<Order> selectVisitedPaidForUpdate(@Param("visitBefore") LocalDate visitBefore,
+                                           @Param("lastId") Long lastId,
+                                           @Param("limit") int limit);
+
+    /**
+     * 批量取消待支付订单（仅更新仍为待支付的订单）
+     * @param ids 订单ID集合
+     * @param cancelTime 取消时间
+     * @param cancelReason 取消原因
+     * @return 影响行数
+     */
+    int batchCancelPending(@Param("ids") Collection<Long> ids,
+                           @Param("cancelTime") LocalDateTime cancelTime,
+                           @Param("cancelReason") String cancelReason);
+
+    /**
+     * 批量退款已支付订单（仅更新仍为已支付的订单）
+     * @param ids 订单ID集合
+     * @param refundTime 退款时间
+     * @param cancelTime 取消时间，为空表示不记录
+     * @param reason 取消/退款原因
+     * @return 影响行数
+     */
+    int batchRefundPaid(@Param("ids") Collection<Long> ids,
+                        @Param("refundTime") LocalDateTime refundTime,
+                        @Param("cancelTime") LocalDateTime cancelTime,
+                        @Param("reason") String reason);
+
+    /**
+     * 批量完成已支付订单（仅更新仍为已支付的订单）
+     * @param ids 订单ID集合
+     * @param completeTime 完成时间
+     * @return 影响行数
+     */
+    int batchCompletePaid(@Param("ids") Collection<Long> ids,
+                          @Param("completeTime") LocalDateTime completeTime);
 }
 
@@ -2,6 +2,9 @@ package com.snzh.mapper;
 
 import com.snzh.domain.entity.ScenicTicket;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Map;
 
 /**
  * <p>
@@ -13,4 +16,10 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  */
 public interface ScenicTicketMapper extends BaseMapper<ScenicTicket> {
 
+    /**
+     * 批量原子增减门票销量 sold_count = sold_count + delta
+     * @param deltas 门票ID -> 销量增量（负数为减少）
+     * @return 影响行数
+     */
+    int batchIncrementSoldCount(@Param("deltas") Map<Long, Integer> deltas);
 }
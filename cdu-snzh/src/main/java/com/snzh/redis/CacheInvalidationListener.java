@@ -0,0 +1,119 @@
+package com.snzh.redis;
+
+import com.snzh.domain.event.DataChangeEvent;
+import com.snzh.domain.properties.CacheInvalidationProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author haibara
+ * @description 数据变更事件的缓存清除：事务内发布的事件先按事务收集并去重，
+ * 提交后一次批量删除，回滚则不删除；没有事务时立即删除。
+ * 删除发生在提交之后，读请求不会在提交前用旧数据回填缓存
+ * @since 2025/10/2
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationListener {
+
+    private final RedisCache redisCache;
+    private final CacheInvalidationProperties properties;
+
+    /**
+     * 延迟双删调度线程
+     */
+    private final ScheduledThreadPoolExecutor doubleDeleteScheduler = newScheduler();
+
+    @EventListener
+    public void onDataChange(DataChangeEvent event) {
+        Collection<RedisKeyBuild> keys = event.cacheKeys();
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            delete(new ArrayList<>(keys));
+            return;
+        }
+        PendingInvalidation pending = (PendingInvalidation) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingInvalidation();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        if (pending.completed) {
+            // 提交后的回调中发布的事件，事务已结束，直接删除
+            delete(new ArrayList<>(keys));
+            return;
+        }
+        pending.keys.addAll(keys);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        doubleDeleteScheduler.shutdown();
+    }
+
+    private void delete(List<RedisKeyBuild> keys) {
+        try {
+            redisCache.del(keys);
+        } catch (Exception e) {
+            log.error("清除缓存失败，keys：{}", keys.stream().map(RedisKeyBuild::getRealKey).toList(), e);
+        }
+        long delayMillis = properties.getDoubleDeleteDelayMillis();
+        if (delayMillis > 0) {
+            doubleDeleteScheduler.schedule(() -> {
+                try {
+                    redisCache.del(keys);
+                } catch (Exception e) {
+                    log.error("延迟双删失败，keys：{}", keys.stream().map(RedisKeyBuild::getRealKey).toList(), e);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor newScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "cache-double-delete");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * 当前事务内待清除的缓存key
+     */
+    private final class PendingInvalidation implements TransactionSynchronization {
+
+        private final Set<RedisKeyBuild> keys = new LinkedHashSet<>();
+
+        private boolean completed;
+
+        @Override
+        public void afterCommit() {
+            completed = true;
+            delete(new ArrayList<>(keys));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            completed = true;
+            TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationListener.this);
+        }
+    }
+}
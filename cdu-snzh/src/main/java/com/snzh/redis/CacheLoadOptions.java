@@ -0,0 +1,55 @@
+package com.snzh.redis;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author haibara
+ * @description 缓存回源加载选项
+ * @since 2025/10/2
+ */
+@Getter
+@Builder
+public class CacheLoadOptions {
+
+    /**
+     * 缓存过期时间
+     */
+    private final long ttl;
+
+    /**
+     * 过期时间单位
+     */
+    @Builder.Default
+    private final TimeUnit timeUnit = TimeUnit.SECONDS;
+
+    /**
+     * 过期时间随机浮动比例，分散同一批写入的key的过期时间，0表示不浮动
+     */
+    @Builder.Default
+    private final double jitterRatio = 0.1;
+
+    /**
+     * 空结果缓存时间（秒），防止不存在的数据反复穿透到数据库，默认0表示不缓存空结果，需要时按调用处开启
+     */
+    @Builder.Default
+    private final long nullTtlSeconds = 0;
+
+    /**
+     * 是否通过Redis短锁在多节点间只回源一次（进程内始终只回源一次）
+     */
+    @Builder.Default
+    private final boolean distributedLock = false;
+
+    /**
+     * 未抢到分布式锁时等待其他节点回填缓存的最长时间（毫秒），超时后自行回源
+     */
+    @Builder.Default
+    private final long lockWaitMillis = 500;
+
+    public static CacheLoadOptions of(long ttl, TimeUnit timeUnit) {
+        return CacheLoadOptions.builder().ttl(ttl).timeUnit(timeUnit).build();
+    }
+}
@@ -0,0 +1,232 @@
+package com.snzh.redis;
+
+import com.snzh.domain.vo.CacheNamespaceStatsVO;
+import com.snzh.enums.RedisKeyManage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * @author haibara
+ * @description 缓存指标，按 RedisKeyManage 命名空间打标签注册到 Micrometer，通过管理端口（只监听本机）上 actuator 的 metrics 端点查看。
+ * 所有命名空间的指标在启动时一次性创建，读写路径上只做 EnumMap 查找，不再访问 MeterRegistry
+ * @since 2025/10/2
+ */
+public class CacheMetrics {
+
+    /**
+     * 直接通过字符串构建、不属于任何 RedisKeyManage 的key
+     */
+    public static final String UNKNOWN_NAMESPACE = "UNKNOWN";
+
+    private static final String GETS = "snzh.cache.gets";
+    private static final String LOCAL_HITS = "snzh.cache.local.hits";
+    private static final String LOADS = "snzh.cache.load";
+    private static final String PAYLOAD = "snzh.cache.payload";
+    private static final String SERIALIZATION = "snzh.cache.serialization";
+    private static final String EVICTIONS = "snzh.cache.evictions";
+
+    private static final String TAG_NAMESPACE = "namespace";
+
+    private final Map<RedisKeyManage, NamespaceMeters> meters = new EnumMap<>(RedisKeyManage.class);
+
+    private final NamespaceMeters unknownMeters;
+
+    public CacheMetrics(MeterRegistry registry) {
+        for (RedisKeyManage keyManage : RedisKeyManage.values()) {
+            meters.put(keyManage, new NamespaceMeters(registry, keyManage.name()));
+        }
+        this.unknownMeters = new NamespaceMeters(registry, UNKNOWN_NAMESPACE);
+    }
+
+    /**
+     * 记录一次读取结果，空值标记也算命中
+     *
+     * @param redisKeyBuild 缓存key
+     * @param value         读取结果，null为未命中
+     */
+    public void recordGet(RedisKeyBuild redisKeyBuild, Object value) {
+        NamespaceMeters namespaceMeters = meters(redisKeyBuild);
+        (value == null ? namespaceMeters.misses : namespaceMeters.hits).increment();
+    }
+
+    /**
+     * 记录一次本地缓存命中，同一次读取仍由 {@link #recordGet} 计入命中
+     */
+    public void recordLocalHit(RedisKeyBuild redisKeyBuild) {
+        meters(redisKeyBuild).localHits.increment();
+    }
+
+    /**
+     * 记录一次回源
+     *
+     * @param redisKeyBuild 缓存key
+     * @param nanos         回源耗时
+     * @param success       是否成功
+     */
+    public void recordLoad(RedisKeyBuild redisKeyBuild, long nanos, boolean success) {
+        NamespaceMeters namespaceMeters = meters(redisKeyBuild);
+        (success ? namespaceMeters.loadSuccess : namespaceMeters.loadFailure).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 计时反序列化并记录读取的数据大小
+     *
+     * @param redisKeyBuild 缓存key
+     * @param size          数据大小，字符串值按字符数近似
+     * @param decoder       反序列化逻辑
+     * @return 反序列化结果
+     */
+    public <T> T decode(RedisKeyBuild redisKeyBuild, int size, Supplier<T> decoder) {
+        NamespaceMeters namespaceMeters = meters(redisKeyBuild);
+        namespaceMeters.readBytes.record(size);
+        long start = System.nanoTime();
+        try {
+            return decoder.get();
+        } finally {
+            namespaceMeters.decode.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 计时序列化
+     *
+     * @param redisKeyBuild 缓存key
+     * @param encoder       序列化逻辑
+     * @return 序列化结果
+     */
+    public <T> T encode(RedisKeyBuild redisKeyBuild, Supplier<T> encoder) {
+        long start = System.nanoTime();
+        try {
+            return encoder.get();
+        } finally {
+            meters(redisKeyBuild).encode.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 记录写入的数据大小
+     *
+     * @param redisKeyBuild 缓存key
+     * @param size          数据大小，字符串值按字符数近似
+     */
+    public void recordWrite(RedisKeyBuild redisKeyBuild, int size) {
+        meters(redisKeyBuild).writeBytes.record(size);
+    }
+
+    /**
+     * 记录Redis删除
+     */
+    public void recordEviction(RedisKeyBuild redisKeyBuild) {
+        meters(redisKeyBuild).evictions.increment();
+    }
+
+    /**
+     * 记录按真实key删除，按key模板匹配命名空间
+     */
+    public void recordEviction(String realKey) {
+        RedisKeyManage keyManage = RedisKeyBuild.matchKeyManage(realKey);
+        (keyManage == null ? unknownMeters : meters.get(keyManage)).evictions.increment();
+    }
+
+    /**
+     * 记录本地缓存移除
+     */
+    public void recordLocalEviction(RedisKeyBuild redisKeyBuild) {
+        meters(redisKeyBuild).localEvictions.increment();
+    }
+
+    /**
+     * 各命名空间自启动以来的统计
+     *
+     * @return 按 RedisKeyManage 声明顺序，最后为 UNKNOWN
+     */
+    public List<CacheNamespaceStatsVO> snapshot() {
+        List<CacheNamespaceStatsVO> stats = new ArrayList<>(meters.size() + 1);
+        meters.forEach((keyManage, namespaceMeters) -> stats.add(namespaceMeters.toStats(keyManage.getKey())));
+        stats.add(unknownMeters.toStats(null));
+        return stats;
+    }
+
+    private NamespaceMeters meters(RedisKeyBuild redisKeyBuild) {
+        RedisKeyManage keyManage = redisKeyBuild.getKeyManage();
+        return keyManage == null ? unknownMeters : meters.get(keyManage);
+    }
+
+    /**
+     * 单个命名空间的全部指标
+     */
+    private static final class NamespaceMeters {
+
+        private final String namespace;
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter localHits;
+        private final Timer loadSuccess;
+        private final Timer loadFailure;
+        private final DistributionSummary readBytes;
+        private final DistributionSummary writeBytes;
+        private final Timer decode;
+        private final Timer encode;
+        private final Counter evictions;
+        private final Counter localEvictions;
+
+        private NamespaceMeters(MeterRegistry registry, String namespace) {
+            this.namespace = namespace;
+            this.hits = Counter.builder(GETS).description("缓存读取次数")
+                    .tag(TAG_NAMESPACE, namespace).tag("result", "hit").register(registry);
+            this.misses = Counter.builder(GETS).description("缓存读取次数")
+                    .tag(TAG_NAMESPACE, namespace).tag("result", "miss").register(registry);
+            this.localHits = Counter.builder(LOCAL_HITS).description("本地缓存命中次数")
+                    .tag(TAG_NAMESPACE, namespace).register(registry);
+            this.loadSuccess = Timer.builder(LOADS).description("缓存回源耗时")
+                    .tag(TAG_NAMESPACE, namespace).tag("result", "success").register(registry);
+            this.loadFailure = Timer.builder(LOADS).description("缓存回源耗时")
+                    .tag(TAG_NAMESPACE, namespace).tag("result", "failure").register(registry);
+            this.readBytes = DistributionSummary.builder(PAYLOAD).description("缓存数据大小").baseUnit("bytes")
+                    .tag(TAG_NAMESPACE, namespace).tag("operation", "read").register(registry);
+            this.writeBytes = DistributionSummary.builder(PAYLOAD).description("缓存数据大小").baseUnit("bytes")
+                    .tag(TAG_NAMESPACE, namespace).tag("operation", "write").register(registry);
+            this.decode = Timer.builder(SERIALIZATION).description("缓存序列化耗时")
+                    .tag(TAG_NAMESPACE, namespace).tag("operation", "decode").register(registry);
+            this.encode = Timer.builder(SERIALIZATION).description("缓存序列化耗时")
+                    .tag(TAG_NAMESPACE, namespace).tag("operation", "encode").register(registry);
+            this.evictions = Counter.builder(EVICTIONS).description("缓存删除次数")
+                    .tag(TAG_NAMESPACE, namespace).tag("level", "redis").register(registry);
+            this.localEvictions = Counter.builder(EVICTIONS).description("缓存删除次数")
+                    .tag(TAG_NAMESPACE, namespace).tag("level", "local").register(registry);
+        }
+
+        private CacheNamespaceStatsVO toStats(String keyTemplate) {
+            long hitCount = (long) hits.count();
+            long missCount = (long) misses.count();
+            long total = hitCount + missCount;
+            return CacheNamespaceStatsVO.builder()
+                    .namespace(namespace)
+                    .keyTemplate(keyTemplate)
+                    .hits(hitCount)
+                    .localHits((long) localHits.count())
+                    .misses(missCount)
+                    .hitRate(total == 0 ? null : (double) hitCount / total)
+                    .loads(loadSuccess.count() + loadFailure.count())
+                    .loadFailures(loadFailure.count())
+                    .loadAvgMillis(loadSuccess.mean(TimeUnit.MILLISECONDS))
+                    .loadMaxMillis(loadSuccess.max(TimeUnit.MILLISECONDS))
+                    .readAvgBytes(readBytes.mean())
+                    .writeAvgBytes(writeBytes.mean())
+                    .decodeAvgMicros(decode.mean(TimeUnit.MICROSECONDS))
+                    .encodeAvgMicros(encode.mean(TimeUnit.MICROSECONDS))
+                    .evictions((long) evictions.count())
+                    .localEvictions((long) localEvictions.count())
+                    .build();
+        }
+    }
+}
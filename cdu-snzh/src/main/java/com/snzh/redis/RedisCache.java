@@ -5,6 +5,7 @@ import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 
 import java.lang.reflect.Type;
 import java.util.Collection;
@@ -12,7 +13,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * @author haibara
@@ -33,6 +36,7 @@ public interface RedisCache {
 
     /**
      * 获取字符串对象(如果缓存中不存在，则执行给定的supplier接口)
+     * 按默认选项回源，见 {@link #getOrLoad(RedisKeyBuild, Class, Supplier, CacheLoadOptions)}
      *
      * @param redisKeyBuild   RedisKeyBuild
      * @param clazz 类对象
@@ -44,6 +48,20 @@ public interface RedisCache {
      */
     <T> T get(RedisKeyBuild redisKeyBuild, Class<T> clazz, Supplier<T> supplier, long ttl, TimeUnit timeUnit);
 
+    /**
+     * 获取字符串对象，缓存不存在时回源加载并写入缓存
+     * 同一key的并发未命中在进程内只回源一次，开启分布式锁时多节点间也只回源一次；
+     * 加载结果为空时写入空值标记，过期时间按比例随机浮动
+     *
+     * @param redisKeyBuild 缓存key
+     * @param clazz 类对象
+     * @param <T> T
+     * @param loader 回源加载逻辑，数据不存在时返回null
+     * @param options 加载选项
+     * @return T 普通对象，数据不存在时返回null
+     */
+    <T> T getOrLoad(RedisKeyBuild redisKeyBuild, Class<T> clazz, Supplier<T> loader, CacheLoadOptions options);
+
     /**
      * 返回 key 中字符串值的子字符
      * @param redisKeyBuild 缓存key
@@ -65,6 +83,7 @@ public interface RedisCache {
 
     /**
      * 获取字符串对象, 并且字符串中是集合内容(如果缓存中不存在，则执行给定的supplier接口)
+     * 按默认选项回源，见 {@link #getValueIsListOrLoad(RedisKeyBuild, Class, Supplier, CacheLoadOptions)}
      *
      * @param redisKeyBuild 缓存key
      * @param clazz 类型
@@ -76,6 +95,19 @@ public interface RedisCache {
      */
     <T> List<T> getValueIsList(RedisKeyBuild redisKeyBuild, Class<T> clazz, Supplier<List<T>> supplier, long ttl, TimeUnit timeUnit);
 
+    /**
+     * 获取字符串对象, 并且字符串中是集合内容，缓存不存在时回源加载并写入缓存
+     * 并发控制、空值标记与过期时间浮动同 {@link #getOrLoad(RedisKeyBuild, Class, Supplier, CacheLoadOptions)}
+     *
+     * @param redisKeyBuild 缓存key
+     * @param clazz 类型
+     * @param <T> 指定泛型
+     * @param loader 回源加载逻辑
+     * @param options 加载选项
+     * @return List<T> 数据不存在时返回空集合
+     */
+    <T> List<T> getValueIsListOrLoad(RedisKeyBuild redisKeyBuild, Class<T> clazz, Supplier<List<T>> loader, CacheLoadOptions options);
+
 
     /**
      * 通过多个key批量获取多个value
@@ -138,12 +170,32 @@ public interface RedisCache {
 
     /**
      * 查找匹配的key
+     * KEYS 会阻塞redis直到遍历完整个键空间，生产环境默认禁用，请使用 {@link #scan(String, int)}
      *
      * @param pattern 缓存key
      * @return keys
      */
     Set<String> keys(String pattern);
 
+    /**
+     * 通过 SCAN 游标分批遍历匹配的key，不阻塞redis
+     * 返回的流持有游标，使用完需要关闭（try-with-resources）
+     *
+     * @param pattern 匹配模式
+     * @param batchSize 每次迭代建议返回的数量
+     * @return 匹配的key，遍历期间新增或删除的key可能返回也可能不返回，同一个key可能返回多次
+     */
+    Stream<String> scan(String pattern, int batchSize);
+
+    /**
+     * 通过 SCAN 分批找到匹配的key，每批一条 UNLINK 异步删除
+     *
+     * @param pattern 匹配模式
+     * @param batchSize 每批数量
+     * @return 删除的key数量
+     */
+    long unlinkByPattern(String pattern, int batchSize);
+
     /**
      * 将当前数据库的 key 移动到给定的数据库 db 当中
      *
@@ -229,6 +281,17 @@ public interface RedisCache {
      */
     boolean setIfAbsent(RedisKeyBuild redisKeyBuild, Object object);
 
+    /**
+     * 只有在 key 不存在时设置 key 的值并设置过期时间
+     *
+     * @param redisKeyBuild 缓存key
+     * @param object        对象
+     * @param ttl           过期时间
+     * @param timeUnit      时间单位
+     * @return 之前已经存在返回false,不存在返回true
+     */
+    boolean setIfAbsent(RedisKeyBuild redisKeyBuild, Object object, long ttl, TimeUnit timeUnit);
+
     /**
      * 获取字符串的长度
      *
@@ -244,6 +307,33 @@ public interface RedisCache {
      */
     void multiSet(Map<RedisKeyBuild, ?> map);
 
+    /**
+     * 批量获取字符串对象，一次MGET往返
+     *
+     * @param keyList key集合
+     * @param clazz 类型
+     * @param <T> 指定泛型
+     * @return 与key顺序一致的结果，key不存在的位置为null
+     */
+    <T> List<T> multiGet(List<RedisKeyBuild> keyList, Class<T> clazz);
+
+    /**
+     * 批量添加并设置过期时间，通过管道一次往返写入
+     *
+     * @param map 对象
+     * @param ttl 过期时间
+     * @param timeUnit 时间单位
+     */
+    void multiSetWithTtl(Map<RedisKeyBuild, ?> map, long ttl, TimeUnit timeUnit);
+
+    /**
+     * 在管道中执行多个命令，回调结束后一次往返发送
+     *
+     * @param consumer 管道操作
+     * @return 各命令的结果，顺序与调用顺序一致，SET等只返回OK的命令不占结果位置
+     */
+    List<Object> pipelined(Consumer<RedisPipeline> consumer);
+
     /**
      * 同时设置一个或多个 key-value 对，当且仅当所有给定 key 都不存在
      *
@@ -1286,6 +1376,17 @@ public interface RedisCache {
      */
     Cursor<ZSetOperations.TypedTuple<String>> scanForSortedSet(RedisKeyBuild redisKeyBuild, ScanOptions options);
 
+    /**
+     * 执行lua脚本
+     *
+     * @param script 脚本
+     * @param keys 脚本涉及的key集合
+     * @param args 脚本参数
+     * @param <T> 返回值类型
+     * @return 脚本执行结果
+     */
+    <T> T execute(RedisScript<T> script, List<RedisKeyBuild> keys, Object... args);
+
     /**
      * 不对外使用
      * @param redisKeyBuild
@@ -2,30 +2,74 @@ package com.snzh.redis;
 
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.JSONObject;
+import com.snzh.enums.CacheCodecType;
+import com.snzh.enums.RedisKeyManage;
+import com.snzh.redis.codec.CacheCodec;
 import com.snzh.utils.CacheUtil;
 import com.snzh.utils.StringUtils;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.connection.RedisStringCommands;
 import org.springframework.data.redis.core.*;
-import org.springframework.stereotype.Service;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
 
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 /**
  * @author haibara
- * @description redis方法实现
+ * @description redis方法实现，由 RedisCacheConfig 注册
  * @since 2025/9/1 18:15
  */
+@Slf4j
 @RequiredArgsConstructor
-@Service
 public class RedisCacheImpl implements RedisCache {
 
+    /**
+     * 空值标记读取结果，区别于缓存不存在的null
+     */
+    protected static final Object NULL_MARKER = new Object();
+
+    private static final byte[] NULL_VALUE_BYTES = CacheUtil.NULL_VALUE.getBytes(StandardCharsets.UTF_8);
+
+    private static final long LOAD_LOCK_SECONDS = 10;
+
+    private static final long LOAD_LOCK_POLL_MILLIS = 50;
+
+    private static final DefaultRedisScript<Long> LOAD_UNLOCK_SCRIPT = new DefaultRedisScript<>();
+
+    static {
+        LOAD_UNLOCK_SCRIPT.setScriptSource(new ResourceScriptSource(new ClassPathResource("lua/cache_load_unlock.lua")));
+        LOAD_UNLOCK_SCRIPT.setResultType(Long.class);
+    }
+
     private final StringRedisTemplate redisTemplate;
 
+    private final CacheMetrics cacheMetrics;
+
+    private boolean keysCommandEnabled = true;
+
+    /**
+     * 正在回源的key
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> loadingFlights = new ConcurrentHashMap<>();
+
     /**
      * 获取字符串对象
      *
@@ -35,13 +79,9 @@ public class RedisCacheImpl implements RedisCache {
      */
     @Override
     public <T> T get(RedisKeyBuild redisKeyBuild, Class<T> clazz) {
-        CacheUtil.checkNotBlank(redisKeyBuild);
-        String realKey = redisKeyBuild.getRealKey();
-        String cachedValue = this.redisTemplate.opsForValue().get(realKey);
-        if(String.class.isAssignableFrom(clazz)){
-            return (T)cachedValue;
-        }
-        return getComplex(cachedValue, clazz);
+        Object value = lookup(redisKeyBuild, clazz);
+        this.cacheMetrics.recordGet(redisKeyBuild, value);
+        return value == NULL_MARKER ? null : (T) value;
     }
 
     /**
@@ -56,15 +96,26 @@ public class RedisCacheImpl implements RedisCache {
      */
     @Override
     public <T> T get(RedisKeyBuild redisKeyBuild, Class<T> clazz, Supplier<T> supplier, long ttl, TimeUnit timeUnit) {
-        T t = get(redisKeyBuild, clazz);
-        if(CacheUtil.isEmpty(t)){
-            t = supplier.get();
-            if(CacheUtil.isEmpty(t)){
-                return null;
-            }
-            set(redisKeyBuild,t,ttl,timeUnit);
+        return getOrLoad(redisKeyBuild, clazz, supplier, CacheLoadOptions.of(ttl, timeUnit));
+    }
+
+    /**
+     * 获取字符串对象，缓存不存在时回源加载并写入缓存
+     *
+     * @param redisKeyBuild 缓存key
+     * @param clazz         类对象
+     * @param loader        回源加载逻辑
+     * @param options       加载选项
+     * @return T 普通对象，数据不存在时返回null
+     */
+    @Override
+    public <T> T getOrLoad(RedisKeyBuild redisKeyBuild, Class<T> clazz, Supplier<T> loader, CacheLoadOptions options) {
+        Object value = lookup(redisKeyBuild, clazz);
+        this.cacheMetrics.recordGet(redisKeyBuild, value);
+        if (value == null) {
+            value = loadOnce(redisKeyBuild, () -> lookup(redisKeyBuild, clazz), loader, options);
         }
-        return t;
+        return value == NULL_MARKER ? null : (T) value;
     }
 
     /**
@@ -91,13 +142,9 @@ public class RedisCacheImpl implements RedisCache {
      */
     @Override
     public <T> List<T> getValueIsList(RedisKeyBuild redisKeyBuild, Class<T> clazz) {
-        CacheUtil.checkNotBlank(redisKeyBuild);
-        String realKey = redisKeyBuild.getRealKey();
-        String s = this.redisTemplate.opsForValue().get(realKey);
-        if(CacheUtil.isEmpty(s)){
-            return new ArrayList<>();
-        }
-        return JSON.parseArray(s,clazz);
+        Object value = lookupList(redisKeyBuild, clazz);
+        this.cacheMetrics.recordGet(redisKeyBuild, value);
+        return value == null || value == NULL_MARKER ? new ArrayList<>() : (List<T>) value;
     }
 
     /**
@@ -112,18 +159,71 @@ public class RedisCacheImpl implements RedisCache {
      */
     @Override
     public <T> List<T> getValueIsList(RedisKeyBuild redisKeyBuild, Class<T> clazz, Supplier<List<T>> supplier, long ttl, TimeUnit timeUnit) {
+        return getValueIsListOrLoad(redisKeyBuild, clazz, supplier, CacheLoadOptions.of(ttl, timeUnit));
+    }
+
+    /**
+     * 获取字符串对象, 并且字符串中是集合内容，缓存不存在时回源加载并写入缓存
+     *
+     * @param redisKeyBuild 缓存key
+     * @param clazz         类型
+     * @param loader        回源加载逻辑
+     * @param options       加载选项
+     * @return List<T> 数据不存在时返回空集合
+     */
+    @Override
+    public <T> List<T> getValueIsListOrLoad(RedisKeyBuild redisKeyBuild, Class<T> clazz, Supplier<List<T>> loader, CacheLoadOptions options) {
+        Object value = lookupList(redisKeyBuild, clazz);
+        this.cacheMetrics.recordGet(redisKeyBuild, value);
+        if (value == null) {
+            value = loadOnce(redisKeyBuild, () -> lookupList(redisKeyBuild, clazz), loader, options);
+        }
+        return value == NULL_MARKER ? new ArrayList<>() : (List<T>) value;
+    }
+
+    /**
+     * 读取缓存对象
+     *
+     * @return 缓存对象；空值标记返回 NULL_MARKER；缓存不存在返回null
+     */
+    protected <T> Object lookup(RedisKeyBuild redisKeyBuild, Class<T> clazz) {
         CacheUtil.checkNotBlank(redisKeyBuild);
-        String realKey = redisKeyBuild.getRealKey();
-        String s = this.redisTemplate.opsForValue().get(realKey);
-        List<T> tList = null;
-        if(CacheUtil.isEmpty(s)){
-            tList = supplier.get();
-            if(CacheUtil.isEmpty(tList)){
-                return null;
-            }
-            set(redisKeyBuild,tList,ttl,timeUnit);
+        CacheCodec codec = binaryCodec(redisKeyBuild);
+        if (codec != null) {
+            return lookupBytes(redisKeyBuild, bytes -> codec.decode(bytes, clazz));
+        }
+        String cachedValue = this.redisTemplate.opsForValue().get(redisKeyBuild.getRealKey());
+        if (cachedValue == null) {
+            return null;
+        }
+        if (CacheUtil.NULL_VALUE.equals(cachedValue)) {
+            return NULL_MARKER;
+        }
+        if(String.class.isAssignableFrom(clazz)){
+            return cachedValue;
         }
-        return tList;
+        return this.cacheMetrics.decode(redisKeyBuild, cachedValue.length(), () -> getComplex(cachedValue, clazz));
+    }
+
+    /**
+     * 读取集合内容的缓存对象
+     *
+     * @return 缓存集合；空值标记返回 NULL_MARKER；缓存不存在返回null
+     */
+    protected <T> Object lookupList(RedisKeyBuild redisKeyBuild, Class<T> clazz) {
+        CacheUtil.checkNotBlank(redisKeyBuild);
+        CacheCodec codec = binaryCodec(redisKeyBuild);
+        if (codec != null) {
+            return lookupBytes(redisKeyBuild, bytes -> codec.decodeList(bytes, clazz));
+        }
+        String cachedValue = this.redisTemplate.opsForValue().get(redisKeyBuild.getRealKey());
+        if (CacheUtil.NULL_VALUE.equals(cachedValue)) {
+            return NULL_MARKER;
+        }
+        if(CacheUtil.isEmpty(cachedValue)){
+            return null;
+        }
+        return this.cacheMetrics.decode(redisKeyBuild, cachedValue.length(), () -> JSON.parseArray(cachedValue, clazz));
     }
 
     /**
@@ -164,6 +264,7 @@ public class RedisCacheImpl implements RedisCache {
     public void del(RedisKeyBuild redisKeyBuild) {
         CacheUtil.checkNotBlank(redisKeyBuild);
         this.redisTemplate.delete(redisKeyBuild.getRealKey());
+        this.cacheMetrics.recordEviction(redisKeyBuild);
     }
 
     /**
@@ -176,6 +277,7 @@ public class RedisCacheImpl implements RedisCache {
         CacheUtil.checkNotEmpty(keys);
         List<String> batchKey = CacheUtil.getBatchKey(keys);
         this.redisTemplate.delete(batchKey);
+        keys.forEach(this.cacheMetrics::recordEviction);
     }
 
     /**
@@ -228,9 +330,77 @@ public class RedisCacheImpl implements RedisCache {
      */
     @Override
     public Set<String> keys(String pattern) {
+        if (!this.keysCommandEnabled) {
+            throw new UnsupportedOperationException("当前环境禁止使用KEYS命令，请使用scan，pattern：" + pattern);
+        }
         return this.redisTemplate.keys(pattern);
     }
 
+    /**
+     * 通过 SCAN 游标分批遍历匹配的key
+     *
+     * @param pattern   匹配模式
+     * @param batchSize 每次迭代建议返回的数量
+     * @return 匹配的key，关闭流时释放游标
+     */
+    @Override
+    public Stream<String> scan(String pattern, int batchSize) {
+        CacheUtil.checkNotBlank(pattern);
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(batchSize).build();
+        return this.redisTemplate.scan(options).stream();
+    }
+
+    /**
+     * 通过 SCAN 分批找到匹配的key，每批一条 UNLINK 异步删除
+     *
+     * @param pattern   匹配模式
+     * @param batchSize 每批数量
+     * @return 删除的key数量
+     */
+    @Override
+    public long unlinkByPattern(String pattern, int batchSize) {
+        long removed = 0;
+        List<String> batch = new ArrayList<>(batchSize);
+        try (Stream<String> keys = scan(pattern, batchSize)) {
+            Iterator<String> iterator = keys.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() >= batchSize) {
+                    removed += unlink(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            removed += unlink(batch);
+        }
+        return removed;
+    }
+
+    private long unlink(List<String> realKeys) {
+        Long removed = this.redisTemplate.unlink(realKeys);
+        realKeys.forEach(this.cacheMetrics::recordEviction);
+        afterUnlink(realKeys);
+        return removed == null ? 0 : removed;
+    }
+
+    /**
+     * 按模式删除一批key后的回调
+     *
+     * @param realKeys 被删除的key
+     */
+    protected void afterUnlink(List<String> realKeys) {
+    }
+
+    /**
+     * 是否允许使用 KEYS 命令，由 RedisCacheConfig 按环境设置
+     *
+     * @param keysCommandEnabled 是否允许
+     */
+    public void setKeysCommandEnabled(boolean keysCommandEnabled) {
+        this.keysCommandEnabled = keysCommandEnabled;
+    }
+
     /**
      * 将当前数据库的 key 移动到给定的数据库 db 当中
      *
@@ -317,8 +487,15 @@ public class RedisCacheImpl implements RedisCache {
     @Override
     public void set(RedisKeyBuild redisKeyBuild, Object object) {
         CacheUtil.checkNotBlank(redisKeyBuild);
+        CacheCodec codec = binaryCodec(redisKeyBuild);
+        if (codec != null && !CacheUtil.NULL_VALUE.equals(object)) {
+            byte[] rawKey = rawKey(redisKeyBuild);
+            byte[] value = encode(redisKeyBuild, codec, object);
+            this.redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands().set(rawKey, value));
+            return;
+        }
         String realKey = redisKeyBuild.getRealKey();
-        String s = object instanceof String ? (String) object : JSON.toJSONString(object);
+        String s = toJson(redisKeyBuild, object);
         this.redisTemplate.opsForValue().set(realKey,s);
     }
 
@@ -344,9 +521,24 @@ public class RedisCacheImpl implements RedisCache {
      */
     @Override
     public void set(RedisKeyBuild redisKeyBuild, Object object, long ttl, TimeUnit timeUnit) {
+        writeValue(redisKeyBuild, object, ttl, timeUnit);
+    }
+
+    /**
+     * 写入Redis，不触发子类的写入回调；回源回填使用，数据本身没有变化，不需要通知其他节点
+     */
+    private void writeValue(RedisKeyBuild redisKeyBuild, Object object, long ttl, TimeUnit timeUnit) {
         CacheUtil.checkNotBlank(redisKeyBuild);
+        CacheCodec codec = binaryCodec(redisKeyBuild);
+        if (codec != null && !CacheUtil.NULL_VALUE.equals(object)) {
+            byte[] rawKey = rawKey(redisKeyBuild);
+            byte[] value = encode(redisKeyBuild, codec, object);
+            this.redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                    .set(rawKey, value, Expiration.from(ttl, timeUnit), RedisStringCommands.SetOption.upsert()));
+            return;
+        }
         String realKey = redisKeyBuild.getRealKey();
-        String s = object instanceof String ? (String) object : JSON.toJSONString(object);
+        String s = toJson(redisKeyBuild, object);
         this.redisTemplate.opsForValue().set(realKey,s,ttl,timeUnit);
     }
 
@@ -365,6 +557,23 @@ public class RedisCacheImpl implements RedisCache {
         return this.redisTemplate.opsForValue().setIfAbsent(realKey, s);
     }
 
+    /**
+     * 只有在 key 不存在时设置 key 的值并设置过期时间
+     *
+     * @param redisKeyBuild 缓存key
+     * @param object        对象
+     * @param ttl           过期时间
+     * @param timeUnit      时间单位
+     * @return 之前已经存在返回false, 不存在返回true
+     */
+    @Override
+    public boolean setIfAbsent(RedisKeyBuild redisKeyBuild, Object object, long ttl, TimeUnit timeUnit) {
+        CacheUtil.checkNotBlank(redisKeyBuild);
+        String realKey = redisKeyBuild.getRealKey();
+        String s = object instanceof String ? (String) object : JSON.toJSONString(object);
+        return Boolean.TRUE.equals(this.redisTemplate.opsForValue().setIfAbsent(realKey, s, ttl, timeUnit));
+    }
+
     /**
      * 获取字符串的长度
      *
@@ -396,6 +605,78 @@ public class RedisCacheImpl implements RedisCache {
         this.redisTemplate.opsForValue().multiSet(mapForSave);
     }
 
+    /**
+     * 批量获取字符串对象，一次MGET往返
+     *
+     * @param keyList key集合
+     * @param clazz   类型
+     * @return 与key顺序一致的结果，key不存在的位置为null
+     */
+    @Override
+    public <T> List<T> multiGet(List<RedisKeyBuild> keyList, Class<T> clazz) {
+        CacheUtil.checkNotEmpty(keyList);
+        if (keyList.stream().anyMatch(key -> binaryCodec(key) != null)) {
+            return multiGetBytes(keyList, clazz);
+        }
+        List<String> values = this.redisTemplate.opsForValue().multiGet(CacheUtil.getBatchKey(keyList));
+        List<T> result = new ArrayList<>(keyList.size());
+        for (int i = 0; i < keyList.size(); i++) {
+            String value = values == null ? null : values.get(i);
+            RedisKeyBuild key = keyList.get(i);
+            this.cacheMetrics.recordGet(key, value);
+            if (value == null || CacheUtil.NULL_VALUE.equals(value)) {
+                result.add(null);
+            } else {
+                result.add(this.cacheMetrics.decode(key, value.length(), () -> getComplex(value, clazz)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量添加并设置过期时间，通过管道一次往返写入
+     *
+     * @param map      对象
+     * @param ttl      过期时间
+     * @param timeUnit 时间单位
+     */
+    @Override
+    public void multiSetWithTtl(Map<RedisKeyBuild, ?> map, long ttl, TimeUnit timeUnit) {
+        CacheUtil.checkNotEmpty(map);
+        pipelined(pipeline -> map.forEach((key, value) -> pipeline.set(key, value, ttl, timeUnit)));
+    }
+
+    /**
+     * 在管道中执行多个命令，回调结束后一次往返发送
+     *
+     * @param consumer 管道操作
+     * @return 各命令的结果，顺序与调用顺序一致
+     */
+    @Override
+    public List<Object> pipelined(Consumer<RedisPipeline> consumer) {
+        List<RedisKeyBuild> changedKeys = new ArrayList<>();
+        List<Object> results = this.redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisPipelineImpl pipeline = new RedisPipelineImpl((RedisOperations<String, String>) operations,
+                        RedisCacheImpl.this::binaryCodec, RedisCacheImpl.this.cacheMetrics);
+                consumer.accept(pipeline);
+                changedKeys.addAll(pipeline.getChangedKeys());
+                return null;
+            }
+        });
+        afterPipelined(changedKeys);
+        return results;
+    }
+
+    /**
+     * 管道执行完成后的回调
+     *
+     * @param changedKeys 管道中被修改的key
+     */
+    protected void afterPipelined(List<RedisKeyBuild> changedKeys) {
+    }
+
     /**
      * 同时设置一个或多个 key-value 对，当且仅当所有给定 key 都不存在
      *
@@ -2144,6 +2425,22 @@ public class RedisCacheImpl implements RedisCache {
         return this.redisTemplate.opsForZSet().scan(key, options);
     }
 
+    /**
+     * 执行lua脚本
+     *
+     * @param script 脚本
+     * @param keys   脚本涉及的key集合
+     * @param args   脚本参数
+     * @return 脚本执行结果
+     */
+    @Override
+    public <T> T execute(RedisScript<T> script, List<RedisKeyBuild> keys, Object... args) {
+        CacheUtil.checkNotEmpty(keys);
+        List<String> batchKey = CacheUtil.getBatchKey(keys);
+        Object[] stringArgs = Arrays.stream(args).map(String::valueOf).toArray();
+        return this.redisTemplate.execute(script, batchKey, stringArgs);
+    }
+
     /**
      * 不对外使用
      *
@@ -2172,6 +2469,171 @@ public class RedisCacheImpl implements RedisCache {
     }
 
 
+    /**
+     * 按 RedisKeyManage 配置获取二进制编解码器，默认JSON编码返回null，走原有的字符串读写
+     */
+    protected CacheCodec binaryCodec(RedisKeyBuild redisKeyBuild) {
+        RedisKeyManage keyManage = redisKeyBuild.getKeyManage();
+        if (keyManage == null || keyManage.getCodecType() == CacheCodecType.JSON) {
+            return null;
+        }
+        return keyManage.getCodecType().getCodec();
+    }
+
+    /**
+     * 序列化为JSON字符串并记录耗时与大小，字符串值原样写入
+     */
+    private String toJson(RedisKeyBuild redisKeyBuild, Object object) {
+        String s = object instanceof String ? (String) object
+                : this.cacheMetrics.encode(redisKeyBuild, () -> JSON.toJSONString(object));
+        this.cacheMetrics.recordWrite(redisKeyBuild, s.length());
+        return s;
+    }
+
+    private byte[] encode(RedisKeyBuild redisKeyBuild, CacheCodec codec, Object object) {
+        byte[] value = this.cacheMetrics.encode(redisKeyBuild, () -> codec.encode(object));
+        this.cacheMetrics.recordWrite(redisKeyBuild, value.length);
+        return value;
+    }
+
+    private static byte[] rawKey(RedisKeyBuild redisKeyBuild) {
+        return redisKeyBuild.getRealKey().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 读取二进制编码的缓存
+     *
+     * @return 解码结果；空值标记返回 NULL_MARKER；缓存不存在或无法解码（如编码格式变更前写入的旧数据）返回null
+     */
+    private Object lookupBytes(RedisKeyBuild redisKeyBuild, Function<byte[], Object> decoder) {
+        byte[] rawKey = rawKey(redisKeyBuild);
+        byte[] bytes = this.redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(rawKey));
+        return decodeBytes(redisKeyBuild, bytes, decoder);
+    }
+
+    private Object decodeBytes(RedisKeyBuild redisKeyBuild, byte[] bytes, Function<byte[], Object> decoder) {
+        if (bytes == null) {
+            return null;
+        }
+        if (Arrays.equals(bytes, NULL_VALUE_BYTES)) {
+            return NULL_MARKER;
+        }
+        try {
+            return this.cacheMetrics.decode(redisKeyBuild, bytes.length, () -> decoder.apply(bytes));
+        } catch (Exception e) {
+            log.warn("缓存解码失败，按未命中处理，key：{}", redisKeyBuild.getRealKey(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 包含二进制编码key的批量获取，按每个key的编码格式分别解码
+     */
+    private <T> List<T> multiGetBytes(List<RedisKeyBuild> keyList, Class<T> clazz) {
+        byte[][] rawKeys = keyList.stream().map(RedisCacheImpl::rawKey).toArray(byte[][]::new);
+        List<byte[]> values = this.redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys));
+        List<T> result = new ArrayList<>(keyList.size());
+        for (int i = 0; i < keyList.size(); i++) {
+            RedisKeyBuild key = keyList.get(i);
+            CacheCodec codec = binaryCodec(key) == null ? CacheCodecType.JSON.getCodec() : binaryCodec(key);
+            Object value = decodeBytes(key, values == null ? null : values.get(i), bytes -> codec.decode(bytes, clazz));
+            this.cacheMetrics.recordGet(key, value);
+            result.add(value == NULL_MARKER ? null : (T) value);
+        }
+        return result;
+    }
+
+    /**
+     * 同一key只允许一个线程回源，其余线程等待并共享结果（包括异常）
+     */
+    private Object loadOnce(RedisKeyBuild redisKeyBuild, Supplier<Object> lookup, Supplier<?> loader, CacheLoadOptions options) {
+        String realKey = redisKeyBuild.getRealKey();
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = this.loadingFlights.putIfAbsent(realKey, flight);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+            }
+        }
+        try {
+            Object value = options.isDistributedLock()
+                    ? loadWithLock(redisKeyBuild, lookup, loader, options)
+                    : loadAndStore(redisKeyBuild, lookup, loader, options);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.loadingFlights.remove(realKey, flight);
+        }
+    }
+
+    /**
+     * 通过Redis短锁在多节点间只回源一次，未抢到锁时等待持锁节点回填，等待超时后自行回源
+     */
+    private Object loadWithLock(RedisKeyBuild redisKeyBuild, Supplier<Object> lookup, Supplier<?> loader, CacheLoadOptions options) {
+        RedisKeyBuild lockKey = RedisKeyBuild.createKey(RedisKeyManage.CACHE_LOAD_LOCK, redisKeyBuild.getRealKey());
+        String token = UUID.randomUUID().toString();
+        Boolean locked = this.redisTemplate.opsForValue()
+                .setIfAbsent(lockKey.getRealKey(), token, LOAD_LOCK_SECONDS, TimeUnit.SECONDS);
+        if (!Boolean.TRUE.equals(locked)) {
+            long deadline = System.currentTimeMillis() + options.getLockWaitMillis();
+            while (System.currentTimeMillis() < deadline) {
+                try {
+                    Thread.sleep(LOAD_LOCK_POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                Object value = lookup.get();
+                if (value != null) {
+                    return value;
+                }
+            }
+            return loadAndStore(redisKeyBuild, lookup, loader, options);
+        }
+        try {
+            return loadAndStore(redisKeyBuild, lookup, loader, options);
+        } finally {
+            execute(LOAD_UNLOCK_SCRIPT, List.of(lockKey), token);
+        }
+    }
+
+    /**
+     * 再次检查缓存后回源，结果为空时写入空值标记，否则按浮动后的过期时间写入
+     */
+    private Object loadAndStore(RedisKeyBuild redisKeyBuild, Supplier<Object> lookup, Supplier<?> loader, CacheLoadOptions options) {
+        Object cached = lookup.get();
+        if (cached != null) {
+            return cached;
+        }
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            this.cacheMetrics.recordLoad(redisKeyBuild, System.nanoTime() - start, false);
+            throw e;
+        }
+        this.cacheMetrics.recordLoad(redisKeyBuild, System.nanoTime() - start, true);
+        if (CacheUtil.isEmpty(value)) {
+            if (options.getNullTtlSeconds() > 0) {
+                writeValue(redisKeyBuild, CacheUtil.NULL_VALUE, options.getNullTtlSeconds(), TimeUnit.SECONDS);
+            }
+            return NULL_MARKER;
+        }
+        writeValue(redisKeyBuild, value, jitter(options.getTtl(), options.getJitterRatio()), options.getTimeUnit());
+        return value;
+    }
+
+    private long jitter(long ttl, double ratio) {
+        long bound = (long) (ttl * ratio);
+        return bound > 0 ? ttl + ThreadLocalRandom.current().nextLong(bound + 1) : ttl;
+    }
+
     public <T> T getComplex(Object source, Class<T> clazz) {
         if(source == null){
             return null;
@@ -2210,11 +2672,12 @@ public class RedisCacheImpl implements RedisCache {
         if(clazz.isAssignableFrom(String.class)){
             return (Set<T>) sources.stream()
                     .map(each -> each instanceof String ? (String) each : JSON.toJSONString(each))
-                    .toList();
+                    .collect(Collectors.toSet());
         }
         return (Set<T>) sources.stream()
+                .filter(Objects::nonNull)
                 .map(each -> each instanceof String ? JSON.parseObject((String) each, CacheUtil.buildType(clazz)) : null)
-                .toList();
+                .collect(Collectors.toSet());
     }
 
     public <T> Set<ZSetOperations.TypedTuple<T>> typedTupleStringParseObjects(Set<ZSetOperations.TypedTuple<String>> sources, Class<T> clazz){
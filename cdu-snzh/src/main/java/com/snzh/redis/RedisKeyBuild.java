@@ -1,10 +1,12 @@
 package com.snzh.redis;
 
 import com.snzh.enums.RedisKeyManage;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * @author haibara
@@ -13,7 +15,6 @@ import java.util.Objects;
  */
 
 @Getter
-@AllArgsConstructor
 public class RedisKeyBuild {
 
     /**
@@ -21,6 +22,45 @@ public class RedisKeyBuild {
      */
     private final String realKey;
 
+    /**
+     * key所属的枚举，直接通过字符串构建时为空
+     */
+    private final RedisKeyManage keyManage;
+
+    public RedisKeyBuild(String realKey) {
+        this(realKey, null);
+    }
+
+    private RedisKeyBuild(String realKey, RedisKeyManage keyManage) {
+        this.realKey = realKey;
+        this.keyManage = keyManage;
+    }
+
+
+    /**
+     * key模板按 %s 拆分后的片段，模板含其他格式符时为空，退回 String.format
+     */
+    private static final Map<RedisKeyManage, String[]> SEGMENTS = new EnumMap<>(RedisKeyManage.class);
+
+    /**
+     * 无占位符的key不可变且固定，共享同一个实例
+     */
+    private static final Map<RedisKeyManage, RedisKeyBuild> CONSTANT_KEYS = new EnumMap<>(RedisKeyManage.class);
+
+    private static final String PLACEHOLDER = "%s";
+
+    static {
+        for (RedisKeyManage keyManage : RedisKeyManage.values()) {
+            String[] segments = compile(keyManage.getKey());
+            if (segments == null) {
+                continue;
+            }
+            SEGMENTS.put(keyManage, segments);
+            if (segments.length == 1) {
+                CONSTANT_KEYS.put(keyManage, new RedisKeyBuild(segments[0], keyManage));
+            }
+        }
+    }
 
     /**
      * 构建真实的key
@@ -28,8 +68,98 @@ public class RedisKeyBuild {
      * @param args 占位符的值
      * */
     public static RedisKeyBuild createKey(RedisKeyManage redisKeyManage, Object...args){
-        String redisRelKey = String.format(redisKeyManage.getKey(), args);
-        return new RedisKeyBuild(redisRelKey);
+        String[] segments = SEGMENTS.get(redisKeyManage);
+        if (segments == null || segments.length != args.length + 1) {
+            return new RedisKeyBuild(String.format(redisKeyManage.getKey(), args), redisKeyManage);
+        }
+        if (args.length == 0) {
+            return CONSTANT_KEYS.get(redisKeyManage);
+        }
+        StringBuilder builder = new StringBuilder(64).append(segments[0]);
+        for (int i = 0; i < args.length; i++) {
+            builder.append(args[i]).append(segments[i + 1]);
+        }
+        return new RedisKeyBuild(builder.toString(), redisKeyManage);
+    }
+
+    /**
+     * 构建单个占位符的key，id类参数不装箱
+     * @param redisKeyManage key的枚举
+     * @param arg 占位符的值
+     * */
+    public static RedisKeyBuild createKey(RedisKeyManage redisKeyManage, long arg){
+        String[] segments = SEGMENTS.get(redisKeyManage);
+        if (segments == null || segments.length != 2) {
+            return new RedisKeyBuild(String.format(redisKeyManage.getKey(), arg), redisKeyManage);
+        }
+        return new RedisKeyBuild(segments[0] + arg + segments[1], redisKeyManage);
+    }
+
+    /**
+     * 构建单个占位符的key
+     * @param redisKeyManage key的枚举
+     * @param arg 占位符的值
+     * */
+    public static RedisKeyBuild createKey(RedisKeyManage redisKeyManage, String arg){
+        String[] segments = SEGMENTS.get(redisKeyManage);
+        if (segments == null || segments.length != 2) {
+            return new RedisKeyBuild(String.format(redisKeyManage.getKey(), arg), redisKeyManage);
+        }
+        return new RedisKeyBuild(segments[0] + arg + segments[1], redisKeyManage);
+    }
+
+    /**
+     * 构建单个占位符的key，Long等包装类型走此重载，为null时与 String.format 一样拼接"null"
+     * @param redisKeyManage key的枚举
+     * @param arg 占位符的值
+     * */
+    public static RedisKeyBuild createKey(RedisKeyManage redisKeyManage, Object arg){
+        String[] segments = SEGMENTS.get(redisKeyManage);
+        if (segments == null || segments.length != 2) {
+            return new RedisKeyBuild(String.format(redisKeyManage.getKey(), arg), redisKeyManage);
+        }
+        return new RedisKeyBuild(segments[0] + arg + segments[1], redisKeyManage);
+    }
+
+    /**
+     * 按key模板反查真实key所属的枚举，多个模板匹配时取固定前缀最长的
+     * @param realKey 真实key
+     * @return key所属的枚举，无法匹配时返回null
+     */
+    public static RedisKeyManage matchKeyManage(String realKey) {
+        RedisKeyManage matched = null;
+        int matchedLength = -1;
+        for (Map.Entry<RedisKeyManage, String[]> entry : SEGMENTS.entrySet()) {
+            String[] segments = entry.getValue();
+            boolean matches = segments.length == 1
+                    ? realKey.equals(segments[0])
+                    : realKey.startsWith(segments[0]) && realKey.endsWith(segments[segments.length - 1]);
+            if (matches && segments[0].length() > matchedLength) {
+                matched = entry.getKey();
+                matchedLength = segments[0].length();
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * 将key模板按 %s 拆分为片段
+     * @param template key模板
+     * @return 片段，占位符数量为 length - 1；含 %s 以外的格式符时返回null
+     */
+    private static String[] compile(String template) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        int index;
+        while ((index = template.indexOf('%', start)) >= 0) {
+            if (!template.startsWith(PLACEHOLDER, index)) {
+                return null;
+            }
+            segments.add(template.substring(start, index));
+            start = index + PLACEHOLDER.length();
+        }
+        segments.add(template.substring(start));
+        return segments.toArray(new String[0]);
     }
 
     public static String getRedisKey(RedisKeyManage redisKeyManage){
@@ -50,7 +180,7 @@ public class RedisKeyBuild {
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.realKey);
+        return this.realKey.hashCode();
     }
 
 
@@ -0,0 +1,62 @@
+package com.snzh.redis;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author haibara
+ * @description 管道内可用的redis操作，命令在回调结束后一次性发送，
+ * 结果按调用顺序由 {@link RedisCache#pipelined(java.util.function.Consumer)} 返回（SET等只返回OK的命令不占结果位置）
+ * @since 2025/10/2
+ */
+public interface RedisPipeline {
+
+    /**
+     * 获取字符串对象，结果为原始字符串
+     *
+     * @param redisKeyBuild 缓存key
+     */
+    void get(RedisKeyBuild redisKeyBuild);
+
+    /**
+     * 设置缓存
+     *
+     * @param redisKeyBuild 缓存key
+     * @param object        缓存对象
+     * @param ttl           过期时间
+     * @param timeUnit      时间单位
+     */
+    void set(RedisKeyBuild redisKeyBuild, Object object, long ttl, TimeUnit timeUnit);
+
+    /**
+     * 删除key
+     *
+     * @param redisKeyBuild 缓存key
+     */
+    void del(RedisKeyBuild redisKeyBuild);
+
+    /**
+     * 设置key过期时间
+     *
+     * @param redisKeyBuild 缓存key
+     * @param ttl           过期时间
+     * @param timeUnit      时间单位
+     */
+    void expire(RedisKeyBuild redisKeyBuild, long ttl, TimeUnit timeUnit);
+
+    /**
+     * 增加(自增长), 负数则为自减
+     *
+     * @param redisKeyBuild 缓存key
+     * @param increment     步长
+     */
+    void incrBy(RedisKeyBuild redisKeyBuild, long increment);
+
+    /**
+     * 放置一个键值对
+     *
+     * @param redisKeyBuild 缓存key
+     * @param hashKey       hash键
+     * @param value         hash值
+     */
+    void putHash(RedisKeyBuild redisKeyBuild, String hashKey, Object value);
+}
@@ -0,0 +1,97 @@
+package com.snzh.redis;
+
+import com.alibaba.fastjson2.JSON;
+import com.snzh.redis.codec.CacheCodec;
+import com.snzh.utils.CacheUtil;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * @author haibara
+ * @description 管道操作实现，记录被修改的key供写入后清除本地缓存
+ * @since 2025/10/2
+ */
+class RedisPipelineImpl implements RedisPipeline {
+
+    private final RedisOperations<String, String> operations;
+
+    /**
+     * 获取key的二进制编解码器，默认JSON编码返回null
+     */
+    private final Function<RedisKeyBuild, CacheCodec> codecResolver;
+
+    private final CacheMetrics cacheMetrics;
+
+    private final List<RedisKeyBuild> changedKeys = new ArrayList<>();
+
+    RedisPipelineImpl(RedisOperations<String, String> operations, Function<RedisKeyBuild, CacheCodec> codecResolver,
+                      CacheMetrics cacheMetrics) {
+        this.operations = operations;
+        this.codecResolver = codecResolver;
+        this.cacheMetrics = cacheMetrics;
+    }
+
+    @Override
+    public void get(RedisKeyBuild redisKeyBuild) {
+        CacheUtil.checkNotBlank(redisKeyBuild);
+        operations.opsForValue().get(redisKeyBuild.getRealKey());
+    }
+
+    @Override
+    public void set(RedisKeyBuild redisKeyBuild, Object object, long ttl, TimeUnit timeUnit) {
+        CacheUtil.checkNotBlank(redisKeyBuild);
+        CacheCodec codec = codecResolver.apply(redisKeyBuild);
+        if (codec != null) {
+            byte[] rawKey = redisKeyBuild.getRealKey().getBytes(StandardCharsets.UTF_8);
+            byte[] value = cacheMetrics.encode(redisKeyBuild, () -> codec.encode(object));
+            cacheMetrics.recordWrite(redisKeyBuild, value.length);
+            operations.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                    .set(rawKey, value, Expiration.from(ttl, timeUnit), RedisStringCommands.SetOption.upsert()));
+        } else {
+            String s = object instanceof String ? (String) object
+                    : cacheMetrics.encode(redisKeyBuild, () -> JSON.toJSONString(object));
+            cacheMetrics.recordWrite(redisKeyBuild, s.length());
+            operations.opsForValue().set(redisKeyBuild.getRealKey(), s, ttl, timeUnit);
+        }
+        changedKeys.add(redisKeyBuild);
+    }
+
+    @Override
+    public void del(RedisKeyBuild redisKeyBuild) {
+        CacheUtil.checkNotBlank(redisKeyBuild);
+        operations.delete(redisKeyBuild.getRealKey());
+        changedKeys.add(redisKeyBuild);
+    }
+
+    @Override
+    public void expire(RedisKeyBuild redisKeyBuild, long ttl, TimeUnit timeUnit) {
+        CacheUtil.checkNotBlank(redisKeyBuild);
+        operations.expire(redisKeyBuild.getRealKey(), ttl, timeUnit);
+    }
+
+    @Override
+    public void incrBy(RedisKeyBuild redisKeyBuild, long increment) {
+        CacheUtil.checkNotBlank(redisKeyBuild);
+        operations.opsForValue().increment(redisKeyBuild.getRealKey(), increment);
+        changedKeys.add(redisKeyBuild);
+    }
+
+    @Override
+    public void putHash(RedisKeyBuild redisKeyBuild, String hashKey, Object value) {
+        CacheUtil.checkNotBlank(redisKeyBuild);
+        String jsonValue = value instanceof String ? (String) value : JSON.toJSONString(value);
+        operations.opsForHash().put(redisKeyBuild.getRealKey(), hashKey, jsonValue);
+    }
+
+    List<RedisKeyBuild> getChangedKeys() {
+        return changedKeys;
+    }
+}
@@ -0,0 +1,324 @@
+package com.snzh.redis;
+
+import cn.hutool.cache.impl.LRUCache;
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.snzh.domain.properties.LocalCacheProperties;
+import com.snzh.enums.RedisKeyManage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author haibara
+ * @description 二级缓存：进程内LRU缓存 + Redis
+ * 配置的key命中本地缓存时直接返回已反序列化的对象，不访问Redis也不解析JSON；
+ * 通过本节点的写入方法（set、setIfAbsent、multiSet、incrBy、expire、rename、del 等）修改这些key时，
+ * 先写Redis再清除本地缓存，并通过 pub/sub 通知其他节点清除；回源回填不改变数据，不发送通知。
+ * 本地缓存中的对象会被多个请求共享，调用方不应修改读取到的对象
+ * @since 2025/10/2
+ */
+@Slf4j
+public class TwoLevelRedisCache extends RedisCacheImpl implements MessageListener {
+
+    private static final String MESSAGE_NODE = "node";
+    private static final String MESSAGE_KEYS = "keys";
+
+    private final StringRedisTemplate redisTemplate;
+    private final LocalCacheProperties properties;
+    private final LRUCache<RedisKeyBuild, Object> localCache;
+    private final CacheMetrics cacheMetrics;
+
+    /**
+     * 当前节点标识，用于忽略自己发出的失效消息
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 失效计数：读取Redis期间发生过失效时不回填本地缓存，避免把旧值写回
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TwoLevelRedisCache(StringRedisTemplate redisTemplate, LocalCacheProperties properties, CacheMetrics cacheMetrics) {
+        super(redisTemplate, cacheMetrics);
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.cacheMetrics = cacheMetrics;
+        this.localCache = new LRUCache<>(properties.getMaximumSize(),
+                TimeUnit.SECONDS.toMillis(properties.getExpireSeconds()));
+        // 失效清除、容量淘汰与过期移除都会回调
+        this.localCache.setListener((key, value) -> cacheMetrics.recordLocalEviction(key));
+    }
+
+    @Override
+    protected <T> Object lookup(RedisKeyBuild redisKeyBuild, Class<T> clazz) {
+        if (!isLocal(redisKeyBuild)) {
+            return super.lookup(redisKeyBuild, clazz);
+        }
+        Object cached = localCache.get(redisKeyBuild, false);
+        if (clazz.isInstance(cached)) {
+            cacheMetrics.recordLocalHit(redisKeyBuild);
+            return cached;
+        }
+        long version = invalidations.get();
+        Object value = super.lookup(redisKeyBuild, clazz);
+        if (value != NULL_MARKER) {
+            fill(redisKeyBuild, value, version);
+        }
+        return value;
+    }
+
+    @Override
+    protected <T> Object lookupList(RedisKeyBuild redisKeyBuild, Class<T> clazz) {
+        if (!isLocal(redisKeyBuild)) {
+            return super.lookupList(redisKeyBuild, clazz);
+        }
+        if (localCache.get(redisKeyBuild, false) instanceof CachedList<?> cachedList
+                && cachedList.elementType() == clazz) {
+            cacheMetrics.recordLocalHit(redisKeyBuild);
+            return cachedList.values();
+        }
+        long version = invalidations.get();
+        Object value = super.lookupList(redisKeyBuild, clazz);
+        if (value instanceof List<?> values && !values.isEmpty()) {
+            fill(redisKeyBuild, new CachedList<>(clazz, Collections.unmodifiableList((List<T>) values)), version);
+        }
+        return value;
+    }
+
+    @Override
+    public <T> List<T> multiGet(List<RedisKeyBuild> keyList, Class<T> clazz) {
+        List<T> result = new ArrayList<>(Collections.nCopies(keyList.size(), null));
+        List<Integer> missIndexes = new ArrayList<>();
+        for (int i = 0; i < keyList.size(); i++) {
+            RedisKeyBuild key = keyList.get(i);
+            Object cached = isLocal(key) ? localCache.get(key, false) : null;
+            if (clazz.isInstance(cached)) {
+                cacheMetrics.recordGet(key, cached);
+                cacheMetrics.recordLocalHit(key);
+                result.set(i, clazz.cast(cached));
+            } else {
+                missIndexes.add(i);
+            }
+        }
+        if (missIndexes.isEmpty()) {
+            return result;
+        }
+        long version = invalidations.get();
+        List<T> values = super.multiGet(missIndexes.stream().map(keyList::get).toList(), clazz);
+        for (int i = 0; i < missIndexes.size(); i++) {
+            int index = missIndexes.get(i);
+            result.set(index, values.get(i));
+            if (isLocal(keyList.get(index))) {
+                fill(keyList.get(index), values.get(i), version);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected void afterPipelined(List<RedisKeyBuild> changedKeys) {
+        invalidate(changedKeys);
+    }
+
+    @Override
+    protected void afterUnlink(List<String> realKeys) {
+        evictLocal(realKeys);
+        publishRealKeys(realKeys);
+    }
+
+    @Override
+    public void set(RedisKeyBuild redisKeyBuild, Object object) {
+        super.set(redisKeyBuild, object);
+        invalidate(redisKeyBuild);
+    }
+
+    @Override
+    public void set(RedisKeyBuild redisKeyBuild, Object object, long ttl, TimeUnit timeUnit) {
+        super.set(redisKeyBuild, object, ttl, timeUnit);
+        invalidate(redisKeyBuild);
+    }
+
+    @Override
+    public boolean setIfAbsent(RedisKeyBuild redisKeyBuild, Object object) {
+        boolean written = super.setIfAbsent(redisKeyBuild, object);
+        if (written) {
+            invalidate(redisKeyBuild);
+        }
+        return written;
+    }
+
+    @Override
+    public boolean setIfAbsent(RedisKeyBuild redisKeyBuild, Object object, long ttl, TimeUnit timeUnit) {
+        boolean written = super.setIfAbsent(redisKeyBuild, object, ttl, timeUnit);
+        if (written) {
+            invalidate(redisKeyBuild);
+        }
+        return written;
+    }
+
+    @Override
+    public void multiSet(Map<RedisKeyBuild, ?> map) {
+        super.multiSet(map);
+        invalidate(map.keySet());
+    }
+
+    @Override
+    public boolean multiSetIfAbsent(Map<RedisKeyBuild, ?> map) {
+        boolean written = super.multiSetIfAbsent(map);
+        if (written) {
+            invalidate(map.keySet());
+        }
+        return written;
+    }
+
+    @Override
+    public Long incrBy(RedisKeyBuild redisKeyBuild, long increment) {
+        Long value = super.incrBy(redisKeyBuild, increment);
+        invalidate(redisKeyBuild);
+        return value;
+    }
+
+    @Override
+    public Double incrByDouble(RedisKeyBuild redisKeyBuild, double increment) {
+        Double value = super.incrByDouble(redisKeyBuild, increment);
+        invalidate(redisKeyBuild);
+        return value;
+    }
+
+    @Override
+    public Integer append(RedisKeyBuild redisKeyBuild, String value) {
+        Integer length = super.append(redisKeyBuild, value);
+        invalidate(redisKeyBuild);
+        return length;
+    }
+
+    @Override
+    public Boolean expire(RedisKeyBuild redisKeyBuild, long ttl, TimeUnit timeUnit) {
+        Boolean result = super.expire(redisKeyBuild, ttl, timeUnit);
+        invalidate(redisKeyBuild);
+        return result;
+    }
+
+    @Override
+    public Boolean move(RedisKeyBuild redisKeyBuild, int dbIndex) {
+        Boolean moved = super.move(redisKeyBuild, dbIndex);
+        if (Boolean.TRUE.equals(moved)) {
+            invalidate(redisKeyBuild);
+        }
+        return moved;
+    }
+
+    @Override
+    public void rename(RedisKeyBuild oldKey, RedisKeyBuild newKey) {
+        super.rename(oldKey, newKey);
+        invalidate(List.of(oldKey, newKey));
+    }
+
+    @Override
+    public Boolean renameIfAbsent(RedisKeyBuild oldKey, RedisKeyBuild newKey) {
+        Boolean renamed = super.renameIfAbsent(oldKey, newKey);
+        if (Boolean.TRUE.equals(renamed)) {
+            invalidate(List.of(oldKey, newKey));
+        }
+        return renamed;
+    }
+
+    @Override
+    public void del(RedisKeyBuild redisKeyBuild) {
+        super.del(redisKeyBuild);
+        invalidate(redisKeyBuild);
+    }
+
+    @Override
+    public void del(Collection<RedisKeyBuild> keys) {
+        super.del(keys);
+        invalidate(keys);
+    }
+
+    /**
+     * 接收其他节点的失效消息
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            JSONObject body = JSON.parseObject(new String(message.getBody(), StandardCharsets.UTF_8));
+            if (nodeId.equals(body.getString(MESSAGE_NODE))) {
+                return;
+            }
+            evictLocal(body.getList(MESSAGE_KEYS, String.class));
+        } catch (Exception e) {
+            log.error("处理缓存失效消息失败，清空本地缓存", e);
+            invalidations.incrementAndGet();
+            localCache.clear();
+        }
+    }
+
+    private boolean isLocal(RedisKeyBuild redisKeyBuild) {
+        RedisKeyManage keyManage = redisKeyBuild.getKeyManage();
+        return keyManage != null && properties.getNamespaces().contains(keyManage);
+    }
+
+    private void fill(RedisKeyBuild redisKeyBuild, Object value, long version) {
+        if (value != null && invalidations.get() == version) {
+            localCache.put(redisKeyBuild, value);
+        }
+    }
+
+    private void invalidate(RedisKeyBuild redisKeyBuild) {
+        if (isLocal(redisKeyBuild)) {
+            evictLocal(List.of(redisKeyBuild.getRealKey()));
+            publish(List.of(redisKeyBuild));
+        }
+    }
+
+    private void invalidate(Collection<RedisKeyBuild> keys) {
+        List<RedisKeyBuild> localKeys = keys.stream().filter(this::isLocal).distinct().toList();
+        if (!localKeys.isEmpty()) {
+            evictLocal(localKeys.stream().map(RedisKeyBuild::getRealKey).toList());
+            publish(localKeys);
+        }
+    }
+
+    private void evictLocal(Collection<String> realKeys) {
+        invalidations.incrementAndGet();
+        for (String realKey : realKeys) {
+            localCache.remove(new RedisKeyBuild(realKey));
+        }
+    }
+
+    /**
+     * 广播失效消息，发送失败时其他节点依赖本地缓存过期时间兜底
+     */
+    private void publish(Collection<RedisKeyBuild> keys) {
+        publishRealKeys(keys.stream().map(RedisKeyBuild::getRealKey).toList());
+    }
+
+    private void publishRealKeys(List<String> realKeys) {
+        JSONObject body = new JSONObject();
+        body.put(MESSAGE_NODE, nodeId);
+        body.put(MESSAGE_KEYS, realKeys);
+        try {
+            redisTemplate.convertAndSend(properties.getChannel(), body.toJSONString());
+        } catch (Exception e) {
+            log.error("发送缓存失效消息失败，keys：{}", body.get(MESSAGE_KEYS), e);
+        }
+    }
+
+    /**
+     * 本地缓存的集合值，记录元素类型，避免不同类型读取同一个key时类型错乱
+     */
+    private record CachedList<T>(Class<T> elementType, List<T> values) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.snzh.redis.codec;
+
+import java.util.List;
+
+/**
+ * @author haibara
+ * @description 缓存值编解码器，按 RedisKeyManage 配置选择
+ * @since 2025/10/2
+ */
+public interface CacheCodec {
+
+    /**
+     * 编码缓存对象
+     *
+     * @param value 缓存对象
+     * @return 写入redis的字节
+     */
+    byte[] encode(Object value);
+
+    /**
+     * 解码为对象
+     *
+     * @param bytes redis中的字节
+     * @param clazz 类型
+     * @param <T> 指定泛型
+     * @return 对象
+     */
+    <T> T decode(byte[] bytes, Class<T> clazz);
+
+    /**
+     * 解码为集合
+     *
+     * @param bytes redis中的字节
+     * @param clazz 元素类型
+     * @param <T> 指定泛型
+     * @return 集合
+     */
+    <T> List<T> decodeList(byte[] bytes, Class<T> clazz);
+}
@@ -0,0 +1,92 @@
+package com.snzh.redis.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * @author haibara
+ * @description 压缩编解码装饰器：编码结果超过阈值时使用Deflate压缩
+ * 首字节为格式标记（0 未压缩，1 Deflate），读取时据此判断是否需要解压
+ * @since 2025/10/2
+ */
+public class CompressingCacheCodec implements CacheCodec {
+
+    private static final byte RAW = 0;
+    private static final byte DEFLATE = 1;
+
+    private final CacheCodec delegate;
+
+    private final int threshold;
+
+    public CompressingCacheCodec(CacheCodec delegate, int threshold) {
+        this.delegate = delegate;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        byte[] bytes = delegate.encode(value);
+        if (bytes.length < threshold) {
+            return withMarker(RAW, bytes);
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 1);
+            out.write(DEFLATE);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, Class<T> clazz) {
+        return delegate.decode(unwrap(bytes), clazz);
+    }
+
+    @Override
+    public <T> List<T> decodeList(byte[] bytes, Class<T> clazz) {
+        return delegate.decodeList(unwrap(bytes), clazz);
+    }
+
+    private byte[] unwrap(byte[] bytes) {
+        if (bytes.length == 0 || bytes[0] == RAW) {
+            return bytes.length == 0 ? bytes : Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, 1, bytes.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("缓存数据不完整，无法解压");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("缓存数据解压失败", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] withMarker(byte marker, byte[] bytes) {
+        byte[] result = new byte[bytes.length + 1];
+        result[0] = marker;
+        System.arraycopy(bytes, 0, result, 1, bytes.length);
+        return result;
+    }
+}
@@ -0,0 +1,35 @@
+package com.snzh.redis.codec;
+
+import com.alibaba.fastjson2.JSON;
+import com.snzh.utils.CacheUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * @author haibara
+ * @description JSON字符串编解码（默认），与 RedisCacheImpl 原有的字符串格式一致
+ * @since 2025/10/2
+ */
+public class JsonCacheCodec implements CacheCodec {
+
+    @Override
+    public byte[] encode(Object value) {
+        String s = value instanceof String ? (String) value : JSON.toJSONString(value);
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, Class<T> clazz) {
+        String s = new String(bytes, StandardCharsets.UTF_8);
+        if (String.class.isAssignableFrom(clazz)) {
+            return (T) s;
+        }
+        return JSON.parseObject(s, CacheUtil.buildType(clazz));
+    }
+
+    @Override
+    public <T> List<T> decodeList(byte[] bytes, Class<T> clazz) {
+        return JSON.parseArray(new String(bytes, StandardCharsets.UTF_8), clazz);
+    }
+}
@@ -0,0 +1,30 @@
+package com.snzh.redis.codec;
+
+import com.alibaba.fastjson2.JSONB;
+import com.snzh.utils.CacheUtil;
+
+import java.util.List;
+
+/**
+ * @author haibara
+ * @description fastjson2 JSONB二进制编解码，体积比JSON字符串小，解析时不需要扫描文本
+ * 保留字段名，VO增删字段后旧缓存仍可解析
+ * @since 2025/10/2
+ */
+public class JsonbCacheCodec implements CacheCodec {
+
+    @Override
+    public byte[] encode(Object value) {
+        return JSONB.toBytes(value);
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, Class<T> clazz) {
+        return JSONB.parseObject(bytes, clazz);
+    }
+
+    @Override
+    public <T> List<T> decodeList(byte[] bytes, Class<T> clazz) {
+        return JSONB.parseObject(bytes, CacheUtil.buildType(List.class, clazz));
+    }
+}
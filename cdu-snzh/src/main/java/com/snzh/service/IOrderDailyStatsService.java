@@ -0,0 +1,24 @@
+package com.snzh.service;
+
+import java.time.LocalDate;
+
+/**
+ * @author haibara
+ * @description 订单每日统计汇总服务接口
+ * @since 2025/10/2
+ */
+public interface IOrderDailyStatsService {
+
+    /**
+     * 增量重算每日汇总：上次重算后有订单变更的日期、以及上次重算后新结束的日期
+     * 首次执行（无水位）时全量重建今天之前的所有日期
+     * @return 重算影响的行数
+     */
+    int compact();
+
+    /**
+     * 汇总数据已覆盖到的日期，该日期之前的汇总可直接使用
+     * @return 覆盖截止日期（不包含），从未重算过时返回null
+     */
+    LocalDate coveredUntil();
+}
@@ -6,7 +6,10 @@ import com.snzh.domain.entity.Order;
 import com.snzh.domain.vo.*;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -65,6 +68,25 @@ public interface IOrderService extends IService<Order> {
      */
     void cancelExpiredOrder(Order order);
 
+    /**
+     * 批量取消一批已过期的待支付订单（系统调用）
+     * 按ID游标锁定一批订单，一条带状态条件的UPDATE完成取消，缓存在事务提交后统一清除
+     * @param expireBefore 过期时间上限
+     * @param lastId 上一批最后一个订单ID，首批传0
+     * @param batchSize 每批数量
+     * @return 本批取消的订单ID（升序），为空表示已处理完
+     */
+    List<Long> bulkCancelExpiredOrders(LocalDateTime expireBefore, Long lastId, int batchSize);
+
+    /**
+     * 批量完成一批游玩日期已过的已支付订单（系统调用）
+     * @param visitBefore 游玩日期上限（包含）
+     * @param lastId 上一批最后一个订单ID，首批传0
+     * @param batchSize 每批数量
+     * @return 本批完成的订单ID（升序），为空表示已处理完
+     */
+    List<Long> bulkCompleteVisitedOrders(LocalDate visitBefore, Long lastId, int batchSize);
+
     /**
      * 统计用户各状态订单数量
      * @param userId 用户ID
@@ -81,6 +103,13 @@ public interface IOrderService extends IService<Order> {
      */
     PageVo<OrderListVO> getAdminOrderList(@Valid AdminOrderQueryDTO dto);
 
+    /**
+     * 管理端导出订单Excel（流式读取、流式写出，内存占用与订单数量无关）
+     * @param dto 查询参数（分页参数忽略）
+     * @param outputStream 输出流
+     */
+    void exportAdminOrders(AdminOrderQueryDTO dto, OutputStream outputStream) throws IOException;
+
     /**
      * 管理端查询订单详情（无权限限制）
      * @param orderId 订单ID
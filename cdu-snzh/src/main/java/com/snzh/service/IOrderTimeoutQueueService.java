@@ -0,0 +1,46 @@
+package com.snzh.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author haibara
+ * @description 订单超时延时队列服务接口（Redis ZSet，score为过期时间）
+ * @since 2025/10/2
+ */
+public interface IOrderTimeoutQueueService {
+
+    /**
+     * 待支付订单加入延时队列（当前处于事务中时在事务提交后执行）
+     * @param orderNo 订单号
+     * @param expireTime 过期时间
+     */
+    void enqueue(String orderNo, LocalDateTime expireTime);
+
+    /**
+     * 订单已支付或已取消，从延时队列移除（当前处于事务中时在事务提交后执行）
+     * @param orderNo 订单号
+     */
+    void remove(String orderNo);
+
+    /**
+     * 批量从延时队列移除（当前处于事务中时在事务提交后执行）
+     * @param orderNos 订单号集合
+     */
+    void removeAll(Collection<String> orderNos);
+
+    /**
+     * 原子领取已到期的订单，领取的订单进入处理中集合，租约到期前未确认会重新投递
+     * @param limit 单次最多领取数量
+     * @param leaseMillis 租约时长（毫秒）
+     * @return 订单号列表
+     */
+    List<String> claimDue(int limit, long leaseMillis);
+
+    /**
+     * 确认订单已处理完成，从处理中集合移除
+     * @param orderNo 订单号
+     */
+    void ack(String orderNo);
+}
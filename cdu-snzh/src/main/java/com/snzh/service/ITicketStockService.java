@@ -0,0 +1,57 @@
+package com.snzh.service;
+
+import com.snzh.domain.entity.ScenicTicket;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * @author haibara
+ * @description 门票每日库存服务接口（库存保存在Redis中，通过lua脚本原子扣减）
+ * @since 2025/10/2
+ */
+public interface ITicketStockService {
+
+    /**
+     * 下单时预占库存，不限量门票直接跳过
+     * 当前处于事务中时，事务回滚会自动归还预占的库存
+     * @param orderNo 订单号
+     * @param visitDate 游玩日期
+     * @param tickets 订单涉及的门票
+     * @param quantities 门票ID -> 购买数量
+     */
+    void reserve(String orderNo, LocalDate visitDate, Collection<ScenicTicket> tickets, Map<Long, Integer> quantities);
+
+    /**
+     * 支付成功后确认预占库存（当前处于事务中时在事务提交后执行）
+     * @param orderNo 订单号
+     */
+    void commit(String orderNo);
+
+    /**
+     * 取消或退款后归还库存（当前处于事务中时在事务提交后执行）
+     * @param orderNo 订单号
+     */
+    void release(String orderNo);
+
+    /**
+     * 批量归还库存（当前处于事务中时在事务提交后统一执行）
+     * @param orderNos 订单号集合
+     */
+    void releaseAll(Collection<String> orderNos);
+
+    /**
+     * 门票每日库存调整后，同步已初始化日期的库存容量
+     * @param ticketId 门票ID
+     * @param dailyStock 新的每日库存，为空表示不限量
+     */
+    void resize(Long ticketId, Integer dailyStock);
+
+    /**
+     * 对账长时间未确认的预占记录，按数据库中的订单状态补做确认或归还
+     * @param limit 单次最多处理数量
+     * @return 处理数量
+     */
+    int reconcilePending(int limit);
+}
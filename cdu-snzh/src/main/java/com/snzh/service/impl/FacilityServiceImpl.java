@@ -14,6 +14,7 @@ import com.snzh.domain.dto.FacilityQueryDTO;
 import com.snzh.domain.dto.FacilitySaveDTO;
 import com.snzh.domain.entity.Facility;
 import com.snzh.domain.entity.FacilityType;
+import com.snzh.domain.event.FacilityChangeEvent;
 import com.snzh.domain.vo.CalculateDistanceMapVO;
 import com.snzh.domain.vo.NearByFacilityVO;
 import com.snzh.domain.vo.FacilityVO;
@@ -33,6 +34,7 @@ import com.snzh.utils.PageUtil;
 import com.snzh.utils.StringUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -56,6 +58,7 @@ public class FacilityServiceImpl extends ServiceImpl<FacilityMapper, Facility> i
     private final RedisCache redisCache;
     private final GaodeMapUtil gaodeMapUtil;
     private final FacilityTypeMapper facilityTypeMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Override
@@ -314,7 +317,7 @@ public class FacilityServiceImpl extends ServiceImpl<FacilityMapper, Facility> i
 
         Facility facility = BeanUtil.copyProperties(saveDTO, Facility.class);
         facilityMapper.insert(facility);
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_FOR_TYPE, saveDTO.getFacilityTypeId()));
+        eventPublisher.publishEvent(FacilityChangeEvent.of(null, toLong(saveDTO.getFacilityTypeId())));
         return facility.getId();
     }
 
@@ -346,15 +349,13 @@ public class FacilityServiceImpl extends ServiceImpl<FacilityMapper, Facility> i
 
         Facility facility = new Facility();
         BeanUtil.copyProperties(saveDTO, facility, CopyOptions.create().ignoreNullValue());
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_DETAILS, saveDTO.getId()));
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_FOR_TYPE, saveDTO.getFacilityTypeId()));
+        eventPublisher.publishEvent(FacilityChangeEvent.of(saveDTO.getId(), toLong(saveDTO.getFacilityTypeId())));
         return updateById(facility);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean deleteByIds(List<Long> ids) {
-        List<RedisKeyBuild> keys = new ArrayList<>();
         if (ids != null && !ids.isEmpty()) {
             List<Long> typeIds = facilityMapper.selectList(
                             Wrappers.<Facility>lambdaQuery()
@@ -364,14 +365,8 @@ public class FacilityServiceImpl extends ServiceImpl<FacilityMapper, Facility> i
                     .map(Facility::getFacilityTypeId)
                     .distinct()
                     .toList();
-            ids.forEach(id ->
-                    keys.add(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_DETAILS, id))
-            );
-            typeIds.forEach(typeId ->
-                    keys.add(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_FOR_TYPE, typeId))
-            );
+            eventPublisher.publishEvent(new FacilityChangeEvent(ids, typeIds));
         }
-        redisCache.del(keys);
         return removeByIds(ids);
     }
 
@@ -386,8 +381,7 @@ public class FacilityServiceImpl extends ServiceImpl<FacilityMapper, Facility> i
         if(!updateById(facility)){
             return false;
         }
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_DETAILS, id));
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_FOR_TYPE, facility.getFacilityTypeId()));
+        eventPublisher.publishEvent(FacilityChangeEvent.of(id, facility.getFacilityTypeId()));
         return true;
     }
 
@@ -433,4 +427,11 @@ public class FacilityServiceImpl extends ServiceImpl<FacilityMapper, Facility> i
             return hours + "小时" + (minutes > 0 ? minutes + "分钟" : "");
         }
     }
+
+    /**
+     * DTO中的设施类型ID为Integer，实体与缓存key使用Long
+     */
+    private static Long toLong(Integer facilityTypeId) {
+        return facilityTypeId == null ? null : facilityTypeId.longValue();
+    }
 }
@@ -9,6 +9,7 @@ import com.snzh.constants.ErrorConst;
 import com.snzh.domain.dto.FacilityTypeQueryDTO;
 import com.snzh.domain.dto.FacilityTypeSaveDTO;
 import com.snzh.domain.entity.FacilityType;
+import com.snzh.domain.event.FacilityTypeChangeEvent;
 import com.snzh.domain.vo.FacilityTypeVO;
 import com.snzh.domain.vo.PageVo;
 import com.snzh.enums.RedisKeyManage;
@@ -27,11 +28,10 @@ import com.snzh.utils.PageUtil;
 import com.snzh.utils.StringUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -50,6 +50,7 @@ public class FacilityTypeServiceImpl extends ServiceImpl<FacilityTypeMapper, Fac
 
     private final FacilityTypeMapper facilityTypeMapper;
     private final RedisCache redisCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<FacilityTypeVO> getAllEnabledTypes() {
@@ -169,15 +170,7 @@ public class FacilityTypeServiceImpl extends ServiceImpl<FacilityTypeMapper, Fac
     }
 
     private void clearCache(Long... ids) {
-        List<RedisKeyBuild> keys = new ArrayList<>();
-        // 单条缓存
-        if (ids != null && ids.length > 0) {
-            Arrays.stream(ids).forEach(id ->
-                    keys.add(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_TYPE_SINGLE, id))
-            );
-        }
-        // ALL 缓存
-        keys.add(RedisKeyBuild.createKey(RedisKeyManage.FACILITY_TYPE_ALL));
-        redisCache.del(keys);
+        // 单条缓存与 ALL 缓存在事务提交后清除
+        eventPublisher.publishEvent(FacilityTypeChangeEvent.of(ids));
     }
 }
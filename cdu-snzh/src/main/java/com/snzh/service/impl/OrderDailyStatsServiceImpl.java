@@ -0,0 +1,83 @@
+package com.snzh.service.impl;
+
+import com.snzh.enums.RedisKeyManage;
+import com.snzh.mapper.OrderDailyStatsMapper;
+import com.snzh.mapper.OrderMapper;
+import com.snzh.redis.RedisCache;
+import com.snzh.redis.RedisKeyBuild;
+import com.snzh.service.IOrderDailyStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * @author haibara
+ * @description 订单每日统计汇总服务实现类
+ * 汇总表按订单创建日期保存各状态订单数与销售额，只统计今天之前的日期，今天的数据由看板实时聚合。
+ * 每次重算记录开始时间作为水位，下次只重算水位之后有订单变更的日期，历史订单退款/完成也能同步到汇总。
+ * @since 2025/10/2
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderDailyStatsServiceImpl implements IOrderDailyStatsService {
+
+    /** 水位回退时间，覆盖重算时尚未提交的事务 */
+    private static final long WATERMARK_SAFETY_MINUTES = 2;
+
+    private final OrderMapper orderMapper;
+    private final OrderDailyStatsMapper orderDailyStatsMapper;
+    private final RedisCache redisCache;
+
+    @Override
+    public int compact() {
+        long startMillis = System.currentTimeMillis();
+        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
+        Long watermark = redisCache.get(watermarkKey(), Long.class);
+
+        int affected;
+        if (watermark == null) {
+            affected = orderDailyStatsMapper.rebuildRange(null, todayStart);
+            log.info("订单每日汇总全量重建完成，影响行数：{}", affected);
+        } else {
+            LocalDateTime lastRun = LocalDateTime.ofInstant(Instant.ofEpochMilli(watermark), ZoneId.systemDefault());
+            LocalDate lastCovered = lastRun.toLocalDate();
+
+            // 1. 上次重算后新结束的日期整段重算
+            affected = 0;
+            if (lastCovered.isBefore(todayStart.toLocalDate())) {
+                affected += orderDailyStatsMapper.rebuildRange(lastCovered.atStartOfDay(), todayStart);
+            }
+
+            // 2. 已覆盖日期中有订单变更的逐日重算
+            List<LocalDate> changedDates = orderMapper.selectChangedCreateDates(
+                    lastRun.minusMinutes(WATERMARK_SAFETY_MINUTES), lastCovered.atStartOfDay());
+            for (LocalDate date : changedDates) {
+                affected += orderDailyStatsMapper.rebuildRange(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+            }
+            log.info("订单每日汇总增量重算完成，变更日期数：{}，影响行数：{}", changedDates.size(), affected);
+        }
+
+        redisCache.set(watermarkKey(), startMillis);
+        return affected;
+    }
+
+    @Override
+    public LocalDate coveredUntil() {
+        Long watermark = redisCache.get(watermarkKey(), Long.class);
+        if (watermark == null) {
+            return null;
+        }
+        return LocalDate.ofInstant(Instant.ofEpochMilli(watermark), ZoneId.systemDefault());
+    }
+
+    private RedisKeyBuild watermarkKey() {
+        return RedisKeyBuild.createKey(RedisKeyManage.ORDER_DAILY_STATS_WATERMARK);
+    }
+}
@@ -5,12 +5,17 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.snzh.config.OrderExecutors;
 import com.snzh.constants.BusinessConst;
 import com.snzh.constants.ErrorConst;
+import com.snzh.domain.base.PageCursor;
 import com.snzh.domain.dto.*;
 import com.snzh.domain.entity.Order;
+import com.snzh.domain.entity.OrderDailyStats;
 import com.snzh.domain.entity.OrderItem;
 import com.snzh.domain.entity.ScenicTicket;
+import com.snzh.domain.event.OrderChangeEvent;
+import com.snzh.domain.event.ScenicTicketChangeEvent;
 import com.snzh.domain.vo.*;
 import com.snzh.enums.ItemTypeEnum;
 import com.snzh.enums.OrderStatusEnum;
@@ -21,28 +26,49 @@ import com.snzh.exceptions.OrderCancelException;
 import com.snzh.exceptions.OrderNotFoundException;
 import com.snzh.exceptions.OrderStatusException;
 import com.snzh.exceptions.ScenicTicketNotFoundException;
+import com.snzh.generator.OrderNoGenerator;
+import com.snzh.mapper.OrderDailyStatsMapper;
 import com.snzh.mapper.OrderMapper;
 import com.snzh.mapper.ScenicTicketMapper;
+import com.snzh.redis.CacheLoadOptions;
 import com.snzh.redis.RedisCache;
 import com.snzh.redis.RedisKeyBuild;
 import com.snzh.service.INotificationService;
+import com.snzh.service.IOrderDailyStatsService;
 import com.snzh.service.IOrderItemService;
 import com.snzh.service.IOrderService;
+import com.snzh.service.IOrderTimeoutQueueService;
+import com.snzh.service.ITicketStockService;
 import com.snzh.utils.PageUtil;
 import com.snzh.utils.StringUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * @author haibara
@@ -54,11 +80,22 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements IOrderService {
 
+    private static final DateTimeFormatter EXPORT_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private final OrderMapper orderMapper;
     private final IOrderItemService orderItemService;
     private final ScenicTicketMapper scenicTicketMapper;
     private final RedisCache redisCache;
     private final INotificationService notificationService;
+    private final ITicketStockService ticketStockService;
+    private final OrderNoGenerator orderNoGenerator;
+    private final IOrderTimeoutQueueService orderTimeoutQueueService;
+    private final IOrderDailyStatsService orderDailyStatsService;
+    private final OrderDailyStatsMapper orderDailyStatsMapper;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderExecutors orderExecutors;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -66,21 +103,30 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
         log.info("开始创建订单，用户ID：{}，游玩日期：{}", dto.getUserId(), dto.getVisitDate());
 
         // 1. 生成订单号
-        String orderNo = generateOrderNo();
+        String orderNo = orderNoGenerator.nextOrderNo();
 
         // 2. 校验并计算订单总金额
         BigDecimal totalAmount = BigDecimal.ZERO;
+        Map<Long, ScenicTicket> ticketMap = new LinkedHashMap<>();
+        Map<Long, Integer> ticketQuantityMap = new HashMap<>();
         for (OrderItemDTO item : dto.getOrderItems()) {
             // 校验门票信息（如果是门票类型）
             if (item.getItemType().equals(ItemTypeEnum.TICKET.getCode())) {
-                validateTicketItem(item);
+                ScenicTicket ticket = validateTicketItem(item);
+                ticketMap.putIfAbsent(ticket.getId(), ticket);
+                ticketQuantityMap.merge(ticket.getId(), item.getQuantity(), Integer::sum);
             }
             
             BigDecimal itemTotal = item.getPrice().multiply(new BigDecimal(item.getQuantity()));
             totalAmount = totalAmount.add(itemTotal);
         }
 
-        // 3. 创建订单
+        // 3. 预占当日门票库存（Redis原子扣减，库存不足直接失败；事务回滚时自动归还）
+        if (!ticketMap.isEmpty()) {
+            ticketStockService.reserve(orderNo, dto.getVisitDate(), ticketMap.values(), ticketQuantityMap);
+        }
+
+        // 4. 创建订单
         Order order = Order.builder()
                 .orderNo(orderNo)
                 .userId(dto.getUserId())
@@ -97,7 +143,7 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
             throw new RuntimeException(ErrorConst.ORDER_CREATE_FAILED);
         }
 
-        // 4. 创建订单明细
+        // 5. 创建订单明细
         List<OrderItem> orderItems = new ArrayList<>();
         for (OrderItemDTO itemDTO : dto.getOrderItems()) {
             BigDecimal itemTotal = itemDTO.getPrice().multiply(new BigDecimal(itemDTO.getQuantity()));
@@ -117,6 +163,9 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
             throw new RuntimeException(ErrorConst.ORDER_CREATE_FAILED);
         }
 
+        // 6. 加入超时延时队列，到期后自动取消
+        orderTimeoutQueueService.enqueue(orderNo, order.getExpireTime());
+
         log.info("订单创建成功，订单号：{}", orderNo);
         return orderNo;
     }
@@ -156,14 +205,16 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
         if (!updateById(order)) {
             return false;
         }
+        orderTimeoutQueueService.remove(orderNo);
 
-        // 5. 更新门票销量（仅针对门票类型订单）
+        // 5. 更新门票销量并确认预占库存（仅针对门票类型订单）
         if (order.getOrderType().equals(OrderTypeEnum.TICKET.getCode())) {
             updateTicketSoldCount(order.getId(), true);
+            ticketStockService.commit(orderNo);
         }
 
         // 6. 清除订单详情缓存
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.ORDER_DETAIL, orderNo));
+        eventPublisher.publishEvent(OrderChangeEvent.of(orderNo));
 
         // 7. 发送支付成功通知
         try {
@@ -213,13 +264,14 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
             return false;
         }
 
-        // 6. 恢复门票销量（已支付订单退款需要恢复销量）
+        // 6. 恢复门票销量并归还当日库存（已支付订单退款需要恢复销量）
         if (order.getOrderType().equals(OrderTypeEnum.TICKET.getCode())) {
             updateTicketSoldCount(order.getId(), false);
+            ticketStockService.release(order.getOrderNo());
         }
 
         // 7. 清除订单详情缓存
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.ORDER_DETAIL, dto.getOrderNo()));
+        eventPublisher.publishEvent(OrderChangeEvent.of(dto.getOrderNo()));
 
         // 8. 发送退款成功通知
         try {
@@ -235,35 +287,25 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
 
     @Override
     public OrderVO getOrderDetail(String orderNo) {
-        // 1. 尝试从缓存获取
-        OrderVO orderVO = redisCache.get(
+        // 缓存30分钟，未命中时同一订单只回源一次，不存在的订单号短时缓存空值标记
+        OrderVO orderVO = redisCache.getOrLoad(
                 RedisKeyBuild.createKey(RedisKeyManage.ORDER_DETAIL, orderNo),
-                OrderVO.class
+                OrderVO.class,
+                () -> {
+                    Order order = orderMapper.selectOne(
+                            Wrappers.lambdaQuery(Order.class).eq(Order::getOrderNo, orderNo)
+                    );
+                    return StringUtils.isNull(order) ? null : convertToOrderVO(order);
+                },
+                CacheLoadOptions.builder()
+                        .ttl(30)
+                        .timeUnit(TimeUnit.MINUTES)
+                        .nullTtlSeconds(60)
+                        .build()
         );
-
-        if (StringUtils.isNotNull(orderVO)) {
-            return orderVO;
-        }
-
-        // 2. 从数据库查询
-        Order order = orderMapper.selectOne(
-                Wrappers.lambdaQuery(Order.class).eq(Order::getOrderNo, orderNo)
-        );
-        if (StringUtils.isNull(order)) {
+        if (StringUtils.isNull(orderVO)) {
             throw new OrderNotFoundException(ErrorConst.ORDER_NOT_FOUND);
         }
-
-        // 3. 转换为VO
-        orderVO = convertToOrderVO(order);
-
-        // 4. 缓存30分钟
-        redisCache.set(
-                RedisKeyBuild.createKey(RedisKeyManage.ORDER_DETAIL, orderNo),
-                orderVO,
-                30,
-                TimeUnit.MINUTES
-        );
-
         return orderVO;
     }
 
@@ -284,6 +326,12 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
             wrapper.between(Order::getCreateTime, dto.getCreateTimeStart(), dto.getCreateTimeEnd());
         }
 
+        // 游标分页：按 (create_time, id) 定位，不统计总数
+        if (dto.useCursor()) {
+            return PageUtil.convertCursorPage(selectByCursor(wrapper, dto), dto.getPageSize(),
+                    this::orderCursor, this::convertToOrderListVOs);
+        }
+
         // 按创建时间倒序
         wrapper.orderByDesc(Order::getCreateTime);
 
@@ -308,96 +356,132 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
     public void cancelExpiredOrder(Order order) {
         log.info("开始取消超时订单，订单号：{}", order.getOrderNo());
 
-        // 1. 更新订单状态为已取消
+        // 1. 更新订单状态为已取消（仅待支付订单，延时队列、兜底扫描与用户支付可能并发处理同一订单）
         order.setOrderStatus(OrderStatusEnum.CANCELLED.getCode());
         order.setCancelTime(LocalDateTime.now());
         order.setCancelReason(ErrorConst.ORDER_TIMEOUT_CANCELLED);
 
-        if (!updateById(order)) {
-            log.error("更新超时订单状态失败，订单号：{}", order.getOrderNo());
-            throw new RuntimeException("更新订单状态失败");
+        boolean updated = update(order, Wrappers.lambdaUpdate(Order.class)
+                .eq(Order::getId, order.getId())
+                .eq(Order::getOrderStatus, OrderStatusEnum.PENDING.getCode()));
+        if (!updated) {
+            log.warn("超时订单状态已变更，跳过取消，订单号：{}", order.getOrderNo());
+            return;
         }
+        orderTimeoutQueueService.remove(order.getOrderNo());
 
         // 2. 注意：待支付订单取消不需要恢复销量，因为创建订单时还没支付，没有增加销量
         //    只有支付后才会增加销量，取消已支付订单才需要恢复
+        //    但下单时预占的当日库存需要归还
+        if (order.getOrderType().equals(OrderTypeEnum.TICKET.getCode())) {
+            ticketStockService.release(order.getOrderNo());
+        }
 
         // 3. 清除订单详情缓存
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.ORDER_DETAIL, order.getOrderNo()));
+        eventPublisher.publishEvent(OrderChangeEvent.of(order.getOrderNo()));
 
         log.info("超时订单取消成功，订单号：{}", order.getOrderNo());
     }
 
-    /**
-     * 生成订单号
-     * 格式：SNZH_ORDER + yyyyMMddHHmmss + 6位随机数（使用UUID保证唯一性）
-     */
-    private String generateOrderNo() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        // 使用UUID的hashCode确保唯一性，取绝对值后6位
-        String uniqueId = String.format("%06d", Math.abs(UUID.randomUUID().hashCode() % 1000000));
-        return "SNZH_ORDER" + timestamp + uniqueId;
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public List<Long> bulkCancelExpiredOrders(LocalDateTime expireBefore, Long lastId, int batchSize) {
+        // 1. 锁定本批订单，锁定后到事务结束前不会被并发支付修改
+        List<Order> orders = orderMapper.selectExpiredPendingForUpdate(expireBefore, lastId, batchSize);
+        if (orders.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // 2. 一条语句批量取消
+        List<Long> ids = orders.stream().map(Order::getId).toList();
+        int updated = orderMapper.batchCancelPending(ids, LocalDateTime.now(), ErrorConst.ORDER_TIMEOUT_CANCELLED);
+        if (updated != ids.size()) {
+            log.warn("批量取消超时订单数量不一致，锁定：{}条，更新：{}条", ids.size(), updated);
+        }
+
+        // 3. 待支付订单未增加销量，只需归还门票订单预占的当日库存
+        List<String> orderNos = orders.stream().map(Order::getOrderNo).toList();
+        ticketStockService.releaseAll(ticketOrderNos(orders));
+        orderTimeoutQueueService.removeAll(orderNos);
+
+        // 4. 事务提交后一次性清除订单详情缓存
+        eventPublisher.publishEvent(new OrderChangeEvent(orderNos));
+        return ids;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public List<Long> bulkCompleteVisitedOrders(LocalDate visitBefore, Long lastId, int batchSize) {
+        // 1. 锁定本批订单，锁定后到事务结束前不会被并发退款修改
+        List<Order> orders = orderMapper.selectVisitedPaidForUpdate(visitBefore, lastId, batchSize);
+        if (orders.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // 2. 一条语句批量完成
+        List<Long> ids = orders.stream().map(Order::getId).toList();
+        int updated = orderMapper.batchCompletePaid(ids, LocalDateTime.now());
+        if (updated != ids.size()) {
+            log.warn("批量完成订单数量不一致，锁定：{}条，更新：{}条", ids.size(), updated);
+        }
+
+        // 3. 事务提交后一次性清除订单详情缓存
+        eventPublisher.publishEvent(new OrderChangeEvent(orderNos(orders)));
+        return ids;
     }
 
     /**
-     * 更新门票销量（批量优化版本）
+     * 更新门票销量（批量原子更新版本）
+     * 一条 sold_count = sold_count + ? 语句完成所有门票的增减，避免并发支付时读改写丢失更新；
+     * 门票缓存在事务提交后统一清除一次，避免提交前被并发读请求回填旧数据
      * @param orderId 订单ID
      * @param isAdd true-增加销量，false-减少销量
      */
     private void updateTicketSoldCount(Long orderId, boolean isAdd) {
-        List<OrderItemVO> orderItems = orderItemService.getByOrderId(orderId);
-        
-        // 筛选出门票类型的订单项
-        List<OrderItemVO> ticketItems = orderItems.stream()
-                .filter(item -> item.getItemType().equals(ItemTypeEnum.TICKET.getCode()))
-                .collect(Collectors.toList());
-        
-        if (ticketItems.isEmpty()) {
+        updateTicketSoldCount(Collections.singletonList(orderId), isAdd);
+    }
+
+    /**
+     * 批量更新多个订单涉及的门票销量，所有订单的门票数量合并后一条语句完成
+     * @param orderIds 订单ID集合
+     * @param isAdd true-增加销量，false-减少销量
+     */
+    private void updateTicketSoldCount(Collection<Long> orderIds, boolean isAdd) {
+        List<OrderItem> ticketItems = orderItemService.lambdaQuery()
+                .select(OrderItem::getItemId, OrderItem::getQuantity)
+                .in(OrderItem::getOrderId, orderIds)
+                .eq(OrderItem::getItemType, ItemTypeEnum.TICKET.getCode())
+                .list();
+
+        // 按门票合并数量
+        Map<Long, Integer> ticketDeltaMap = new LinkedHashMap<>();
+        for (OrderItem item : ticketItems) {
+            int quantity = isAdd ? item.getQuantity() : -item.getQuantity();
+            ticketDeltaMap.merge(item.getItemId(), quantity, Integer::sum);
+        }
+
+        if (ticketDeltaMap.isEmpty()) {
             return;
         }
-        
-        // 批量查询门票信息
-        List<Long> ticketIds = ticketItems.stream()
-                .map(OrderItemVO::getItemId)
-                .collect(Collectors.toList());
-        List<ScenicTicket> tickets = scenicTicketMapper.selectBatchIds(ticketIds);
-        
+
+        // 只查询清除缓存需要的景点ID
+        List<ScenicTicket> tickets = scenicTicketMapper.selectList(
+                Wrappers.lambdaQuery(ScenicTicket.class)
+                        .select(ScenicTicket::getId, ScenicTicket::getScenicSpotId)
+                        .in(ScenicTicket::getId, ticketDeltaMap.keySet())
+        );
+
         if (tickets.isEmpty()) {
             throw new ScenicTicketNotFoundException(ErrorConst.SCENIC_TICKET_NOT_FOUND);
         }
-        
-        // 构建门票ID到数量的映射
-        Map<Long, Integer> ticketQuantityMap = ticketItems.stream()
-                .collect(Collectors.toMap(OrderItemVO::getItemId, OrderItemVO::getQuantity));
-        
-        // 批量更新销量
-        List<ScenicTicket> ticketsToUpdate = new ArrayList<>();
-        List<RedisKeyBuild> cacheKeysToDelete = new ArrayList<>();
-        
-        for (ScenicTicket ticket : tickets) {
-            Integer quantity = ticketQuantityMap.get(ticket.getId());
-            if (quantity != null) {
-                int newCount = isAdd
-                        ? ticket.getSoldCount() + quantity
-                        : ticket.getSoldCount() - quantity;
-                // 防止负数
-                ticket.setSoldCount(Math.max(0, newCount));
-                ticketsToUpdate.add(ticket);
-                
-                // 收集需要清除的缓存key
-                cacheKeysToDelete.add(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_DETAIL, ticket.getId()));
-                cacheKeysToDelete.add(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_FOR_SPOT, ticket.getScenicSpotId()));
-            }
-        }
-        
-        // 批量更新数据库
-        if (!ticketsToUpdate.isEmpty()) {
-            ticketsToUpdate.forEach(ticket -> scenicTicketMapper.updateById(ticket));
-        }
-        
-        // 批量清除缓存
-        if (!cacheKeysToDelete.isEmpty()) {
-            redisCache.del(cacheKeysToDelete);
-        }
+
+        // 批量原子更新数据库
+        scenicTicketMapper.batchIncrementSoldCount(ticketDeltaMap);
+
+        // 事务提交后批量清除门票缓存
+        eventPublisher.publishEvent(new ScenicTicketChangeEvent(
+                tickets.stream().map(ScenicTicket::getId).toList(),
+                tickets.stream().map(ScenicTicket::getScenicSpotId).distinct().toList()));
     }
 
     /**
@@ -436,11 +520,27 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
      * 批量转换订单列表VO（优化版，解决N+1查询问题）
      */
     private PageVo<OrderListVO> convertToOrderListPageVo(IPage<Order> orderPage) {
-        List<Order> orders = orderPage.getRecords();
-        if (orders.isEmpty()) {
+        if (orderPage.getRecords().isEmpty()) {
             return PageUtil.convertPage(orderPage, this::convertToOrderListVO);
         }
-        
+
+        // 使用构造函数创建 PageVo（因为 PageVo 没有 @Builder 注解）
+        return new PageVo<>(
+                orderPage.getCurrent(),
+                orderPage.getSize(),
+                orderPage.getTotal(),
+                convertToOrderListVOs(orderPage.getRecords())
+        );
+    }
+
+    /**
+     * 批量转换为OrderListVO，一次查询所有订单的明细数量
+     */
+    private List<OrderListVO> convertToOrderListVOs(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return new ArrayList<>();
+        }
+
         // 批量查询所有订单的明细数量
         List<Long> orderIds = orders.stream().map(Order::getId).collect(Collectors.toList());
         List<OrderItem> allItems = orderItemService.lambdaQuery()
@@ -453,28 +553,41 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
                 .collect(Collectors.groupingBy(OrderItem::getOrderId, Collectors.counting()));
         
         // 转换VO
-        List<OrderListVO> voList = orders.stream().map(order -> {
+        return orders.stream().map(order -> {
             OrderListVO vo = BeanUtil.copyProperties(order, OrderListVO.class);
             vo.setOrderTypeDesc(OrderTypeEnum.getMsg(order.getOrderType()));
             vo.setOrderStatusDesc(OrderStatusEnum.getMsg(order.getOrderStatus()));
             vo.setItemCount(orderItemCountMap.getOrDefault(order.getId(), 0L).intValue());
             return vo;
         }).collect(Collectors.toList());
-        
-        // 使用构造函数创建 PageVo（因为 PageVo 没有 @Builder 注解）
-        return new PageVo<>(
-                orderPage.getCurrent(),
-                orderPage.getSize(),
-                orderPage.getTotal(),
-                voList
-        );
+    }
+
+    /**
+     * 游标分页查询：定位到游标之后的记录，多查一条用于判断是否有下一页
+     * (create_time, id) 倒序，create_time 相同时按 id 区分，翻页不重不漏
+     */
+    private List<Order> selectByCursor(LambdaQueryWrapper<Order> wrapper, CursorPageDto dto) {
+        PageCursor cursor = PageUtil.decodeCursor(dto.getCursor());
+        if (cursor != null) {
+            wrapper.and(w -> w.lt(Order::getCreateTime, cursor.getCreateTime())
+                    .or(o -> o.eq(Order::getCreateTime, cursor.getCreateTime()).lt(Order::getId, cursor.getId())));
+        }
+        wrapper.orderByDesc(Order::getCreateTime)
+                .orderByDesc(Order::getId)
+                .last("LIMIT " + (dto.getPageSize() + 1));
+        return orderMapper.selectList(wrapper);
+    }
+
+    private String orderCursor(Order order) {
+        return PageUtil.encodeCursor(order.getCreateTime(), order.getId());
     }
 
     /**
      * 校验门票信息
      * @param item 订单项
+     * @return 门票信息
      */
-    private void validateTicketItem(OrderItemDTO item) {
+    private ScenicTicket validateTicketItem(OrderItemDTO item) {
         // 1. 查询门票是否存在
         ScenicTicket ticket = scenicTicketMapper.selectById(item.getItemId());
         if (StringUtils.isNull(ticket)) {
@@ -496,6 +609,7 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
         }
 
         log.debug("门票校验通过，门票ID：{}，价格：{}", item.getItemId(), ticket.getPrice());
+        return ticket;
     }
 
     /**
@@ -541,6 +655,144 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
         IPage<Order> page = PageUtil.getPageParams(dto);
 
         // 构建查询条件
+        LambdaQueryWrapper<Order> wrapper = buildAdminOrderWrapper(dto);
+
+        // 游标分页：按 (create_time, id) 定位，不统计总数
+        if (dto.useCursor()) {
+            PageVo<OrderListVO> cursorPageVo = PageUtil.convertCursorPage(selectByCursor(wrapper, dto), dto.getPageSize(),
+                    this::orderCursor,
+                    orders -> orders.stream().map(order -> BeanUtil.copyProperties(order, OrderListVO.class)).toList());
+            log.info("管理端游标查询订单列表完成，本页{}条", cursorPageVo.getList().size());
+            return cursorPageVo;
+        }
+
+        // 按创建时间倒序
+        wrapper.orderByDesc(Order::getCreateTime);
+
+        // 分页查询
+        IPage<Order> orderPage = orderMapper.selectPage(page, wrapper);
+        PageVo<OrderListVO> orderListVOPageVo = PageUtil.convertPage(orderPage, order -> BeanUtil.copyProperties(order, OrderListVO.class));
+        log.info("管理端查询订单列表完成，共{}条", orderListVOPageVo.getTotalSize());
+        return orderListVOPageVo;
+    }
+
+    @Override
+    public void exportAdminOrders(AdminOrderQueryDTO dto, OutputStream outputStream) throws IOException {
+        log.info("管理端导出订单，参数：{}", dto);
+        long startTime = System.currentTimeMillis();
+
+        LambdaQueryWrapper<Order> wrapper = buildAdminOrderWrapper(dto).orderByAsc(Order::getId);
+        SXSSFWorkbook workbook = new SXSSFWorkbook(BusinessConst.Limit.EXPORT_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        int total = 0;
+        // 流式游标独占一个连接，明细查询走Spring管理的其它连接
+        try (SqlSession sqlSession = sqlSessionFactory.openSession();
+             Cursor<Order> cursor = sqlSession.getMapper(OrderMapper.class).selectExportCursor(wrapper)) {
+            ExportSheet sheet = new ExportSheet(workbook);
+            List<Order> chunk = new ArrayList<>(BusinessConst.Limit.EXPORT_CHUNK_SIZE);
+            for (Order order : cursor) {
+                chunk.add(order);
+                if (chunk.size() >= BusinessConst.Limit.EXPORT_CHUNK_SIZE) {
+                    writeExportChunk(sheet, chunk);
+                    total += chunk.size();
+                    chunk.clear();
+                }
+            }
+            writeExportChunk(sheet, chunk);
+            total += chunk.size();
+            workbook.write(outputStream);
+            outputStream.flush();
+        } finally {
+            workbook.close();
+            workbook.dispose();
+        }
+        log.info("管理端导出订单完成，共{}条，耗时：{}ms", total, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 写入一批订单，明细按批一次查询
+     */
+    private void writeExportChunk(ExportSheet sheet, List<Order> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Long> orderIds = chunk.stream().map(Order::getId).toList();
+        Map<Long, List<OrderItem>> itemMap = orderItemService.lambdaQuery()
+                .select(OrderItem::getOrderId, OrderItem::getItemName, OrderItem::getQuantity)
+                .in(OrderItem::getOrderId, orderIds)
+                .list()
+                .stream()
+                .collect(Collectors.groupingBy(OrderItem::getOrderId));
+
+        for (Order order : chunk) {
+            String items = itemMap.getOrDefault(order.getId(), Collections.emptyList()).stream()
+                    .map(item -> item.getItemName() + "×" + item.getQuantity())
+                    .collect(Collectors.joining("；"));
+            Row row = sheet.nextRow();
+            int col = 0;
+            row.createCell(col++).setCellValue(order.getOrderNo());
+            row.createCell(col++).setCellValue(order.getUserId());
+            row.createCell(col++).setCellValue(order.getPhone());
+            row.createCell(col++).setCellValue(OrderTypeEnum.getMsg(order.getOrderType()));
+            row.createCell(col++).setCellValue(OrderStatusEnum.getMsg(order.getOrderStatus()));
+            row.createCell(col++).setCellValue(formatExportValue(order.getVisitDate()));
+            row.createCell(col++).setCellValue(order.getTotalAmount() == null ? 0D : order.getTotalAmount().doubleValue());
+            row.createCell(col++).setCellValue(items);
+            row.createCell(col++).setCellValue(formatExportValue(order.getCreateTime()));
+            row.createCell(col++).setCellValue(formatExportValue(order.getPayTime()));
+            row.createCell(col++).setCellValue(formatExportValue(order.getCancelTime()));
+            row.createCell(col++).setCellValue(formatExportValue(order.getRefundTime()));
+            row.createCell(col++).setCellValue(formatExportValue(order.getCompleteTime()));
+            row.createCell(col).setCellValue(order.getCancelReason() == null ? "" : order.getCancelReason());
+        }
+    }
+
+    private String formatExportValue(LocalDate date) {
+        return date == null ? "" : date.toString();
+    }
+
+    private String formatExportValue(LocalDateTime time) {
+        return time == null ? "" : time.format(EXPORT_TIME_FORMATTER);
+    }
+
+    /**
+     * 导出sheet，超过单sheet行数上限时自动新建sheet
+     */
+    private static final class ExportSheet {
+
+        private static final String[] HEADERS = {"订单号", "用户ID", "手机号", "订单类型", "订单状态", "游玩日期",
+                "订单金额", "订单明细", "下单时间", "支付时间", "取消时间", "退款时间", "完成时间", "取消原因"};
+
+        private final SXSSFWorkbook workbook;
+        private Sheet sheet;
+        private int rowIndex;
+
+        private ExportSheet(SXSSFWorkbook workbook) {
+            this.workbook = workbook;
+            newSheet();
+        }
+
+        private Row nextRow() {
+            if (rowIndex > BusinessConst.Limit.EXPORT_ROWS_PER_SHEET) {
+                newSheet();
+            }
+            return sheet.createRow(rowIndex++);
+        }
+
+        private void newSheet() {
+            sheet = workbook.createSheet("订单" + (workbook.getNumberOfSheets() + 1));
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < HEADERS.length; i++) {
+                header.createCell(i).setCellValue(HEADERS[i]);
+            }
+            rowIndex = 1;
+        }
+    }
+
+    /**
+     * 构建管理端订单查询条件（列表查询与导出共用）
+     */
+    private LambdaQueryWrapper<Order> buildAdminOrderWrapper(AdminOrderQueryDTO dto) {
         LambdaQueryWrapper<Order> wrapper = Wrappers.lambdaQuery(Order.class);
 
         // 订单号模糊搜索
@@ -597,14 +849,7 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
             applyQuickFilter(wrapper, dto.getQuickFilter());
         }
 
-        // 按创建时间倒序
-        wrapper.orderByDesc(Order::getCreateTime);
-
-        // 分页查询
-        IPage<Order> orderPage = orderMapper.selectPage(page, wrapper);
-        PageVo<OrderListVO> orderListVOPageVo = PageUtil.convertPage(orderPage, order -> BeanUtil.copyProperties(order, OrderListVO.class));
-        log.info("管理端查询订单列表完成，共{}条", orderListVOPageVo.getTotalSize());
-        return orderListVOPageVo;
+        return wrapper;
     }
 
     @Override
@@ -654,14 +899,21 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
         if (!updateById(order)) {
             return false;
         }
+        if (!isPaid) {
+            orderTimeoutQueueService.remove(order.getOrderNo());
+        }
 
         // 5. 如果是已支付订单，需要恢复门票销量（待支付订单从未增加销量，无需恢复）
-        if (isPaid && order.getOrderType().equals(OrderTypeEnum.TICKET.getCode())) {
-            updateTicketSoldCount(order.getId(), false);
+        //    无论是否支付都需要归还当日库存（预占或已售）
+        if (order.getOrderType().equals(OrderTypeEnum.TICKET.getCode())) {
+            if (isPaid) {
+                updateTicketSoldCount(order.getId(), false);
+            }
+            ticketStockService.release(order.getOrderNo());
         }
 
         // 6. 清除订单详情缓存
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.ORDER_DETAIL, dto.getOrderNo()));
+        eventPublisher.publishEvent(OrderChangeEvent.of(dto.getOrderNo()));
 
         log.info("管理端取消订单成功，订单号：{}，新状态：{}", dto.getOrderNo(), 
                 OrderStatusEnum.getMsg(order.getOrderStatus()));
@@ -699,13 +951,14 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
             return false;
         }
 
-        // 5. 恢复门票销量（已支付订单退款需要恢复销量）
+        // 5. 恢复门票销量并归还当日库存（已支付订单退款需要恢复销量）
         if (order.getOrderType().equals(OrderTypeEnum.TICKET.getCode())) {
             updateTicketSoldCount(order.getId(), false);
+            ticketStockService.release(order.getOrderNo());
         }
 
         // 6. 清除订单详情缓存
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.ORDER_DETAIL, dto.getOrderNo()));
+        eventPublisher.publishEvent(OrderChangeEvent.of(dto.getOrderNo()));
 
         // 7. 发送退款成功通知
         try {
@@ -750,7 +1003,7 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
         }
 
         // 3. 清除订单详情缓存
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.ORDER_DETAIL, order.getOrderNo()));
+        eventPublisher.publishEvent(OrderChangeEvent.of(order.getOrderNo()));
 
         log.info("管理端修改订单信息成功，订单ID：{}，修改原因：{}", dto.getOrderId(), dto.getUpdateReason());
         return true;
@@ -780,148 +1033,224 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
         }
 
         // 4. 清除订单详情缓存
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.ORDER_DETAIL, order.getOrderNo()));
+        eventPublisher.publishEvent(OrderChangeEvent.of(order.getOrderNo()));
 
         log.info("管理端手动完成订单成功，订单ID：{}", orderId);
         return true;
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public Map<Long, Boolean> adminBatchOperation(BatchOperationDTO dto) {
-        log.info("管理端批量操作，操作类型：{}，订单数量：{}", dto.getOperation(), dto.getOrderIds().size());
-
-        Map<Long, Boolean> resultMap = new HashMap<>();
-
-        for (Long orderId : dto.getOrderIds()) {
-            try {
-                boolean success = false;
-                switch (dto.getOperation()) {
-                    case BusinessConst.BatchOperation.CANCEL:
-                        Order order = getById(orderId);
-                        if (order != null) {
-                            AdminCancelDTO cancelDTO = new AdminCancelDTO();
-                            cancelDTO.setOrderNo(order.getOrderNo());
-                            cancelDTO.setCancelReason(dto.getReason());
-                            success = adminCancelOrder(cancelDTO);
-                        }
-                        break;
-                    case BusinessConst.BatchOperation.REFUND:
-                        order = getById(orderId);
-                        if (order != null) {
-                            AdminRefundDTO refundDTO = new AdminRefundDTO();
-                            refundDTO.setOrderNo(order.getOrderNo());
-                            refundDTO.setRefundAmount(order.getTotalAmount());
-                            refundDTO.setRefundReason(dto.getReason());
-                            success = adminRefund(refundDTO);
-                        }
-                        break;
-                    case BusinessConst.BatchOperation.COMPLETE:
-                        success = adminCompleteOrder(orderId);
-                        break;
-                    default:
-                        log.warn("不支持的操作类型：{}", dto.getOperation());
+        String operation = dto.getOperation();
+        List<Long> orderIds = dto.getOrderIds().stream().filter(Objects::nonNull).distinct().toList();
+        log.info("管理端批量操作，操作类型：{}，订单数量：{}", operation, orderIds.size());
+        long startTime = System.currentTimeMillis();
+
+        Map<Long, Boolean> chunkResults = new ConcurrentHashMap<>();
+        if (!BusinessConst.BatchOperation.CANCEL.equals(operation)
+                && !BusinessConst.BatchOperation.REFUND.equals(operation)
+                && !BusinessConst.BatchOperation.COMPLETE.equals(operation)) {
+            log.warn("不支持的操作类型：{}", operation);
+        } else {
+            // 按批并发执行，每批一个独立事务，某一批失败只回滚该批
+            int chunkSize = BusinessConst.Limit.BATCH_OPERATION_CHUNK_SIZE;
+            List<Future<?>> futures = new ArrayList<>();
+            for (int from = 0; from < orderIds.size(); from += chunkSize) {
+                List<Long> chunk = orderIds.subList(from, Math.min(from + chunkSize, orderIds.size()));
+                futures.add(orderExecutors.getBatchExecutor().submit(
+                        () -> runBatchChunk(operation, dto.getReason(), chunk, chunkResults)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException e) {
+                    log.error("批量操作批次执行异常", e);
                 }
-                resultMap.put(orderId, success);
-            } catch (Exception e) {
-                log.error("批量操作失败，订单ID：{}，错误：{}", orderId, e.getMessage(), e);
-                resultMap.put(orderId, false);
             }
         }
 
-        log.info("管理端批量操作完成，成功{}条，失败{}条",
-                resultMap.values().stream().filter(v -> v).count(),
-                resultMap.values().stream().filter(v -> !v).count());
+        // 按请求顺序返回每个订单的结果
+        Map<Long, Boolean> resultMap = new LinkedHashMap<>();
+        for (Long orderId : orderIds) {
+            resultMap.put(orderId, chunkResults.getOrDefault(orderId, false));
+        }
 
+        long elapsed = Math.max(System.currentTimeMillis() - startTime, 1);
+        long successCount = resultMap.values().stream().filter(v -> v).count();
+        log.info("管理端批量操作完成，成功{}条，失败{}条，耗时：{}ms，吞吐量：{}条/s",
+                successCount, resultMap.size() - successCount, elapsed, resultMap.size() * 1000L / elapsed);
         return resultMap;
     }
 
-    @Override
-    public OrderDashboardVO getDashboard() {
-        log.info("获取数据看板");
+    /**
+     * 在独立事务中执行一批订单的状态流转，失败时该批全部记为失败
+     */
+    private void runBatchChunk(String operation, String reason, List<Long> chunk, Map<Long, Boolean> results) {
+        try {
+            Map<Long, Boolean> chunkResult = transactionTemplate.execute(status -> transitionChunk(operation, reason, chunk));
+            if (chunkResult != null) {
+                results.putAll(chunkResult);
+            }
+        } catch (Exception e) {
+            log.error("批量操作失败，该批已回滚，订单ID：{}，错误：{}", chunk, e.getMessage(), e);
+            chunk.forEach(orderId -> results.put(orderId, false));
+        }
+    }
 
-        LocalDateTime[] todayRange = getTodayDateRange();
-        LocalDateTime today = todayRange[0];
-        LocalDateTime tomorrow = todayRange[1];
-        LocalDateTime monthStart = getMonthStart();
+    /**
+     * 锁定一批订单，按 当前状态 -> 目标状态 分组，每组一条带状态条件的UPDATE
+     * 取消：待支付 -> 已取消，已支付 -> 已退款；退款：已支付 -> 已退款；完成：已支付 -> 已完成
+     * 不满足状态条件或不存在的订单记为失败
+     */
+    private Map<Long, Boolean> transitionChunk(String operation, String reason, List<Long> chunk) {
+        Map<Long, Boolean> result = new HashMap<>();
+        chunk.forEach(orderId -> result.put(orderId, false));
 
-        // ========== 今日数据 ==========
-        Integer todayTotal = Math.toIntExact(lambdaQuery()
-                .between(Order::getCreateTime, today, tomorrow)
-                .count());
+        List<Order> orders = orderMapper.selectList(
+                Wrappers.lambdaQuery(Order.class).in(Order::getId, chunk).last("FOR UPDATE"));
+
+        List<Order> toCancel = new ArrayList<>();
+        List<Order> toRefund = new ArrayList<>();
+        List<Order> toComplete = new ArrayList<>();
+        for (Order order : orders) {
+            boolean pending = OrderStatusEnum.PENDING.getCode().equals(order.getOrderStatus());
+            boolean paid = OrderStatusEnum.PAID.getCode().equals(order.getOrderStatus());
+            switch (operation) {
+                case BusinessConst.BatchOperation.CANCEL:
+                    if (pending) {
+                        toCancel.add(order);
+                    } else if (paid) {
+                        toRefund.add(order);
+                    }
+                    break;
+                case BusinessConst.BatchOperation.REFUND:
+                    if (paid) {
+                        toRefund.add(order);
+                    }
+                    break;
+                case BusinessConst.BatchOperation.COMPLETE:
+                    if (paid) {
+                        toComplete.add(order);
+                    }
+                    break;
+                default:
+            }
+        }
 
-        Integer todayPending = Math.toIntExact(lambdaQuery()
-                .between(Order::getCreateTime, today, tomorrow)
-                .eq(Order::getOrderStatus, OrderStatusEnum.PENDING.getCode())
-                .count());
+        LocalDateTime now = LocalDateTime.now();
+        List<String> changedOrderNos = new ArrayList<>();
 
-        Integer todayPaid = Math.toIntExact(lambdaQuery()
-                .between(Order::getCreateTime, today, tomorrow)
-                .eq(Order::getOrderStatus, OrderStatusEnum.PAID.getCode())
-                .count());
+        // 1. 待支付 -> 已取消：未增加销量，只归还预占库存
+        if (!toCancel.isEmpty()) {
+            orderMapper.batchCancelPending(orderIds(toCancel), now, reason);
+            ticketStockService.releaseAll(ticketOrderNos(toCancel));
+            orderTimeoutQueueService.removeAll(orderNos(toCancel));
+            markSuccess(result, changedOrderNos, toCancel);
+        }
 
-        Integer todayCancelled = Math.toIntExact(lambdaQuery()
-                .between(Order::getCreateTime, today, tomorrow)
-                .eq(Order::getOrderStatus, OrderStatusEnum.CANCELLED.getCode())
-                .count());
+        // 2. 已支付 -> 已退款：恢复销量并归还库存，直接退款时发送退款通知
+        if (!toRefund.isEmpty()) {
+            boolean isCancel = BusinessConst.BatchOperation.CANCEL.equals(operation);
+            orderMapper.batchRefundPaid(orderIds(toRefund), now, isCancel ? now : null, reason);
+            List<Order> ticketOrders = toRefund.stream()
+                    .filter(order -> OrderTypeEnum.TICKET.getCode().equals(order.getOrderType()))
+                    .toList();
+            if (!ticketOrders.isEmpty()) {
+                updateTicketSoldCount(orderIds(ticketOrders), false);
+                ticketStockService.releaseAll(orderNos(ticketOrders));
+            }
+            if (!isCancel) {
+                toRefund.forEach(order -> order.setRefundTime(now));
+                sendRefundNoticesAfterCommit(toRefund);
+            }
+            markSuccess(result, changedOrderNos, toRefund);
+        }
 
-        Integer todayRefunded = Math.toIntExact(lambdaQuery()
-                .between(Order::getCreateTime, today, tomorrow)
-                .eq(Order::getOrderStatus, OrderStatusEnum.REFUNDED.getCode())
-                .count());
+        // 3. 已支付 -> 已完成
+        if (!toComplete.isEmpty()) {
+            orderMapper.batchCompletePaid(orderIds(toComplete), now);
+            markSuccess(result, changedOrderNos, toComplete);
+        }
 
-        Integer todayCompleted = Math.toIntExact(lambdaQuery()
-                .between(Order::getCreateTime, today, tomorrow)
-                .eq(Order::getOrderStatus, OrderStatusEnum.COMPLETED.getCode())
-                .count());
+        eventPublisher.publishEvent(new OrderChangeEvent(changedOrderNos));
+        return result;
+    }
 
-        // 今日销售额（已支付+已完成）
-        BigDecimal todayRevenue = orderMapper.selectList(
-                        Wrappers.lambdaQuery(Order.class)
-                                .between(Order::getCreateTime, today, tomorrow)
-                                .in(Order::getOrderStatus, OrderStatusEnum.PAID.getCode(), OrderStatusEnum.COMPLETED.getCode())
-                ).stream()
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private void markSuccess(Map<Long, Boolean> result, List<String> changedOrderNos, List<Order> orders) {
+        for (Order order : orders) {
+            result.put(order.getId(), true);
+            changedOrderNos.add(order.getOrderNo());
+        }
+    }
 
-        // ========== 本月数据 ==========
-        Integer monthTotal = Math.toIntExact(lambdaQuery()
-                .ge(Order::getCreateTime, monthStart)
-                .count());
+    private List<Long> orderIds(List<Order> orders) {
+        return orders.stream().map(Order::getId).toList();
+    }
 
-        Integer monthPending = Math.toIntExact(lambdaQuery()
-                .ge(Order::getCreateTime, monthStart)
-                .eq(Order::getOrderStatus, OrderStatusEnum.PENDING.getCode())
-                .count());
+    private List<String> orderNos(List<Order> orders) {
+        return orders.stream().map(Order::getOrderNo).toList();
+    }
 
-        Integer monthPaid = Math.toIntExact(lambdaQuery()
-                .ge(Order::getCreateTime, monthStart)
-                .eq(Order::getOrderStatus, OrderStatusEnum.PAID.getCode())
-                .count());
+    private List<String> ticketOrderNos(List<Order> orders) {
+        return orders.stream()
+                .filter(order -> OrderTypeEnum.TICKET.getCode().equals(order.getOrderType()))
+                .map(Order::getOrderNo)
+                .toList();
+    }
 
-        Integer monthCancelled = Math.toIntExact(lambdaQuery()
-                .ge(Order::getCreateTime, monthStart)
-                .eq(Order::getOrderStatus, OrderStatusEnum.CANCELLED.getCode())
-                .count());
+    /**
+     * 事务提交后在通知线程池中异步发送退款通知，不占用批量操作线程
+     */
+    private void sendRefundNoticesAfterCommit(List<Order> orders) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (Order order : orders) {
+                    orderExecutors.getNotifyExecutor().execute(() -> {
+                        try {
+                            notificationService.sendRefundSuccessNotice(order);
+                        } catch (Exception e) {
+                            log.error("发送退款成功通知失败，订单号：{}", order.getOrderNo(), e);
+                        }
+                    });
+                }
+            }
+        });
+    }
 
-        Integer monthRefunded = Math.toIntExact(lambdaQuery()
-                .ge(Order::getCreateTime, monthStart)
-                .eq(Order::getOrderStatus, OrderStatusEnum.REFUNDED.getCode())
-                .count());
+    @Override
+    public OrderDashboardVO getDashboard() {
+        log.info("获取数据看板");
+        return redisCache.get(RedisKeyBuild.createKey(RedisKeyManage.ORDER_DASHBOARD), OrderDashboardVO.class,
+                this::buildDashboard, BusinessConst.CacheTtl.DASHBOARD_SECONDS, TimeUnit.SECONDS);
+    }
 
-        Integer monthCompleted = Math.toIntExact(lambdaQuery()
-                .ge(Order::getCreateTime, monthStart)
-                .eq(Order::getOrderStatus, OrderStatusEnum.COMPLETED.getCode())
-                .count());
+    /**
+     * 统计数据看板
+     * 今日数据实时条件聚合；本月数据 = 汇总表中已覆盖日期之和 + 未覆盖日期实时聚合 + 今日数据
+     */
+    private OrderDashboardVO buildDashboard() {
+        LocalDateTime[] todayRange = getTodayDateRange();
+        LocalDate today = todayRange[0].toLocalDate();
+        LocalDate monthStart = getMonthStart().toLocalDate();
 
-        // 本月销售额（已支付+已完成）
-        BigDecimal monthRevenue = orderMapper.selectList(
-                        Wrappers.lambdaQuery(Order.class)
-                                .ge(Order::getCreateTime, monthStart)
-                                .in(Order::getOrderStatus, OrderStatusEnum.PAID.getCode(), OrderStatusEnum.COMPLETED.getCode())
-                ).stream()
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // ========== 今日数据 ==========
+        OrderDailyStats todayStats = orderMapper.aggregateByCreateTime(todayRange[0], todayRange[1]);
+
+        // ========== 本月数据 ==========
+        LocalDate coveredUntil = orderDailyStatsService.coveredUntil();
+        LocalDate rollupEnd = coveredUntil == null || coveredUntil.isBefore(monthStart) ? monthStart
+                : coveredUntil.isAfter(today) ? today : coveredUntil;
+        OrderDailyStats monthStats = todayStats;
+        if (rollupEnd.isAfter(monthStart)) {
+            monthStats = mergeStats(monthStats, orderDailyStatsMapper.sumRange(monthStart, rollupEnd));
+        }
+        if (rollupEnd.isBefore(today)) {
+            monthStats = mergeStats(monthStats, orderMapper.aggregateByCreateTime(rollupEnd.atStartOfDay(), todayRange[0]));
+        }
 
         // ========== 异常订单 ==========
         Integer abnormalOrders = Math.toIntExact(lambdaQuery()
@@ -930,66 +1259,88 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
                 .count());
 
         return OrderDashboardVO.builder()
-                .todayTotal(todayTotal)
-                .todayPending(todayPending)
-                .todayPaid(todayPaid)
-                .todayCancelled(todayCancelled)
-                .todayRefunded(todayRefunded)
-                .todayCompleted(todayCompleted)
-                .todayRevenue(todayRevenue)
-                .monthTotal(monthTotal)
-                .monthPending(monthPending)
-                .monthPaid(monthPaid)
-                .monthCancelled(monthCancelled)
-                .monthRefunded(monthRefunded)
-                .monthCompleted(monthCompleted)
-                .monthRevenue(monthRevenue)
+                .todayTotal(todayStats.getTotalCount())
+                .todayPending(todayStats.getPendingCount())
+                .todayPaid(todayStats.getPaidCount())
+                .todayCancelled(todayStats.getCancelledCount())
+                .todayRefunded(todayStats.getRefundedCount())
+                .todayCompleted(todayStats.getCompletedCount())
+                .todayRevenue(todayStats.getRevenue())
+                .monthTotal(monthStats.getTotalCount())
+                .monthPending(monthStats.getPendingCount())
+                .monthPaid(monthStats.getPaidCount())
+                .monthCancelled(monthStats.getCancelledCount())
+                .monthRefunded(monthStats.getRefundedCount())
+                .monthCompleted(monthStats.getCompletedCount())
+                .monthRevenue(monthStats.getRevenue())
                 .abnormalOrders(abnormalOrders)
                 .build();
     }
 
+    /**
+     * 合并两段统计数据
+     */
+    private OrderDailyStats mergeStats(OrderDailyStats a, OrderDailyStats b) {
+        return OrderDailyStats.builder()
+                .totalCount(a.getTotalCount() + b.getTotalCount())
+                .pendingCount(a.getPendingCount() + b.getPendingCount())
+                .paidCount(a.getPaidCount() + b.getPaidCount())
+                .cancelledCount(a.getCancelledCount() + b.getCancelledCount())
+                .refundedCount(a.getRefundedCount() + b.getRefundedCount())
+                .completedCount(a.getCompletedCount() + b.getCompletedCount())
+                .revenue(a.getRevenue().add(b.getRevenue()))
+                .build();
+    }
+
     @Override
     public List<OrderTrendVO> getOrderTrend(LocalDate startDate, LocalDate endDate) {
         log.info("获取订单趋势统计，开始日期：{}，结束日期：{}", startDate, endDate);
 
-        List<Order> orders = orderMapper.selectList(
-                Wrappers.lambdaQuery(Order.class)
-                        .ge(Order::getCreateTime, startDate.atStartOfDay())
-                        .le(Order::getCreateTime, endDate.atTime(23, 59, 59))
-        );
-
-        // 按日期分组统计
-        Map<LocalDate, List<Order>> dateOrderMap = orders.stream()
-                .collect(Collectors.groupingBy(order -> order.getCreateTime().toLocalDate()));
+        // 数据库按 日期+状态 分组，结果行数不超过 天数×状态数，与订单量无关
+        List<Map<String, Object>> rows = orderMapper.countAndSumByDayAndStatus(
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
 
-        List<OrderTrendVO> trendList = new ArrayList<>();
+        Map<LocalDate, OrderTrendVO> trendMap = new LinkedHashMap<>();
         LocalDate currentDate = startDate;
         while (!currentDate.isAfter(endDate)) {
-            List<Order> dayOrders = dateOrderMap.getOrDefault(currentDate, Collections.emptyList());
-
-            int orderCount = dayOrders.size();
-            int paidCount = (int) dayOrders.stream()
-                    .filter(o -> o.getOrderStatus().equals(OrderStatusEnum.PAID.getCode()) ||
-                            o.getOrderStatus().equals(OrderStatusEnum.COMPLETED.getCode()))
-                    .count();
-
-            BigDecimal revenue = dayOrders.stream()
-                    .filter(o -> o.getOrderStatus().equals(OrderStatusEnum.PAID.getCode()) ||
-                            o.getOrderStatus().equals(OrderStatusEnum.COMPLETED.getCode()))
-                    .map(Order::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            trendList.add(OrderTrendVO.builder()
+            // 没有订单的日期补零
+            trendMap.put(currentDate, OrderTrendVO.builder()
                     .date(currentDate.toString())
-                    .orderCount(orderCount)
-                    .paidCount(paidCount)
-                    .revenue(revenue)
+                    .orderCount(0)
+                    .paidCount(0)
+                    .revenue(BigDecimal.ZERO)
                     .build());
-
             currentDate = currentDate.plusDays(1);
         }
 
-        return trendList;
+        for (Map<String, Object> row : rows) {
+            OrderTrendVO trend = trendMap.get(toLocalDate(row.get("statDate")));
+            if (trend == null) {
+                continue;
+            }
+            Integer status = ((Number) row.get("statusCode")).intValue();
+            int count = ((Number) row.get("count")).intValue();
+            trend.setOrderCount(trend.getOrderCount() + count);
+            if (status.equals(OrderStatusEnum.PAID.getCode()) || status.equals(OrderStatusEnum.COMPLETED.getCode())) {
+                trend.setPaidCount(trend.getPaidCount() + count);
+                trend.setRevenue(trend.getRevenue().add(new BigDecimal(row.get("amount").toString())));
+            }
+        }
+
+        return new ArrayList<>(trendMap.values());
+    }
+
+    /**
+     * 兼容不同驱动版本下 DATE() 的返回类型
+     */
+    private LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate localDate) {
+            return localDate;
+        }
+        if (value instanceof java.sql.Date sqlDate) {
+            return sqlDate.toLocalDate();
+        }
+        return LocalDate.parse(value.toString());
     }
 
     @Override
@@ -0,0 +1,107 @@
+package com.snzh.service.impl;
+
+import com.snzh.enums.RedisKeyManage;
+import com.snzh.redis.RedisCache;
+import com.snzh.redis.RedisKeyBuild;
+import com.snzh.service.IOrderTimeoutQueueService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author haibara
+ * @description 订单超时延时队列服务实现类
+ * 待支付订单以过期时间为score写入ZSet，工作线程通过lua脚本原子领取到期订单并移入处理中集合，
+ * 处理成功后确认移除；节点宕机或处理失败时租约到期，下一次领取会把订单放回队列重新投递。
+ * 入队失败的订单由数据库兜底扫描处理。
+ * @since 2025/10/2
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderTimeoutQueueServiceImpl implements IOrderTimeoutQueueService {
+
+    private static final DefaultRedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>();
+
+    static {
+        CLAIM_SCRIPT.setScriptSource(new ResourceScriptSource(new ClassPathResource("lua/order_timeout_claim.lua")));
+        CLAIM_SCRIPT.setResultType(List.class);
+    }
+
+    private final RedisCache redisCache;
+
+    @Override
+    public void enqueue(String orderNo, LocalDateTime expireTime) {
+        double score = expireTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        afterCommit(() -> redisCache.addForSortedSet(queueKey(), orderNo, score));
+    }
+
+    @Override
+    public void remove(String orderNo) {
+        afterCommit(() -> redisCache.delForSortedSet(queueKey(), orderNo));
+    }
+
+    @Override
+    public void removeAll(Collection<String> orderNos) {
+        if (orderNos.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> redisCache.delForSortedSet(queueKey(), orderNos));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> claimDue(int limit, long leaseMillis) {
+        long now = System.currentTimeMillis();
+        List<String> orderNos = redisCache.execute(CLAIM_SCRIPT, List.of(queueKey(), processingKey()),
+                now, limit, now + leaseMillis);
+        return orderNos == null ? Collections.emptyList() : orderNos;
+    }
+
+    @Override
+    public void ack(String orderNo) {
+        redisCache.delForSortedSet(processingKey(), orderNo);
+    }
+
+    /**
+     * 当前处于事务中时在事务提交后执行，入队失败不影响下单，由兜底扫描处理
+     */
+    private void afterCommit(Runnable action) {
+        Runnable safeAction = () -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                log.error("同步订单超时队列失败，等待兜底扫描处理", e);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            safeAction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                safeAction.run();
+            }
+        });
+    }
+
+    private RedisKeyBuild queueKey() {
+        return RedisKeyBuild.createKey(RedisKeyManage.ORDER_TIMEOUT_QUEUE);
+    }
+
+    private RedisKeyBuild processingKey() {
+        return RedisKeyBuild.createKey(RedisKeyManage.ORDER_TIMEOUT_PROCESSING);
+    }
+}
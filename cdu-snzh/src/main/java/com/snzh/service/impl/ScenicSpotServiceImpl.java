@@ -13,12 +13,14 @@ import com.snzh.domain.dto.ScenicQueryDTO;
 import com.snzh.domain.dto.ScenicSpotMapRequestDTO;
 import com.snzh.domain.dto.ScenicSpotSaveDTO;
 import com.snzh.domain.entity.ScenicSpot;
+import com.snzh.domain.event.ScenicSpotChangeEvent;
 import com.snzh.domain.vo.*;
 import com.snzh.enums.RedisKeyManage;
 import com.snzh.enums.SpotTypeEnum;
 import com.snzh.enums.StatusEnum;
 import com.snzh.exceptions.*;
 import com.snzh.mapper.ScenicSpotMapper;
+import com.snzh.redis.CacheLoadOptions;
 import com.snzh.redis.RedisCache;
 import com.snzh.redis.RedisKeyBuild;
 import com.snzh.service.IScenicSpotService;
@@ -29,6 +31,7 @@ import com.snzh.utils.PageUtil;
 import com.snzh.utils.StringUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -53,41 +56,51 @@ public class ScenicSpotServiceImpl extends ServiceImpl<ScenicSpotMapper, ScenicS
     private final ScenicSpotMapper scenicSpotMapper;
     private final RedisCache redisCache;
     private final GaodeMapUtil gaodeMapUtil;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public ScenicSpotVO getScenicSpotDetail(Long id) {
         if(StringUtils.isNull(id)){
             throw new DataNotExistException(ErrorConst.SCENIC_SPOT_ID_NOT_NULL);
         }
-        ScenicSpotVO scenicSpotVO = redisCache.get(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_DETAIL, id), ScenicSpotVO.class);
+        // 不存在的景点缓存空值标记，避免反复查库
+        ScenicSpotVO scenicSpotVO = redisCache.getOrLoad(
+                RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_DETAIL, id),
+                ScenicSpotVO.class,
+                () -> {
+                    ScenicSpot scenicSpot = scenicSpotMapper.selectOne(Wrappers.lambdaQuery(ScenicSpot.class).eq(ScenicSpot::getId, id));
+                    return StringUtils.isNull(scenicSpot) ? null : BeanUtil.copyProperties(scenicSpot, ScenicSpotVO.class);
+                },
+                CacheLoadOptions.builder()
+                        .ttl(DateUtils.DAY_SECONDS)
+                        .nullTtlSeconds(60)
+                        .build());
         if(StringUtils.isNull(scenicSpotVO)){
-            ScenicSpot scenicSpot = scenicSpotMapper.selectOne(Wrappers.lambdaQuery(ScenicSpot.class).eq(ScenicSpot::getId, id));
-            if(StringUtils.isNull(scenicSpot)){
-                throw new ScenicSpotNotFoundException(ErrorConst.SCENIC_SPOT_NOT_FOUND);
-            }
-            scenicSpotVO = BeanUtil.copyProperties(scenicSpot, ScenicSpotVO.class);
-            redisCache.set(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_DETAIL, id), scenicSpotVO, DateUtils.DAY_SECONDS, TimeUnit.SECONDS);
+            throw new ScenicSpotNotFoundException(ErrorConst.SCENIC_SPOT_NOT_FOUND);
         }
         return scenicSpotVO;
     }
 
     @Override
     public List<ScenicSpotVO> getScenicSpotList() {
-        List<ScenicSpotVO> scenicSpotVOList = redisCache.getValueIsList(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_LIST), ScenicSpotVO.class);
-        if(StringUtils.isEmpty(scenicSpotVOList)){
-            List<ScenicSpot> scenicSpotList = scenicSpotMapper.selectList(
-                    Wrappers.lambdaQuery(ScenicSpot.class)
-                            .eq(ScenicSpot::getStatus, StatusEnum.RUN.getCode())
-                            .eq(ScenicSpot::getSpotType, SpotTypeEnum.SCENIC_SPOT.getCode())
-                            .eq(ScenicSpot::getParentId, 1));
-            if(StringUtils.isEmpty(scenicSpotList)){
-                throw new ScenicSpotNotFoundException(ErrorConst.SCENIC_SPOT_NOT_FOUND);
-            }
-            scenicSpotVOList = scenicSpotList
+        // 列表被删除后所有请求会同时未命中，多节点间也只回源一次
+        List<ScenicSpotVO> scenicSpotVOList = redisCache.getValueIsListOrLoad(
+                RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_LIST),
+                ScenicSpotVO.class,
+                () -> scenicSpotMapper.selectList(
+                                Wrappers.lambdaQuery(ScenicSpot.class)
+                                        .eq(ScenicSpot::getStatus, StatusEnum.RUN.getCode())
+                                        .eq(ScenicSpot::getSpotType, SpotTypeEnum.SCENIC_SPOT.getCode())
+                                        .eq(ScenicSpot::getParentId, 1))
                         .stream()
                         .map(scenicSpot -> BeanUtil.copyProperties(scenicSpot, ScenicSpotVO.class))
-                        .toList();
-            redisCache.set(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_LIST), scenicSpotVOList, DateUtils.DAY_SECONDS, TimeUnit.SECONDS);
+                        .toList(),
+                CacheLoadOptions.builder()
+                        .ttl(DateUtils.DAY_SECONDS)
+                        .distributedLock(true)
+                        .build());
+        if(StringUtils.isEmpty(scenicSpotVOList)){
+            throw new ScenicSpotNotFoundException(ErrorConst.SCENIC_SPOT_NOT_FOUND);
         }
         return scenicSpotVOList;
     }
@@ -338,7 +351,7 @@ public class ScenicSpotServiceImpl extends ServiceImpl<ScenicSpotMapper, ScenicS
             scenicSpot.setParentId(1L);
         }
         scenicSpotMapper.insert(scenicSpot);
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_LIST));
+        eventPublisher.publishEvent(ScenicSpotChangeEvent.of());
         return scenicSpot.getId();
     }
 
@@ -369,22 +382,14 @@ public class ScenicSpotServiceImpl extends ServiceImpl<ScenicSpotMapper, ScenicS
         }
         ScenicSpot scenicSpot = new ScenicSpot();
         BeanUtil.copyProperties(dto, scenicSpot, CopyOptions.create().ignoreNullValue());
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_DETAIL, dto.getId()));
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_LIST));
+        eventPublisher.publishEvent(ScenicSpotChangeEvent.of(dto.getId()));
         return updateById(scenicSpot);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Boolean deleteByIds(List<Long> ids) {
-        List<RedisKeyBuild> keys = new ArrayList<>();
-        if (ids != null && !ids.isEmpty()) {
-            ids.forEach(id ->
-                    keys.add(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_DETAIL, id))
-            );
-        }
-        redisCache.del(keys);
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_LIST));
+        eventPublisher.publishEvent(new ScenicSpotChangeEvent(ids == null ? List.of() : ids));
         return removeByIds(ids);
     }
 
@@ -403,8 +408,7 @@ public class ScenicSpotServiceImpl extends ServiceImpl<ScenicSpotMapper, ScenicS
         if(!updateById(scenicSpot)){
             return false;
         }
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_DETAIL, id));
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_LIST));
+        eventPublisher.publishEvent(ScenicSpotChangeEvent.of(id));
         return true;
     }
 
@@ -440,7 +444,7 @@ public class ScenicSpotServiceImpl extends ServiceImpl<ScenicSpotMapper, ScenicS
 
         if(result){
             // 清除缓存
-            redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_DETAIL, 1L));
+            eventPublisher.publishEvent(ScenicSpotChangeEvent.of(1L));
             log.info("景区信息更新成功：{}", dto.getName());
         }
 
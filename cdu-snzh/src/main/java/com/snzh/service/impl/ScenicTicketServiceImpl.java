@@ -11,6 +11,7 @@ import com.snzh.domain.dto.TicketSaveDTO;
 import com.snzh.domain.entity.ScenicSpot;
 import com.snzh.domain.entity.ScenicTicket;
 import com.snzh.domain.entity.TicketType;
+import com.snzh.domain.event.ScenicTicketChangeEvent;
 import com.snzh.domain.vo.PageVo;
 import com.snzh.domain.vo.ScenicTicketVO;
 import com.snzh.enums.RedisKeyManage;
@@ -23,16 +24,17 @@ import com.snzh.mapper.TicketTypeMapper;
 import com.snzh.redis.RedisCache;
 import com.snzh.redis.RedisKeyBuild;
 import com.snzh.service.IScenicTicketService;
+import com.snzh.service.ITicketStockService;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.snzh.utils.DateUtils;
 import com.snzh.utils.PageUtil;
 import com.snzh.utils.StringUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -53,6 +55,8 @@ public class ScenicTicketServiceImpl extends ServiceImpl<ScenicTicketMapper, Sce
     private final RedisCache redisCache;
     private final ScenicSpotMapper scenicSpotMapper;
     private final TicketTypeMapper ticketTypeMapper;
+    private final ITicketStockService ticketStockService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<ScenicTicketVO> findTicketsByScenicId(Long scenicId) {
@@ -139,7 +143,7 @@ public class ScenicTicketServiceImpl extends ServiceImpl<ScenicTicketMapper, Sce
 
         ScenicTicket scenicTicket = BeanUtil.copyProperties(saveDTO, ScenicTicket.class);
         scenicTicketMapper.insert(scenicTicket);
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_FOR_SPOT, saveDTO.getScenicSpotId()));
+        eventPublisher.publishEvent(ScenicTicketChangeEvent.of(null, saveDTO.getScenicSpotId()));
         return scenicTicket.getId();
     }
 
@@ -184,17 +188,32 @@ public class ScenicTicketServiceImpl extends ServiceImpl<ScenicTicketMapper, Sce
             throw new ScenicTicketHasExistException(ErrorConst.SCENIC_TICKET_HAS_EXIST);
         }
 
+        boolean unlimited = Boolean.TRUE.equals(saveDTO.getUnlimitedStock());
         ScenicTicket scenicTicket = new ScenicTicket();
         BeanUtil.copyProperties(saveDTO, scenicTicket, CopyOptions.create().ignoreNullValue());
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_DETAIL, saveDTO.getId()));
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_FOR_SPOT, saveDTO.getScenicSpotId()));
-        return updateById(scenicTicket);
+        if (unlimited) {
+            scenicTicket.setDailyStock(null);
+        }
+        eventPublisher.publishEvent(ScenicTicketChangeEvent.of(saveDTO.getId(), saveDTO.getScenicSpotId()));
+        if (!updateById(scenicTicket)) {
+            return false;
+        }
+        if (unlimited) {
+            // updateById 会忽略空值，改为不限量需要显式置空，并删除已初始化日期的库存key
+            update(Wrappers.lambdaUpdate(ScenicTicket.class)
+                    .set(ScenicTicket::getDailyStock, null)
+                    .eq(ScenicTicket::getId, saveDTO.getId()));
+            ticketStockService.resize(saveDTO.getId(), null);
+        } else if (StringUtils.isNotNull(saveDTO.getDailyStock())) {
+            // 每日库存为空表示不修改，有值时同步已初始化日期的库存
+            ticketStockService.resize(saveDTO.getId(), saveDTO.getDailyStock());
+        }
+        return true;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean deleteByIds(List<Long> ids) {
-        List<RedisKeyBuild> keys = new ArrayList<>();
         if (ids != null && !ids.isEmpty()) {
             List<Long> scenicIds = scenicTicketMapper.selectList(
                             Wrappers.lambdaQuery(ScenicTicket.class)
@@ -204,12 +223,11 @@ public class ScenicTicketServiceImpl extends ServiceImpl<ScenicTicketMapper, Sce
                     .map(ScenicTicket::getScenicSpotId)
                     .distinct()
                     .toList();
-            ids.forEach(id ->
-                    keys.add(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_DETAIL, id)));
-            scenicIds.forEach(id ->
-                    keys.add(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_FOR_SPOT, id)));
+            eventPublisher.publishEvent(new ScenicTicketChangeEvent(ids, scenicIds));
+        }
+        if (ids != null) {
+            ids.forEach(id -> ticketStockService.resize(id, null));
         }
-        redisCache.del(keys);
         return removeBatchByIds(ids);
     }
 
@@ -224,8 +242,7 @@ public class ScenicTicketServiceImpl extends ServiceImpl<ScenicTicketMapper, Sce
         if(!updateById(scenicTicket)){
             return false;
         }
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_DETAIL, id));
-        redisCache.del(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_FOR_SPOT, scenicTicket.getScenicSpotId()));
+        eventPublisher.publishEvent(ScenicTicketChangeEvent.of(id, scenicTicket.getScenicSpotId()));
         return true;
     }
 }
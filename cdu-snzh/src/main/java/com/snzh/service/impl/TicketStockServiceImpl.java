@@ -0,0 +1,323 @@
+package com.snzh.service.impl;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.snzh.constants.ErrorConst;
+import com.snzh.domain.entity.Order;
+import com.snzh.domain.entity.ScenicTicket;
+import com.snzh.enums.OrderStatusEnum;
+import com.snzh.enums.RedisKeyManage;
+import com.snzh.exceptions.OrderStatusException;
+import com.snzh.mapper.OrderItemMapper;
+import com.snzh.mapper.OrderMapper;
+import com.snzh.redis.RedisCache;
+import com.snzh.redis.RedisKeyBuild;
+import com.snzh.service.ITicketStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * @author haibara
+ * @description 门票每日库存服务实现类
+ * 库存按 门票ID + 游玩日期 保存在Redis Hash中（capacity/available/reserved/sold），
+ * 下单预占、支付确认、取消归还均由lua脚本原子完成，下单链路不再对门票行加锁。
+ * 每个订单的预占明细单独记录，确认/归还依据记录中的状态流转，重复调用是幂等的。
+ * @since 2025/10/2
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TicketStockServiceImpl implements ITicketStockService {
+
+    private static final DefaultRedisScript<Long> INIT_SCRIPT = buildScript("lua/ticket_stock_init.lua", Long.class);
+    private static final DefaultRedisScript<List> RESERVE_SCRIPT = buildScript("lua/ticket_stock_reserve.lua", List.class);
+    private static final DefaultRedisScript<Long> COMMIT_SCRIPT = buildScript("lua/ticket_stock_commit.lua", Long.class);
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = buildScript("lua/ticket_stock_release.lua", Long.class);
+    private static final DefaultRedisScript<Long> RESIZE_SCRIPT = buildScript("lua/ticket_stock_resize.lua", Long.class);
+
+    /** 预占成功 */
+    private static final long RESERVE_OK = 1L;
+    /** 订单已预占过 */
+    private static final long RESERVE_DUPLICATE = 2L;
+    /** 库存不足 */
+    private static final long RESERVE_NOT_ENOUGH = 0L;
+
+    /** 预占超过该时长仍未确认才进入对账（订单30分钟过期 + 5分钟缓冲） */
+    private static final long RECONCILE_GRACE_MILLIS = 35 * 60 * 1000L;
+
+    private final RedisCache redisCache;
+    private final OrderItemMapper orderItemMapper;
+    private final OrderMapper orderMapper;
+
+    @Override
+    public void reserve(String orderNo, LocalDate visitDate, Collection<ScenicTicket> tickets, Map<Long, Integer> quantities) {
+        Map<Long, ScenicTicket> limitedTickets = tickets.stream()
+                .filter(ticket -> ticket.getDailyStock() != null)
+                .collect(Collectors.toMap(ScenicTicket::getId, ticket -> ticket, (a, b) -> a, LinkedHashMap::new));
+        if (limitedTickets.isEmpty()) {
+            return;
+        }
+
+        List<Long> ticketIds = new ArrayList<>(limitedTickets.keySet());
+        List<RedisKeyBuild> keys = new ArrayList<>(ticketIds.size() + 2);
+        keys.add(RedisKeyBuild.createKey(RedisKeyManage.TICKET_STOCK_ORDER, orderNo));
+        keys.add(RedisKeyBuild.createKey(RedisKeyManage.TICKET_STOCK_PENDING));
+        Object[] args = new Object[ticketIds.size() + 3];
+        args[0] = expireAt(visitDate);
+        args[1] = System.currentTimeMillis();
+        args[2] = orderNo;
+        for (int i = 0; i < ticketIds.size(); i++) {
+            keys.add(stockKey(ticketIds.get(i), visitDate));
+            args[i + 3] = quantities.get(ticketIds.get(i));
+        }
+
+        // 每次未初始化只补一个库存key，最多重试门票数量次
+        for (int attempt = 0; attempt <= ticketIds.size(); attempt++) {
+            List<Long> result = redisCache.execute(RESERVE_SCRIPT, keys, args);
+            long code = result.get(0);
+            if (code == RESERVE_OK || code == RESERVE_DUPLICATE) {
+                releaseOnRollback(orderNo);
+                return;
+            }
+            Long ticketId = ticketIds.get(result.get(1).intValue() - 1);
+            if (code == RESERVE_NOT_ENOUGH) {
+                log.warn("门票库存不足，订单号：{}，门票ID：{}，游玩日期：{}", orderNo, ticketId, visitDate);
+                throw new OrderStatusException(ErrorConst.TICKET_STOCK_NOT_ENOUGH);
+            }
+            initStock(limitedTickets.get(ticketId), visitDate);
+        }
+        throw new RuntimeException("门票库存初始化失败");
+    }
+
+    @Override
+    public void commit(String orderNo) {
+        afterCommit(() -> {
+            Long result = redisCache.execute(COMMIT_SCRIPT, orderKeys(orderNo), orderNo);
+            log.debug("确认门票库存，订单号：{}，结果：{}", orderNo, result);
+        });
+    }
+
+    @Override
+    public void release(String orderNo) {
+        afterCommit(() -> {
+            Long result = redisCache.execute(RELEASE_SCRIPT, orderKeys(orderNo), orderNo);
+            log.debug("归还门票库存，订单号：{}，结果：{}", orderNo, result);
+        });
+    }
+
+    @Override
+    public void releaseAll(Collection<String> orderNos) {
+        if (orderNos.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            for (String orderNo : orderNos) {
+                try {
+                    redisCache.execute(RELEASE_SCRIPT, orderKeys(orderNo), orderNo);
+                } catch (Exception e) {
+                    log.error("归还门票库存失败，等待对账任务处理，订单号：{}", orderNo, e);
+                }
+            }
+            log.debug("批量归还门票库存，订单数：{}", orderNos.size());
+        });
+    }
+
+    @Override
+    public void resize(Long ticketId, Integer dailyStock) {
+        RedisKeyBuild datesKey = RedisKeyBuild.createKey(RedisKeyManage.TICKET_STOCK_DATES, ticketId);
+        Set<String> dates = redisCache.membersForSet(datesKey, String.class);
+        if (dates.isEmpty()) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        List<String> expiredDates = new ArrayList<>();
+        List<RedisKeyBuild> stockKeys = new ArrayList<>();
+        for (String date : dates) {
+            LocalDate visitDate = LocalDate.parse(date);
+            if (visitDate.isBefore(today)) {
+                expiredDates.add(date);
+            } else {
+                stockKeys.add(stockKey(ticketId, visitDate));
+            }
+        }
+        if (!expiredDates.isEmpty()) {
+            redisCache.removeForSet(datesKey, expiredDates);
+        }
+        if (stockKeys.isEmpty()) {
+            return;
+        }
+
+        afterCommit(() -> {
+            if (dailyStock == null) {
+                // 改为不限量后不再走库存校验，已有预占记录中的库存key不存在时会被跳过
+                redisCache.del(stockKeys);
+                redisCache.del(datesKey);
+            } else {
+                redisCache.execute(RESIZE_SCRIPT, stockKeys, dailyStock);
+            }
+            log.info("门票每日库存已同步，门票ID：{}，每日库存：{}，影响日期数：{}", ticketId, dailyStock, stockKeys.size());
+        });
+    }
+
+    @Override
+    public int reconcilePending(int limit) {
+        RedisKeyBuild pendingKey = RedisKeyBuild.createKey(RedisKeyManage.TICKET_STOCK_PENDING);
+        double deadline = System.currentTimeMillis() - RECONCILE_GRACE_MILLIS;
+        Set<ZSetOperations.TypedTuple<String>> pending =
+                redisCache.rangeByScoreWithScoreForSortedSet(pendingKey, 0, deadline, 0, limit, String.class);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<String> orderNos = pending.stream()
+                .map(ZSetOperations.TypedTuple::getValue)
+                .filter(Objects::nonNull)
+                .toList();
+        Map<String, Order> orderMap = orderMapper.selectList(
+                        Wrappers.lambdaQuery(Order.class)
+                                .select(Order::getOrderNo, Order::getOrderStatus, Order::getExpireTime)
+                                .in(Order::getOrderNo, orderNos))
+                .stream()
+                .collect(Collectors.toMap(Order::getOrderNo, order -> order, (a, b) -> a));
+
+        LocalDateTime now = LocalDateTime.now();
+        int handled = 0;
+        for (String orderNo : orderNos) {
+            Order order = orderMap.get(orderNo);
+            // 订单不存在（下单事务回滚且补偿未执行）或已取消/退款/过期，归还库存
+            if (order == null
+                    || OrderStatusEnum.CANCELLED.getCode().equals(order.getOrderStatus())
+                    || OrderStatusEnum.REFUNDED.getCode().equals(order.getOrderStatus())
+                    || (OrderStatusEnum.PENDING.getCode().equals(order.getOrderStatus())
+                        && order.getExpireTime() != null && order.getExpireTime().isBefore(now))) {
+                release(orderNo);
+                handled++;
+            } else if (OrderStatusEnum.PAID.getCode().equals(order.getOrderStatus())
+                    || OrderStatusEnum.COMPLETED.getCode().equals(order.getOrderStatus())) {
+                commit(orderNo);
+                handled++;
+            }
+        }
+        return handled;
+    }
+
+    /**
+     * 从数据库初始化某门票某游玩日期的库存
+     * 已支付/已完成的订单计入已售，待支付订单计入预占，并为这些订单补写预占记录，取消或退款时才能归还
+     */
+    private void initStock(ScenicTicket ticket, LocalDate visitDate) {
+        long reserved = 0;
+        long sold = 0;
+        List<RedisKeyBuild> keys = new ArrayList<>();
+        keys.add(stockKey(ticket.getId(), visitDate));
+        keys.add(RedisKeyBuild.createKey(RedisKeyManage.TICKET_STOCK_DATES, ticket.getId()));
+        keys.add(RedisKeyBuild.createKey(RedisKeyManage.TICKET_STOCK_PENDING));
+        List<Object> args = new ArrayList<>();
+        args.add(ticket.getDailyStock());
+        args.add(0L);
+        args.add(0L);
+        args.add(visitDate.toString());
+        args.add(expireAt(visitDate));
+        args.add(System.currentTimeMillis());
+        for (Map<String, Object> row : orderItemMapper.sumTicketQuantityByOrder(ticket.getId(), visitDate)) {
+            String orderNo = (String) row.get("orderNo");
+            Integer status = ((Number) row.get("statusCode")).intValue();
+            long quantity = ((Number) row.get("quantity")).longValue();
+            boolean pending = OrderStatusEnum.PENDING.getCode().equals(status);
+            if (pending) {
+                reserved += quantity;
+            } else {
+                sold += quantity;
+            }
+            keys.add(RedisKeyBuild.createKey(RedisKeyManage.TICKET_STOCK_ORDER, orderNo));
+            args.add(orderNo);
+            args.add(pending ? "reserved" : "committed");
+            args.add(quantity);
+        }
+        args.set(1, reserved);
+        args.set(2, sold);
+        Long initialized = redisCache.execute(INIT_SCRIPT, keys, args.toArray());
+        log.info("初始化门票库存，门票ID：{}，游玩日期：{}，每日库存：{}，预占：{}，已售：{}，订单数：{}，是否写入：{}",
+                ticket.getId(), visitDate, ticket.getDailyStock(), reserved, sold, keys.size() - 3, initialized);
+    }
+
+    /**
+     * 下单事务回滚时归还已预占的库存
+     */
+    private void releaseOnRollback(String orderNo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    try {
+                        redisCache.execute(RELEASE_SCRIPT, orderKeys(orderNo), orderNo);
+                        log.info("下单事务回滚，已归还门票库存，订单号：{}", orderNo);
+                    } catch (Exception e) {
+                        log.error("下单事务回滚归还门票库存失败，等待对账任务处理，订单号：{}", orderNo, e);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 当前处于事务中时在事务提交后执行，避免订单状态回滚而库存已变更
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    action.run();
+                } catch (Exception e) {
+                    // 预占记录仍在待确认集合中，由对账任务补偿
+                    log.error("事务提交后同步门票库存失败", e);
+                }
+            }
+        });
+    }
+
+    private List<RedisKeyBuild> orderKeys(String orderNo) {
+        return List.of(
+                RedisKeyBuild.createKey(RedisKeyManage.TICKET_STOCK_ORDER, orderNo),
+                RedisKeyBuild.createKey(RedisKeyManage.TICKET_STOCK_PENDING));
+    }
+
+    private RedisKeyBuild stockKey(Long ticketId, LocalDate visitDate) {
+        return RedisKeyBuild.createKey(RedisKeyManage.TICKET_STOCK, ticketId, visitDate);
+    }
+
+    /**
+     * 库存及预占记录保留到游玩日期后一天结束
+     */
+    private long expireAt(LocalDate visitDate) {
+        return visitDate.plusDays(2).atStartOfDay(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private static <T> DefaultRedisScript<T> buildScript(String path, Class<T> resultType) {
+        DefaultRedisScript<T> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
+        script.setResultType(resultType);
+        return script;
+    }
+}
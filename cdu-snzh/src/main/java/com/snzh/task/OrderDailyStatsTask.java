@@ -0,0 +1,35 @@
+package com.snzh.task;
+
+import com.snzh.service.IOrderDailyStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author haibara
+ * @description 订单每日统计汇总定时任务
+ * @since 2025/10/2
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderDailyStatsTask {
+
+    private final IOrderDailyStatsService orderDailyStatsService;
+
+    /**
+     * 增量重算订单每日汇总
+     * 每10分钟执行一次
+     */
+    @Scheduled(cron = "0 */10 * * * ?")
+    public void compactDailyStats() {
+        long startTime = System.currentTimeMillis();
+        try {
+            int affected = orderDailyStatsService.compact();
+            log.info("订单每日汇总重算完成，影响行数：{}，耗时：{}ms", affected, System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            log.error("订单每日汇总重算异常", e);
+        }
+    }
+}
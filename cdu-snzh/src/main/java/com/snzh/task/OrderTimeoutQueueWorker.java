@@ -0,0 +1,114 @@
+package com.snzh.task;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.snzh.domain.entity.Order;
+import com.snzh.domain.properties.OrderTimeoutProperties;
+import com.snzh.enums.OrderStatusEnum;
+import com.snzh.mapper.OrderMapper;
+import com.snzh.service.IOrderService;
+import com.snzh.service.IOrderTimeoutQueueService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author haibara
+ * @description 订单超时延时队列消费者
+ * 每秒从延时队列领取到期订单，交给工作线程池逐个取消；处理失败不确认，租约到期后自动重新投递
+ * @since 2025/10/2
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "snzh.order-timeout", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OrderTimeoutQueueWorker {
+
+    private final IOrderTimeoutQueueService orderTimeoutQueueService;
+    private final IOrderService orderService;
+    private final OrderMapper orderMapper;
+    private final OrderTimeoutProperties properties;
+    private final ThreadPoolExecutor executor;
+
+    public OrderTimeoutQueueWorker(IOrderTimeoutQueueService orderTimeoutQueueService,
+                                   IOrderService orderService,
+                                   OrderMapper orderMapper,
+                                   OrderTimeoutProperties properties) {
+        this.orderTimeoutQueueService = orderTimeoutQueueService;
+        this.orderService = orderService;
+        this.orderMapper = orderMapper;
+        this.properties = properties;
+        AtomicInteger threadIndex = new AtomicInteger();
+        int threads = properties.getWorkerThreads();
+        // 队列满时由轮询线程自己执行，形成背压，避免一次领取过多订单
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getBatchSize()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "order-timeout-worker-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * 领取并处理到期订单，一次轮询内持续领取直到没有到期订单
+     */
+    @Scheduled(fixedDelayString = "${snzh.order-timeout.poll-interval:1000}")
+    public void poll() {
+        long leaseMillis = TimeUnit.SECONDS.toMillis(properties.getLeaseSeconds());
+        int batchSize = properties.getBatchSize();
+        try {
+            List<String> orderNos;
+            do {
+                orderNos = orderTimeoutQueueService.claimDue(batchSize, leaseMillis);
+                for (String orderNo : orderNos) {
+                    executor.execute(() -> handle(orderNo));
+                }
+            } while (orderNos.size() >= batchSize && !executor.isShutdown());
+        } catch (Exception e) {
+            log.error("领取超时订单失败", e);
+        }
+    }
+
+    private void handle(String orderNo) {
+        try {
+            Order order = orderMapper.selectOne(
+                    Wrappers.lambdaQuery(Order.class).eq(Order::getOrderNo, orderNo)
+            );
+            if (order != null && OrderStatusEnum.PENDING.getCode().equals(order.getOrderStatus())) {
+                if (order.getExpireTime() != null && order.getExpireTime().isAfter(LocalDateTime.now())) {
+                    // 过期时间被延长，按新的过期时间重新入队
+                    orderTimeoutQueueService.enqueue(orderNo, order.getExpireTime());
+                } else {
+                    orderService.cancelExpiredOrder(order);
+                }
+            }
+            // 订单不存在或已支付/已取消时直接确认
+            orderTimeoutQueueService.ack(orderNo);
+        } catch (Exception e) {
+            log.error("延时队列取消超时订单失败，租约到期后重新投递，订单号：{}", orderNo, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                // 未处理完的订单仍在处理中集合，租约到期后由其它节点重新投递
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,11 +1,9 @@
 package com.snzh.task;
 
-import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.snzh.constants.BusinessConst;
-import com.snzh.domain.entity.Order;
-import com.snzh.enums.OrderStatusEnum;
-import com.snzh.mapper.OrderMapper;
 import com.snzh.service.IOrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -14,10 +12,13 @@ import org.springframework.stereotype.Component;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
 
 /**
  * @author haibara
  * @description 订单超时处理定时任务
+ * 按ID游标分批处理直到积压清空，每批一个事务、一条UPDATE，批次耗时记录到 snzh.order.bulk.batch 指标
  * @since 2025/10/2
  */
 @Slf4j
@@ -25,57 +26,26 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderTimeoutTask {
 
-    private final OrderMapper orderMapper;
+    /** 兜底扫描的宽限时间，给延时队列留出处理与重新投递的时间 */
+    private static final long SAFETY_NET_GRACE_MINUTES = 5;
+
+    private static final String BATCH_TIMER = "snzh.order.bulk.batch";
+
     private final IOrderService orderService;
+    private final MeterRegistry meterRegistry;
 
     /**
-     * 定时扫描并取消超时订单
-     * 每5分钟执行一次
+     * 兜底扫描延时队列遗漏的超时订单（入队失败、Redis数据丢失等）
+     * 超时订单正常由 OrderTimeoutQueueWorker 精确取消，这里只处理过期超过宽限时间的订单
+     * 每30分钟执行一次
      */
-    //@Scheduled(cron = "0 */5 * * * ?")
+    @Scheduled(cron = "0 */30 * * * ?")
     public void cancelExpiredOrders() {
-        log.info("========== 开始扫描超时订单 ==========");
-        long startTime = System.currentTimeMillis();
-
-        try {
-            // 1. 查询超时的待支付订单
-            List<Order> expiredOrders = orderMapper.selectList(
-                    Wrappers.lambdaQuery(Order.class)
-                            .eq(Order::getOrderStatus, OrderStatusEnum.PENDING.getCode())
-                            .lt(Order::getExpireTime, LocalDateTime.now())
-                            .orderByAsc(Order::getExpireTime)
-                            .last("LIMIT " + BusinessConst.Limit.DEFAULT_BATCH_LIMIT) // 一次最多处理限制数量
-            );
-
-            if (expiredOrders.isEmpty()) {
-                log.info("未发现超时订单");
-                return;
-            }
-
-            log.info("发现{}条超时订单，开始处理", expiredOrders.size());
-
-            // 2. 批量取消订单
-            int successCount = 0;
-            int failCount = 0;
-
-            for (Order order : expiredOrders) {
-                try {
-                    orderService.cancelExpiredOrder(order);
-                    successCount++;
-                } catch (Exception e) {
-                    failCount++;
-                    log.error("取消超时订单失败，订单号：{}，错误：{}", order.getOrderNo(), e.getMessage(), e);
-                }
-            }
-
-            long endTime = System.currentTimeMillis();
-            log.info("========== 超时订单处理完成 ==========");
-            log.info("总共处理：{}条，成功：{}条，失败：{}条，耗时：{}ms",
-                    expiredOrders.size(), successCount, failCount, (endTime - startTime));
-
-        } catch (Exception e) {
-            log.error("扫描超时订单异常", e);
-        }
+        log.info("========== 开始扫描延时队列遗漏的超时订单 ==========");
+        LocalDateTime expireBefore = LocalDateTime.now().minusMinutes(SAFETY_NET_GRACE_MINUTES);
+        drain("cancel", "取消超时订单",
+                lastId -> orderService.bulkCancelExpiredOrders(expireBefore, lastId,
+                        BusinessConst.Limit.BULK_TRANSITION_BATCH_SIZE));
     }
 
     /**
@@ -85,52 +55,52 @@ public class OrderTimeoutTask {
     //@Scheduled(cron = "0 0 1 * * ?")
     public void completeExpiredVisitOrders() {
         log.info("========== 开始扫描游玩日期已过订单 ==========");
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        drain("complete", "完成游玩日期已过订单",
+                lastId -> orderService.bulkCompleteVisitedOrders(yesterday, lastId,
+                        BusinessConst.Limit.BULK_TRANSITION_BATCH_SIZE));
+    }
+
+    /**
+     * 按ID游标逐批处理，直到某一批不足一页
+     * 某一批失败时停止本轮处理，剩余订单由下一轮继续
+     * @param operation 指标标签
+     * @param description 日志描述
+     * @param batchAction 传入上一批最后一个ID，返回本批处理的订单ID
+     */
+    private void drain(String operation, String description, LongFunction<List<Long>> batchAction) {
+        Timer timer = Timer.builder(BATCH_TIMER)
+                .description("订单批量状态流转单批耗时")
+                .tag("operation", operation)
+                .register(meterRegistry);
         long startTime = System.currentTimeMillis();
+        long lastId = 0L;
+        int total = 0;
+        int batches = 0;
 
         try {
-            LocalDate yesterday = LocalDate.now().minusDays(1);
-
-            // 1. 查询游玩日期已过的已支付订单
-            List<Order> expiredVisitOrders = orderMapper.selectList(
-                    Wrappers.lambdaQuery(Order.class)
-                            .eq(Order::getOrderStatus, OrderStatusEnum.PAID.getCode())
-                            .le(Order::getVisitDate, yesterday)
-                            .orderByAsc(Order::getVisitDate)
-                            // 一次最多处理限制数量
-                            .last("LIMIT " + BusinessConst.Limit.DEFAULT_BATCH_LIMIT)
-            );
-
-            if (expiredVisitOrders.isEmpty()) {
-                log.info("未发现需要完成的订单");
-                return;
-            }
-
-            log.info("发现{}条游玩日期已过订单，开始自动完成", expiredVisitOrders.size());
-
-            // 2. 批量完成订单
-            int successCount = 0;
-            int failCount = 0;
-
-            for (Order order : expiredVisitOrders) {
-                try {
-                    // 调用管理端完成订单方法，统一处理逻辑和缓存清理
-                    orderService.adminCompleteOrder(order.getId());
-                    
-                    log.info("订单自动完成，订单号：{}，游玩日期：{}", order.getOrderNo(), order.getVisitDate());
-                    successCount++;
-                } catch (Exception e) {
-                    failCount++;
-                    log.error("完成订单失败，订单号：{}，错误：{}", order.getOrderNo(), e.getMessage(), e);
+            while (true) {
+                long batchStart = System.nanoTime();
+                List<Long> ids = batchAction.apply(lastId);
+                long batchNanos = System.nanoTime() - batchStart;
+                if (ids.isEmpty()) {
+                    break;
+                }
+                timer.record(batchNanos, TimeUnit.NANOSECONDS);
+                batches++;
+                total += ids.size();
+                lastId = ids.get(ids.size() - 1);
+                log.info("{}第{}批：{}条，耗时：{}ms", description, batches, ids.size(), batchNanos / 1_000_000);
+                if (ids.size() < BusinessConst.Limit.BULK_TRANSITION_BATCH_SIZE) {
+                    break;
                 }
             }
-
-            long endTime = System.currentTimeMillis();
-            log.info("========== 游玩日期已过订单处理完成 ==========");
-            log.info("总共处理：{}条，成功：{}条，失败：{}条，耗时：{}ms",
-                    expiredVisitOrders.size(), successCount, failCount, (endTime - startTime));
-
         } catch (Exception e) {
-            log.error("扫描游玩日期已过订单异常", e);
+            log.error("{}异常，已处理：{}条，游标：{}", description, total, lastId, e);
         }
+
+        meterRegistry.counter("snzh.order.bulk.orders", "operation", operation).increment(total);
+        log.info("========== {}完成，共{}批{}条，耗时：{}ms ==========",
+                description, batches, total, System.currentTimeMillis() - startTime);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package com.snzh.task;
+
+import com.snzh.constants.BusinessConst;
+import com.snzh.service.ITicketStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author haibara
+ * @description 门票库存对账定时任务
+ * 下单事务回滚补偿失败、事务提交后同步库存失败等情况下，预占记录会停留在待确认集合中，
+ * 由该任务按数据库订单状态补做确认或归还
+ * @since 2025/10/2
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TicketStockReconcileTask {
+
+    private final ITicketStockService ticketStockService;
+
+    /**
+     * 对账未确认的库存预占
+     * 每10分钟执行一次
+     */
+    @Scheduled(cron = "0 */10 * * * ?")
+    public void reconcilePendingStock() {
+        long startTime = System.currentTimeMillis();
+        try {
+            int handled = ticketStockService.reconcilePending((int) BusinessConst.Limit.DEFAULT_BATCH_LIMIT);
+            if (handled > 0) {
+                log.info("门票库存对账完成，处理{}条预占记录，耗时：{}ms", handled, System.currentTimeMillis() - startTime);
+            }
+        } catch (Exception e) {
+            log.error("门票库存对账异常", e);
+        }
+    }
+}
@@ -20,6 +20,21 @@ public class CacheUtil {
 
     public static final TimeUnit DEFAULT_TIME_UNIT = TimeUnit.SECONDS;
 
+    /**
+     * SCAN 每次迭代建议返回的key数量，也是 UNLINK 的批大小
+     */
+    public static final int DEFAULT_SCAN_BATCH_SIZE = 500;
+
+    /**
+     * 管道批量写入时每批的命令数量，避免单个管道占用过多内存与阻塞其他命令
+     */
+    public static final int DEFAULT_PIPELINE_BATCH_SIZE = 500;
+
+    /**
+     * 空值标记，回源结果为空时写入，表示数据不存在
+     */
+    public static final String NULL_VALUE = "@@null@@";
+
 
     /**
      * 构建类型
@@ -3,9 +3,19 @@ package com.snzh.utils;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.github.pagehelper.PageInfo;
+import com.snzh.constants.ErrorConst;
+import com.snzh.domain.base.PageCursor;
 import com.snzh.domain.dto.BasePageDto;
 import com.snzh.domain.vo.PageVo;
+import com.snzh.enums.RespEnum;
+import com.snzh.exceptions.BaseException;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -16,6 +26,11 @@ import java.util.stream.Collectors;
  */
 public class PageUtil {
 
+    /**
+     * 游标分页不统计总数
+     */
+    public static final long UNKNOWN_TOTAL = -1L;
+
     public static <T> IPage<T> getPageParams(BasePageDto basePageDto) {
         return getPageParams(basePageDto.getPageNumber(), basePageDto.getPageSize());
     }
@@ -36,4 +51,52 @@ public class PageUtil {
                 iPage.getTotal(),
                 iPage.getRecords().stream().map(function).collect(Collectors.toList()));
     }
+
+    /**
+     * 游标分页结果转换
+     * @param records 按游标查询的记录，需多查一条用于判断是否有下一页
+     * @param pageSize 页大小
+     * @param cursorFunction 由记录生成游标
+     * @param listFunction 记录批量转换为VO
+     * @return 总数固定为 {@link #UNKNOWN_TOTAL}，有下一页时带 nextCursor
+     */
+    public static <OLD,NEW> PageVo<NEW> convertCursorPage(List<OLD> records, int pageSize,
+                                                         Function<? super OLD, String> cursorFunction,
+                                                         Function<List<OLD>, List<NEW>> listFunction){
+        boolean hasMore = records.size() > pageSize;
+        List<OLD> pageRecords = hasMore ? records.subList(0, pageSize) : records;
+        PageVo<NEW> pageVo = new PageVo<>(1, pageSize, UNKNOWN_TOTAL, listFunction.apply(pageRecords));
+        if (hasMore) {
+            pageVo.setNextCursor(cursorFunction.apply(pageRecords.get(pageRecords.size() - 1)));
+        }
+        return pageVo;
+    }
+
+    /**
+     * 生成游标：创建时间毫秒:ID 的 Base64 编码，对前端不透明
+     */
+    public static String encodeCursor(LocalDateTime createTime, Long id) {
+        long millis = createTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((millis + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标
+     * @param cursor 游标，为空表示第一页
+     * @return 游标位置，第一页返回null
+     */
+    public static PageCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            LocalDateTime createTime = LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(Long.parseLong(parts[0])), ZoneId.systemDefault());
+            return new PageCursor(createTime, Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new BaseException(RespEnum.PARAM_ERROR.getCode(), ErrorConst.PAGE_CURSOR_INVALID);
+        }
+    }
 }
@@ -0,0 +1,24 @@
+-- 写入会话摘要并移出已摘要的消息：仍持有摘要锁且列表头部与预期一致时才执行，避免误删未摘要的消息
+-- KEYS[1] 摘要锁  KEYS[2] 会话消息列表  KEYS[3] 会话摘要
+-- ARGV[1] 锁持有者标识  ARGV[2] 摘要  ARGV[3] 摘要过期时间(秒)  ARGV[4..n] 预期的列表头部消息（原始JSON）
+-- 返回 移出的消息条数  -1 锁已不属于当前持有者  -2 列表头部已变化
+if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+    return -1
+end
+local count = #ARGV - 3
+if count > 0 then
+    local head = redis.call('LRANGE', KEYS[2], 0, count - 1)
+    if #head ~= count then
+        return -2
+    end
+    for i = 1, count do
+        if head[i] ~= ARGV[i + 3] then
+            return -2
+        end
+    end
+end
+redis.call('SET', KEYS[3], ARGV[2], 'EX', ARGV[3])
+if count > 0 then
+    redis.call('LTRIM', KEYS[2], count, -1)
+end
+return count
@@ -0,0 +1,8 @@
+-- 释放锁（缓存回源锁、会话摘要锁）：只有持有者可以删除，避免锁过期后误删其他节点的锁
+-- KEYS[1] 锁key
+-- ARGV[1] 持有者标识
+-- 返回 1 释放成功  0 锁已不属于当前持有者
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,17 @@
+-- 领取到期的超时订单：先把租约过期（处理节点宕机/处理失败）的订单放回延时队列，再把到期订单移入处理中集合
+-- KEYS[1] 延时队列  KEYS[2] 处理中集合
+-- ARGV[1] 当前时间毫秒  ARGV[2] 单次最多领取数量  ARGV[3] 租约到期时间毫秒
+-- 返回 领取到的订单号列表
+local now = tonumber(ARGV[1])
+local limit = tonumber(ARGV[2])
+local expired = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', now, 'LIMIT', 0, limit)
+for i = 1, #expired do
+    redis.call('ZADD', KEYS[1], now, expired[i])
+    redis.call('ZREM', KEYS[2], expired[i])
+end
+local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', now, 'LIMIT', 0, limit)
+for i = 1, #due do
+    redis.call('ZADD', KEYS[2], ARGV[3], due[i])
+    redis.call('ZREM', KEYS[1], due[i])
+end
+return due
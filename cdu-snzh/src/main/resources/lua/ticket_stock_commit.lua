@@ -0,0 +1,21 @@
+-- 订单支付后确认预占库存：reserved -> sold
+-- KEYS[1] 订单预占记录  KEYS[2] 待确认预占集合
+-- ARGV[1] 订单号
+-- 返回 1 确认成功  0 无可确认的预占
+local state = redis.call('HGET', KEYS[1], '_state')
+if state ~= 'reserved' then
+    redis.call('ZREM', KEYS[2], ARGV[1])
+    return 0
+end
+local entries = redis.call('HGETALL', KEYS[1])
+for i = 1, #entries, 2 do
+    local stockKey = entries[i]
+    if stockKey ~= '_state' and redis.call('EXISTS', stockKey) == 1 then
+        local quantity = tonumber(entries[i + 1])
+        redis.call('HINCRBY', stockKey, 'reserved', -quantity)
+        redis.call('HINCRBY', stockKey, 'sold', quantity)
+    end
+end
+redis.call('HSET', KEYS[1], '_state', 'committed')
+redis.call('ZREM', KEYS[2], ARGV[1])
+return 1
@@ -0,0 +1,31 @@
+-- 初始化某门票某游玩日期的库存，并为已有订单补写预占记录，使其取消/退款时可以归还库存
+-- KEYS[1] 库存key  KEYS[2] 门票已初始化日期集合  KEYS[3] 待确认预占集合  KEYS[4..n] 已有订单的预占记录
+-- ARGV[1] 每日库存 ARGV[2] 已预占数量 ARGV[3] 已售数量 ARGV[4] 游玩日期 ARGV[5] 过期时间戳(秒) ARGV[6] 当前时间戳(毫秒)
+-- ARGV[7..] 与预占记录一一对应的 订单号,预占状态(reserved/committed),数量
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    return 0
+end
+local capacity = tonumber(ARGV[1])
+local reserved = tonumber(ARGV[2])
+local sold = tonumber(ARGV[3])
+local available = capacity - reserved - sold
+if available < 0 then
+    available = 0
+end
+redis.call('HSET', KEYS[1], 'capacity', capacity, 'available', available, 'reserved', reserved, 'sold', sold)
+redis.call('EXPIREAT', KEYS[1], ARGV[5])
+redis.call('SADD', KEYS[2], ARGV[4])
+redis.call('EXPIREAT', KEYS[2], ARGV[5])
+for i = 4, #KEYS do
+    local base = 7 + (i - 4) * 3
+    local orderNo = ARGV[base]
+    local state = ARGV[base + 1]
+    -- 订单已有预占记录（其他门票已初始化）时沿用其状态，只补上当前库存key
+    redis.call('HSETNX', KEYS[i], KEYS[1], ARGV[base + 2])
+    if redis.call('HSETNX', KEYS[i], '_state', state) == 1 and state == 'reserved' then
+        -- 进入待确认集合，订单在初始化期间已取消时由对账任务归还
+        redis.call('ZADD', KEYS[3], ARGV[6], orderNo)
+    end
+    redis.call('EXPIREAT', KEYS[i], ARGV[5])
+end
+return 1
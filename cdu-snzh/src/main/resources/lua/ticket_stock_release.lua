@@ -0,0 +1,36 @@
+-- 订单取消/退款后归还库存：reserved 或 sold -> available
+-- 可售数量不超过 capacity - reserved - sold，容量调小后归还的部分不会超卖
+-- KEYS[1] 订单预占记录  KEYS[2] 待确认预占集合
+-- ARGV[1] 订单号
+-- 返回 1 归还成功  0 无可归还的库存
+local state = redis.call('HGET', KEYS[1], '_state')
+local field
+if state == 'reserved' then
+    field = 'reserved'
+elseif state == 'committed' then
+    field = 'sold'
+else
+    redis.call('ZREM', KEYS[2], ARGV[1])
+    return 0
+end
+local entries = redis.call('HGETALL', KEYS[1])
+for i = 1, #entries, 2 do
+    local stockKey = entries[i]
+    if stockKey ~= '_state' and redis.call('EXISTS', stockKey) == 1 then
+        local quantity = tonumber(entries[i + 1])
+        local remaining = redis.call('HINCRBY', stockKey, field, -quantity)
+        if remaining < 0 then
+            redis.call('HSET', stockKey, field, 0)
+        end
+        local stock = redis.call('HMGET', stockKey, 'capacity', 'available', 'reserved', 'sold')
+        local limit = tonumber(stock[1]) - tonumber(stock[3]) - tonumber(stock[4])
+        local available = math.min(tonumber(stock[2]) + quantity, limit)
+        if available < 0 then
+            available = 0
+        end
+        redis.call('HSET', stockKey, 'available', available)
+    end
+end
+redis.call('HSET', KEYS[1], '_state', 'released')
+redis.call('ZREM', KEYS[2], ARGV[1])
+return 1
@@ -0,0 +1,26 @@
+-- 订单预占库存（全部成功或全部失败）
+-- KEYS[1] 订单预占记录  KEYS[2] 待确认预占集合  KEYS[3..n] 库存key
+-- ARGV[1] 预占记录过期时间戳(秒)  ARGV[2] 当前时间戳(毫秒)  ARGV[3] 订单号  ARGV[4..n+1] 与库存key一一对应的数量
+-- 返回 {1,0} 成功  {2,0} 已预占过  {0,i} 第i个库存不足  {-1,i} 第i个库存未初始化
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    return {2, 0}
+end
+for i = 3, #KEYS do
+    local available = redis.call('HGET', KEYS[i], 'available')
+    if not available then
+        return {-1, i - 2}
+    end
+    if tonumber(available) < tonumber(ARGV[i + 1]) then
+        return {0, i - 2}
+    end
+end
+for i = 3, #KEYS do
+    local quantity = tonumber(ARGV[i + 1])
+    redis.call('HINCRBY', KEYS[i], 'available', -quantity)
+    redis.call('HINCRBY', KEYS[i], 'reserved', quantity)
+    redis.call('HSET', KEYS[1], KEYS[i], quantity)
+end
+redis.call('HSET', KEYS[1], '_state', 'reserved')
+redis.call('EXPIREAT', KEYS[1], ARGV[1])
+redis.call('ZADD', KEYS[2], ARGV[2], ARGV[3])
+return {1, 0}
@@ -0,0 +1,15 @@
+-- 调整已初始化库存的每日容量，可售数量按 capacity - reserved - sold 重新计算
+-- KEYS[1..n] 库存key
+-- ARGV[1] 新的每日库存
+local capacity = tonumber(ARGV[1])
+for i = 1, #KEYS do
+    local stock = redis.call('HMGET', KEYS[i], 'capacity', 'reserved', 'sold')
+    if stock[1] then
+        local available = capacity - tonumber(stock[2]) - tonumber(stock[3])
+        if available < 0 then
+            available = 0
+        end
+        redis.call('HSET', KEYS[i], 'capacity', capacity, 'available', available)
+    end
+end
+return #KEYS
@@ -0,0 +1,74 @@
+package com.snzh.ai;
+
+import com.snzh.ai.config.AiStreamExecutor;
+import com.snzh.ai.domain.properties.AiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author haibara
+ * @description 流式对话线程池并发容量测试：模拟每个对话占用线程一段时间，
+ * 验证同时进行的对话数不超过线程数、超出队列的请求被拒绝并计数（不依赖Spring容器与模型API）
+ * @since 2025/10/5
+ */
+@Slf4j
+public class AiStreamExecutorCapacityTest {
+
+    private static final int THREADS = 16;
+    private static final int QUEUE_CAPACITY = 32;
+    private static final int REQUESTS = 200;
+    private static final long STREAM_MILLIS = 200;
+
+    @Test
+    public void testConcurrentStreamCapacity() throws InterruptedException {
+        AiProperties aiProperties = new AiProperties();
+        aiProperties.getStream().setThreads(THREADS);
+        aiProperties.getStream().setQueueCapacity(QUEUE_CAPACITY);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AiStreamExecutor executor = new AiStreamExecutor(aiProperties, registry);
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        int accepted = 0;
+        CountDownLatch finished = new CountDownLatch(THREADS + QUEUE_CAPACITY);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < REQUESTS; i++) {
+            boolean submitted = executor.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(STREAM_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                    finished.countDown();
+                }
+            });
+            if (submitted) {
+                accepted++;
+            }
+        }
+        Assertions.assertTrue(finished.await(10, TimeUnit.SECONDS));
+        long elapsed = System.currentTimeMillis() - start;
+        // 等待计时记录完成
+        executor.shutdown();
+
+        double rejected = registry.get("snzh.ai.stream.rejected").counter().count();
+        log.info("{}个线程、队列{}：提交{}个对话，接受{}个，拒绝{}个，最大并发{}，全部完成耗时{}ms，排队平均等待{}ms",
+                THREADS, QUEUE_CAPACITY, REQUESTS, accepted, (long) rejected, maxRunning.get(), elapsed,
+                (long) registry.get("snzh.ai.stream.queue.wait").timer().mean(TimeUnit.MILLISECONDS));
+
+        Assertions.assertEquals(THREADS + QUEUE_CAPACITY, accepted);
+        Assertions.assertEquals(REQUESTS - accepted, (long) rejected);
+        Assertions.assertEquals(THREADS, maxRunning.get());
+        Assertions.assertEquals(THREADS + QUEUE_CAPACITY,
+                registry.get("snzh.ai.stream.duration").timer().count());
+    }
+}
@@ -0,0 +1,109 @@
+package com.snzh.ai;
+
+import com.snzh.ai.config.AiToolExecutor;
+import com.snzh.ai.domain.properties.AiProperties;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * @author haibara
+ * @description 同一轮多个工具调用的并发执行、结果顺序与单独超时，超时后中断工具且只记录一次耗时（不依赖Spring容器与模型API）
+ * @since 2025/10/5
+ */
+@Slf4j
+public class AiToolExecutorTest {
+
+    @Test
+    public void testParallelInOrderWithTimeout() {
+        AiProperties aiProperties = new AiProperties();
+        aiProperties.getTool().setTimeoutMillis(1_000L);
+        aiProperties.getTool().getTimeouts().put("recommendRoute", 200L);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        List<ToolSpecification> specifications = Stream.of("queryForecastWeather", "listAvailableTickets", "recommendRoute")
+                .map(name -> ToolSpecification.builder().name(name).build())
+                .toList();
+        AiToolExecutor executor = new AiToolExecutor(aiProperties, registry, specifications);
+
+        AtomicBoolean interrupted = new AtomicBoolean();
+        long start = System.currentTimeMillis();
+        List<String> results = executor.invokeAll(List.of(
+                new AiToolExecutor.ToolCall("queryForecastWeather", () -> sleepAndReturn(400, "weather")),
+                new AiToolExecutor.ToolCall("listAvailableTickets", () -> sleepAndReturn(100, "tickets")),
+                new AiToolExecutor.ToolCall("recommendRoute", () -> sleepAndReturn(2_000, "route", interrupted))));
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("3个工具调用（400ms、100ms、超时200ms）总耗时：{}ms，结果：{}", elapsed, results);
+
+        Assertions.assertEquals("weather", results.get(0));
+        Assertions.assertEquals("tickets", results.get(1));
+        Assertions.assertTrue(results.get(2).contains("超时"));
+        Assertions.assertTrue(elapsed < 700, "并发执行的耗时应接近最慢的工具");
+        Assertions.assertEquals(1, registry.get("snzh.ai.tool.latency")
+                .tags("tool", "recommendRoute", "result", "timeout").timer().count());
+        Assertions.assertEquals(1, registry.get("snzh.ai.tool.latency")
+                .tags("tool", "listAvailableTickets", "result", "success").timer().count());
+        // 超时的工具被中断，结束后不再记录 success
+        sleepAndReturn(200, null);
+        Assertions.assertTrue(interrupted.get(), "超时的工具应被中断");
+        Assertions.assertEquals(1, registry.get("snzh.ai.tool.latency")
+                .tags("tool", "recommendRoute").timers().stream().mapToLong(timer -> timer.count()).sum());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testCallerRunsTimeoutAndNullResult() {
+        AiProperties aiProperties = new AiProperties();
+        aiProperties.getTool().setThreads(1);
+        aiProperties.getTool().setQueueCapacity(1);
+        aiProperties.getTool().setTimeoutMillis(200L);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        List<ToolSpecification> specifications = Stream.of("queryWeather", "listScenicSpots")
+                .map(name -> ToolSpecification.builder().name(name).build())
+                .toList();
+        AiToolExecutor executor = new AiToolExecutor(aiProperties, registry, specifications);
+
+        // 1个线程、队列长度1，第3个调用在调用线程执行，同样按时中断
+        AtomicBoolean[] interrupted = {new AtomicBoolean(), new AtomicBoolean(), new AtomicBoolean()};
+        long start = System.currentTimeMillis();
+        List<String> results = executor.invokeAll(List.of(
+                new AiToolExecutor.ToolCall("queryWeather", () -> sleepAndReturn(2_000, "a", interrupted[0])),
+                new AiToolExecutor.ToolCall("queryWeather", () -> sleepAndReturn(2_000, "b", interrupted[1])),
+                new AiToolExecutor.ToolCall("queryWeather", () -> sleepAndReturn(2_000, "c", interrupted[2]))));
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("线程池已满时3个工具调用（超时200ms）总耗时：{}ms，结果：{}", elapsed, results);
+
+        Assertions.assertTrue(results.stream().allMatch(result -> result.contains("超时")));
+        Assertions.assertTrue(elapsed < 1_000, "调用线程执行的工具也应按时中断");
+        Assertions.assertTrue(interrupted[2].get());
+        Assertions.assertFalse(Thread.currentThread().isInterrupted(), "调用线程的中断标记应被清除");
+
+        // 返回null是正常结果
+        Assertions.assertEquals(Arrays.asList("ok", null), executor.invokeAll(List.of(
+                new AiToolExecutor.ToolCall("queryWeather", () -> "ok"),
+                new AiToolExecutor.ToolCall("listScenicSpots", () -> null))));
+        Assertions.assertEquals(1, registry.get("snzh.ai.tool.latency")
+                .tags("tool", "listScenicSpots", "result", "success").timer().count());
+        executor.shutdown();
+    }
+
+    private static String sleepAndReturn(long millis, String result) {
+        return sleepAndReturn(millis, result, new AtomicBoolean());
+    }
+
+    private static String sleepAndReturn(long millis, String result, AtomicBoolean interrupted) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            interrupted.set(true);
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,86 @@
+package com.snzh.ai;
+
+import com.snzh.ai.domain.entity.AiChatMessage;
+import com.snzh.ai.memory.ChatMemoryManager;
+import com.snzh.ai.memory.TokenEstimator;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author haibara
+ * @description 会话历史按token预算裁剪：从最新往前保留、不超预算、以用户消息开头；
+ * 摘要完成后只移除仍留在列表头部的已摘要消息（不依赖Spring容器与模型API）
+ * @since 2025/10/5
+ */
+@Slf4j
+public class ChatMemoryBudgetTest {
+
+    @Test
+    public void testTokenEstimate() {
+        Assertions.assertEquals(0, TokenEstimator.estimate((String) null));
+        Assertions.assertEquals(4, TokenEstimator.estimate("蜀南竹海"));
+        Assertions.assertEquals(3, TokenEstimator.estimate("qwen-plus"));
+    }
+
+    @Test
+    public void testTrimToBudget() {
+        List<ChatMessage> history = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            history.add(new UserMessage("第" + i + "轮：明天带老人去翡翠长廊怎么安排？"));
+            history.add(new AiMessage("第" + i + "轮回复：建议上午游览翡翠长廊，下午去仙女湖，注意防滑。"));
+        }
+        int fullTokens = TokenEstimator.estimate(history);
+        int budget = fullTokens / 3;
+
+        List<ChatMessage> recent = ChatMemoryManager.trimToBudget(history, budget);
+        log.info("完整历史{}条、约{}token，预算{}，保留{}条、约{}token",
+                history.size(), fullTokens, budget, recent.size(), TokenEstimator.estimate(recent));
+
+        Assertions.assertTrue(TokenEstimator.estimate(recent) <= budget);
+        Assertions.assertFalse(recent.isEmpty());
+        Assertions.assertInstanceOf(UserMessage.class, recent.get(0));
+        Assertions.assertSame(history.get(history.size() - 1), recent.get(recent.size() - 1));
+        Assertions.assertEquals(history, ChatMemoryManager.trimToBudget(history, fullTokens));
+        Assertions.assertTrue(ChatMemoryManager.trimToBudget(history, 0).isEmpty());
+    }
+
+    @Test
+    public void testFoldedPrefixLength() {
+        List<AiChatMessage> history = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            history.add(message("USER", "第" + i + "轮：竹海索道几点开？"));
+            history.add(message("AI", "第" + i + "轮回复：索道8:00开始运营。"));
+        }
+        List<AiChatMessage> folded = new ArrayList<>(history.subList(0, 8));
+
+        // 摘要期间列表未变化：全部移除
+        Assertions.assertEquals(8, ChatMemoryManager.foldedPrefixLength(history, folded));
+
+        // 摘要期间追加了新消息并被长度限制从头部裁剪掉3条：只移除剩余的5条，不误删未摘要的消息
+        List<AiChatMessage> trimmed = new ArrayList<>(history.subList(3, history.size()));
+        trimmed.add(message("USER", "第6轮：有没有优惠票？"));
+        trimmed.add(message("AI", "第6轮回复：老人凭证件可购买优惠票。"));
+        Assertions.assertEquals(5, ChatMemoryManager.foldedPrefixLength(trimmed, folded));
+        Assertions.assertEquals("第4轮：竹海索道几点开？",
+                trimmed.subList(5, trimmed.size()).get(0).getContent());
+
+        // 已摘要的消息都已被裁剪或移除：不再删除
+        Assertions.assertEquals(0, ChatMemoryManager.foldedPrefixLength(history.subList(8, history.size()), folded));
+        Assertions.assertEquals(0, ChatMemoryManager.foldedPrefixLength(List.of(), folded));
+
+        // 实际按Redis中的原始JSON比对
+        Assertions.assertEquals(2, ChatMemoryManager.foldedPrefixLength(
+                List.of("{\"c\"}", "{\"d\"}", "{\"e\"}"), List.of("{\"a\"}", "{\"b\"}", "{\"c\"}", "{\"d\"}")));
+    }
+
+    private static AiChatMessage message(String role, String content) {
+        return AiChatMessage.builder().role(role).content(content).build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.snzh.ai;
+
+import com.snzh.ai.domain.entity.AiKnowledgeDoc;
+import com.snzh.ai.domain.properties.AiProperties;
+import com.snzh.ai.knowledge.KnowledgeVectorIndex;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author haibara
+ * @description 知识库向量索引的增量更新与持久化：内容不变不重新向量化，修改只向量化变化的分段，
+ * 重新加载索引文件后无需向量化（使用计数的假嵌入模型，不依赖Spring容器）
+ * @since 2025/10/5
+ */
+@Slf4j
+public class KnowledgeVectorIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testIncrementalIndexAndReload() {
+        AiProperties aiProperties = new AiProperties();
+        aiProperties.getKnowledge().setIndexFile(tempDir.resolve("knowledge-index.json").toString());
+        aiProperties.getKnowledge().setSegmentSize(40);
+        aiProperties.getKnowledge().setSegmentOverlap(0);
+        CountingEmbeddingModel model = new CountingEmbeddingModel();
+
+        AiKnowledgeDoc doc = AiKnowledgeDoc.builder().id(1L).docName("开放时间").status(1)
+                .content("景区全年开放，旺季开放时间为早上七点到晚上七点。\n\n淡季开放时间为早上八点到下午六点。\n\n"
+                        + "门票当日有效，出园后再次入园需重新购票。")
+                .build();
+
+        KnowledgeVectorIndex index = new KnowledgeVectorIndex(model, aiProperties);
+        index.load();
+        int first = index.sync(List.of(doc));
+        Assertions.assertTrue(first > 1);
+        Assertions.assertEquals(first, model.count.get());
+
+        // 内容不变，不重新向量化
+        Assertions.assertEquals(0, index.sync(List.of(doc)));
+        Assertions.assertEquals(first, model.count.get());
+
+        // 只修改最后一段
+        doc.setContent(doc.getContent().replace("需重新购票", "需出示门票"));
+        int changed = index.upsert(doc);
+        log.info("首次向量化{}个分段，修改一段后重新向量化{}个分段", first, changed);
+        Assertions.assertTrue(changed >= 1 && changed < first);
+
+        // 重新加载索引文件，不再向量化
+        int before = model.count.get();
+        KnowledgeVectorIndex reloaded = new KnowledgeVectorIndex(model, aiProperties);
+        reloaded.load();
+        Assertions.assertEquals(0, reloaded.sync(List.of(doc)));
+        Assertions.assertEquals(before, model.count.get());
+        Assertions.assertFalse(reloaded.findRelevant(CountingEmbeddingModel.vector("门票当日有效"), 10, 0).isEmpty());
+
+        // 停用后移出索引
+        reloaded.remove(List.of(1L));
+        Assertions.assertTrue(reloaded.findRelevant(CountingEmbeddingModel.vector("门票当日有效"), 10, 0).isEmpty());
+    }
+
+    @Test
+    public void testRebuildOnRenameAndSettingsChange() throws Exception {
+        Path indexFile = tempDir.resolve("knowledge-index.json");
+        AiProperties aiProperties = new AiProperties();
+        aiProperties.getKnowledge().setIndexFile(indexFile.toString());
+        aiProperties.getKnowledge().setSegmentSize(40);
+        aiProperties.getKnowledge().setSegmentOverlap(0);
+        CountingEmbeddingModel model = new CountingEmbeddingModel();
+
+        AiKnowledgeDoc doc = AiKnowledgeDoc.builder().id(1L).docName("购票须知").status(1)
+                .content("儿童身高一米二以下免票。\n\n六十五岁以上老人凭身份证免票。")
+                .build();
+        AiKnowledgeDoc empty = AiKnowledgeDoc.builder().id(2L).docName("待补充").status(1).content("").build();
+
+        KnowledgeVectorIndex index = new KnowledgeVectorIndex(model, aiProperties);
+        index.load();
+        int first = index.sync(List.of(doc, empty));
+        Assertions.assertTrue(first > 0);
+
+        // 只改名称，分段元数据随之更新
+        doc.setDocName("优惠政策");
+        Assertions.assertEquals(first, index.upsert(doc));
+
+        // 没有分段的文档停用后也写入索引文件
+        String before = Files.readString(indexFile);
+        index.remove(List.of(2L));
+        Assertions.assertNotEquals(before, Files.readString(indexFile));
+
+        // 分段参数变化后重新加载，整体重建
+        aiProperties.getKnowledge().setSegmentSize(20);
+        KnowledgeVectorIndex resized = new KnowledgeVectorIndex(model, aiProperties);
+        resized.load();
+        Assertions.assertTrue(resized.sync(List.of(doc)) > 0);
+    }
+
+    /**
+     * 按文字生成确定向量并记录向量化的分段数
+     */
+    private static class CountingEmbeddingModel implements EmbeddingModel {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Response<List<Embedding>> embedAll(List<TextSegment> segments) {
+            count.addAndGet(segments.size());
+            return Response.from(segments.stream().map(segment -> vector(segment.text())).toList());
+        }
+
+        private static Embedding vector(String text) {
+            float[] vector = new float[8];
+            for (int i = 0; i < text.length(); i++) {
+                vector[i % vector.length] += text.charAt(i) % 97;
+            }
+            return Embedding.from(vector);
+        }
+    }
+}
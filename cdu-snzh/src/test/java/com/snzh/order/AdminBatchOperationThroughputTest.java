@@ -0,0 +1,97 @@
+package com.snzh.order;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.snzh.constants.BusinessConst;
+import com.snzh.domain.dto.BatchOperationDTO;
+import com.snzh.domain.entity.Order;
+import com.snzh.enums.OrderStatusEnum;
+import com.snzh.enums.OrderTypeEnum;
+import com.snzh.generator.OrderNoGenerator;
+import com.snzh.service.IOrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author haibara
+ * @description 管理端批量操作吞吐量测试
+ * @since 2025/10/2
+ *
+ * 使用说明：
+ * 1. 需要连接开发库与Redis
+ * 2. 插入非门票类型的待支付订单（不涉及库存与销量），批量取消后统计吞吐量
+ * 3. 测试结束后删除插入的订单
+ */
+@Slf4j
+@SpringBootTest
+public class AdminBatchOperationThroughputTest {
+
+    /** 测试订单使用的用户ID，避免与真实用户数据混淆 */
+    private static final long TEST_USER_ID = -10_000L;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private OrderNoGenerator orderNoGenerator;
+
+    @Test
+    public void testCancelThroughput1k() {
+        runCancelBatch(1_000);
+    }
+
+    @Test
+    public void testCancelThroughput10k() {
+        runCancelBatch(10_000);
+    }
+
+    private void runCancelBatch(int size) {
+        List<Long> orderIds = insertPendingOrders(size);
+        try {
+            BatchOperationDTO dto = new BatchOperationDTO();
+            dto.setOrderIds(orderIds);
+            dto.setOperation(BusinessConst.BatchOperation.CANCEL);
+            dto.setReason("批量操作吞吐量测试");
+
+            long start = System.currentTimeMillis();
+            Map<Long, Boolean> result = orderService.adminBatchOperation(dto);
+            long elapsed = Math.max(System.currentTimeMillis() - start, 1);
+            log.info("批量取消{}条订单，耗时：{}ms，吞吐量：{}条/s", size, elapsed, size * 1000L / elapsed);
+
+            Assertions.assertEquals(size, result.size());
+            Assertions.assertTrue(result.values().stream().allMatch(Boolean::booleanValue));
+            Assertions.assertEquals(size, orderService.count(Wrappers.lambdaQuery(Order.class)
+                    .eq(Order::getUserId, TEST_USER_ID)
+                    .eq(Order::getOrderStatus, OrderStatusEnum.CANCELLED.getCode())));
+        } finally {
+            orderService.remove(Wrappers.lambdaQuery(Order.class).eq(Order::getUserId, TEST_USER_ID));
+        }
+    }
+
+    private List<Long> insertPendingOrders(int size) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Order> orders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            orders.add(Order.builder()
+                    .orderNo(orderNoGenerator.nextOrderNo())
+                    .userId(TEST_USER_ID)
+                    .orderType(OrderTypeEnum.ACCOMMODATION.getCode())
+                    .visitDate(LocalDate.now().plusDays(1))
+                    .totalAmount(BigDecimal.ONE)
+                    .orderStatus(OrderStatusEnum.PENDING.getCode())
+                    .expireTime(now.plusMinutes(30))
+                    .build());
+        }
+        orderService.saveBatch(orders, BusinessConst.Limit.BULK_TRANSITION_BATCH_SIZE);
+        return orders.stream().map(Order::getId).toList();
+    }
+}
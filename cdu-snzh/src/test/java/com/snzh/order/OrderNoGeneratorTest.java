@@ -0,0 +1,134 @@
+package com.snzh.order;
+
+import com.snzh.generator.RedisSegmentOrderNoGenerator;
+import com.snzh.generator.SnowflakeOrderNoGenerator;
+import com.snzh.redis.RedisCache;
+import com.snzh.redis.RedisKeyBuild;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+/**
+ * @author haibara
+ * @description 订单号生成器唯一性与吞吐量测试（不依赖Spring容器，Redis使用内存计数器模拟）
+ * @since 2025/10/2
+ */
+@Slf4j
+public class OrderNoGeneratorTest {
+
+    private static final int THREADS = 16;
+    private static final int IDS_PER_THREAD = 250_000;
+
+    @Test
+    public void testSnowflakeNoCollisionUnderContention() throws Exception {
+        SnowflakeOrderNoGenerator generator = new SnowflakeOrderNoGenerator(1);
+        assertUniqueAndMonotonic("雪花算法", generator::nextId);
+    }
+
+    @Test
+    public void testSnowflakeMultiWorkerNoCollision() {
+        SnowflakeOrderNoGenerator workerA = new SnowflakeOrderNoGenerator(1);
+        SnowflakeOrderNoGenerator workerB = new SnowflakeOrderNoGenerator(2);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 500_000; i++) {
+            Assertions.assertTrue(ids.add(workerA.nextId()));
+            Assertions.assertTrue(ids.add(workerB.nextId()));
+        }
+    }
+
+    @Test
+    public void testSnowflakeOrderNoFormat() {
+        String orderNo = new SnowflakeOrderNoGenerator(SnowflakeOrderNoGenerator.MAX_WORKER_ID).nextOrderNo();
+        Assertions.assertTrue(orderNo.startsWith("SNZH_ORDER"));
+        Assertions.assertEquals(29, orderNo.length());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeOrderNoGenerator(SnowflakeOrderNoGenerator.MAX_WORKER_ID + 1));
+    }
+
+    @Test
+    public void testRedisSegmentNoCollisionAcrossNodes() throws Exception {
+        AtomicLong counter = new AtomicLong();
+        AtomicLong roundTrips = new AtomicLong();
+        RedisCache redisCache = Mockito.mock(RedisCache.class);
+        Mockito.when(redisCache.incrBy(any(RedisKeyBuild.class), anyLong())).thenAnswer(invocation -> {
+            roundTrips.incrementAndGet();
+            return counter.addAndGet(invocation.getArgument(1, Long.class));
+        });
+
+        // 两个生成器共享同一个计数器，模拟两个节点
+        RedisSegmentOrderNoGenerator nodeA = new RedisSegmentOrderNoGenerator(redisCache, 1000);
+        RedisSegmentOrderNoGenerator nodeB = new RedisSegmentOrderNoGenerator(redisCache, 1000);
+        AtomicLong turn = new AtomicLong();
+        assertUniqueAndMonotonic("Redis号段",
+                () -> (turn.getAndIncrement() & 1) == 0 ? nodeA.nextSequence() : nodeB.nextSequence(), false);
+
+        long total = (long) THREADS * IDS_PER_THREAD;
+        log.info("Redis号段模式生成{}个序号，访问Redis{}次", total, roundTrips.get());
+        Assertions.assertTrue(roundTrips.get() <= total / 1000 + THREADS * 2L);
+
+        String orderNo = nodeA.nextOrderNo();
+        Assertions.assertTrue(orderNo.startsWith("SNZH_ORDER"));
+        Assertions.assertEquals(29, orderNo.length());
+    }
+
+    private void assertUniqueAndMonotonic(String name, LongSupplier supplier) throws Exception {
+        assertUniqueAndMonotonic(name, supplier, true);
+    }
+
+    private void assertUniqueAndMonotonic(String name, LongSupplier supplier, boolean checkMonotonic) throws Exception {
+        Set<Long> ids = ConcurrentHashMap.newKeySet(THREADS * IDS_PER_THREAD);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    long[] generated = new long[IDS_PER_THREAD];
+                    for (int j = 0; j < IDS_PER_THREAD; j++) {
+                        generated[j] = supplier.getAsLong();
+                    }
+                    return generated;
+                }));
+            }
+            long start = System.nanoTime();
+            startGate.countDown();
+            List<long[]> results = new ArrayList<>();
+            for (Future<long[]> future : futures) {
+                results.add(future.get(2, TimeUnit.MINUTES));
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            long total = (long) THREADS * IDS_PER_THREAD;
+            log.info("{}：{}个线程生成{}个ID，耗时：{}ms，吞吐量：{}/s",
+                    name, THREADS, total, elapsedNanos / 1_000_000, total * 1_000_000_000L / Math.max(elapsedNanos, 1));
+
+            for (long[] generated : results) {
+                for (int j = 0; j < generated.length; j++) {
+                    Assertions.assertTrue(ids.add(generated[j]), name + "出现重复ID：" + generated[j]);
+                    if (checkMonotonic && j > 0) {
+                        Assertions.assertTrue(generated[j] > generated[j - 1], name + "同一线程内ID未递增");
+                    }
+                }
+            }
+            Assertions.assertEquals(total, ids.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.snzh.order;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.snzh.domain.entity.Order;
+import com.snzh.domain.vo.OrderTrendVO;
+import com.snzh.enums.OrderStatusEnum;
+import com.snzh.mapper.OrderMapper;
+import com.snzh.service.IOrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * @author haibara
+ * @description 订单趋势统计内存/耗时对比：数据库分组聚合 vs 加载全部订单到内存分组（原实现）
+ * @since 2025/10/2
+ *
+ * 使用说明：
+ * 1. 需要连接开发库，订单越多对比越明显，可先用压测数据填充 orders 表
+ * 2. 分配字节数取自当前线程的累计分配量，不受其它线程与GC时机影响
+ */
+@Slf4j
+@SpringBootTest
+public class OrderTrendBenchmarkTest {
+
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Test
+    public void compareTrendImplementations() {
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusYears(1);
+
+        List<OrderTrendVO> legacy = measure("内存分组（原实现）", () -> legacyOrderTrend(startDate, endDate));
+        List<OrderTrendVO> grouped = measure("数据库分组聚合", () -> orderService.getOrderTrend(startDate, endDate));
+
+        Assertions.assertEquals(legacy.size(), grouped.size());
+        for (int i = 0; i < legacy.size(); i++) {
+            OrderTrendVO expected = legacy.get(i);
+            OrderTrendVO actual = grouped.get(i);
+            Assertions.assertEquals(expected.getDate(), actual.getDate());
+            Assertions.assertEquals(expected.getOrderCount(), actual.getOrderCount(), expected.getDate());
+            Assertions.assertEquals(expected.getPaidCount(), actual.getPaidCount(), expected.getDate());
+            Assertions.assertEquals(0, expected.getRevenue().compareTo(actual.getRevenue()), expected.getDate());
+        }
+    }
+
+    private <T> T measure(String name, Supplier<T> action) {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // 预热一次，排除首次加载类与建立连接的开销
+        T result = action.get();
+        long totalNanos = 0;
+        long totalBytes = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long bytesBefore = threadBean.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            result = action.get();
+            totalNanos += System.nanoTime() - start;
+            totalBytes += threadBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+        }
+        log.info("{}：平均耗时 {}ms，平均分配 {}KB", name, totalNanos / ROUNDS / 1_000_000, totalBytes / ROUNDS / 1024);
+        return result;
+    }
+
+    /**
+     * 原实现：查出区间内所有订单后在内存中按日期分组
+     */
+    private List<OrderTrendVO> legacyOrderTrend(LocalDate startDate, LocalDate endDate) {
+        List<Order> orders = orderMapper.selectList(
+                Wrappers.lambdaQuery(Order.class)
+                        .ge(Order::getCreateTime, startDate.atStartOfDay())
+                        .le(Order::getCreateTime, endDate.atTime(23, 59, 59))
+        );
+        Map<LocalDate, List<Order>> dateOrderMap = orders.stream()
+                .collect(Collectors.groupingBy(order -> order.getCreateTime().toLocalDate()));
+
+        List<OrderTrendVO> trendList = new ArrayList<>();
+        LocalDate currentDate = startDate;
+        while (!currentDate.isAfter(endDate)) {
+            List<Order> dayOrders = dateOrderMap.getOrDefault(currentDate, Collections.emptyList());
+            List<Order> paidOrders = dayOrders.stream()
+                    .filter(o -> o.getOrderStatus().equals(OrderStatusEnum.PAID.getCode()) ||
+                            o.getOrderStatus().equals(OrderStatusEnum.COMPLETED.getCode()))
+                    .toList();
+            trendList.add(OrderTrendVO.builder()
+                    .date(currentDate.toString())
+                    .orderCount(dayOrders.size())
+                    .paidCount(paidOrders.size())
+                    .revenue(paidOrders.stream().map(Order::getTotalAmount).reduce(BigDecimal.ZERO, BigDecimal::add))
+                    .build());
+            currentDate = currentDate.plusDays(1);
+        }
+        return trendList;
+    }
+}
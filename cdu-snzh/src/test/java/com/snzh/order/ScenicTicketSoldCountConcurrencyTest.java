@@ -0,0 +1,107 @@
+package com.snzh.order;
+
+import com.snzh.domain.entity.ScenicTicket;
+import com.snzh.mapper.ScenicTicketMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author haibara
+ * @description 门票销量批量原子更新并发测试
+ * @since 2025/10/2
+ *
+ * 使用说明：
+ * 1. 需要连接开发库，且 scenic_ticket 表中存在 id 为 1、2 的门票（初始化脚本自带）
+ * 2. 测试结束后会把销量减回原值
+ */
+@Slf4j
+@SpringBootTest
+public class ScenicTicketSoldCountConcurrencyTest {
+
+    private static final long TICKET_A = 1L;
+    private static final long TICKET_B = 2L;
+    private static final int THREADS = 32;
+    private static final int ROUNDS_PER_THREAD = 50;
+
+    @Autowired
+    private ScenicTicketMapper scenicTicketMapper;
+
+    @Test
+    public void testConcurrentIncrementLosesNothing() throws Exception {
+        int beforeA = soldCount(TICKET_A);
+        int beforeB = soldCount(TICKET_B);
+
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        deltas.put(TICKET_A, 1);
+        deltas.put(TICKET_B, 2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    for (int round = 0; round < ROUNDS_PER_THREAD; round++) {
+                        scenicTicketMapper.batchIncrementSoldCount(deltas);
+                    }
+                    return null;
+                }));
+            }
+            long start = System.currentTimeMillis();
+            startGate.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            log.info("{}个线程共执行{}次批量更新，耗时：{}ms",
+                    THREADS, THREADS * ROUNDS_PER_THREAD, System.currentTimeMillis() - start);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int total = THREADS * ROUNDS_PER_THREAD;
+        try {
+            Assertions.assertEquals(beforeA + total, soldCount(TICKET_A));
+            Assertions.assertEquals(beforeB + total * 2, soldCount(TICKET_B));
+        } finally {
+            Map<Long, Integer> restore = new LinkedHashMap<>();
+            restore.put(TICKET_A, -total);
+            restore.put(TICKET_B, -total * 2);
+            scenicTicketMapper.batchIncrementSoldCount(restore);
+        }
+    }
+
+    @Test
+    public void testDecrementNeverBelowZero() {
+        int before = soldCount(TICKET_A);
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        deltas.put(TICKET_A, -(before + 10));
+        try {
+            scenicTicketMapper.batchIncrementSoldCount(deltas);
+            Assertions.assertEquals(0, soldCount(TICKET_A));
+        } finally {
+            Map<Long, Integer> restore = new LinkedHashMap<>();
+            restore.put(TICKET_A, before);
+            scenicTicketMapper.batchIncrementSoldCount(restore);
+        }
+    }
+
+    private int soldCount(Long ticketId) {
+        ScenicTicket ticket = scenicTicketMapper.selectById(ticketId);
+        Assertions.assertNotNull(ticket, "门票不存在：" + ticketId);
+        return ticket.getSoldCount() == null ? 0 : ticket.getSoldCount();
+    }
+}
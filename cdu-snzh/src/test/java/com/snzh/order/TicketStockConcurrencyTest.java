@@ -0,0 +1,125 @@
+package com.snzh.order;
+
+import com.snzh.domain.entity.ScenicTicket;
+import com.snzh.enums.RedisKeyManage;
+import com.snzh.exceptions.OrderStatusException;
+import com.snzh.redis.RedisCache;
+import com.snzh.redis.RedisKeyBuild;
+import com.snzh.service.ITicketStockService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author haibara
+ * @description 门票每日库存并发预占测试：并发下单不超卖，容量调小后归还不超过新容量，改为不限量后删除库存key
+ * @since 2025/10/2
+ *
+ * 使用说明：
+ * 1. 需要连接开发环境的Redis，测试只操作远期游玩日期的库存key，不影响真实订单
+ * 2. 测试结束后会删除本次产生的库存key与预占记录
+ */
+@Slf4j
+@SpringBootTest
+public class TicketStockConcurrencyTest {
+
+    private static final long TICKET_ID = 1L;
+    private static final int DAILY_STOCK = 100;
+    private static final int SHRUNK_STOCK = 50;
+    private static final int THREADS = 32;
+    private static final int ORDERS = 300;
+
+    @Autowired
+    private ITicketStockService ticketStockService;
+
+    @Autowired
+    private RedisCache redisCache;
+
+    @Test
+    public void testConcurrentReserveNeverOversell() throws Exception {
+        LocalDate visitDate = LocalDate.now().plusDays(300);
+        String prefix = "TEST" + System.currentTimeMillis();
+        RedisKeyBuild stockKey = RedisKeyBuild.createKey(RedisKeyManage.TICKET_STOCK, TICKET_ID, visitDate);
+        RedisKeyBuild datesKey = RedisKeyBuild.createKey(RedisKeyManage.TICKET_STOCK_DATES, TICKET_ID);
+        ScenicTicket ticket = new ScenicTicket();
+        ticket.setId(TICKET_ID);
+        ticket.setDailyStock(DAILY_STOCK);
+
+        ConcurrentLinkedQueue<String> reserved = new ConcurrentLinkedQueue<>();
+        AtomicInteger soldOut = new AtomicInteger();
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    int i;
+                    while ((i = next.getAndIncrement()) < ORDERS) {
+                        String orderNo = prefix + i;
+                        try {
+                            ticketStockService.reserve(orderNo, visitDate, List.of(ticket), Map.of(TICKET_ID, 1));
+                            reserved.add(orderNo);
+                        } catch (OrderStatusException e) {
+                            soldOut.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            log.info("并发预占完成，成功：{}，库存不足：{}", reserved.size(), soldOut.get());
+
+            Assertions.assertEquals(DAILY_STOCK, reserved.size());
+            Assertions.assertEquals(ORDERS - DAILY_STOCK, soldOut.get());
+            Assertions.assertEquals(0L, stock(stockKey, "available"));
+            Assertions.assertEquals(DAILY_STOCK, stock(stockKey, "reserved"));
+
+            // 容量调小后全部归还，可售数量不能超过新容量
+            ticketStockService.resize(TICKET_ID, SHRUNK_STOCK);
+            Assertions.assertEquals(0L, stock(stockKey, "available"));
+            ticketStockService.releaseAll(new ArrayList<>(reserved));
+            Assertions.assertEquals(SHRUNK_STOCK, stock(stockKey, "capacity"));
+            Assertions.assertEquals(SHRUNK_STOCK, stock(stockKey, "available"));
+            Assertions.assertEquals(0L, stock(stockKey, "reserved"));
+
+            // 改为不限量后删除库存key
+            ticketStockService.resize(TICKET_ID, null);
+            Assertions.assertFalse(redisCache.hasKey(stockKey));
+            Assertions.assertFalse(redisCache.hasKey(datesKey));
+        } finally {
+            pool.shutdownNow();
+            redisCache.del(stockKey);
+            redisCache.removeForSet(datesKey, List.of(visitDate.toString()));
+            List<RedisKeyBuild> orderKeys = new ArrayList<>();
+            for (int i = 0; i < ORDERS; i++) {
+                orderKeys.add(RedisKeyBuild.createKey(RedisKeyManage.TICKET_STOCK_ORDER, prefix + i));
+            }
+            redisCache.del(orderKeys);
+        }
+    }
+
+    private long stock(RedisKeyBuild stockKey, String field) {
+        Long value = redisCache.getForHash(stockKey, field, Long.class);
+        Assertions.assertNotNull(value, "库存字段不存在：" + field);
+        return value;
+    }
+}
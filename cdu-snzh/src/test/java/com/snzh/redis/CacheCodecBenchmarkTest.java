@@ -0,0 +1,90 @@
+package com.snzh.redis;
+
+import com.snzh.domain.vo.ScenicSpotVO;
+import com.snzh.domain.vo.ScenicTicketVO;
+import com.snzh.enums.CacheCodecType;
+import com.snzh.redis.codec.CacheCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author haibara
+ * @description 缓存编解码体积与耗时对比（不依赖Spring容器与Redis）
+ * @since 2025/10/2
+ */
+@Slf4j
+public class CacheCodecBenchmarkTest {
+
+    private static final int SPOT_COUNT = 300;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int ROUNDS = 1_000;
+
+    @Test
+    public void testCodecSizeAndSpeed() {
+        List<ScenicSpotVO> spots = buildSpots();
+        Map<CacheCodecType, Integer> sizes = new EnumMap<>(CacheCodecType.class);
+
+        for (CacheCodecType type : CacheCodecType.values()) {
+            CacheCodec codec = type.getCodec();
+            byte[] bytes = codec.encode(spots);
+            Assertions.assertEquals(spots, codec.decodeList(bytes, ScenicSpotVO.class), type + " 编解码结果不一致");
+            sizes.put(type, bytes.length);
+
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                codec.decodeList(codec.encode(spots), ScenicSpotVO.class);
+            }
+            long encodeNanos = 0;
+            long decodeNanos = 0;
+            for (int i = 0; i < ROUNDS; i++) {
+                long start = System.nanoTime();
+                bytes = codec.encode(spots);
+                encodeNanos += System.nanoTime() - start;
+                start = System.nanoTime();
+                codec.decodeList(bytes, ScenicSpotVO.class);
+                decodeNanos += System.nanoTime() - start;
+            }
+            log.info("{}：{}个景点，体积{}字节，编码平均{}μs，解码平均{}μs",
+                    type, SPOT_COUNT, bytes.length, encodeNanos / ROUNDS / 1000, decodeNanos / ROUNDS / 1000);
+        }
+
+        Assertions.assertTrue(sizes.get(CacheCodecType.JSONB) < sizes.get(CacheCodecType.JSON));
+        Assertions.assertTrue(sizes.get(CacheCodecType.JSONB_DEFLATE) < sizes.get(CacheCodecType.JSONB));
+    }
+
+    @Test
+    public void testSmallValueNotCompressed() {
+        CacheCodec codec = CacheCodecType.JSONB_DEFLATE.getCodec();
+        ScenicTicketVO ticket = new ScenicTicketVO();
+        ticket.setId(1L);
+        ticket.setPrice(new BigDecimal("80.00"));
+
+        byte[] bytes = codec.encode(ticket);
+        Assertions.assertEquals(0, bytes[0]);
+        Assertions.assertEquals(ticket, codec.decode(bytes, ScenicTicketVO.class));
+    }
+
+    private List<ScenicSpotVO> buildSpots() {
+        List<ScenicSpotVO> spots = new ArrayList<>(SPOT_COUNT);
+        for (int i = 0; i < SPOT_COUNT; i++) {
+            spots.add(ScenicSpotVO.builder()
+                    .id((long) i)
+                    .name("景点" + i)
+                    .description("蜀南竹海景区内的特色景点，竹林茂密，四季常青，适合徒步与观光。编号" + i)
+                    .longitude(String.valueOf(104.9 + i / 10000.0))
+                    .latitude(String.valueOf(28.4 + i / 10000.0))
+                    .poiId("B0FFG" + (100000 + i))
+                    .address("四川省宜宾市长宁县蜀南竹海景区" + i + "号")
+                    .model3dUrl("https://static.example.com/model/" + i + ".glb")
+                    .displayOrder(i)
+                    .build());
+        }
+        return spots;
+    }
+}
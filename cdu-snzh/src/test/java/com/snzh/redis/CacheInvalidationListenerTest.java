@@ -0,0 +1,93 @@
+package com.snzh.redis;
+
+import com.snzh.domain.event.OrderChangeEvent;
+import com.snzh.domain.event.ScenicTicketChangeEvent;
+import com.snzh.domain.properties.CacheInvalidationProperties;
+import com.snzh.enums.RedisKeyManage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * @author haibara
+ * @description 数据变更事件缓存清除测试（不依赖Spring容器，手动模拟事务同步）
+ * @since 2025/10/2
+ */
+public class CacheInvalidationListenerTest {
+
+    private final RedisCache redisCache = Mockito.mock(RedisCache.class);
+
+    private final CacheInvalidationListener listener =
+            new CacheInvalidationListener(redisCache, new CacheInvalidationProperties());
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(listener);
+        listener.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDeletesOnceAfterCommitWithDedupedKeys() {
+        TransactionSynchronizationManager.initSynchronization();
+        listener.onDataChange(OrderChangeEvent.of("SN001"));
+        listener.onDataChange(new ScenicTicketChangeEvent(List.of(1L, 2L), List.of(10L)));
+        listener.onDataChange(new ScenicTicketChangeEvent(List.of(2L), List.of(10L)));
+        Mockito.verify(redisCache, Mockito.never()).del(any(Collection.class));
+
+        completeTransaction(true);
+
+        ArgumentCaptor<Collection<RedisKeyBuild>> captor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(redisCache, Mockito.times(1)).del(captor.capture());
+        Assertions.assertEquals(Set.of(
+                RedisKeyBuild.createKey(RedisKeyManage.ORDER_DETAIL, "SN001"),
+                RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_DETAIL, 1L),
+                RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_DETAIL, 2L),
+                RedisKeyBuild.createKey(RedisKeyManage.SCENIC_TICKET_FOR_SPOT, 10L)), Set.copyOf(captor.getValue()));
+        Assertions.assertEquals(4, captor.getValue().size());
+        Assertions.assertNull(TransactionSynchronizationManager.getResource(listener));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRollbackDoesNotDelete() {
+        TransactionSynchronizationManager.initSynchronization();
+        listener.onDataChange(OrderChangeEvent.of("SN002"));
+
+        completeTransaction(false);
+
+        Mockito.verify(redisCache, Mockito.never()).del(any(Collection.class));
+        Assertions.assertNull(TransactionSynchronizationManager.getResource(listener));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDeletesImmediatelyWithoutTransaction() {
+        listener.onDataChange(OrderChangeEvent.of("SN003"));
+
+        Mockito.verify(redisCache, Mockito.times(1)).del(any(Collection.class));
+    }
+
+    private static void completeTransaction(boolean commit) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (commit) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        int status = commit ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK;
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -0,0 +1,103 @@
+package com.snzh.redis;
+
+import com.snzh.enums.RedisKeyManage;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author haibara
+ * @description 批量读写与逐个读写的往返耗时对比
+ * @since 2025/10/2
+ *
+ * 使用说明：
+ * 1. 需要连接Redis，使用 key:%s 测试key，结束后删除
+ * 2. 逐个读写需要N次往返，MGET与管道写入只需1次往返，耗时差距随网络延迟放大
+ */
+@Slf4j
+@SpringBootTest
+public class RedisBulkBenchmarkTest {
+
+    private static final int KEY_COUNT = 1_000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private RedisCache redisCache;
+
+    @Test
+    public void testBulkVersusSingleKey() {
+        List<RedisKeyBuild> keys = new ArrayList<>(KEY_COUNT);
+        Map<RedisKeyBuild, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            RedisKeyBuild key = RedisKeyBuild.createKey(RedisKeyManage.Key2, "bulk:" + i);
+            keys.add(key);
+            values.put(key, "value-" + i);
+        }
+
+        try {
+            long singleSet = 0;
+            long bulkSet = 0;
+            long singleGet = 0;
+            long bulkGet = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                values.forEach((key, value) -> redisCache.set(key, value, 60, TimeUnit.SECONDS));
+                singleSet += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                redisCache.multiSetWithTtl(values, 60, TimeUnit.SECONDS);
+                bulkSet += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                List<String> single = new ArrayList<>(KEY_COUNT);
+                for (RedisKeyBuild key : keys) {
+                    single.add(redisCache.get(key, String.class));
+                }
+                singleGet += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                List<String> bulk = redisCache.multiGet(keys, String.class);
+                bulkGet += System.nanoTime() - start;
+
+                Assertions.assertEquals(new ArrayList<>(values.values()), bulk);
+                Assertions.assertEquals(single, bulk);
+            }
+
+            log.info("{}个key，平均耗时：逐个SET {}ms，管道SET {}ms，逐个GET {}ms，MGET {}ms",
+                    KEY_COUNT,
+                    TimeUnit.NANOSECONDS.toMillis(singleSet / ROUNDS),
+                    TimeUnit.NANOSECONDS.toMillis(bulkSet / ROUNDS),
+                    TimeUnit.NANOSECONDS.toMillis(singleGet / ROUNDS),
+                    TimeUnit.NANOSECONDS.toMillis(bulkGet / ROUNDS));
+            Assertions.assertTrue(bulkGet < singleGet, "MGET应快于逐个GET");
+        } finally {
+            redisCache.del(keys);
+        }
+    }
+
+    @Test
+    public void testPipelinedResultsInOrder() {
+        RedisKeyBuild counter = RedisKeyBuild.createKey(RedisKeyManage.Key2, "pipeline:counter");
+        RedisKeyBuild value = RedisKeyBuild.createKey(RedisKeyManage.Key2, "pipeline:value");
+        try {
+            redisCache.set(value, "v", 60, TimeUnit.SECONDS);
+            List<Object> results = redisCache.pipelined(pipeline -> {
+                pipeline.incrBy(counter, 2);
+                pipeline.incrBy(counter, 3);
+                pipeline.get(value);
+                pipeline.expire(counter, 60, TimeUnit.SECONDS);
+            });
+            Assertions.assertEquals(List.of(2L, 5L, "v", true), results);
+        } finally {
+            redisCache.del(List.of(counter, value));
+        }
+    }
+}
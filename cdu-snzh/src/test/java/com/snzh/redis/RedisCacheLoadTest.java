@@ -0,0 +1,165 @@
+package com.snzh.redis;
+
+import com.snzh.enums.RedisKeyManage;
+import com.snzh.utils.CacheUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * @author haibara
+ * @description 缓存回源加载测试（不依赖Spring容器，Redis使用内存Map模拟）
+ * @since 2025/10/2
+ */
+public class RedisCacheLoadTest {
+
+    private static final int THREADS = 32;
+
+    private final Map<String, String> store = new ConcurrentHashMap<>();
+    private final Map<String, Long> ttls = new ConcurrentHashMap<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void testConcurrentMissesLoadOnce() throws Exception {
+        RedisCacheImpl redisCache = newRedisCache();
+        RedisKeyBuild key = RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_DETAIL, 1L);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<String>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    return redisCache.getOrLoad(key, String.class, () -> {
+                        loads.incrementAndGet();
+                        sleep(200);
+                        return "value";
+                    }, CacheLoadOptions.of(100, TimeUnit.SECONDS));
+                }));
+            }
+            startGate.countDown();
+            for (Future<String> future : futures) {
+                Assertions.assertEquals("value", future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1, meterRegistry.get("snzh.cache.load")
+                .tags("namespace", "SCENIC_SPOT_DETAIL", "result", "success").timer().count());
+        double gets = meterRegistry.get("snzh.cache.gets").tag("namespace", "SCENIC_SPOT_DETAIL").counters().stream()
+                .mapToDouble(Counter::count).sum();
+        Assertions.assertEquals(THREADS, gets);
+        long ttl = ttls.get(key.getRealKey());
+        Assertions.assertTrue(ttl >= 100 && ttl <= 110, "过期时间应在浮动范围内：" + ttl);
+    }
+
+    @Test
+    public void testMissingDataCachesNullMarker() {
+        RedisCacheImpl redisCache = newRedisCache();
+        RedisKeyBuild key = RedisKeyBuild.createKey(RedisKeyManage.ORDER_DETAIL, "NOT_EXIST");
+        AtomicInteger loads = new AtomicInteger();
+        CacheLoadOptions options = CacheLoadOptions.builder()
+                .ttl(30)
+                .timeUnit(TimeUnit.MINUTES)
+                .nullTtlSeconds(60)
+                .build();
+
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertNull(redisCache.getOrLoad(key, String.class, () -> {
+                loads.incrementAndGet();
+                return null;
+            }, options));
+        }
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(CacheUtil.NULL_VALUE, store.get(key.getRealKey()));
+        Assertions.assertEquals(options.getNullTtlSeconds(), ttls.get(key.getRealKey()));
+        Assertions.assertNull(redisCache.get(key, String.class));
+    }
+
+    @Test
+    public void testSupplierOverloadDoesNotCacheNull() {
+        RedisCacheImpl redisCache = newRedisCache();
+        RedisKeyBuild key = RedisKeyBuild.createKey(RedisKeyManage.ORDER_DETAIL, "NOT_EXIST");
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertNull(redisCache.get(key, String.class, () -> {
+                loads.incrementAndGet();
+                return null;
+            }, 30, TimeUnit.MINUTES));
+        }
+
+        Assertions.assertEquals(3, loads.get());
+        Assertions.assertFalse(store.containsKey(key.getRealKey()));
+    }
+
+    @Test
+    public void testLoaderExceptionSharedAndNotCached() {
+        RedisCacheImpl redisCache = newRedisCache();
+        RedisKeyBuild key = RedisKeyBuild.createKey(RedisKeyManage.FACILITY_TYPE_ALL);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> redisCache.getValueIsListOrLoad(key, String.class,
+                () -> {
+                    throw new IllegalStateException("db down");
+                }, CacheLoadOptions.of(100, TimeUnit.SECONDS)));
+        Assertions.assertFalse(store.containsKey(key.getRealKey()));
+
+        List<String> values = redisCache.getValueIsListOrLoad(key, String.class,
+                () -> List.of("a", "b"), CacheLoadOptions.of(100, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of("a", "b"), values);
+        Assertions.assertEquals(List.of("a", "b"), redisCache.getValueIsList(key, String.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisCacheImpl newRedisCache() {
+        StringRedisTemplate redisTemplate = Mockito.mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = Mockito.mock(ValueOperations.class);
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.get(anyString())).thenAnswer(invocation -> store.get(invocation.<String>getArgument(0)));
+        Mockito.doAnswer(invocation -> {
+            String realKey = invocation.getArgument(0);
+            store.put(realKey, invocation.getArgument(1));
+            ttls.put(realKey, invocation.<Long>getArgument(2));
+            return null;
+        }).when(valueOperations).set(anyString(), anyString(), anyLong(), eq(TimeUnit.SECONDS));
+        Mockito.doAnswer(invocation -> {
+            String realKey = invocation.getArgument(0);
+            store.put(realKey, invocation.getArgument(1));
+            ttls.put(realKey, TimeUnit.MINUTES.toSeconds(invocation.<Long>getArgument(2)));
+            return null;
+        }).when(valueOperations).set(anyString(), anyString(), anyLong(), eq(TimeUnit.MINUTES));
+        return new RedisCacheImpl(redisTemplate, new CacheMetrics(meterRegistry));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.snzh.redis;
+
+import com.snzh.enums.RedisKeyManage;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author haibara
+ * @description 预编译key模板与 String.format 构建key的结果一致性及耗时对比（不依赖Spring容器与Redis）
+ * @since 2025/10/2
+ */
+@Slf4j
+public class RedisKeyBuildBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 200_000;
+    private static final int ROUNDS = 2_000_000;
+
+    @Test
+    public void testSameKeyAsStringFormat() {
+        for (RedisKeyManage keyManage : RedisKeyManage.values()) {
+            String template = keyManage.getKey();
+            int placeholders = (template.length() - template.replace("%s", "").length()) / 2;
+            Object[] args = new Object[placeholders];
+            for (int i = 0; i < placeholders; i++) {
+                args[i] = "arg" + i;
+            }
+            Assertions.assertEquals(String.format(template, args),
+                    RedisKeyBuild.createKey(keyManage, args).getRealKey(), keyManage.name());
+        }
+
+        Assertions.assertEquals("order:detail:SN001", RedisKeyBuild.createKey(RedisKeyManage.ORDER_DETAIL, "SN001").getRealKey());
+        Assertions.assertEquals("user:login:42", RedisKeyBuild.createKey(RedisKeyManage.USER_LOGIN, 42L).getRealKey());
+        Assertions.assertEquals("user:login:null", RedisKeyBuild.createKey(RedisKeyManage.USER_LOGIN, (Long) null).getRealKey());
+        Assertions.assertEquals("ticket:stock:1:2025-10-02",
+                RedisKeyBuild.createKey(RedisKeyManage.TICKET_STOCK, 1L, "2025-10-02").getRealKey());
+        Assertions.assertSame(RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_LIST),
+                RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_LIST));
+    }
+
+    @Test
+    public void testPrecompiledFasterThanFormat() {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            formatKey(i);
+            RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_DETAIL, (long) i);
+        }
+
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            sink += formatKey(i).hashCode();
+        }
+        long formatNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            sink += RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_DETAIL, (long) i).hashCode();
+        }
+        long precompiledNanos = System.nanoTime() - start;
+
+        log.info("构建{}个key：String.format 平均{}ns，预编译模板平均{}ns（{}）",
+                ROUNDS, formatNanos / ROUNDS, precompiledNanos / ROUNDS, sink);
+        Assertions.assertTrue(precompiledNanos < formatNanos, "预编译模板应快于String.format");
+    }
+
+    private static RedisKeyBuild formatKey(long id) {
+        return new RedisKeyBuild(String.format(RedisKeyManage.SCENIC_SPOT_DETAIL.getKey(), id));
+    }
+}
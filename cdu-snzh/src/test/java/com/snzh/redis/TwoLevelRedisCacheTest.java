@@ -0,0 +1,90 @@
+package com.snzh.redis;
+
+import com.snzh.domain.properties.LocalCacheProperties;
+import com.snzh.enums.RedisKeyManage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * @author haibara
+ * @description 二级缓存失效测试：各写入方法清除本地缓存并广播，回源回填不广播（不依赖Spring容器，Redis使用内存Map模拟）
+ * @since 2025/10/2
+ */
+public class TwoLevelRedisCacheTest {
+
+    private static final String CHANNEL = "snzh:cache:invalidate";
+
+    private final Map<String, String> store = new ConcurrentHashMap<>();
+    private final StringRedisTemplate redisTemplate = Mockito.mock(StringRedisTemplate.class);
+
+    @Test
+    public void testLoaderFillDoesNotPublish() {
+        TwoLevelRedisCache redisCache = newRedisCache();
+        RedisKeyBuild key = RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_DETAIL, 1L);
+
+        Assertions.assertEquals("v1", redisCache.getOrLoad(key, String.class, () -> "v1",
+                CacheLoadOptions.of(100, TimeUnit.SECONDS)));
+        Assertions.assertEquals("v1", store.get(key.getRealKey()));
+        Mockito.verify(redisTemplate, Mockito.never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    public void testWritesEvictLocalAndPublish() {
+        TwoLevelRedisCache redisCache = newRedisCache();
+        RedisKeyBuild key = RedisKeyBuild.createKey(RedisKeyManage.SCENIC_SPOT_DETAIL, 2L);
+        store.put(key.getRealKey(), "1");
+        Assertions.assertEquals("1", redisCache.get(key, String.class));
+
+        // 绕过本节点修改Redis，本地缓存仍返回旧值
+        store.put(key.getRealKey(), "5");
+        Assertions.assertEquals("1", redisCache.get(key, String.class));
+
+        redisCache.incrBy(key, 1);
+        Assertions.assertEquals("6", redisCache.get(key, String.class));
+
+        redisCache.multiSet(Map.of(key, "7"));
+        Assertions.assertEquals("7", redisCache.get(key, String.class));
+
+        Mockito.verify(redisTemplate, Mockito.times(2)).convertAndSend(eq(CHANNEL), anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private TwoLevelRedisCache newRedisCache() {
+        ValueOperations<String, String> valueOperations = Mockito.mock(ValueOperations.class);
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.get(anyString())).thenAnswer(invocation -> store.get(invocation.<String>getArgument(0)));
+        Mockito.doAnswer(invocation -> {
+            store.put(invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(valueOperations).set(anyString(), anyString(), anyLong(), eq(TimeUnit.SECONDS));
+        Mockito.when(valueOperations.increment(anyString(), anyLong())).thenAnswer(invocation -> {
+            long value = Long.parseLong(store.getOrDefault(invocation.<String>getArgument(0), "0"))
+                    + invocation.<Long>getArgument(1);
+            store.put(invocation.getArgument(0), String.valueOf(value));
+            return value;
+        });
+        Mockito.doAnswer(invocation -> {
+            store.putAll(invocation.<Map<String, String>>getArgument(0));
+            return null;
+        }).when(valueOperations).multiSet(anyMap());
+
+        LocalCacheProperties properties = new LocalCacheProperties();
+        properties.setChannel(CHANNEL);
+        properties.setNamespaces(EnumSet.of(RedisKeyManage.SCENIC_SPOT_DETAIL));
+        return new TwoLevelRedisCache(redisTemplate, properties, new CacheMetrics(new SimpleMeterRegistry()));
+    }
+}
@@ -837,6 +837,23 @@ INSERT INTO `notification_record` (`id`, `user_id`, `openid`, `notification_type
 INSERT INTO `notification_record` (`id`, `user_id`, `openid`, `notification_type`, `template_id`, `title`, `content`, `send_status`, `fail_reason`, `business_id`, `send_time`, `status`, `create_time`, `update_time`) VALUES (6, 3, 'ov_-z7dzvqMs8LKlGbQfX_U0G91Q', 'ORDER_EXPIRE_REMINDER', '', '订单即将过期提醒', '[{\"name\":\"character_string1\",\"value\":\"SNZH_ORDER20251021105349661743\"},{\"name\":\"date2\",\"value\":\"2025-10-21 11:23:49\"},{\"name\":\"amount3\",\"value\":\"100.00元\"},{\"name\":\"thing4\",\"value\":\"您的订单即将过期，请尽快完成支付\"}]', 0, '错误代码：40037, 错误信息：template_id 不正确，微信原始报文：{\"errcode\":40037,\"errmsg\":\"invalid template_id rid: 68f6f988-048aa54d-444ab788\"}', 6, '2025-10-21 11:10:00', 1, '2025-10-21 11:10:01', '2025-10-21 11:10:00');
 COMMIT;
 
+-- ----------------------------
+-- Table structure for order_daily_stats
+-- ----------------------------
+DROP TABLE IF EXISTS `order_daily_stats`;
+CREATE TABLE `order_daily_stats` (
+  `stat_date` date NOT NULL COMMENT '统计日期（订单创建日期）',
+  `total_count` int NOT NULL DEFAULT '0' COMMENT '订单总数',
+  `pending_count` int NOT NULL DEFAULT '0' COMMENT '待支付订单数',
+  `paid_count` int NOT NULL DEFAULT '0' COMMENT '已支付订单数',
+  `cancelled_count` int NOT NULL DEFAULT '0' COMMENT '已取消订单数',
+  `refunded_count` int NOT NULL DEFAULT '0' COMMENT '已退款订单数',
+  `completed_count` int NOT NULL DEFAULT '0' COMMENT '已完成订单数',
+  `revenue` decimal(12,2) NOT NULL DEFAULT '0.00' COMMENT '销售额（已支付+已完成）',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`stat_date`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='订单每日统计汇总表（按订单当前状态，由定时任务增量重算）';
+
 -- ----------------------------
 -- Table structure for order_item
 -- ----------------------------
@@ -874,6 +891,11 @@ COMMIT;
 
 -- ----------------------------
 -- Table structure for orders
+-- 已有库升级（游标分页与汇总重算使用的索引）：
+-- ALTER TABLE `orders`
+--   ADD KEY `idx_update_time` (`update_time`) USING BTREE,
+--   ADD KEY `idx_user_create_time` (`user_id`, `create_time`, `id`) USING BTREE,
+--   ADD KEY `idx_status_create_time` (`order_status`, `create_time`, `id`) USING BTREE;
 -- ----------------------------
 DROP TABLE IF EXISTS `orders`;
 CREATE TABLE `orders` (
@@ -902,6 +924,9 @@ CREATE TABLE `orders` (
   KEY `idx_visit_date` (`visit_date`) USING BTREE,
   KEY `idx_create_time` (`create_time`) USING BTREE,
   KEY `idx_expire_time` (`expire_time`) USING BTREE,
+  KEY `idx_update_time` (`update_time`) USING BTREE,
+  KEY `idx_user_create_time` (`user_id`, `create_time`, `id`) USING BTREE,
+  KEY `idx_status_create_time` (`order_status`, `create_time`, `id`) USING BTREE,
   KEY `idx_order_no` (`order_no`) USING BTREE
 ) ENGINE=InnoDB AUTO_INCREMENT=7 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC COMMENT='订单表';
 
@@ -1064,6 +1089,7 @@ CREATE TABLE `scenic_ticket` (
   `ticket_type_id` bigint NOT NULL COMMENT '票种ID',
   `price` decimal(10,2) NOT NULL DEFAULT '0.00' COMMENT '价格',
   `sold_count` int DEFAULT '0' COMMENT '门票售出数量',
+  `daily_stock` int DEFAULT NULL COMMENT '每日库存，为空表示不限量',
   `status` tinyint(1) NOT NULL DEFAULT '1' COMMENT '状态：0=禁用, 1=正常',
   `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',